@@ -0,0 +1,46 @@
+package org.example.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准测试入口。
+ * <p>
+ * 在 JMH 标准命令行参数基础上默认启用 GC profiler（输出 gc.alloc.rate.norm 等分配率指标）
+ * 并将结果写入 jmh-result.json，便于版本间对比。其余参数（-p、-f、-wi 等）原样透传。
+ * </p>
+ * <pre>
+ * java -jar target/benchmarks.jar SingleLevel -p target=100000
+ * </pre>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+public final class AllocationBenchmarkRunner {
+
+    private AllocationBenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder builder = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class);
+        if (!commandLine.getResult().hasValue()) {
+            builder.result("jmh-result.json");
+        }
+        if (!commandLine.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        if (commandLine.getIncludes().isEmpty()) {
+            builder.include("org\\.example\\.benchmark\\..*Benchmark");
+        }
+        new Runner(builder.build()).run();
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 基准测试用合成客户矩阵。
+ * <p>
+ * 固定随机种子，保证同一组参数在不同版本间生成完全相同的输入，便于对比升级前后的结果。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+public final class AllocationMatrixFixtures {
+
+    public static final int GRADE_COUNT = 30;
+
+    /** 稀疏矩阵中档位客户数为0的概率 */
+    private static final double SPARSE_ZERO_RATIO = 0.7;
+
+    private AllocationMatrixFixtures() {
+    }
+
+    /**
+     * 客户数分布类型。
+     */
+    public enum Density {
+        /** 每个档位都有客户 */
+        DENSE,
+        /** 约70%档位客户数为0（每行至少保留一个非零档位） */
+        SPARSE
+    }
+
+    /**
+     * 生成区域客户矩阵 [regionCount][30]。
+     *
+     * @param regionCount     区域数
+     * @param density         分布类型
+     * @param hgCustomersZero 是否将 HG（索引0）列置为0，用于覆盖 HG 无客户的微调路径
+     * @param seed            随机种子
+     * @return 客户矩阵
+     */
+    public static BigDecimal[][] customerMatrix(int regionCount, Density density, boolean hgCustomersZero, long seed) {
+        Random random = new Random(seed);
+        BigDecimal[][] matrix = new BigDecimal[regionCount][GRADE_COUNT];
+        for (int r = 0; r < regionCount; r++) {
+            boolean anyPositive = false;
+            for (int g = 0; g < GRADE_COUNT; g++) {
+                long count;
+                if (hgCustomersZero && g == 0) {
+                    count = 0;
+                } else if (density == Density.SPARSE && random.nextDouble() < SPARSE_ZERO_RATIO) {
+                    count = 0;
+                } else {
+                    count = 1 + random.nextInt(200);
+                }
+                anyPositive |= count > 0;
+                matrix[r][g] = BigDecimal.valueOf(count);
+            }
+            if (!anyPositive) {
+                matrix[r][1 + random.nextInt(GRADE_COUNT - 1)] = BigDecimal.valueOf(1 + random.nextInt(200));
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * 生成区域名称列表（区域1..区域N）。
+     */
+    public static List<String> regions(int regionCount) {
+        List<String> regions = new ArrayList<>(regionCount);
+        for (int i = 1; i <= regionCount; i++) {
+            regions.add("区域" + i);
+        }
+        return regions;
+    }
+
+    /**
+     * 按区域序号轮流划分到 groupCount 个分组，返回区域 -> 分组的映射函数所需的分组名。
+     */
+    public static String groupOf(String region, int groupCount) {
+        int index = Integer.parseInt(region.substring(2));
+        return "分组" + (index % groupCount);
+    }
+
+    /**
+     * 将 BigDecimal 客户数行转换为 long[]。
+     */
+    public static long[] toLongRow(BigDecimal[] row) {
+        long[] values = new long[row.length];
+        for (int i = 0; i < row.length; i++) {
+            values[i] = row[i].longValueExact();
+        }
+        return values;
+    }
+}
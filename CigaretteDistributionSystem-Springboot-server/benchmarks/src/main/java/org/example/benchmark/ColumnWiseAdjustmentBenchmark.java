@@ -0,0 +1,69 @@
+package org.example.benchmark;
+
+import org.example.domain.model.valueobject.GradeRange;
+import org.example.domain.service.algorithm.impl.ColumnWiseAdjustmentServiceImpl;
+import org.example.infrastructure.algorithm.impl.DefaultColumnWiseAdjustmentAlgorithm;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多区域整列调整分配基准测试。
+ * <p>
+ * 稀疏矩阵下 HG 列的区域子集组合更多，候选方案4（HG 子集搜索）耗时占比更高。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ColumnWiseAdjustmentBenchmark {
+
+    @Param({"2", "50", "500", "2000"})
+    private int regionCount;
+
+    @Param({"1000", "100000", "10000000"})
+    private long target;
+
+    @Param({"DENSE", "SPARSE"})
+    private AllocationMatrixFixtures.Density density;
+
+    @Param({"D30-D1", "D25-D10"})
+    private String gradeRange;
+
+    private List<String> regions;
+    private BigDecimal[][] matrix;
+    private BigDecimal targetAmount;
+    private GradeRange range;
+
+    private DefaultColumnWiseAdjustmentAlgorithm infrastructureAlgorithm;
+    private ColumnWiseAdjustmentServiceImpl gradeRangeService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        regions = AllocationMatrixFixtures.regions(regionCount);
+        matrix = AllocationMatrixFixtures.customerMatrix(regionCount, density, false, 20261016L);
+        targetAmount = BigDecimal.valueOf(target);
+        String[] bounds = gradeRange.split("-");
+        range = GradeRange.of(bounds[0], bounds[1]);
+        infrastructureAlgorithm = new DefaultColumnWiseAdjustmentAlgorithm();
+        gradeRangeService = new ColumnWiseAdjustmentServiceImpl();
+    }
+
+    @Benchmark
+    public BigDecimal[][] infrastructureAdapter() {
+        return infrastructureAlgorithm.distribute(regions, matrix, targetAmount, null);
+    }
+
+    @Benchmark
+    public BigDecimal[][] gradeRangeDecimal() {
+        return gradeRangeService.distribute(regions, matrix, targetAmount, range, null);
+    }
+}
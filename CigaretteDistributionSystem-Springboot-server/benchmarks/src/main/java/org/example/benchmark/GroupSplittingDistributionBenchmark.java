@@ -0,0 +1,84 @@
+package org.example.benchmark;
+
+import org.example.domain.model.valueobject.GradeRange;
+import org.example.domain.service.algorithm.impl.ColumnWiseAdjustmentServiceImpl;
+import org.example.domain.service.algorithm.impl.GroupSplittingDistributionServiceImpl;
+import org.example.domain.service.algorithm.impl.SingleLevelDistributionServiceImpl;
+import org.example.infrastructure.algorithm.impl.DefaultColumnWiseAdjustmentAlgorithm;
+import org.example.infrastructure.algorithm.impl.DefaultGroupSplittingDistributionAlgorithm;
+import org.example.infrastructure.algorithm.impl.DefaultSingleLevelDistributionAlgorithm;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 分组拆分分配基准测试。
+ * <p>
+ * 区域按序号轮流划入 groupCount 个分组，分组比例按 1:2:...:groupCount 设置，
+ * 分组内部按区域数分别走单层分配或整列调整路径。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GroupSplittingDistributionBenchmark {
+
+    @Param({"2", "50", "500", "2000"})
+    private int regionCount;
+
+    @Param({"2", "4"})
+    private int groupCount;
+
+    @Param({"1000", "100000", "10000000"})
+    private long target;
+
+    @Param({"DENSE", "SPARSE"})
+    private AllocationMatrixFixtures.Density density;
+
+    private List<String> regions;
+    private BigDecimal[][] matrix;
+    private BigDecimal targetAmount;
+    private Function<String, String> grouping;
+    private Map<String, BigDecimal> groupRatios;
+
+    private DefaultGroupSplittingDistributionAlgorithm infrastructureAlgorithm;
+    private GroupSplittingDistributionServiceImpl gradeRangeService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        regions = AllocationMatrixFixtures.regions(regionCount);
+        matrix = AllocationMatrixFixtures.customerMatrix(regionCount, density, false, 20261016L);
+        targetAmount = BigDecimal.valueOf(target);
+        int groups = groupCount;
+        grouping = region -> AllocationMatrixFixtures.groupOf(region, groups);
+        groupRatios = new LinkedHashMap<>();
+        for (int g = 0; g < groupCount; g++) {
+            groupRatios.put("分组" + g, BigDecimal.valueOf(g + 1));
+        }
+        infrastructureAlgorithm = new DefaultGroupSplittingDistributionAlgorithm(
+                new DefaultSingleLevelDistributionAlgorithm(), new DefaultColumnWiseAdjustmentAlgorithm());
+        gradeRangeService = new GroupSplittingDistributionServiceImpl(
+                new SingleLevelDistributionServiceImpl(), new ColumnWiseAdjustmentServiceImpl());
+    }
+
+    @Benchmark
+    public BigDecimal[][] infrastructureAdapter() {
+        return infrastructureAlgorithm.distribute(regions, matrix, targetAmount, grouping, groupRatios);
+    }
+
+    @Benchmark
+    public BigDecimal[][] gradeRangeDecimal() {
+        return gradeRangeService.distribute(regions, matrix, targetAmount, GradeRange.full(), grouping, groupRatios);
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.benchmark;
+
+import org.example.application.service.coordinator.RegionCustomerStatisticsSnapshot;
+import org.example.application.service.prediction.impl.PredictionEditSupport;
+import org.example.domain.service.rule.EncodingRule;
+import org.example.domain.service.rule.impl.EncodingRuleImpl;
+import org.example.shared.constants.GradeConstants;
+import org.example.shared.util.ActualDeliveryCalculator;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 人工修改单条预测记录的延迟基准测试。
+ * <p>
+ * 一周内 cigaretteCount 支卷烟、每支 {@value #AREA_COUNT} 个投放区域。每次编辑依次执行：取回候选记录并逐行物化为
+ * {@code Map}（模拟 MyBatis 结果映射）→ 判断目标区域记录存在 → 从周快照取区域客户数 → 计算实际投放量 → 编码被修改的行。
+ * {@code fullWeekScan} 取回整周分区（原 {@code findAll} 路径），{@code perCigaretteIndexed} 只取回目标卷烟的记录
+ * （{@code findByCigCode}，按卷烟代码预先分组模拟索引查找），后者耗时不随周内卷烟数增长。
+ * 不包含数据库往返本身。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PredictionEditBenchmark {
+
+    private static final int AREA_COUNT = 16;
+    private static final EncodingRule ENCODING_RULE = new EncodingRuleImpl();
+
+    @Param({"100", "400", "1600"})
+    private int cigaretteCount;
+
+    private List<Map<String, Object>> weekRecords;
+    private Map<String, List<Map<String, Object>>> recordsByCigCode;
+    private RegionCustomerStatisticsSnapshot snapshot;
+
+    private String cigCode;
+    private String cigName;
+    private String deliveryArea;
+    private BigDecimal[] editedGrades;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> regions = AllocationMatrixFixtures.regions(AREA_COUNT);
+        BigDecimal[][] customers = AllocationMatrixFixtures.customerMatrix(
+                AREA_COUNT, AllocationMatrixFixtures.Density.DENSE, false, 20261016L);
+        snapshot = RegionCustomerStatisticsSnapshot.of(20261003, regions, Arrays.asList(customers), String::trim);
+
+        weekRecords = new ArrayList<>(cigaretteCount * AREA_COUNT);
+        recordsByCigCode = new HashMap<>(cigaretteCount * 2);
+        for (int c = 0; c < cigaretteCount; c++) {
+            String code = "C" + c;
+            List<Map<String, Object>> cigaretteRecords = new ArrayList<>(AREA_COUNT);
+            for (int r = 0; r < AREA_COUNT; r++) {
+                Map<String, Object> row = new HashMap<>();
+                row.put("CIG_CODE", code);
+                row.put("CIG_NAME", "卷烟" + c);
+                row.put("DELIVERY_AREA", regions.get(r));
+                for (int g = 0; g < GradeConstants.GRADE_COUNT; g++) {
+                    row.put(GradeConstants.GRADE_NAMES[g], BigDecimal.valueOf(Math.max(0, 10 - g / 3)));
+                }
+                cigaretteRecords.add(row);
+                weekRecords.add(row);
+            }
+            recordsByCigCode.put(code, cigaretteRecords);
+        }
+
+        int target = cigaretteCount / 2;
+        cigCode = "C" + target;
+        cigName = "卷烟" + target;
+        deliveryArea = regions.get(AREA_COUNT / 2);
+        editedGrades = new BigDecimal[GradeConstants.GRADE_COUNT];
+        for (int g = 0; g < GradeConstants.GRADE_COUNT; g++) {
+            editedGrades[g] = BigDecimal.valueOf(Math.max(0, 12 - g / 2));
+        }
+    }
+
+    @Benchmark
+    public String fullWeekScan() {
+        return edit(materialize(weekRecords));
+    }
+
+    @Benchmark
+    public String perCigaretteIndexed() {
+        return edit(materialize(recordsByCigCode.get(cigCode)));
+    }
+
+    private String edit(List<Map<String, Object>> records) {
+        if (!PredictionEditSupport.containsArea(records, cigName, deliveryArea)) {
+            throw new IllegalStateException("record not found: " + cigCode + "/" + deliveryArea);
+        }
+        BigDecimal actualDelivery = ActualDeliveryCalculator.calculateFixed30(
+                editedGrades, snapshot.findGrades(deliveryArea));
+        return ENCODING_RULE.encodeGradeSequences(editedGrades) + actualDelivery;
+    }
+
+    private static List<Map<String, Object>> materialize(List<Map<String, Object>> rows) {
+        List<Map<String, Object>> copy = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            copy.add(new HashMap<>(row));
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.benchmark;
+
+import org.example.domain.model.valueobject.GradeRange;
+import org.example.domain.service.algorithm.impl.PriceBandTruncationServiceImpl;
+import org.example.domain.service.algorithm.kernel.SingleLevelKernel;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 价位段截断与误差微调基准测试。
+ * <p>
+ * 全市客户数取 100 个合成区域的列和；每个价位段 cigaretteCount 支卷烟，目标量在 [target/2, target] 内随机，
+ * 初分配由单层内核按全档位计算（截断后需要微调），约 1/4 卷烟带两周一访上浮备注。
+ * 每次调用都复制价位段分配值，两个方法的复制开销相同。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PriceBandTruncationBenchmark {
+
+    private static final int REGION_COUNT = 100;
+
+    @Param({"5", "20", "60"})
+    private int cigaretteCount;
+
+    @Param({"10000", "1000000"})
+    private long target;
+
+    @Param({"DENSE", "SPARSE"})
+    private AllocationMatrixFixtures.Density density;
+
+    @Param({"D30-D1", "D25-D10"})
+    private String gradeRange;
+
+    private BigDecimal[] baseCustomerRow;
+    private BigDecimal[] boostedCustomerRow;
+    private List<Map<String, Object>> band;
+    private GradeRange range;
+
+    private PriceBandTruncationServiceImpl iterativeService;
+    private PriceBandTruncationServiceImpl incrementalService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BigDecimal[][] matrix = AllocationMatrixFixtures.customerMatrix(REGION_COUNT, density, false, 20261016L);
+        baseCustomerRow = new BigDecimal[AllocationMatrixFixtures.GRADE_COUNT];
+        boostedCustomerRow = new BigDecimal[AllocationMatrixFixtures.GRADE_COUNT];
+        for (int g = 0; g < AllocationMatrixFixtures.GRADE_COUNT; g++) {
+            BigDecimal sum = BigDecimal.ZERO;
+            for (BigDecimal[] row : matrix) {
+                sum = sum.add(row[g]);
+            }
+            baseCustomerRow[g] = sum;
+            boostedCustomerRow[g] = sum.multiply(BigDecimal.valueOf(2));
+        }
+        String[] bounds = gradeRange.split("-");
+        range = GradeRange.of(bounds[0], bounds[1]);
+
+        long[] customers = AllocationMatrixFixtures.toLongRow(baseCustomerRow);
+        Random random = new Random(20261016L);
+        band = new ArrayList<>(cigaretteCount);
+        for (int c = 0; c < cigaretteCount; c++) {
+            long cigaretteTarget = target / 2 + (long) (random.nextDouble() * (target / 2));
+            long[] grades = SingleLevelKernel.distribute(customers, cigaretteTarget, 0, AllocationMatrixFixtures.GRADE_COUNT - 1);
+            BigDecimal[] decimalGrades = new BigDecimal[grades.length];
+            for (int g = 0; g < grades.length; g++) {
+                decimalGrades[g] = BigDecimal.valueOf(grades[g]);
+            }
+            Map<String, Object> row = new HashMap<>();
+            row.put("CIG_CODE", "C" + c);
+            row.put("CIG_NAME", "卷烟" + c);
+            row.put("ADV", BigDecimal.valueOf(cigaretteTarget));
+            row.put("BZ", random.nextInt(4) == 0 ? "两周一访上浮100%" : null);
+            row.put("GRADES", decimalGrades);
+            band.add(row);
+        }
+
+        iterativeService = new PriceBandTruncationServiceImpl(false);
+        incrementalService = new PriceBandTruncationServiceImpl(true);
+    }
+
+    @Benchmark
+    public Map<Integer, List<Map<String, Object>>> iterativeDecimal() {
+        Map<Integer, List<Map<String, Object>>> bands = copyBand();
+        iterativeService.truncateAndAdjust(bands, baseCustomerRow, boostedCustomerRow, range, 2026, 10, 3);
+        return bands;
+    }
+
+    @Benchmark
+    public Map<Integer, List<Map<String, Object>>> incrementalPrimitive() {
+        Map<Integer, List<Map<String, Object>>> bands = copyBand();
+        incrementalService.truncateAndAdjust(bands, baseCustomerRow, boostedCustomerRow, range, 2026, 10, 3);
+        return bands;
+    }
+
+    private Map<Integer, List<Map<String, Object>>> copyBand() {
+        List<Map<String, Object>> copy = new ArrayList<>(band.size());
+        for (Map<String, Object> row : band) {
+            Map<String, Object> rowCopy = new HashMap<>(row);
+            rowCopy.put("GRADES", ((BigDecimal[]) row.get("GRADES")).clone());
+            copy.add(rowCopy);
+        }
+        Map<Integer, List<Map<String, Object>>> bands = new LinkedHashMap<>();
+        bands.put(100, copy);
+        return bands;
+    }
+}
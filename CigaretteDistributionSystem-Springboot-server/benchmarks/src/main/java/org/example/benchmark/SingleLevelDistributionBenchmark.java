@@ -0,0 +1,78 @@
+package org.example.benchmark;
+
+import org.example.domain.model.valueobject.GradeRange;
+import org.example.domain.service.algorithm.impl.SingleLevelDistributionServiceImpl;
+import org.example.domain.service.algorithm.kernel.SingleLevelKernel;
+import org.example.infrastructure.algorithm.impl.DefaultSingleLevelDistributionAlgorithm;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单层区域分配基准测试。
+ * <p>
+ * hgCustomers=ZERO 时 HG 列无客户，微调阶段走"余量连续100轮不变"终止路径；
+ * 否则走候选方案3/4路径。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SingleLevelDistributionBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    private long target;
+
+    @Param({"DENSE", "SPARSE"})
+    private AllocationMatrixFixtures.Density density;
+
+    @Param({"PRESENT", "ZERO"})
+    private String hgCustomers;
+
+    @Param({"D30-D1", "D25-D10"})
+    private String gradeRange;
+
+    private List<String> regions;
+    private BigDecimal[][] matrix;
+    private long[] customers;
+    private BigDecimal targetAmount;
+    private GradeRange range;
+
+    private DefaultSingleLevelDistributionAlgorithm infrastructureAlgorithm;
+    private SingleLevelDistributionServiceImpl gradeRangeService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        regions = AllocationMatrixFixtures.regions(1);
+        matrix = AllocationMatrixFixtures.customerMatrix(1, density, "ZERO".equals(hgCustomers), 20261016L);
+        customers = AllocationMatrixFixtures.toLongRow(matrix[0]);
+        targetAmount = BigDecimal.valueOf(target);
+        String[] bounds = gradeRange.split("-");
+        range = GradeRange.of(bounds[0], bounds[1]);
+        infrastructureAlgorithm = new DefaultSingleLevelDistributionAlgorithm();
+        gradeRangeService = new SingleLevelDistributionServiceImpl();
+    }
+
+    @Benchmark
+    public BigDecimal[][] infrastructureAdapter() {
+        return infrastructureAlgorithm.distribute(regions, matrix, targetAmount);
+    }
+
+    @Benchmark
+    public BigDecimal[][] gradeRangeDecimal() {
+        return gradeRangeService.distribute(regions, matrix, targetAmount, range);
+    }
+
+    @Benchmark
+    public long[] gradeRangePrimitive() {
+        return SingleLevelKernel.distribute(customers, target, range.getMaxIndex(), range.getMinIndex());
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.benchmark;
+
+import org.example.domain.service.algorithm.subset.BitsetSubsetSumSolver;
+import org.example.domain.service.algorithm.subset.DynamicProgrammingSubsetSumSolver;
+import org.example.domain.service.algorithm.subset.MeetInTheMiddleSubsetSumSolver;
+import org.example.domain.service.algorithm.subset.SubsetSumResult;
+import org.example.domain.service.algorithm.subset.SubsetSumSolver;
+import org.example.domain.service.algorithm.subset.SubsetSumSolvers;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多区域整列调整 HG 子集和求解器基准测试。
+ * <p>
+ * 重量取自合成客户矩阵的 HG 列（与 {@link ColumnWiseAdjustmentBenchmark} 同一随机种子），
+ * weightScale 放大客户数以模拟大区县场景下原背包 DP 的大容量状态表；余量为总重量的 remainderRatio 倍。
+ * 求解器超出自身规模限制时返回 null（如 MITM 超过 32 个区域、DP 总重量超过 1e7）。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SubsetSumSolverBenchmark {
+
+    /**
+     * 被测求解器。
+     */
+    public enum Solver {
+        DP(new DynamicProgrammingSubsetSumSolver()),
+        MITM(new MeetInTheMiddleSubsetSumSolver()),
+        BITSET(new BitsetSubsetSumSolver()),
+        AUTO(null);
+
+        private final SubsetSumSolver solver;
+
+        Solver(SubsetSumSolver solver) {
+            this.solver = solver;
+        }
+
+        SubsetSumResult solve(long[] weights, long target) {
+            return solver == null ? SubsetSumSolvers.solve(weights, target) : solver.solve(weights, target);
+        }
+    }
+
+    @Param({"16", "32", "500", "2000"})
+    private int regionCount;
+
+    @Param({"DENSE", "SPARSE"})
+    private AllocationMatrixFixtures.Density density;
+
+    @Param({"1", "50"})
+    private int weightScale;
+
+    @Param({"0.3", "0.7"})
+    private double remainderRatio;
+
+    @Param({"DP", "MITM", "BITSET", "AUTO"})
+    private Solver solver;
+
+    private long[] weights;
+    private long target;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BigDecimal[][] matrix = AllocationMatrixFixtures.customerMatrix(regionCount, density, false, 20261016L);
+        long[] hg = new long[regionCount];
+        int count = 0;
+        long total = 0;
+        for (BigDecimal[] row : matrix) {
+            long w = row[0].longValueExact() * weightScale;
+            if (w > 0) {
+                hg[count++] = w;
+                total += w;
+            }
+        }
+        weights = Arrays.copyOf(hg, count);
+        target = Math.max(1L, (long) (total * remainderRatio));
+    }
+
+    @Benchmark
+    public SubsetSumResult solve() {
+        return solver.solve(weights, target);
+    }
+}
@@ -7,27 +7,33 @@ import org.example.api.web.converter.GetAvailableRegionsConverter;
 import org.example.api.web.vo.request.AdjustCigaretteStrategyRequestVo;
 import org.example.api.web.vo.request.GenerateDistributionPlanRequestVo;
 import org.example.api.web.vo.request.GetAvailableRegionsRequestVo;
+import org.example.api.web.vo.request.RecomputeCigaretteRequestVo;
 import org.example.api.web.vo.response.AdjustCigaretteStrategyResponseVo;
 import org.example.api.web.vo.response.ApiResponseVo;
+import org.example.api.web.vo.response.DistributionPlanJobResponseVo;
 import org.example.api.web.vo.response.GenerateDistributionPlanResponseVo;
 import org.example.api.web.vo.response.GetAvailableRegionsResponseVo;
 import org.example.api.web.vo.response.TotalActualDeliveryResponseVo;
 import org.example.application.dto.allocation.AdjustCigaretteStrategyRequestDto;
 import org.example.application.dto.allocation.AdjustCigaretteStrategyResponseDto;
+import org.example.application.dto.allocation.DistributionPlanJobDto;
 import org.example.application.dto.allocation.GenerateDistributionPlanRequestDto;
 import org.example.application.dto.allocation.GenerateDistributionPlanResponseDto;
 import org.example.application.dto.allocation.GetAvailableRegionsRequestDto;
 import org.example.application.dto.allocation.GetAvailableRegionsResponseDto;
 import org.example.application.dto.allocation.TotalActualDeliveryResponseDto;
+import org.example.application.service.adjust.CigaretteRecomputeService;
 import org.example.application.service.adjust.CigaretteStrategyAdjustService;
+import org.example.application.service.calculate.DistributionPlanJobService;
 import org.example.application.service.calculate.StandardAllocationService;
-import org.example.application.service.calculate.UnifiedAllocationService;
 import org.example.application.service.region.GetAvailableRegionsService;
+import org.example.shared.exception.DistributionPlanJobConflictException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.util.List;
 
 /**
  * 分配计算控制器
@@ -54,11 +60,14 @@ public class DistributionCalculateController {
     private StandardAllocationService standardAllocationService;
     
     @Autowired
-    private UnifiedAllocationService unifiedAllocationService;
+    private DistributionPlanJobService distributionPlanJobService;
     
     @Autowired
     private CigaretteStrategyAdjustService adjustService;
     
+    @Autowired
+    private CigaretteRecomputeService recomputeService;
+    
     @Autowired
     private GetAvailableRegionsService getAvailableRegionsService;
     
@@ -80,6 +89,7 @@ public class DistributionCalculateController {
      * 注意：
      * - 仅做"全量重建"，不提供增删改查的局部操作。
      * - 市场类型比例仅在"档位+市场类型"扩展投放时生效，其他组合忽略该参数。
+     * - 同一分区已有任务（含异步任务）在执行时返回 JOB_ALREADY_RUNNING。
      *
      * @param requestVo 生成分配计划请求VO
      * @return 统一格式的API响应
@@ -108,8 +118,8 @@ public class DistributionCalculateController {
             // VO 转 DTO
             GenerateDistributionPlanRequestDto requestDto = converter.toDto(requestVo);
             
-            // 调用统一分配服务（协调标准分配和价位段分配）
-            GenerateDistributionPlanResponseDto responseDto = unifiedAllocationService.generateDistributionPlan(requestDto);
+            // 在当前线程执行统一分配（受分区互斥约束，并记录任务历史）
+            GenerateDistributionPlanResponseDto responseDto = distributionPlanJobService.runAndWait(requestDto);
             
             // DTO 转 VO
             GenerateDistributionPlanResponseVo responseVo = converter.toVo(responseDto);
@@ -124,6 +134,9 @@ public class DistributionCalculateController {
                 ));
             }
             
+        } catch (DistributionPlanJobConflictException e) {
+            log.warn("一键生成分配方案被拒绝: {}", e.getMessage());
+            return ResponseEntity.ok(ApiResponseVo.error(e.getMessage(), "JOB_ALREADY_RUNNING"));
         } catch (Exception e) {
             log.error("一键生成分配方案失败", e);
             return ResponseEntity.ok(ApiResponseVo.error(
@@ -133,6 +146,117 @@ public class DistributionCalculateController {
         }
     }
 
+    /**
+     * 提交一键生成分配方案异步任务
+     *
+     * 功能：立即返回任务ID，分配在后台执行；通过任务查询接口轮询进度。
+     * 同一分区（year/month/weekSeq）同一时间只允许一个任务，重复提交返回 JOB_ALREADY_RUNNING。
+     *
+     * @param requestVo 生成分配计划请求VO
+     * @return 统一格式的API响应，包含任务快照
+     *
+     * @example POST /api/calculate/generate-distribution-plan/jobs
+     * {
+     *   "year": 2025,
+     *   "month": 9,
+     *   "weekSeq": 3
+     * }
+     */
+    @PostMapping("/generate-distribution-plan/jobs")
+    public ResponseEntity<ApiResponseVo<DistributionPlanJobResponseVo>> submitDistributionPlanJob(
+            @Valid @RequestBody GenerateDistributionPlanRequestVo requestVo) {
+        
+        log.info("接收一键生成分配方案异步任务，年份: {}, 月份: {}, 周序号: {}", 
+                requestVo.getYear(), requestVo.getMonth(), requestVo.getWeekSeq());
+        
+        try {
+            DistributionPlanJobDto job = distributionPlanJobService.submit(converter.toDto(requestVo));
+            return ResponseEntity.ok(ApiResponseVo.success(converter.toVo(job), "任务已提交"));
+        } catch (DistributionPlanJobConflictException e) {
+            log.warn("提交分配任务被拒绝: {}", e.getMessage());
+            return ResponseEntity.ok(ApiResponseVo.error(e.getMessage(), "JOB_ALREADY_RUNNING"));
+        } catch (Exception e) {
+            log.error("提交分配任务失败", e);
+            return ResponseEntity.ok(ApiResponseVo.error("提交分配任务失败: " + e.getMessage(), "INTERNAL_ERROR"));
+        }
+    }
+
+    /**
+     * 查询一键生成分配方案任务状态与进度
+     *
+     * @param jobId 任务ID
+     * @return 统一格式的API响应，包含状态、当前阶段、阶段耗时、卷烟进度与失败明细
+     *
+     * @example GET /api/calculate/generate-distribution-plan/jobs/{jobId}
+     */
+    @GetMapping("/generate-distribution-plan/jobs/{jobId}")
+    public ResponseEntity<ApiResponseVo<DistributionPlanJobResponseVo>> getDistributionPlanJob(
+            @PathVariable String jobId) {
+        try {
+            DistributionPlanJobDto job = distributionPlanJobService.getJob(jobId);
+            if (job == null) {
+                return ResponseEntity.ok(ApiResponseVo.error("任务不存在: " + jobId, "JOB_NOT_FOUND"));
+            }
+            return ResponseEntity.ok(ApiResponseVo.success(converter.toVo(job)));
+        } catch (Exception e) {
+            log.error("查询分配任务失败: {}", jobId, e);
+            return ResponseEntity.ok(ApiResponseVo.error("查询分配任务失败: " + e.getMessage(), "INTERNAL_ERROR"));
+        }
+    }
+
+    /**
+     * 取消一键生成分配方案任务
+     *
+     * 注意：执行中的任务在当前卷烟处理完后停止，已写回的卷烟不回滚，该分区结果不完整，需重新生成。
+     *
+     * @param jobId 任务ID
+     * @return 统一格式的API响应，包含任务快照
+     *
+     * @example POST /api/calculate/generate-distribution-plan/jobs/{jobId}/cancel
+     */
+    @PostMapping("/generate-distribution-plan/jobs/{jobId}/cancel")
+    public ResponseEntity<ApiResponseVo<DistributionPlanJobResponseVo>> cancelDistributionPlanJob(
+            @PathVariable String jobId) {
+        log.info("接收取消分配任务请求: {}", jobId);
+        try {
+            DistributionPlanJobDto job = distributionPlanJobService.cancel(jobId);
+            if (job == null) {
+                return ResponseEntity.ok(ApiResponseVo.error("任务不存在: " + jobId, "JOB_NOT_FOUND"));
+            }
+            return ResponseEntity.ok(ApiResponseVo.success(converter.toVo(job), "已请求取消"));
+        } catch (Exception e) {
+            log.error("取消分配任务失败: {}", jobId, e);
+            return ResponseEntity.ok(ApiResponseVo.error("取消分配任务失败: " + e.getMessage(), "INTERNAL_ERROR"));
+        }
+    }
+
+    /**
+     * 查询一键生成分配方案任务历史
+     *
+     * @param year    年份（可选）
+     * @param month   月份（可选）
+     * @param weekSeq 周序号（可选）
+     * @param limit   最大条数，默认 20
+     * @return 统一格式的API响应，任务列表按提交时间倒序
+     *
+     * @example GET /api/calculate/generate-distribution-plan/jobs?year=2025&month=9&weekSeq=3
+     */
+    @GetMapping("/generate-distribution-plan/jobs")
+    public ResponseEntity<ApiResponseVo<List<DistributionPlanJobResponseVo>>> listDistributionPlanJobs(
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) Integer month,
+            @RequestParam(required = false) Integer weekSeq,
+            @RequestParam(defaultValue = "20") Integer limit) {
+        try {
+            List<DistributionPlanJobDto> jobs = distributionPlanJobService.listJobs(
+                    year, month, weekSeq, Math.max(1, Math.min(limit, 200)));
+            return ResponseEntity.ok(ApiResponseVo.success(converter.toJobVoList(jobs)));
+        } catch (Exception e) {
+            log.error("查询分配任务历史失败", e);
+            return ResponseEntity.ok(ApiResponseVo.error("查询分配任务历史失败: " + e.getMessage(), "INTERNAL_ERROR"));
+        }
+    }
+
     /**
      * 计算指定分区（year/month/weekSeq）内所有卷烟的总实际投放量。
      *
@@ -241,21 +365,72 @@ public class DistributionCalculateController {
         }
     }
 
+    /**
+     * 单支卷烟增量重算
+     *
+     * 功能：按 Info 表中该卷烟当前的投放量、投放区域与档位范围重新分配，只重写该卷烟的预测记录。
+     * 复用该周已预热的区域客户统计快照等缓存，适用于人工逐支微调卷烟后的快速刷新。
+     * 该周正在执行一键生成分配方案时返回 JOB_ALREADY_RUNNING。
+     *
+     * @param requestVo 重算请求VO
+     * @return 统一格式的API响应，成功返回新分配记录，失败返回错误信息
+     *
+     * @example POST /api/calculate/recompute-cigarette
+     * {
+     *   "year": 2025,
+     *   "month": 9,
+     *   "weekSeq": 3,
+     *   "cigCode": "42010020",
+     *   "cigName": "红金龙(硬神州腾龙)"
+     * }
+     */
+    @PostMapping("/recompute-cigarette")
+    public ResponseEntity<ApiResponseVo<AdjustCigaretteStrategyResponseVo>> recomputeCigarette(
+            @Valid @RequestBody RecomputeCigaretteRequestVo requestVo) {
+        
+        log.info("接收单支卷烟重算请求，年份: {}, 月份: {}, 周序号: {}, 卷烟: {}-{}", 
+                requestVo.getYear(), requestVo.getMonth(), requestVo.getWeekSeq(),
+                requestVo.getCigCode(), requestVo.getCigName());
+        
+        try {
+            AdjustCigaretteStrategyResponseDto responseDto = recomputeService.recompute(
+                    requestVo.getYear(), requestVo.getMonth(), requestVo.getWeekSeq(),
+                    requestVo.getCigCode(), requestVo.getCigName());
+            AdjustCigaretteStrategyResponseVo responseVo = adjustConverter.toVo(responseDto);
+            
+            if (responseDto.getSuccess()) {
+                return ResponseEntity.ok(ApiResponseVo.success(responseVo, responseDto.getMessage()));
+            } else {
+                return ResponseEntity.ok(ApiResponseVo.error(
+                    responseDto.getMessage() != null ? responseDto.getMessage() : "单支卷烟重算失败",
+                    responseDto.getErrorCode() != null ? responseDto.getErrorCode() : "RECOMPUTE_FAILED"
+                ));
+            }
+            
+        } catch (Exception e) {
+            log.error("单支卷烟重算失败", e);
+            return ResponseEntity.ok(ApiResponseVo.error(
+                "单支卷烟重算失败: " + e.getMessage(), 
+                "INTERNAL_ERROR"
+            ));
+        }
+    }
+
     /**
      * 获取可用投放区域列表
      *
      * 功能：
      * 1. 根据投放类型和扩展类型解析出所有可能的区域
      * 2. 检查 region_customer_statistics 表中哪些区域已存在
-     * 3. 对不存在的区域，追加构建区域客户数据
-     * 4. 返回完整的区域列表和构建信息
+     * 3. 对不存在的区域，提交后台任务追加构建区域客户数据
+     * 4. 返回完整的区域列表和待补建区域
      *
      * 用途：
      * - 为策略调整功能提供可选的区域列表
-     * - 确保所有理论区域的客户数据都已构建
+     * - 缺失理论区域的客户数据由后台任务补建（本接口不写表）
      *
      * @param requestVo 请求VO，包含年份、月份、周序号、投放类型、扩展类型
-     * @return 统一格式的API响应，包含区域列表、是否构建了新数据、构建的区域列表
+     * @return 统一格式的API响应，包含区域列表、后台补建中的区域列表
      *
      * @example POST /api/calculate/available-regions
      * {
@@ -0,0 +1,62 @@
+package org.example.api.web.controller;
+
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.prometheus.client.exporter.common.TextFormat;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.infrastructure.config.metrics.MetricsProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * 指标抓取控制器
+ *
+ * 作用：以 Prometheus 文本格式（0.0.4）导出本服务的全部指标，包括分配流水线各阶段耗时直方图、
+ * 线程池队列深度、Hikari 连接池与缓存命中等。
+ *
+ * 默认只允许本机访问（distribution.metrics.scrape-local-only），不开放跨域。
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/metrics")
+@RequiredArgsConstructor
+public class MetricsController {
+
+    private final PrometheusMeterRegistry meterRegistry;
+    private final MetricsProperties metricsProperties;
+
+    /**
+     * 导出 Prometheus 文本格式指标
+     *
+     * @param request HTTP 请求（用于校验来源地址）
+     * @return 文本格式指标；非本机访问且开启本机限制时返回 403
+     *
+     * @example GET /api/metrics/prometheus
+     */
+    @GetMapping(value = "/prometheus", produces = TextFormat.CONTENT_TYPE_004)
+    public ResponseEntity<String> scrape(HttpServletRequest request) {
+        if (metricsProperties.isScrapeLocalOnly() && !isLoopback(request.getRemoteAddr())) {
+            log.warn("拒绝非本机指标抓取请求: {}", request.getRemoteAddr());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(meterRegistry.scrape());
+    }
+
+    private boolean isLoopback(String remoteAddr) {
+        try {
+            return remoteAddr != null && InetAddress.getByName(remoteAddr).isLoopbackAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+}
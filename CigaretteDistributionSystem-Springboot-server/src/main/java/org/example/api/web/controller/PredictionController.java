@@ -4,19 +4,28 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.api.web.converter.PredictionConverter;
 import org.example.api.web.vo.request.AddRegionAllocationRequestVo;
+import org.example.api.web.vo.request.BatchUpdateRegionGradesRequestVo;
 import org.example.api.web.vo.request.DeleteCigaretteRequestVo;
 import org.example.api.web.vo.request.DeleteRegionAllocationRequestVo;
 import org.example.api.web.vo.request.UpdateRegionGradesRequestVo;
 import org.example.api.web.vo.response.ApiResponseVo;
+import org.example.api.web.vo.response.PredictionPageResponseVo;
 import org.example.api.web.vo.response.PredictionQueryResponseVo;
+import org.example.application.dto.prediction.PredictionPageDto;
+import org.example.application.dto.prediction.PredictionPageQueryDto;
 import org.example.application.service.encode.AggregatedEncodingQueryService;
 import org.example.application.service.prediction.PredictionAddService;
 import org.example.application.service.prediction.PredictionDeleteService;
+import org.example.application.service.prediction.PredictionExportService;
 import org.example.application.service.prediction.PredictionQueryService;
 import org.example.application.service.prediction.PredictionUpdateService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -41,6 +50,7 @@ public class PredictionController {
     private final PredictionDeleteService predictionDeleteService;
     private final PredictionUpdateService predictionUpdateService;
     private final PredictionQueryService predictionQueryService;
+    private final PredictionExportService predictionExportService;
     private final PredictionConverter converter;
     private final AggregatedEncodingQueryService aggregatedEncodingQueryService;
 
@@ -84,6 +94,106 @@ public class PredictionController {
         }
     }
 
+    /**
+     * 按时间分区游标分页查询预测数据。
+     * <p>
+     * 首次请求不带 cursor，之后把响应中的 nextCursor 原样传回；hasMore 为 false 时结束。
+     * 可按卷烟代码前缀和投放方式在服务端过滤（翻页过程中过滤条件需保持不变）。
+     * </p>
+     *
+     * @example GET /api/prediction/page-by-time?year=2025&month=9&weekSeq=3&pageSize=200&cigCodePrefix=4202
+     */
+    @GetMapping("/page-by-time")
+    public ResponseEntity<ApiResponseVo<PredictionPageResponseVo>> pageByTime(
+            @RequestParam Integer year,
+            @RequestParam Integer month,
+            @RequestParam Integer weekSeq,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer pageSize,
+            @RequestParam(required = false) String cigCodePrefix,
+            @RequestParam(required = false) String deliveryMethod) {
+        try {
+            log.debug("分页查询预测分区数据，year={}, month={}, weekSeq={}, cursor={}", year, month, weekSeq, cursor);
+            PredictionPageDto page = predictionQueryService.pageByTime(
+                    buildPageQuery(year, month, weekSeq, cursor, pageSize, cigCodePrefix, deliveryMethod));
+            return ResponseEntity.ok(ApiResponseVo.success(converter.toPageResponseVo(page), "查询成功"));
+        } catch (IllegalArgumentException e) {
+            log.warn("分页查询预测分区数据参数错误: {}", e.getMessage());
+            return ResponseEntity.ok(ApiResponseVo.error(e.getMessage(), "VALIDATION_ERROR"));
+        } catch (Exception e) {
+            log.error("分页查询预测分区数据失败", e);
+            return ResponseEntity.ok(ApiResponseVo.error("分页查询预测分区数据失败: " + e.getMessage(), "INTERNAL_ERROR"));
+        }
+    }
+
+    /**
+     * 按时间分区游标分页查询价位段预测数据（参数同 page-by-time）。
+     */
+    @GetMapping("/page-price-by-time")
+    public ResponseEntity<ApiResponseVo<PredictionPageResponseVo>> pagePriceByTime(
+            @RequestParam Integer year,
+            @RequestParam Integer month,
+            @RequestParam Integer weekSeq,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer pageSize,
+            @RequestParam(required = false) String cigCodePrefix,
+            @RequestParam(required = false) String deliveryMethod) {
+        try {
+            log.debug("分页查询价位段预测分区数据，year={}, month={}, weekSeq={}, cursor={}", year, month, weekSeq, cursor);
+            PredictionPageDto page = predictionQueryService.pagePriceByTime(
+                    buildPageQuery(year, month, weekSeq, cursor, pageSize, cigCodePrefix, deliveryMethod));
+            return ResponseEntity.ok(ApiResponseVo.success(converter.toPageResponseVo(page), "查询成功"));
+        } catch (IllegalArgumentException e) {
+            log.warn("分页查询价位段预测分区数据参数错误: {}", e.getMessage());
+            return ResponseEntity.ok(ApiResponseVo.error(e.getMessage(), "VALIDATION_ERROR"));
+        } catch (Exception e) {
+            log.error("分页查询价位段预测分区数据失败", e);
+            return ResponseEntity.ok(ApiResponseVo.error("分页查询价位段预测分区数据失败: " + e.getMessage(), "INTERNAL_ERROR"));
+        }
+    }
+
+    /**
+     * 流式导出预测分区数据（xlsx 或 gzip CSV）。
+     * <p>
+     * 不设置 Content-Length，响应以分块传输写出；服务端逐行读取、逐行写出，堆占用与分区行数无关。
+     * 字段顺序与 list-by-time / list-price-by-time 一致。
+     * </p>
+     *
+     * @example GET /api/prediction/export?year=2025&month=9&weekSeq=3&priceBand=false&format=csv
+     */
+    @GetMapping("/export")
+    public ResponseEntity<?> exportByTime(
+            @RequestParam Integer year,
+            @RequestParam Integer month,
+            @RequestParam Integer weekSeq,
+            @RequestParam(defaultValue = "false") boolean priceBand,
+            @RequestParam(defaultValue = "xlsx") String format) {
+        PredictionExportService.Format exportFormat;
+        try {
+            exportFormat = PredictionExportService.Format.fromCode(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.ok(ApiResponseVo.error(e.getMessage(), "VALIDATION_ERROR"));
+        }
+
+        log.info("导出预测分区数据，year={}, month={}, weekSeq={}, priceBand={}, format={}",
+                year, month, weekSeq, priceBand, exportFormat);
+        String fileName = String.format("%s_%d_%d_%d.%s", priceBand ? "prediction_price" : "prediction",
+                year, month, weekSeq, exportFormat.getExtension());
+        StreamingResponseBody body = out -> {
+            try {
+                predictionExportService.exportByTime(year, month, weekSeq, priceBand, exportFormat, out);
+            } catch (Exception e) {
+                log.error("导出预测分区数据失败，year={}, month={}, weekSeq={}", year, month, weekSeq, e);
+                throw e;
+            }
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(fileName).build().toString())
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .body(body);
+    }
+
     /**
      * 懒加载：按批次 + 卷烟代码查询"多区域聚合编码表达式"。
      */
@@ -207,4 +317,40 @@ public class PredictionController {
         }
     }
 
+    /**
+     * 批量修改区域档位值（同一年月周内多支卷烟、多个区域，单事务提交）。
+     */
+    @PutMapping("/batch-update-region-grades")
+    public ResponseEntity<ApiResponseVo<Integer>> batchUpdateRegionGrades(
+            @Validated @RequestBody BatchUpdateRegionGradesRequestVo request) {
+        try {
+            log.info("批量修改区域档位值请求: year={}, month={}, weekSeq={}, 修改项={}",
+                    request.getYear(), request.getMonth(), request.getWeekSeq(), request.getItems().size());
+            int updatedCount = predictionUpdateService.batchUpdateRegionGrades(converter.toBatchUpdateDto(request));
+            return ResponseEntity.ok(ApiResponseVo.success(updatedCount,
+                    String.format("批量修改区域档位值成功，共更新 %d 条记录", updatedCount)));
+        } catch (IllegalArgumentException e) {
+            log.warn("批量修改区域档位值参数校验失败: {}", e.getMessage());
+            return ResponseEntity.ok(ApiResponseVo.error(e.getMessage(), "VALIDATION_ERROR"));
+        } catch (IllegalStateException e) {
+            log.warn("批量修改区域档位值业务校验失败: {}", e.getMessage());
+            return ResponseEntity.ok(ApiResponseVo.error(e.getMessage(), "BUSINESS_ERROR"));
+        } catch (Exception e) {
+            log.error("批量修改区域档位值失败", e);
+            return ResponseEntity.ok(ApiResponseVo.error("批量修改区域档位值失败: " + e.getMessage(), "INTERNAL_ERROR"));
+        }
+    }
+
+    private static PredictionPageQueryDto buildPageQuery(Integer year, Integer month, Integer weekSeq, String cursor,
+                                                         Integer pageSize, String cigCodePrefix, String deliveryMethod) {
+        PredictionPageQueryDto query = new PredictionPageQueryDto();
+        query.setYear(year);
+        query.setMonth(month);
+        query.setWeekSeq(weekSeq);
+        query.setCursor(cursor);
+        query.setPageSize(pageSize);
+        query.setCigCodePrefix(cigCodePrefix);
+        query.setDeliveryMethod(deliveryMethod);
+        return query;
+    }
 }
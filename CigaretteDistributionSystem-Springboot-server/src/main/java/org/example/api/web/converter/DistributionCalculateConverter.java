@@ -1,8 +1,10 @@
 package org.example.api.web.converter;
 
 import org.example.api.web.vo.request.GenerateDistributionPlanRequestVo;
+import org.example.api.web.vo.response.DistributionPlanJobResponseVo;
 import org.example.api.web.vo.response.GenerateDistributionPlanResponseVo;
 import org.example.api.web.vo.response.TotalActualDeliveryResponseVo;
+import org.example.application.dto.allocation.DistributionPlanJobDto;
 import org.example.application.dto.allocation.GenerateDistributionPlanRequestDto;
 import org.example.application.dto.allocation.GenerateDistributionPlanResponseDto;
 import org.example.application.dto.allocation.TotalActualDeliveryResponseDto;
@@ -10,6 +12,8 @@ import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.ReportingPolicy;
 
+import java.util.List;
+
 /**
  * 分配计算转换器
  * MapStruct 会在编译时自动生成实现类
@@ -36,5 +40,15 @@ public interface DistributionCalculateConverter {
      * DTO 转 VO - 总实际投放量响应
      */
     TotalActualDeliveryResponseVo toVo(TotalActualDeliveryResponseDto dto);
+    
+    /**
+     * DTO 转 VO - 一键生成分配方案异步任务
+     */
+    DistributionPlanJobResponseVo toVo(DistributionPlanJobDto dto);
+    
+    /**
+     * DTO 转 VO - 一键生成分配方案异步任务列表
+     */
+    List<DistributionPlanJobResponseVo> toJobVoList(List<DistributionPlanJobDto> dtos);
 }
 
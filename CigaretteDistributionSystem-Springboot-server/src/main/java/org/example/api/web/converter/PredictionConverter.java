@@ -1,13 +1,17 @@
 package org.example.api.web.converter;
 
 import org.example.api.web.vo.request.AddRegionAllocationRequestVo;
+import org.example.api.web.vo.request.BatchUpdateRegionGradesRequestVo;
 import org.example.api.web.vo.request.DeleteCigaretteRequestVo;
 import org.example.api.web.vo.request.DeleteRegionAllocationRequestVo;
 import org.example.api.web.vo.request.UpdateRegionGradesRequestVo;
+import org.example.api.web.vo.response.PredictionPageResponseVo;
 import org.example.api.web.vo.response.PredictionQueryResponseVo;
 import org.example.application.dto.prediction.AddRegionAllocationDto;
+import org.example.application.dto.prediction.BatchUpdateRegionGradesDto;
 import org.example.application.dto.prediction.DeleteCigaretteDto;
 import org.example.application.dto.prediction.DeleteRegionAllocationDto;
+import org.example.application.dto.prediction.PredictionPageDto;
 import org.example.application.dto.prediction.UpdateRegionGradesDto;
 import org.mapstruct.Mapper;
 import org.mapstruct.ReportingPolicy;
@@ -46,6 +50,21 @@ public interface PredictionConverter {
         return vo;
     }
 
+    /**
+     * 分页结果 DTO 转 VO - 预测游标分页响应
+     */
+    default PredictionPageResponseVo toPageResponseVo(PredictionPageDto page) {
+        if (page == null) {
+            return null;
+        }
+        PredictionPageResponseVo vo = new PredictionPageResponseVo();
+        vo.setData(page.getRecords());
+        vo.setSize(page.getRecords() != null ? page.getRecords().size() : 0);
+        vo.setNextCursor(page.getNextCursor());
+        vo.setHasMore(page.getHasMore());
+        return vo;
+    }
+
     // ==================== 新增请求转换 ====================
 
     /**
@@ -71,4 +90,9 @@ public interface PredictionConverter {
      * 修改区域档位请求 VO → DTO
      */
     UpdateRegionGradesDto toUpdateDto(UpdateRegionGradesRequestVo request);
+
+    /**
+     * 批量修改区域档位值请求 VO → DTO
+     */
+    BatchUpdateRegionGradesDto toBatchUpdateDto(BatchUpdateRegionGradesRequestVo request);
 }
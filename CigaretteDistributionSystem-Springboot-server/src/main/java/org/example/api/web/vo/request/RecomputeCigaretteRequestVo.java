@@ -0,0 +1,31 @@
+package org.example.api.web.vo.request;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+/**
+ * 单支卷烟增量重算请求 VO
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@Data
+public class RecomputeCigaretteRequestVo {
+
+    @NotNull(message = "年份不能为空")
+    private Integer year;
+
+    @NotNull(message = "月份不能为空")
+    private Integer month;
+
+    @NotNull(message = "周序号不能为空")
+    private Integer weekSeq;
+
+    @NotBlank(message = "卷烟代码不能为空")
+    private String cigCode;
+
+    @NotBlank(message = "卷烟名称不能为空")
+    private String cigName;
+}
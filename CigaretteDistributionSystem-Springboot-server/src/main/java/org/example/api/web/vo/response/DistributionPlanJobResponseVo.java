@@ -0,0 +1,34 @@
+package org.example.api.web.vo.response;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 一键生成分配方案异步任务响应VO
+ * 用于API层返回任务状态与进度
+ */
+@Data
+public class DistributionPlanJobResponseVo implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String jobId;
+    private Integer year;
+    private Integer month;
+    private Integer weekSeq;
+    private String status;
+    private String currentStage;
+    private Map<String, Long> stageTimings;
+    private Integer totalCount;
+    private Integer processedCount;
+    private Integer successCount;
+    private Integer failedCount;
+    private List<String> failures;
+    private String message;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -38,4 +38,9 @@ public class GetAvailableRegionsResponseVo {
      * 构建的区域列表
      */
     private List<String> builtRegions;
+    
+    /**
+     * 后台补建中的区域列表
+     */
+    private List<String> pendingRegions;
 }
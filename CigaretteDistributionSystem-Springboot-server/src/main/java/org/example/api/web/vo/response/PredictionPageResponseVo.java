@@ -0,0 +1,25 @@
+package org.example.api.web.vo.response;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 预测数据游标分页响应VO
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@Data
+public class PredictionPageResponseVo implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private List<Map<String, Object>> data;
+    /** 本页条数 */
+    private Integer size;
+    /** 下一页游标，没有更多数据时为 null */
+    private String nextCursor;
+    private Boolean hasMore;
+}
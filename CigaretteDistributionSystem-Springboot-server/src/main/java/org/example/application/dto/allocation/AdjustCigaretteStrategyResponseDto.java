@@ -16,6 +16,11 @@ public class AdjustCigaretteStrategyResponseDto {
 
     private Boolean success;
     private String message;
+
+    /**
+     * 失败时的错误码（为空时按通用失败处理），如 JOB_ALREADY_RUNNING
+     */
+    private String errorCode;
     
     /**
      * 调整后的卷烟分配记录列表
@@ -42,4 +47,10 @@ public class AdjustCigaretteStrategyResponseDto {
         dto.setMessage(message);
         return dto;
     }
+
+    public static AdjustCigaretteStrategyResponseDto failure(String message, String errorCode) {
+        AdjustCigaretteStrategyResponseDto dto = failure(message);
+        dto.setErrorCode(errorCode);
+        return dto;
+    }
 }
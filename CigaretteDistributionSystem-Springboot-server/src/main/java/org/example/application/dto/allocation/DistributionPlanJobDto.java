@@ -0,0 +1,51 @@
+package org.example.application.dto.allocation;
+
+import lombok.Data;
+import org.example.domain.model.valueobject.DistributionPlanJobStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 一键生成分配方案异步任务 DTO（任务状态与进度快照）。
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@Data
+public class DistributionPlanJobDto {
+
+    private String jobId;
+    private Integer year;
+    private Integer month;
+    private Integer weekSeq;
+    private DistributionPlanJobStatus status;
+
+    /**
+     * 当前阶段（查询卷烟 / 删除旧数据 / 标准分配 / 价位段分配）
+     */
+    private String currentStage;
+
+    /**
+     * 各阶段耗时（毫秒），按阶段开始顺序排列
+     */
+    private Map<String, Long> stageTimings = new LinkedHashMap<>();
+
+    private Integer totalCount;
+    private Integer processedCount;
+    private Integer successCount;
+    private Integer failedCount;
+
+    /**
+     * 失败/跳过卷烟明细（"卷烟代码-卷烟名称: 原因"），最多保留前 200 条
+     */
+    private List<String> failures = new ArrayList<>();
+
+    private String message;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -48,6 +48,11 @@ public class GetAvailableRegionsResponseDto {
      */
     private List<String> builtRegions;
 
+    /**
+     * 缺失且已提交后台补建的区域列表（补建完成前这些区域的客户数尚不可用）
+     */
+    private List<String> pendingRegions;
+
     public static GetAvailableRegionsResponseDto success(List<String> regions, boolean hasBuiltNewData, List<String> builtRegions) {
         GetAvailableRegionsResponseDto dto = new GetAvailableRegionsResponseDto();
         dto.setSuccess(true);
@@ -0,0 +1,44 @@
+package org.example.application.dto.prediction;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量修改区域档位值 DTO（同一年月周内多支卷烟、多个区域）
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@Data
+public class BatchUpdateRegionGradesDto {
+
+    private Integer year;
+    private Integer month;
+    private Integer weekSeq;
+
+    /**
+     * 修改项列表，同一卷烟的同一区域只能出现一次
+     */
+    private List<Item> items = new ArrayList<>();
+
+    @Data
+    public static class Item {
+        private String cigCode;
+        private String cigName;
+        private String primaryRegion;
+        private String secondaryRegion;
+
+        /**
+         * 30个档位值（D30-D1顺序）
+         */
+        private List<BigDecimal> grades;
+
+        /**
+         * 备注（可选）
+         */
+        private String remark;
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.application.dto.prediction;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 预测数据游标分页结果 DTO
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@Data
+public class PredictionPageDto {
+
+    /**
+     * 本页记录（字段顺序同按时间分区全量查询）
+     */
+    private List<Map<String, Object>> records;
+
+    /**
+     * 下一页游标，没有更多数据时为 null
+     */
+    private String nextCursor;
+
+    /**
+     * 是否还有下一页
+     */
+    private Boolean hasMore;
+}
@@ -0,0 +1,37 @@
+package org.example.application.dto.prediction;
+
+import lombok.Data;
+
+/**
+ * 预测数据游标分页查询 DTO
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@Data
+public class PredictionPageQueryDto {
+
+    private Integer year;
+    private Integer month;
+    private Integer weekSeq;
+
+    /**
+     * 上一页返回的 nextCursor，为空表示第一页
+     */
+    private String cursor;
+
+    /**
+     * 每页条数，为空时使用默认值
+     */
+    private Integer pageSize;
+
+    /**
+     * 卷烟代码前缀过滤（可选）
+     */
+    private String cigCodePrefix;
+
+    /**
+     * 投放方式过滤（可选，精确匹配）
+     */
+    private String deliveryMethod;
+}
@@ -14,6 +14,7 @@ import org.springframework.stereotype.Component;
 
 /**
  * 数据导入事件处理器
+ * 指标标签只使用取值有限的 success；batchId、年月周等只写入日志
  */
 @Slf4j
 @Component
@@ -32,12 +33,7 @@ public class DataImportEventHandler {
                 event.getBatchId(), event.getYear(), event.getMonth(), event.getWeekSeq(),
                 event.getHasBaseCustomerFile(), event.getHasCigaretteFile());
 
-        meterRegistry.counter(METRIC_IMPORT_STARTED,
-                Tags.of(Tag.of("batchId", safe(event.getBatchId())),
-                        Tag.of("year", String.valueOf(event.getYear())),
-                        Tag.of("month", String.valueOf(event.getMonth())),
-                        Tag.of("weekSeq", String.valueOf(event.getWeekSeq()))))
-                .increment();
+        meterRegistry.counter(METRIC_IMPORT_STARTED).increment();
     }
     
     @EventListener
@@ -46,17 +42,10 @@ public class DataImportEventHandler {
                 event.getBatchId(), event.getYear(), event.getMonth(), event.getWeekSeq(),
                 event.getSuccess(), event.getMessage());
 
-        meterRegistry.counter(METRIC_IMPORT_COMPLETED,
-                Tags.of(Tag.of("batchId", safe(event.getBatchId())),
-                        Tag.of("year", String.valueOf(event.getYear())),
-                        Tag.of("month", String.valueOf(event.getMonth())),
-                        Tag.of("weekSeq", String.valueOf(event.getWeekSeq())),
-                        Tag.of("success", String.valueOf(event.getSuccess()))))
-                .increment();
+        Tags tags = Tags.of(Tag.of("success", String.valueOf(event.getSuccess())));
+        meterRegistry.counter(METRIC_IMPORT_COMPLETED, tags).increment();
 
-        recordDuration(event.getStartTime(), event.getEndTime(),
-                Tags.of(Tag.of("batchId", safe(event.getBatchId())),
-                        Tag.of("success", String.valueOf(event.getSuccess()))));
+        recordDuration(event.getStartTime(), event.getEndTime(), tags);
     }
     
     @EventListener
@@ -65,13 +54,7 @@ public class DataImportEventHandler {
                 event.getBatchId(), event.getYear(), event.getMonth(), event.getWeekSeq(),
                 event.getErrorMessage(), event.getException());
 
-        meterRegistry.counter(METRIC_IMPORT_COMPLETED,
-                Tags.of(Tag.of("batchId", safe(event.getBatchId())),
-                        Tag.of("year", String.valueOf(event.getYear())),
-                        Tag.of("month", String.valueOf(event.getMonth())),
-                        Tag.of("weekSeq", String.valueOf(event.getWeekSeq())),
-                        Tag.of("success", "false")))
-                .increment();
+        meterRegistry.counter(METRIC_IMPORT_COMPLETED, Tags.of(Tag.of("success", "false"))).increment();
     }
 
     private void recordDuration(Long start, Long end, Tags tags) {
@@ -82,9 +65,5 @@ public class DataImportEventHandler {
         DistributionSummary summary = meterRegistry.summary(METRIC_IMPORT_DURATION, tags);
         summary.record(duration);
     }
-
-    private String safe(String value) {
-        return value == null ? "unknown" : value;
-    }
 }
 
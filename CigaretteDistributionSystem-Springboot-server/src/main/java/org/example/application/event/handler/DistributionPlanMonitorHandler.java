@@ -15,6 +15,7 @@ import org.springframework.stereotype.Component;
 /**
  * 分配方案监控处理器
  * 负责记录监控指标、性能统计等
+ * 指标标签只使用取值有限的 success；batchId、年月周等只写入日志
  */
 @Slf4j
 @Component
@@ -32,14 +33,8 @@ public class DistributionPlanMonitorHandler {
     public void handlePlanStarted(DistributionPlanGenerationStartedEvent event) {
         log.info("【监控】分配方案生成开始 - batchId={}, {}-{}-{}", 
                 event.getBatchId(), event.getYear(), event.getMonth(), event.getWeekSeq());
-        // TODO: 可以集成 Micrometer、Prometheus 等监控系统
 
-        meterRegistry.counter(METRIC_PLAN_STARTED,
-                Tags.of(Tag.of("batchId", safe(event.getBatchId())),
-                        Tag.of("year", String.valueOf(event.getYear())),
-                        Tag.of("month", String.valueOf(event.getMonth())),
-                        Tag.of("weekSeq", String.valueOf(event.getWeekSeq()))))
-                .increment();
+        meterRegistry.counter(METRIC_PLAN_STARTED).increment();
     }
     
     @EventListener
@@ -57,24 +52,12 @@ public class DistributionPlanMonitorHandler {
                 event.getBatchId(), event.getYear(), event.getMonth(), event.getWeekSeq(),
                 duration, event.getSuccessCount(), event.getTotalCount(), event.getFailedCount(),
                 event.getProcessedCount());
-        
-        // TODO: 记录到监控系统
-        // metricsService.recordTimer("distribution.plan.generation.duration", duration);
-        // metricsService.recordGauge("distribution.plan.success.rate", 
-        //     event.getSuccessCount() / (double) event.getTotalCount());
 
-        Tags baseTags = Tags.of(
-                Tag.of("batchId", safe(event.getBatchId())),
-                Tag.of("year", String.valueOf(event.getYear())),
-                Tag.of("month", String.valueOf(event.getMonth())),
-                Tag.of("weekSeq", String.valueOf(event.getWeekSeq())),
-                Tag.of("success", String.valueOf(event.getSuccess()))
-        );
+        Tags baseTags = Tags.of(Tag.of("success", String.valueOf(event.getSuccess())));
 
         meterRegistry.counter(METRIC_PLAN_COMPLETED, baseTags).increment();
 
-        recordDuration(event.getStartTime(), event.getEndTime(),
-                baseTags.and(Tag.of("success", String.valueOf(event.getSuccess()))));
+        recordDuration(event.getStartTime(), event.getEndTime(), baseTags);
 
         if (event.getFailedCount() != null) {
             DistributionSummary summary = meterRegistry.summary(METRIC_PLAN_FAILED_COUNT, baseTags);
@@ -90,9 +73,5 @@ public class DistributionPlanMonitorHandler {
         DistributionSummary summary = meterRegistry.summary(METRIC_PLAN_DURATION, tags);
         summary.record(duration);
     }
-
-    private String safe(String value) {
-        return value == null ? "unknown" : value;
-    }
 }
 
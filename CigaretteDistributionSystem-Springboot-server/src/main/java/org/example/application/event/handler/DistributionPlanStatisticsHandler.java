@@ -1,28 +1,53 @@
 package org.example.application.event.handler;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.example.domain.event.DistributionPlanGenerationCompletedEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * 分配方案统计处理器
  * 负责更新统计数据、生成报表等
+ * 指标：按结果累计的卷烟数，以及最近一次方案的卷烟总数与成功率
  */
 @Slf4j
 @Component
 public class DistributionPlanStatisticsHandler {
-    
+
+    private static final String METRIC_PLAN_CIGARETTES = "distribution_plan_cigarettes_total";
+    private static final String METRIC_LAST_PLAN_CIGARETTES = "distribution_plan_last_cigarettes";
+    private static final String METRIC_LAST_PLAN_SUCCESS_RATIO = "distribution_plan_last_success_ratio";
+
+    private final Counter succeededCigarettes;
+    private final Counter failedCigarettes;
+    private final AtomicLong lastTotalCount = new AtomicLong();
+    /** 最近一次方案的成功率，按 double 位存储 */
+    private final AtomicLong lastSuccessRatioBits = new AtomicLong(Double.doubleToLongBits(Double.NaN));
+
+    public DistributionPlanStatisticsHandler(MeterRegistry meterRegistry) {
+        this.succeededCigarettes = meterRegistry.counter(METRIC_PLAN_CIGARETTES, "outcome", "success");
+        this.failedCigarettes = meterRegistry.counter(METRIC_PLAN_CIGARETTES, "outcome", "failed");
+        meterRegistry.gauge(METRIC_LAST_PLAN_CIGARETTES, lastTotalCount);
+        meterRegistry.gauge(METRIC_LAST_PLAN_SUCCESS_RATIO, lastSuccessRatioBits,
+                bits -> Double.longBitsToDouble(bits.get()));
+    }
+
     @EventListener
     public void updateStatistics(DistributionPlanGenerationCompletedEvent event) {
         log.info("【统计】更新分配方案统计数据 - {}-{}-{}", 
                 event.getYear(), event.getMonth(), event.getWeekSeq());
-        
-        // TODO: 更新统计数据
-        // statisticsService.updateGenerationStats(
-        //     event.getYear(), event.getMonth(), event.getWeekSeq(),
-        //     event.getTotalCount(), event.getSuccessCount(), event.getFailedCount()
-        // );
+
+        int total = event.getTotalCount() != null ? event.getTotalCount() : 0;
+        int succeeded = event.getSuccessCount() != null ? event.getSuccessCount() : 0;
+        int failed = event.getFailedCount() != null ? event.getFailedCount() : Math.max(0, total - succeeded);
+
+        succeededCigarettes.increment(succeeded);
+        failedCigarettes.increment(failed);
+        lastTotalCount.set(total);
+        lastSuccessRatioBits.set(Double.doubleToLongBits(total > 0 ? succeeded / (double) total : Double.NaN));
     }
 }
-
@@ -0,0 +1,41 @@
+package org.example.application.service.adjust;
+
+import org.example.application.dto.allocation.AdjustCigaretteStrategyResponseDto;
+
+/**
+ * 单支卷烟增量重算服务接口
+ * <p>
+ * 用于人工修改 Info 表中某支卷烟的投放量、投放区域或档位范围后，只重算并重写该卷烟的预测记录，
+ * 复用该周已预热的区域客户统计快照、标签位图、上浮表与编码索引，不触发统计表查询或重建。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+public interface CigaretteRecomputeService {
+
+    /**
+     * 按 Info 表当前投放参数重算单支卷烟并重写其预测记录
+     * <p>
+     * 处理流程（全程占用该周分区，与一键生成分配方案互斥）：
+     * 1. 读取该卷烟的 Info 记录（单行查询）
+     * 2. 校验该周区域客户统计快照已存在（缺失时直接失败，不在重算路径上构建统计表）
+     * 3. 基于快照构建客户矩阵并执行分配算法
+     * 4. 写回 prediction 表（内部先删除该卷烟的旧记录再插入）
+     * 5. 按卷烟查询并返回新分配记录
+     * </p>
+     * <p>
+     * 按价位段自选投放的卷烟需要与同价位段其他卷烟一起截断微调，不支持单支重算。
+     * </p>
+     *
+     * @param year    年份
+     * @param month   月份
+     * @param weekSeq 周序号
+     * @param cigCode 卷烟代码
+     * @param cigName 卷烟名称
+     * @return 重算结果，成功返回新分配记录，失败返回错误信息；该分区正在执行分配任务或其他重算时
+     *         返回错误码为 JOB_ALREADY_RUNNING 的失败结果
+     */
+    AdjustCigaretteStrategyResponseDto recompute(Integer year, Integer month, Integer weekSeq,
+                                                 String cigCode, String cigName);
+}
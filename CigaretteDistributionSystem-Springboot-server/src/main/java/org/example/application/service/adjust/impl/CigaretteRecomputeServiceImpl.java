@@ -0,0 +1,165 @@
+package org.example.application.service.adjust.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.application.converter.DistributionDataConverter;
+import org.example.application.dto.allocation.AdjustCigaretteStrategyResponseDto;
+import org.example.application.service.adjust.CigaretteRecomputeService;
+import org.example.application.service.calculate.DistributionPlanJobService;
+import org.example.application.service.coordinator.AllocationAlgorithmSelector;
+import org.example.application.service.coordinator.CustomerMatrixBuilder;
+import org.example.application.service.coordinator.RegionCustomerStatisticsSnapshotCache;
+import org.example.application.service.writeback.StandardDistributionWriteBackService;
+import org.example.domain.model.valueobject.DeliveryMethodType;
+import org.example.domain.model.valueobject.RegionCustomerMatrix;
+import org.example.domain.repository.CigaretteDistributionInfoRepository;
+import org.example.domain.repository.CigaretteDistributionPredictionRepository;
+import org.example.infrastructure.monitor.AllocationStageMetrics;
+import org.example.shared.exception.DistributionPlanJobConflictException;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 单支卷烟增量重算服务实现类
+ * <p>
+ * 每次调用只访问数据库三次：按卷烟读取 Info 行、写回该卷烟的预测记录、按卷烟读回新记录。
+ * 区域客户数来自 {@link RegionCustomerStatisticsSnapshotCache}，标签、上浮与编码由
+ * {@link CustomerMatrixBuilder} 和写回服务内部的周级缓存提供，连续重算同一周多支卷烟时均为缓存命中。
+ * 重算期间通过 {@link DistributionPlanJobService#runExclusively} 占用该周分区，避免与一键生成分配方案交错删除、写回，
+ * 分区已被占用时不读不写，返回错误码为 {@value #JOB_ALREADY_RUNNING} 的失败结果；
+ * 整体耗时计入 {@code distribution_stage_duration{stage="recompute"}}。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CigaretteRecomputeServiceImpl implements CigaretteRecomputeService {
+
+    /** 分区被占用时的错误码 */
+    public static final String JOB_ALREADY_RUNNING = "JOB_ALREADY_RUNNING";
+
+    private final CigaretteDistributionInfoRepository infoRepository;
+    private final CigaretteDistributionPredictionRepository predictionRepository;
+    private final RegionCustomerStatisticsSnapshotCache snapshotCache;
+    private final CustomerMatrixBuilder customerMatrixBuilder;
+    private final AllocationAlgorithmSelector allocationAlgorithmSelector;
+    private final StandardDistributionWriteBackService standardWriteBackService;
+    private final DistributionPlanJobService distributionPlanJobService;
+    private final AllocationStageMetrics stageMetrics;
+
+    @Override
+    public AdjustCigaretteStrategyResponseDto recompute(Integer year, Integer month, Integer weekSeq,
+                                                        String cigCode, String cigName) {
+        long startNanos = System.nanoTime();
+        if (year == null || month == null || weekSeq == null
+                || !StringUtils.hasText(cigCode) || !StringUtils.hasText(cigName)) {
+            return AdjustCigaretteStrategyResponseDto.failure("年份、月份、周序号、卷烟代码和卷烟名称不能为空");
+        }
+        AdjustCigaretteStrategyResponseDto response;
+        try {
+            response = stageMetrics.record(AllocationStageMetrics.Stage.RECOMPUTE,
+                    () -> distributionPlanJobService.runExclusively(year, month, weekSeq,
+                            () -> recomputeInPartition(year, month, weekSeq, cigCode, cigName)));
+        } catch (DistributionPlanJobConflictException e) {
+            log.warn("单支卷烟重算被拒绝: {}", e.getMessage());
+            return AdjustCigaretteStrategyResponseDto.failure(e.getMessage(), JOB_ALREADY_RUNNING);
+        }
+        if (Boolean.TRUE.equals(response.getSuccess())) {
+            log.info("{}，耗时 {} ms", response.getMessage(), (System.nanoTime() - startNanos) / 1_000_000L);
+        }
+        return response;
+    }
+
+    /**
+     * 在已占用分区的前提下执行重算。
+     */
+    private AdjustCigaretteStrategyResponseDto recomputeInPartition(Integer year, Integer month, Integer weekSeq,
+                                                                    String cigCode, String cigName) {
+        // 1. 读取 Info 行
+        Map<String, Object> info = infoRepository.findByCigCodeAndName(year, month, weekSeq, cigCode, cigName);
+        if (info == null) {
+            return AdjustCigaretteStrategyResponseDto.failure(String.format(
+                    "卷烟不存在：代码[%s]、名称[%s]在批次[%d年%d月第%d周]的投放信息表中未找到",
+                    cigCode, cigName, year, month, weekSeq));
+        }
+
+        String deliveryMethod = DistributionDataConverter.getStringIgnoreCase(info, "delivery_method");
+        Optional<DeliveryMethodType> methodType = DeliveryMethodType.from(deliveryMethod);
+        if (!methodType.isPresent()
+                || (methodType.get() != DeliveryMethodType.GRADE && methodType.get() != DeliveryMethodType.GRADE_EXTEND)) {
+            return AdjustCigaretteStrategyResponseDto.failure(String.format(
+                    "投放类型[%s]不支持单支卷烟重算，请重新生成分配方案", deliveryMethod));
+        }
+
+        String deliveryArea = DistributionDataConverter.getStringIgnoreCase(info, "delivery_area");
+        if (!StringUtils.hasText(deliveryArea)) {
+            return AdjustCigaretteStrategyResponseDto.failure("投放区域为空");
+        }
+        BigDecimal adv = DistributionDataConverter.getBigDecimalIgnoreCase(info, "adv");
+        if (adv == null || adv.compareTo(BigDecimal.ZERO) <= 0) {
+            return AdjustCigaretteStrategyResponseDto.failure("建议投放量必须大于0");
+        }
+
+        // 2. 统计快照必须已预热：重算路径不查询、不重建统计表
+        if (snapshotCache.get(year, month, weekSeq).isEmpty()) {
+            return AdjustCigaretteStrategyResponseDto.failure(String.format(
+                    "批次[%d年%d月第%d周]的区域客户统计数据不存在，请先生成分配方案", year, month, weekSeq));
+        }
+
+        String deliveryEtype = DistributionDataConverter.getStringIgnoreCase(info, "delivery_etype");
+        String tag = DistributionDataConverter.getStringIgnoreCase(info, "tag");
+        String tagFilterConfig = DistributionDataConverter.normalizeTagFilterConfig(
+                DistributionDataConverter.getObjectIgnoreCase(info, "TAG_FILTER_CONFIG"));
+        String remark = DistributionDataConverter.resolveRemark(info);
+        String maxGrade = resolveGrade(DistributionDataConverter.getObjectIgnoreCase(info, "highest_grade"), "D30");
+        String minGrade = resolveGrade(DistributionDataConverter.getObjectIgnoreCase(info, "lowest_grade"), "D1");
+
+        // 3. 构建客户矩阵并执行分配
+        Map<String, Object> extraInfo = new HashMap<>();
+        RegionCustomerMatrix customerMatrix = customerMatrixBuilder.buildWithBoost(
+                year, month, weekSeq, deliveryArea, deliveryMethod, deliveryEtype, tag, remark, extraInfo);
+        if (customerMatrix == null || customerMatrix.isEmpty()) {
+            return AdjustCigaretteStrategyResponseDto.failure("未找到匹配的投放区域");
+        }
+        AllocationAlgorithmSelector.AllocationResult allocResult = allocationAlgorithmSelector.execute(
+                customerMatrix, adv, deliveryMethod, deliveryEtype, tag,
+                maxGrade, minGrade, null, null, extraInfo);
+        if (!allocResult.isSuccess()) {
+            return AdjustCigaretteStrategyResponseDto.failure("分配计算失败: " + allocResult.getMessage());
+        }
+
+        // 4. 写回（内部先删除该卷烟旧记录再插入）
+        boolean written = standardWriteBackService.writeBackSingleCigarette(
+                allocResult.getAllocationMatrix(), allocResult.getCustomerMatrix(), allocResult.getRegions(),
+                cigCode, cigName, year, month, weekSeq,
+                deliveryMethod, deliveryEtype, remark, tag, tagFilterConfig);
+        if (!written) {
+            return AdjustCigaretteStrategyResponseDto.failure("分配矩阵写回数据库失败");
+        }
+
+        // 5. 按卷烟读回新记录
+        List<Map<String, Object>> records = predictionRepository.findByCigarette(year, month, weekSeq, cigCode, cigName);
+        String message = String.format("卷烟 %s(%s) 重算完成，生成 %d 条分配记录", cigName, cigCode, records.size());
+        return AdjustCigaretteStrategyResponseDto.success(records, message);
+    }
+
+    /**
+     * 解析档位字符串。
+     */
+    private String resolveGrade(Object raw, String fallback) {
+        if (raw == null) {
+            return fallback;
+        }
+        String value = raw.toString().trim().toUpperCase();
+        return value.isEmpty() ? fallback : value;
+    }
+}
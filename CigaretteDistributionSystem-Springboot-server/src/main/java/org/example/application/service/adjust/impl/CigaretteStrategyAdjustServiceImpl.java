@@ -10,12 +10,14 @@ import org.example.application.service.adjust.CigaretteStrategyAdjustService;
 import org.example.application.service.coordinator.RegionCustomerStatisticsBuildService;
 import org.example.application.service.coordinator.CustomerMatrixBuilder;
 import org.example.application.service.coordinator.AllocationAlgorithmSelector;
+import org.example.application.service.coordinator.RegionCustomerStatisticsSnapshot;
+import org.example.application.service.coordinator.RegionCustomerStatisticsSnapshotCache;
 import org.example.application.service.writeback.StandardDistributionWriteBackService;
 import org.example.application.service.writeback.PriceBandDistributionWriteBackService;
 import org.example.domain.repository.CigaretteDistributionInfoRepository;
 import org.example.domain.repository.CigaretteDistributionPredictionRepository;
 import org.example.domain.repository.CigaretteDistributionPredictionPriceRepository;
-import org.example.domain.repository.RegionCustomerStatisticsRepository;
+import org.example.domain.repository.FilterCustomerTableRepository;
 import org.example.infrastructure.persistence.po.CigaretteDistributionInfoPO;
 import org.example.shared.util.PartitionTableManager;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -40,7 +42,8 @@ public class CigaretteStrategyAdjustServiceImpl implements CigaretteStrategyAdju
     private final CigaretteDistributionInfoRepository infoRepository;
     private final CigaretteDistributionPredictionRepository predictionRepository;
     private final CigaretteDistributionPredictionPriceRepository predictionPriceRepository;
-    private final RegionCustomerStatisticsRepository regionCustomerStatisticsRepository;
+    private final RegionCustomerStatisticsSnapshotCache regionCustomerStatisticsSnapshotCache;
+    private final FilterCustomerTableRepository filterCustomerTableRepository;
     private final RegionCustomerStatisticsBuildService regionCustomerStatisticsBuildService;
     private final CustomerMatrixBuilder customerMatrixBuilder;
     private final AllocationAlgorithmSelector allocationAlgorithmSelector;
@@ -191,39 +194,17 @@ public class CigaretteStrategyAdjustServiceImpl implements CigaretteStrategyAdju
         
         // 检查是否为固定标签
         String fixedColumn = FIXED_TAG_COLUMN_MAP.get(tagName);
-        if (fixedColumn != null) {
-            // 固定标签：检查对应列是否有非空值
-            String sql = "SELECT COUNT(*) FROM customer_filter " +
-                    "WHERE YEAR = ? AND MONTH = ? AND WEEK_SEQ = ? " +
-                    "AND " + fixedColumn + " IS NOT NULL AND " + fixedColumn + " != ''";
-            
-            Integer count = jdbcTemplate.queryForObject(sql, Integer.class,
-                    request.getYear(), request.getMonth(), request.getWeekSeq());
-            
-            if (count == null || count == 0) {
-                throw new IllegalArgumentException(String.format(
-                        "标签[%s]不存在：在批次[%d年%d月第%d周]的客户数据中未找到该固定标签",
-                        tagName, request.getYear(), request.getMonth(), request.getWeekSeq()));
-            }
-            log.debug("固定标签[{}]校验通过，存在于 {} 条客户记录中", tagName, count);
-        } else {
-            // 动态标签：检查 DYNAMIC_TAGS JSON 字段
-            // JSON路径需要用引号包裹中文键名
-            String jsonPath = "$." + "\"" + tagName + "\"";
-            String sql = "SELECT COUNT(*) FROM customer_filter " +
-                    "WHERE YEAR = ? AND MONTH = ? AND WEEK_SEQ = ? " +
-                    "AND JSON_EXTRACT(DYNAMIC_TAGS, ?) IS NOT NULL";
-
-            Integer count = jdbcTemplate.queryForObject(sql, Integer.class,
-                    request.getYear(), request.getMonth(), request.getWeekSeq(), jsonPath);
-
-            if (count == null || count == 0) {
-                throw new IllegalArgumentException(String.format(
-                        "标签[%s]不存在：在批次[%d年%d月第%d周]的客户数据中未找到该动态标签",
-                        tagName, request.getYear(), request.getMonth(), request.getWeekSeq()));
-            }
-            log.debug("动态标签[{}]校验通过，存在于 {} 条客户记录中", tagName, count);
+        // 固定标签检查对应列是否有非空值，动态标签检查 DYNAMIC_TAGS 中是否存在该键（优先走分区位图索引）
+        long count = filterCustomerTableRepository.countTaggedCustomers(
+                request.getYear(), request.getMonth(), request.getWeekSeq(),
+                fixedColumn != null ? fixedColumn : tagName);
+        if (count == 0) {
+            throw new IllegalArgumentException(String.format(
+                    "标签[%s]不存在：在批次[%d年%d月第%d周]的客户数据中未找到该%s",
+                    tagName, request.getYear(), request.getMonth(), request.getWeekSeq(),
+                    fixedColumn != null ? "固定标签" : "动态标签"));
         }
+        log.debug("{}[{}]校验通过，存在于 {} 条客户记录中", fixedColumn != null ? "固定标签" : "动态标签", tagName, count);
     }
 
     /**
@@ -246,13 +227,14 @@ public class CigaretteStrategyAdjustServiceImpl implements CigaretteStrategyAdju
 
     /**
      * 确保区域客户统计数据存在，如果不存在则追加构建
+     * <p>通过周快照缓存判断，已预热的批次不再查询统计分区。</p>
      */
     private void ensureRegionCustomerStatistics(AdjustCigaretteStrategyRequestDto request) {
         // 检查是否已有区域统计数据
         partitionTableManager.ensurePartitionExists("region_customer_statistics",
                 request.getYear(), request.getMonth(), request.getWeekSeq());
 
-        List<Map<String, Object>> existingStats = regionCustomerStatisticsRepository.findAll(
+        RegionCustomerStatisticsSnapshot existingStats = regionCustomerStatisticsSnapshotCache.get(
                 request.getYear(), request.getMonth(), request.getWeekSeq());
 
         if (existingStats.isEmpty()) {
@@ -261,7 +243,7 @@ public class CigaretteStrategyAdjustServiceImpl implements CigaretteStrategyAdju
             regionCustomerStatisticsBuildService.buildRegionCustomerStatistics(
                     request.getYear(), request.getMonth(), request.getWeekSeq());
         } else {
-            log.debug("区域客户统计数据已存在，共 {} 条记录", existingStats.size());
+            log.debug("区域客户统计数据已存在，共 {} 个区域", existingStats.size());
         }
     }
 
@@ -457,22 +439,15 @@ public class CigaretteStrategyAdjustServiceImpl implements CigaretteStrategyAdju
     }
 
     /**
-     * 查询新分配记录
+     * 查询新分配记录（按卷烟查询，不加载整周预测表）
      */
     private List<Map<String, Object>> queryNewAllocationRecords(AdjustCigaretteStrategyRequestDto request,
                                                                  boolean isPriceBand) {
         if (isPriceBand) {
-            return predictionPriceRepository.findAll(request.getYear(), request.getMonth(), request.getWeekSeq())
-                    .stream()
-                    .filter(r -> request.getCigCode().equals(r.get("CIG_CODE"))
-                            && request.getCigName().equals(r.get("CIG_NAME")))
-                    .collect(java.util.stream.Collectors.toList());
-        } else {
-            return predictionRepository.findAll(request.getYear(), request.getMonth(), request.getWeekSeq())
-                    .stream()
-                    .filter(r -> request.getCigCode().equals(r.get("CIG_CODE"))
-                            && request.getCigName().equals(r.get("CIG_NAME")))
-                    .collect(java.util.stream.Collectors.toList());
+            return predictionPriceRepository.findByCigarette(request.getYear(), request.getMonth(),
+                    request.getWeekSeq(), request.getCigCode(), request.getCigName());
         }
+        return predictionRepository.findByCigarette(request.getYear(), request.getMonth(),
+                request.getWeekSeq(), request.getCigCode(), request.getCigName());
     }
 }
@@ -0,0 +1,81 @@
+package org.example.application.service.calculate;
+
+import org.example.application.dto.allocation.DistributionPlanJobDto;
+import org.example.application.dto.allocation.GenerateDistributionPlanRequestDto;
+import org.example.application.dto.allocation.GenerateDistributionPlanResponseDto;
+import org.example.shared.exception.DistributionPlanJobConflictException;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 一键生成分配方案异步任务服务接口。
+ * <p>
+ * 同一分区（year/month/weekSeq）同一时间只允许一个任务执行（进程内互斥），
+ * 任务状态、进度与阶段耗时写入 {@code distribution_plan_job} 表，服务重启后仍可查询历史。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+public interface DistributionPlanJobService {
+
+    /**
+     * 提交异步任务，立即返回。
+     *
+     * @param request 生成分配方案请求 DTO
+     * @return 任务快照（含 jobId）
+     * @throws DistributionPlanJobConflictException 该分区已有任务在执行
+     */
+    DistributionPlanJobDto submit(GenerateDistributionPlanRequestDto request);
+
+    /**
+     * 在调用线程中执行任务并等待结果（同步接口使用，同样受分区互斥约束并记录任务历史）。
+     *
+     * @param request 生成分配方案请求 DTO
+     * @return 生成结果响应 DTO
+     * @throws DistributionPlanJobConflictException 该分区已有任务在执行
+     */
+    GenerateDistributionPlanResponseDto runAndWait(GenerateDistributionPlanRequestDto request);
+
+    /**
+     * 占用分区执行一段短小的写操作（如单支卷烟重算），期间该分区不能提交分配任务，反之亦然。
+     * <p>该操作不登记任务历史。</p>
+     *
+     * @param year    年份
+     * @param month   月份
+     * @param weekSeq 周序号
+     * @param action  写操作
+     * @param <T>     结果类型
+     * @return 写操作结果
+     * @throws DistributionPlanJobConflictException 该分区已有任务在执行
+     */
+    <T> T runExclusively(Integer year, Integer month, Integer weekSeq, Supplier<T> action);
+
+    /**
+     * 查询任务状态与进度。
+     *
+     * @param jobId 任务ID
+     * @return 任务快照，不存在时返回 null
+     */
+    DistributionPlanJobDto getJob(String jobId);
+
+    /**
+     * 取消任务：排队中的任务直接取消；执行中的任务在当前卷烟处理完后停止，已写回的卷烟不回滚。
+     *
+     * @param jobId 任务ID
+     * @return 任务快照，不存在时返回 null
+     */
+    DistributionPlanJobDto cancel(String jobId);
+
+    /**
+     * 查询任务历史。
+     *
+     * @param year    年份，null 表示不过滤
+     * @param month   月份，null 表示不过滤
+     * @param weekSeq 周序号，null 表示不过滤
+     * @param limit   最大条数
+     * @return 任务列表（按创建时间倒序）
+     */
+    List<DistributionPlanJobDto> listJobs(Integer year, Integer month, Integer weekSeq, int limit);
+}
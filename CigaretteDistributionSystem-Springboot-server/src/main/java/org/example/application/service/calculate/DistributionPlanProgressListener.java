@@ -0,0 +1,69 @@
+package org.example.application.service.calculate;
+
+/**
+ * 一键生成分配方案进度监听器。
+ * <p>
+ * 由分配流程在阶段切换、逐卷烟完成时回调；实现方需保证线程安全（卷烟完成回调来自并行计算线程与写回线程）。
+ * 分配流程在处理每支卷烟前、每个阶段开始前检查 {@link #isCancelled()}，已取消时跳过剩余工作。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+public interface DistributionPlanProgressListener {
+
+    /** 阶段：查询待分配卷烟 */
+    String STAGE_QUERY = "查询卷烟";
+    /** 阶段：删除已有分配结果 */
+    String STAGE_DELETE = "删除旧数据";
+    /** 阶段：标准分配（计算 + 写回） */
+    String STAGE_STANDARD = "标准分配";
+    /** 阶段：价位段分配 */
+    String STAGE_PRICE_BAND = "价位段分配";
+
+    /** 不记录进度、不可取消的空实现 */
+    DistributionPlanProgressListener NOOP = new DistributionPlanProgressListener() {
+    };
+
+    /**
+     * 阶段开始。
+     *
+     * @param stage 阶段名称
+     */
+    default void onStageStarted(String stage) {
+    }
+
+    /**
+     * 阶段结束。
+     *
+     * @param stage 阶段名称
+     */
+    default void onStageFinished(String stage) {
+    }
+
+    /**
+     * 本阶段待处理卷烟数（可多次调用累加）。
+     *
+     * @param count 卷烟数
+     */
+    default void onCigarettesPlanned(int count) {
+    }
+
+    /**
+     * 单支卷烟处理完成（含写回结果）。
+     *
+     * @param cigCode 卷烟代码
+     * @param cigName 卷烟名称
+     * @param success 是否分配并写回成功
+     * @param message 结果说明
+     */
+    default void onCigaretteCompleted(String cigCode, String cigName, boolean success, String message) {
+    }
+
+    /**
+     * @return 是否已请求取消
+     */
+    default boolean isCancelled() {
+        return false;
+    }
+}
@@ -56,6 +56,18 @@ public interface StandardAllocationService {
     GenerateDistributionPlanResponseDto generateDistributionPlan(GenerateDistributionPlanRequestDto request, 
                                                                   List<Map<String, Object>> cigaretteList);
 
+    /**
+     * 生成分配方案（接收已过滤的标准分配卷烟列表，并回报进度）。
+     *
+     * @param request        一键生成分配方案请求 DTO
+     * @param cigaretteList  已过滤的标准分配卷烟列表（按档位投放、按档位扩展投放）
+     * @param listener       进度监听器（逐卷烟完成回调；已取消时剩余卷烟记为"跳过"）
+     * @return 一键生成分配方案响应 DTO
+     */
+    GenerateDistributionPlanResponseDto generateDistributionPlan(GenerateDistributionPlanRequestDto request,
+                                                                  List<Map<String, Object>> cigaretteList,
+                                                                  DistributionPlanProgressListener listener);
+
     /**
      * 计算指定时间范围内所有卷烟的总实际投放量。
      *
@@ -28,4 +28,18 @@ public interface UnifiedAllocationService {
      * @return 生成结果响应 DTO
      */
     GenerateDistributionPlanResponseDto generateDistributionPlan(GenerateDistributionPlanRequestDto request);
+
+    /**
+     * 一键生成分配方案（统一入口，回报进度）。
+     * <p>
+     * 各阶段开始/结束、每支卷烟完成时回调监听器；阶段之间及每支卷烟处理前检查取消标志，
+     * 已取消时不再进入后续阶段，返回 success=false 的响应。
+     * </p>
+     *
+     * @param request  生成分配方案请求 DTO
+     * @param listener 进度监听器
+     * @return 生成结果响应 DTO
+     */
+    GenerateDistributionPlanResponseDto generateDistributionPlan(GenerateDistributionPlanRequestDto request,
+                                                                 DistributionPlanProgressListener listener);
 }
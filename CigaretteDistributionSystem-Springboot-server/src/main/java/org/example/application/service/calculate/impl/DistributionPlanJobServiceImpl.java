@@ -0,0 +1,489 @@
+package org.example.application.service.calculate.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.example.application.dto.allocation.DistributionPlanJobDto;
+import org.example.application.dto.allocation.GenerateDistributionPlanRequestDto;
+import org.example.application.dto.allocation.GenerateDistributionPlanResponseDto;
+import org.example.application.service.calculate.DistributionPlanJobService;
+import org.example.application.service.calculate.DistributionPlanProgressListener;
+import org.example.application.service.calculate.UnifiedAllocationService;
+import org.example.domain.model.valueobject.DistributionPlanJobStatus;
+import org.example.domain.repository.DistributionPlanJobRepository;
+import org.example.infrastructure.config.allocation.AllocationExecutionProperties;
+import org.example.infrastructure.persistence.po.DistributionPlanJobPO;
+import org.example.shared.exception.DistributionPlanJobConflictException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 一键生成分配方案异步任务服务实现类。
+ * <p>
+ * 职责：
+ * <ul>
+ *   <li>按分区（year-month-weekSeq）在进程内互斥，同一分区同一时间只允许一个任务（含同步接口与单支卷烟重算）；</li>
+ *   <li>任务在固定大小的线程池中执行，作为 {@link DistributionPlanProgressListener} 收集阶段耗时与逐卷烟进度；</li>
+ *   <li>阶段切换、每处理 {@value #PERSIST_EVERY} 支卷烟以及任务结束时写入 {@code distribution_plan_job} 表，
+ *       写表失败只记录警告，不影响分配本身；</li>
+ *   <li>启动时把上次进程遗留的未结束任务标记为失败。</li>
+ * </ul>
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@Slf4j
+@Service
+public class DistributionPlanJobServiceImpl implements DistributionPlanJobService, DisposableBean {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /** 每处理多少支卷烟持久化一次进度 */
+    private static final int PERSIST_EVERY = 100;
+
+    /** 最多记录的失败卷烟明细条数 */
+    private static final int MAX_FAILURES = 200;
+
+    /** message 字段最大长度（与表结构一致） */
+    private static final int MAX_MESSAGE_LENGTH = 1000;
+
+    private final UnifiedAllocationService unifiedAllocationService;
+    private final DistributionPlanJobRepository jobRepository;
+    private final ExecutorService jobExecutor;
+
+    /** 未结束或尚未成功持久化的任务：jobId → 任务 */
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    /** 分区互斥：year-month-weekSeq → 占用该分区的任务 */
+    private final Map<String, Job> activePartitions = new ConcurrentHashMap<>();
+
+    public DistributionPlanJobServiceImpl(UnifiedAllocationService unifiedAllocationService,
+                                          DistributionPlanJobRepository jobRepository,
+                                          AllocationExecutionProperties properties) {
+        this.unifiedAllocationService = unifiedAllocationService;
+        this.jobRepository = jobRepository;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.jobExecutor = Executors.newFixedThreadPool(Math.max(1, properties.getMaxConcurrentJobs()), runnable -> {
+            Thread thread = new Thread(runnable, "distribution-plan-job-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 确保任务表存在，并将上次进程遗留的未结束任务标记为失败。
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            jobRepository.createTableIfNotExists();
+            int interrupted = jobRepository.markUnfinishedAsFailed("服务重启，任务中断");
+            if (interrupted > 0) {
+                log.warn("服务重启，{} 个未结束的分配任务已标记为失败", interrupted);
+            }
+        } catch (Exception e) {
+            log.warn("初始化分配任务表失败，任务历史将不可用: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public DistributionPlanJobDto submit(GenerateDistributionPlanRequestDto request) {
+        Job job = claim(request);
+        persist(job);
+        try {
+            jobExecutor.execute(() -> {
+                try {
+                    execute(job);
+                } catch (Exception e) {
+                    log.error("分配任务执行失败: jobId={}", job.jobId, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            complete(job, DistributionPlanJobStatus.FAILED, "任务提交失败: 执行线程池已关闭");
+        }
+        log.info("已提交分配任务: jobId={}, 分区={}", job.jobId, job.partitionKey);
+        return job.snapshot();
+    }
+
+    @Override
+    public GenerateDistributionPlanResponseDto runAndWait(GenerateDistributionPlanRequestDto request) {
+        Job job = claim(request);
+        persist(job);
+        return execute(job);
+    }
+
+    @Override
+    public <T> T runExclusively(Integer year, Integer month, Integer weekSeq, Supplier<T> action) {
+        GenerateDistributionPlanRequestDto request = new GenerateDistributionPlanRequestDto();
+        request.setYear(year);
+        request.setMonth(month);
+        request.setWeekSeq(weekSeq);
+        // 仅用于占位的任务，不进入任务列表
+        Job holder = new Job("exclusive-" + UUID.randomUUID().toString().replace("-", ""), request);
+        occupy(holder);
+        try {
+            return action.get();
+        } finally {
+            activePartitions.remove(holder.partitionKey, holder);
+        }
+    }
+
+    @Override
+    public DistributionPlanJobDto getJob(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job != null) {
+            return job.snapshot();
+        }
+        DistributionPlanJobPO po = jobRepository.findByJobId(jobId);
+        return po != null ? toDto(po) : null;
+    }
+
+    @Override
+    public DistributionPlanJobDto cancel(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            // 已结束的任务无需取消，直接返回历史
+            return getJob(jobId);
+        }
+        if (job.cancel()) {
+            // 排队中的任务直接结束并释放分区
+            log.info("已取消排队中的分配任务: jobId={}", jobId);
+            release(job);
+        } else {
+            log.info("已请求取消执行中的分配任务: jobId={}", jobId);
+            persist(job);
+        }
+        return job.snapshot();
+    }
+
+    @Override
+    public List<DistributionPlanJobDto> listJobs(Integer year, Integer month, Integer weekSeq, int limit) {
+        Map<String, DistributionPlanJobDto> result = new LinkedHashMap<>();
+        try {
+            for (DistributionPlanJobPO po : jobRepository.findRecent(year, month, weekSeq, limit)) {
+                result.put(po.getJobId(), toDto(po));
+            }
+        } catch (Exception e) {
+            log.warn("查询分配任务历史失败，仅返回内存中的任务: {}", e.getMessage());
+        }
+        // 内存中的任务进度比表中更新
+        for (Job job : jobs.values()) {
+            if ((year == null || year.equals(job.request.getYear()))
+                    && (month == null || month.equals(job.request.getMonth()))
+                    && (weekSeq == null || weekSeq.equals(job.request.getWeekSeq()))) {
+                result.put(job.jobId, job.snapshot());
+            }
+        }
+        return result.values().stream()
+                .sorted(Comparator.comparing(DistributionPlanJobDto::getCreatedAt,
+                        Comparator.nullsLast(Comparator.reverseOrder())))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void destroy() {
+        for (Job job : jobs.values()) {
+            job.cancelRequested = true;
+        }
+        jobExecutor.shutdownNow();
+    }
+
+    /**
+     * 占用分区并登记任务。
+     */
+    private Job claim(GenerateDistributionPlanRequestDto request) {
+        Job job = new Job(UUID.randomUUID().toString().replace("-", ""), request);
+        occupy(job);
+        jobs.put(job.jobId, job);
+        return job;
+    }
+
+    /**
+     * 占用分区，已被占用时抛出冲突异常。
+     */
+    private void occupy(Job job) {
+        Job existing = activePartitions.putIfAbsent(job.partitionKey, job);
+        if (existing != null) {
+            throw new DistributionPlanJobConflictException(job.partitionKey, existing.jobId);
+        }
+    }
+
+    /**
+     * 在当前线程执行任务，结束后释放分区。
+     */
+    private GenerateDistributionPlanResponseDto execute(Job job) {
+        if (!job.start()) {
+            // 排队期间已被取消
+            GenerateDistributionPlanResponseDto cancelled = new GenerateDistributionPlanResponseDto();
+            cancelled.setYear(job.request.getYear());
+            cancelled.setMonth(job.request.getMonth());
+            cancelled.setWeekSeq(job.request.getWeekSeq());
+            cancelled.setSuccess(false);
+            cancelled.setMessage("任务已取消");
+            return cancelled;
+        }
+        persist(job);
+        DistributionPlanJobStatus status = DistributionPlanJobStatus.FAILED;
+        String message = null;
+        try {
+            GenerateDistributionPlanResponseDto response = unifiedAllocationService.generateDistributionPlan(job.request, job);
+            if (job.cancelRequested) {
+                status = DistributionPlanJobStatus.CANCELLED;
+            } else if (response.isSuccess()) {
+                status = DistributionPlanJobStatus.SUCCEEDED;
+            }
+            message = response.getMessage();
+            return response;
+        } catch (RuntimeException e) {
+            message = "任务执行失败: " + e.getMessage();
+            throw e;
+        } finally {
+            complete(job, status, message);
+        }
+    }
+
+    /**
+     * 结束任务：先释放分区再更新状态，保证查询到终止状态时分区已可重新提交。
+     */
+    private void complete(Job job, DistributionPlanJobStatus status, String message) {
+        activePartitions.remove(job.partitionKey, job);
+        job.finish(status, message);
+        release(job);
+    }
+
+    /**
+     * 释放分区并持久化最终状态；持久化成功后从内存中移除。
+     */
+    private void release(Job job) {
+        activePartitions.remove(job.partitionKey, job);
+        if (persist(job)) {
+            jobs.remove(job.jobId, job);
+        }
+    }
+
+    /**
+     * 持久化任务快照，失败只记录警告。
+     *
+     * @return 是否保存成功
+     */
+    private boolean persist(Job job) {
+        try {
+            jobRepository.save(toPo(job.snapshot()));
+            return true;
+        } catch (Exception e) {
+            log.warn("保存分配任务状态失败: jobId={}, {}", job.jobId, e.getMessage());
+            return false;
+        }
+    }
+
+    private static DistributionPlanJobPO toPo(DistributionPlanJobDto dto) throws Exception {
+        DistributionPlanJobPO po = new DistributionPlanJobPO();
+        po.setJobId(dto.getJobId());
+        po.setYear(dto.getYear());
+        po.setMonth(dto.getMonth());
+        po.setWeekSeq(dto.getWeekSeq());
+        po.setStatus(dto.getStatus().name());
+        po.setCurrentStage(dto.getCurrentStage());
+        po.setStageTimings(OBJECT_MAPPER.writeValueAsString(dto.getStageTimings()));
+        po.setTotalCount(dto.getTotalCount());
+        po.setProcessedCount(dto.getProcessedCount());
+        po.setSuccessCount(dto.getSuccessCount());
+        po.setFailedCount(dto.getFailedCount());
+        po.setFailures(OBJECT_MAPPER.writeValueAsString(dto.getFailures()));
+        po.setMessage(dto.getMessage());
+        po.setCreatedAt(dto.getCreatedAt());
+        po.setStartedAt(dto.getStartedAt());
+        po.setFinishedAt(dto.getFinishedAt());
+        return po;
+    }
+
+    private static DistributionPlanJobDto toDto(DistributionPlanJobPO po) {
+        DistributionPlanJobDto dto = new DistributionPlanJobDto();
+        dto.setJobId(po.getJobId());
+        dto.setYear(po.getYear());
+        dto.setMonth(po.getMonth());
+        dto.setWeekSeq(po.getWeekSeq());
+        dto.setStatus(DistributionPlanJobStatus.valueOf(po.getStatus()));
+        dto.setCurrentStage(po.getCurrentStage());
+        dto.setTotalCount(po.getTotalCount());
+        dto.setProcessedCount(po.getProcessedCount());
+        dto.setSuccessCount(po.getSuccessCount());
+        dto.setFailedCount(po.getFailedCount());
+        dto.setMessage(po.getMessage());
+        dto.setCreatedAt(po.getCreatedAt());
+        dto.setStartedAt(po.getStartedAt());
+        dto.setFinishedAt(po.getFinishedAt());
+        try {
+            if (po.getStageTimings() != null) {
+                dto.setStageTimings(OBJECT_MAPPER.readValue(po.getStageTimings(),
+                        new TypeReference<LinkedHashMap<String, Long>>() { }));
+            }
+            if (po.getFailures() != null) {
+                dto.setFailures(OBJECT_MAPPER.readValue(po.getFailures(), new TypeReference<List<String>>() { }));
+            }
+        } catch (Exception e) {
+            log.warn("解析分配任务明细失败: jobId={}, {}", po.getJobId(), e.getMessage());
+        }
+        return dto;
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_MESSAGE_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_MESSAGE_LENGTH);
+    }
+
+    /**
+     * 单个任务的运行状态，同时作为分配流程的进度监听器。
+     */
+    private final class Job implements DistributionPlanProgressListener {
+
+        private final String jobId;
+        private final String partitionKey;
+        private final GenerateDistributionPlanRequestDto request;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+
+        private final AtomicInteger totalCount = new AtomicInteger();
+        private final AtomicInteger processedCount = new AtomicInteger();
+        private final AtomicInteger successCount = new AtomicInteger();
+        private final AtomicInteger failedCount = new AtomicInteger();
+        private final List<String> failures = new ArrayList<>();
+        private final Map<String, Long> stageStartNanos = new LinkedHashMap<>();
+        private final Map<String, Long> stageTimings = new LinkedHashMap<>();
+
+        private volatile boolean cancelRequested;
+        private DistributionPlanJobStatus status = DistributionPlanJobStatus.QUEUED;
+        private String currentStage;
+        private String message;
+        private LocalDateTime startedAt;
+        private LocalDateTime finishedAt;
+
+        private Job(String jobId, GenerateDistributionPlanRequestDto request) {
+            this.jobId = jobId;
+            this.request = request;
+            this.partitionKey = request.getYear() + "-" + request.getMonth() + "-" + request.getWeekSeq();
+        }
+
+        /**
+         * QUEUED → RUNNING。
+         *
+         * @return false 表示排队期间已被取消
+         */
+        private synchronized boolean start() {
+            if (status != DistributionPlanJobStatus.QUEUED) {
+                return false;
+            }
+            status = DistributionPlanJobStatus.RUNNING;
+            startedAt = LocalDateTime.now();
+            return true;
+        }
+
+        /**
+         * 请求取消。
+         *
+         * @return true 表示任务尚在排队，已直接结束
+         */
+        private synchronized boolean cancel() {
+            cancelRequested = true;
+            if (status == DistributionPlanJobStatus.QUEUED) {
+                activePartitions.remove(partitionKey, this);
+                status = DistributionPlanJobStatus.CANCELLED;
+                message = "任务已取消";
+                finishedAt = LocalDateTime.now();
+                return true;
+            }
+            return false;
+        }
+
+        private synchronized void finish(DistributionPlanJobStatus finalStatus, String finalMessage) {
+            status = finalStatus;
+            message = truncate(finalMessage);
+            currentStage = null;
+            finishedAt = LocalDateTime.now();
+        }
+
+        @Override
+        public void onStageStarted(String stage) {
+            synchronized (this) {
+                currentStage = stage;
+                stageStartNanos.put(stage, System.nanoTime());
+            }
+            persist(this);
+        }
+
+        @Override
+        public synchronized void onStageFinished(String stage) {
+            Long start = stageStartNanos.get(stage);
+            if (start != null) {
+                stageTimings.put(stage, (System.nanoTime() - start) / 1_000_000L);
+            }
+        }
+
+        @Override
+        public void onCigarettesPlanned(int count) {
+            totalCount.addAndGet(count);
+        }
+
+        @Override
+        public void onCigaretteCompleted(String cigCode, String cigName, boolean success, String detail) {
+            if (success) {
+                successCount.incrementAndGet();
+            } else {
+                failedCount.incrementAndGet();
+                synchronized (this) {
+                    if (failures.size() < MAX_FAILURES) {
+                        failures.add(cigCode + "-" + cigName + ": " + detail);
+                    }
+                }
+            }
+            if (processedCount.incrementAndGet() % PERSIST_EVERY == 0) {
+                persist(this);
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelRequested;
+        }
+
+        private synchronized DistributionPlanJobDto snapshot() {
+            DistributionPlanJobDto dto = new DistributionPlanJobDto();
+            dto.setJobId(jobId);
+            dto.setYear(request.getYear());
+            dto.setMonth(request.getMonth());
+            dto.setWeekSeq(request.getWeekSeq());
+            dto.setStatus(status);
+            dto.setCurrentStage(currentStage);
+            dto.setStageTimings(new LinkedHashMap<>(stageTimings));
+            dto.setTotalCount(totalCount.get());
+            dto.setProcessedCount(processedCount.get());
+            dto.setSuccessCount(successCount.get());
+            dto.setFailedCount(failedCount.get());
+            dto.setFailures(new ArrayList<>(failures));
+            dto.setMessage(message);
+            dto.setCreatedAt(createdAt);
+            dto.setStartedAt(startedAt);
+            dto.setFinishedAt(finishedAt);
+            return dto;
+        }
+    }
+}
@@ -4,10 +4,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.example.domain.model.valueobject.RegionCustomerMatrix;
 import org.example.application.service.calculate.PriceBandAllocationService;
 import org.example.application.service.coordinator.CustomerMatrixBuilder;
+import org.example.application.service.coordinator.PriceBandAllocationEngine;
 import org.example.application.service.coordinator.PriceBandCandidateQueryService;
 import org.example.application.service.writeback.PriceBandDistributionWriteBackService;
 import org.example.domain.service.algorithm.PriceBandTruncationService;
-import org.example.domain.service.algorithm.SingleLevelDistributionService;
+import org.example.infrastructure.monitor.AllocationStageMetrics;
 import org.example.shared.util.WriteBackHelper;
 import org.springframework.stereotype.Service;
 
@@ -29,22 +30,25 @@ import java.util.*;
 public class PriceBandAllocationServiceImpl implements PriceBandAllocationService {
 
     private final PriceBandCandidateQueryService priceBandCandidateQueryService;
-    private final SingleLevelDistributionService singleLevelDistributionService;
+    private final PriceBandAllocationEngine priceBandAllocationEngine;
     private final PriceBandTruncationService priceBandTruncationService;
     private final CustomerMatrixBuilder customerMatrixBuilder;
     private final PriceBandDistributionWriteBackService writeBackService;
+    private final AllocationStageMetrics stageMetrics;
 
     public PriceBandAllocationServiceImpl(
             PriceBandCandidateQueryService priceBandCandidateQueryService,
-            SingleLevelDistributionService singleLevelDistributionService,
+            PriceBandAllocationEngine priceBandAllocationEngine,
             PriceBandTruncationService priceBandTruncationService,
             CustomerMatrixBuilder customerMatrixBuilder,
-            PriceBandDistributionWriteBackService writeBackService) {
+            PriceBandDistributionWriteBackService writeBackService,
+            AllocationStageMetrics stageMetrics) {
         this.priceBandCandidateQueryService = priceBandCandidateQueryService;
-        this.singleLevelDistributionService = singleLevelDistributionService;
+        this.priceBandAllocationEngine = priceBandAllocationEngine;
         this.priceBandTruncationService = priceBandTruncationService;
         this.customerMatrixBuilder = customerMatrixBuilder;
         this.writeBackService = writeBackService;
+        this.stageMetrics = stageMetrics;
     }
 
     /**
@@ -87,7 +91,7 @@ public class PriceBandAllocationServiceImpl implements PriceBandAllocationServic
      * <ol>
      *   <li>补充价位段信息（从价目表获取 PRICE_BAND）</li>
      *   <li>构建"全市"区域客户矩阵（汇总所有区域的客户数）</li>
-     *   <li>为每支卷烟执行 SingleLevel 初分配</li>
+     *   <li>并行执行每支卷烟的 SingleLevel 初分配（{@link PriceBandAllocationEngine}）</li>
      *   <li>按价位段分组，筛选需要截断的价位段（组内卷烟数 > 1）</li>
      *   <li>对需要截断的价位段执行截断与微调</li>
      *   <li>将分配结果写回 cigarette_distribution_prediction_price 表</li>
@@ -126,35 +130,30 @@ public class PriceBandAllocationServiceImpl implements PriceBandAllocationServic
             log.warn("region_customer_statistics 在 {}-{}-{} 分区无数据，无法执行价位段自选投放分配", year, month, weekSeq);
             return 0;
         }
-        BigDecimal[] baseCustomerRow = cityMatrixBase.getRows().get(0).getGrades();
+        // 全市客户数行在并行初分配、截断与写回之间只读共享
+        BigDecimal[] baseCustomerRow = PriceBandAllocationEngine.shareableCustomerRow(
+                cityMatrixBase.getRows().get(0).getGrades());
 
         // 3) 检查是否有卷烟需要两周一访上浮
-        boolean anyNeedsBoost = checkIfAnyNeedsBoost(candidates);
-        BigDecimal[] boostedCustomerRow = null;
-        if (anyNeedsBoost) {
-            // 构建上浮后的客户矩阵（传入任意一个需要上浮的卷烟备注即可）
-            String boostRemark = extractBoostRemark(candidates);
-            RegionCustomerMatrix cityMatrixBoosted = customerMatrixBuilder.buildWithBoost(
-                    year, month, weekSeq, "全市",
-                    "按价位段自选投放", null, null,
-                    boostRemark, null);
-            if (!cityMatrixBoosted.isEmpty()) {
-                boostedCustomerRow = cityMatrixBoosted.getRows().get(0).getGrades();
-                log.info("价位段分配：检测到需要两周一访上浮的卷烟，已准备上浮后客户数矩阵");
-            }
-        }
+        BigDecimal[] boostedCustomerRow = buildBoostedCustomerRow(candidates, year, month, weekSeq);
 
-        List<String> targetRegions = Collections.singletonList("全市");
-
-        // 4) 为每支候选卷烟执行 SingleLevel 初分配（根据备注选择客户数数组）
-        executeSingleLevelAllocationWithBoost(candidates, targetRegions, baseCustomerRow, boostedCustomerRow);
+        // 4) 并行执行每支候选卷烟的 SingleLevel 初分配（根据备注选择客户数数组），汇总后再写入 GRADES
+        BigDecimal[][] initialGrades = priceBandAllocationEngine.allocateInitialGrades(
+                candidates, baseCustomerRow, boostedCustomerRow);
+        for (int i = 0; i < candidates.size(); i++) {
+            candidates.get(i).put("GRADES", initialGrades[i]);
+        }
+        log.debug("价位段初分配完成: year={}, month={}, weekSeq={}, cigarettes={}, boosted={}",
+                year, month, weekSeq, candidates.size(), boostedCustomerRow != null);
 
         // 5) 按价位段分组，筛选需要截断的价位段
         Map<Integer, List<Map<String, Object>>> bandsNeedingTruncation = groupAndFilterBands(candidates);
 
         // 6) 对需要截断的价位段执行截断与微调（传入两份客户数数组和 GradeRange）
-        priceBandTruncationService.truncateAndAdjust(bandsNeedingTruncation, baseCustomerRow, boostedCustomerRow, 
-                org.example.domain.model.valueobject.GradeRange.full(), year, month, weekSeq);
+        stageMetrics.record(AllocationStageMetrics.Stage.TRUNCATION,
+                () -> priceBandTruncationService.truncateAndAdjust(bandsNeedingTruncation, baseCustomerRow,
+                        boostedCustomerRow, org.example.domain.model.valueobject.GradeRange.full(),
+                        year, month, weekSeq));
 
         // 7) 将分配结果写回
         writeBackService.writeBackPriceBandAllocations(candidates, year, month, weekSeq, baseCustomerRow);
@@ -164,6 +163,27 @@ public class PriceBandAllocationServiceImpl implements PriceBandAllocationServic
         return candidates.size();
     }
 
+    /**
+     * 若有卷烟需要两周一访上浮，构建上浮后的全市客户数行；否则返回 null。
+     */
+    private BigDecimal[] buildBoostedCustomerRow(List<Map<String, Object>> candidates,
+                                                 Integer year, Integer month, Integer weekSeq) {
+        if (!checkIfAnyNeedsBoost(candidates)) {
+            return null;
+        }
+        // 构建上浮后的客户矩阵（传入任意一个需要上浮的卷烟备注即可）
+        String boostRemark = extractBoostRemark(candidates);
+        RegionCustomerMatrix cityMatrixBoosted = customerMatrixBuilder.buildWithBoost(
+                year, month, weekSeq, "全市",
+                "按价位段自选投放", null, null,
+                boostRemark, null);
+        if (cityMatrixBoosted.isEmpty()) {
+            return null;
+        }
+        log.info("价位段分配：检测到需要两周一访上浮的卷烟，已准备上浮后客户数矩阵");
+        return PriceBandAllocationEngine.shareableCustomerRow(cityMatrixBoosted.getRows().get(0).getGrades());
+    }
+
     /**
      * 补充价位段信息。
      * <p>
@@ -215,56 +235,6 @@ public class PriceBandAllocationServiceImpl implements PriceBandAllocationServic
         return result;
     }
 
-    /**
-     * 为每支候选卷烟执行 SingleLevel 初分配（支持两周一访上浮）。
-     * <p>
-     * 对每支卷烟根据其备注判断是否需要上浮：
-     * - 如果备注包含"两周一访上浮100%"，使用上浮后的客户数
-     * - 否则使用原始客户数
-     * </p>
-     *
-     * @param candidates         候选卷烟列表
-     * @param targetRegions      目标区域列表（价位段分配固定为 ["全市"]）
-     * @param baseCustomerRow    原始客户数数组
-     * @param boostedCustomerRow 上浮后客户数数组（可能为 null）
-     */
-    private void executeSingleLevelAllocationWithBoost(List<Map<String, Object>> candidates,
-                                                       List<String> targetRegions,
-                                                       BigDecimal[] baseCustomerRow,
-                                                       BigDecimal[] boostedCustomerRow) {
-        for (Map<String, Object> row : candidates) {
-            BigDecimal adv = WriteBackHelper.toBigDecimal(row.get("ADV"));
-            String cigCode = WriteBackHelper.getString(row, "CIG_CODE");
-            String cigName = WriteBackHelper.getString(row, "CIG_NAME");
-            String remark = WriteBackHelper.getString(row, "BZ");
-            
-            if (adv == null || adv.compareTo(BigDecimal.ZERO) <= 0) {
-                row.put("GRADES", new BigDecimal[30]);
-                continue;
-            }
-
-            // 根据备注选择使用哪个客户数数组
-            boolean needsBoost = remark != null && remark.contains("两周一访上浮100%");
-            BigDecimal[] customerRow = (needsBoost && boostedCustomerRow != null) ? boostedCustomerRow : baseCustomerRow;
-            
-            BigDecimal[][] regionCustomerMatrix = new BigDecimal[][]{customerRow};
-            BigDecimal[][] allocation = singleLevelDistributionService.distribute(targetRegions, regionCustomerMatrix, adv, org.example.domain.model.valueobject.GradeRange.full());
-            
-            if (allocation == null || allocation.length == 0) {
-                System.out.println("[价位段初分配] 卷烟=" + cigName + "(" + cigCode + "), ADV=" + adv + ", 分配结果为空数组!");
-                row.put("GRADES", new BigDecimal[30]);
-            } else {
-                BigDecimal[] grades = allocation[0];
-                if (grades == null || grades.length == 0) {
-                    System.out.println("[价位段初分配] 卷烟=" + cigName + "(" + cigCode + "), ADV=" + adv + ", grades为空!");
-                    row.put("GRADES", new BigDecimal[30]);
-                } else {
-                    row.put("GRADES", grades);
-                }
-            }
-        }
-    }
-
     /**
      * 按价位段分组，筛选需要截断的价位段。
      * <p>
@@ -313,7 +283,7 @@ public class PriceBandAllocationServiceImpl implements PriceBandAllocationServic
         }
         for (Map<String, Object> candidate : candidates) {
             String remark = WriteBackHelper.getString(candidate, "BZ");
-            if (remark != null && remark.contains("两周一访上浮100%")) {
+            if (remark != null && remark.contains(PriceBandAllocationEngine.BOOST_REMARK_KEYWORD)) {
                 return true;
             }
         }
@@ -335,7 +305,7 @@ public class PriceBandAllocationServiceImpl implements PriceBandAllocationServic
         }
         for (Map<String, Object> candidate : candidates) {
             String remark = WriteBackHelper.getString(candidate, "BZ");
-            if (remark != null && remark.contains("两周一访上浮100%")) {
+            if (remark != null && remark.contains(PriceBandAllocationEngine.BOOST_REMARK_KEYWORD)) {
                 return remark;
             }
         }
@@ -8,11 +8,15 @@ import org.example.application.dto.allocation.TotalActualDeliveryResponseDto;
 import org.example.infrastructure.persistence.po.CigaretteDistributionInfoPO;
 import org.example.infrastructure.persistence.po.CigaretteDistributionPredictionPO;
 import org.example.domain.model.valueobject.RegionCustomerMatrix;
+import org.example.application.service.calculate.DistributionPlanProgressListener;
 import org.example.application.service.calculate.StandardAllocationService;
 import org.example.application.service.coordinator.CustomerMatrixBuilder;
 import org.example.application.service.coordinator.AllocationAlgorithmSelector;
+import org.example.application.service.coordinator.AllocationTaskExecutor;
 import org.example.application.service.prediction.PartitionPredictionQueryService;
+import org.example.application.service.writeback.PreparedCigaretteWriteBack;
 import org.example.application.service.writeback.StandardDistributionWriteBackService;
+import org.example.application.service.writeback.StandardWriteBackPipeline;
 import org.example.domain.model.valueobject.DeliveryMethodType;
 import org.example.domain.repository.CigaretteDistributionInfoRepository;
 import org.example.domain.repository.RegionCustomerStatisticsRepository;
@@ -66,6 +70,12 @@ public class StandardAllocationServiceImpl implements StandardAllocationService
     @Autowired
     private AllocationAlgorithmSelector allocationAlgorithmSelector;
 
+    @Autowired
+    private AllocationTaskExecutor allocationTaskExecutor;
+
+    @Autowired
+    private StandardWriteBackPipeline standardWriteBackPipeline;
+
     @Autowired
     private ApplicationEventPublisher eventPublisher;
 
@@ -114,6 +124,16 @@ public class StandardAllocationServiceImpl implements StandardAllocationService
     @Override
     public GenerateDistributionPlanResponseDto generateDistributionPlan(GenerateDistributionPlanRequestDto request,
                                                                          List<Map<String, Object>> cigaretteList) {
+        return generateDistributionPlan(request, cigaretteList, DistributionPlanProgressListener.NOOP);
+    }
+
+    /**
+     * 生成分配方案（接收已过滤的标准分配卷烟列表，并回报进度）。
+     */
+    @Override
+    public GenerateDistributionPlanResponseDto generateDistributionPlan(GenerateDistributionPlanRequestDto request,
+                                                                         List<Map<String, Object>> cigaretteList,
+                                                                         DistributionPlanProgressListener listener) {
         eventPublisher.publishEvent(new DistributionPlanGenerationStartedEvent(
             request.getYear(), request.getMonth(), request.getWeekSeq()));
         
@@ -121,13 +141,18 @@ public class StandardAllocationServiceImpl implements StandardAllocationService
         
         try {
             // 1. 删除现有数据
-            if (!deleteExistingDataIfPresent(request, response)) {
+            listener.onStageStarted(DistributionPlanProgressListener.STAGE_DELETE);
+            boolean deleted = deleteExistingDataIfPresent(request, response);
+            listener.onStageFinished(DistributionPlanProgressListener.STAGE_DELETE);
+            if (!deleted) {
                 return response;
             }
             
             // 2. 执行分配计算（使用传入的卷烟列表）
+            listener.onStageStarted(DistributionPlanProgressListener.STAGE_STANDARD);
             Map<String, BigDecimal> marketRatios = buildMarketRatios(request);
-            Map<String, Object> allocationResult = executeAllocationWithList(cigaretteList, request, marketRatios);
+            Map<String, Object> allocationResult = executeAllocationWithList(cigaretteList, request, marketRatios, listener);
+            listener.onStageFinished(DistributionPlanProgressListener.STAGE_STANDARD);
             
             // 3. 构建响应
             buildResponse(request, response, allocationResult);
@@ -378,7 +403,8 @@ public class StandardAllocationServiceImpl implements StandardAllocationService
             
             // 只处理标准分配类型（按档位投放、按档位扩展投放）
             List<Map<String, Object>> standardList = filterStandardAllocationData(advDataList);
-            int[] counts = processStandardAllocations(standardList, request, marketRatios, writeBackResults);
+            int[] counts = processStandardAllocations(standardList, request, marketRatios, writeBackResults,
+                    DistributionPlanProgressListener.NOOP);
             
             allocationResult.put("success", true);
             allocationResult.put("message", String.format("标准分配完成，成功: %d/%d", counts[0], counts[1]));
@@ -403,16 +429,18 @@ public class StandardAllocationServiceImpl implements StandardAllocationService
      * @param cigaretteList 已过滤的标准分配卷烟列表
      * @param request       请求 DTO
      * @param marketRatios  市场类型比例参数，可为 null
+     * @param listener      进度监听器
      * @return 分配结果 Map
      */
     private Map<String, Object> executeAllocationWithList(List<Map<String, Object>> cigaretteList,
                                                           GenerateDistributionPlanRequestDto request, 
-                                                          Map<String, BigDecimal> marketRatios) {
+                                                          Map<String, BigDecimal> marketRatios,
+                                                          DistributionPlanProgressListener listener) {
         Map<String, Object> allocationResult = new HashMap<>();
         List<Map<String, Object>> writeBackResults = new ArrayList<>();
         
         try {
-            int[] counts = processStandardAllocations(cigaretteList, request, marketRatios, writeBackResults);
+            int[] counts = processStandardAllocations(cigaretteList, request, marketRatios, writeBackResults, listener);
             
             allocationResult.put("success", true);
             allocationResult.put("message", String.format("标准分配完成，成功: %d/%d", counts[0], counts[1]));
@@ -469,45 +497,129 @@ public class StandardAllocationServiceImpl implements StandardAllocationService
 
     /**
      * 处理标准分配（按档位投放、按档位扩展投放等）。
+     * <p>
+     * 各卷烟由 {@link AllocationTaskExecutor} 并行计算，结果按输入顺序收集；
+     * 计算完成的卷烟交给 {@link StandardWriteBackPipeline} 批量写回，写回与后续卷烟的计算重叠进行，
+     * 会话关闭（全部写回完成）后再统计成功数。
+     * 单支卷烟异常只记为该卷烟"错误"，不影响其他卷烟。
+     * </p>
      *
      * @param dataList         待处理的卷烟数据列表
      * @param request          请求 DTO
      * @param marketRatios     市场类型比例参数
      * @param writeBackResults 写回结果列表，用于收集每个卷烟的处理结果
+     * @param listener         进度监听器
      * @return int[]{successCount, totalCount}，分别为成功数和总数
      */
     private int[] processStandardAllocations(List<Map<String, Object>> dataList, 
                                               GenerateDistributionPlanRequestDto request,
                                               Map<String, BigDecimal> marketRatios,
-                                              List<Map<String, Object>> writeBackResults) {
+                                              List<Map<String, Object>> writeBackResults,
+                                              DistributionPlanProgressListener listener) {
+        if (dataList.isEmpty()) {
+            return new int[]{0, 0};
+        }
+        listener.onCigarettesPlanned(dataList.size());
+        // 并行写回前预先创建分区，避免多个写回事务同时执行分区 DDL
+        try {
+            partitionTableManager.ensurePartitionExists("cigarette_distribution_prediction",
+                    request.getYear(), request.getMonth(), request.getWeekSeq());
+        } catch (Exception e) {
+            log.warn("预创建预测表分区失败，将在各卷烟写回时重试: {}", e.getMessage());
+        }
+
+        List<Map<String, Object>> results;
+        try (StandardWriteBackPipeline.Session writeBack = standardWriteBackPipeline.open()) {
+            results = allocationTaskExecutor.executeAll(dataList,
+                    advData -> processSingleCigarette(advData, request, marketRatios, writeBack, listener),
+                    (advData, e) -> {
+                        Map<String, Object> errorResult = buildErrorResult(advData, e);
+                        listener.onCigaretteCompleted((String) errorResult.get("cigCode"),
+                                (String) errorResult.get("cigName"), false, (String) errorResult.get("writeBackMessage"));
+                        return errorResult;
+                    });
+        }
+
         int successCount = 0;
-        int totalCount = 0;
-        
-        for (Map<String, Object> advData : dataList) {
-            totalCount++;
-            Map<String, Object> cigResult = processSingleCigarette(advData, request, marketRatios);
+        for (Map<String, Object> cigResult : results) {
             if ("成功".equals(cigResult.get("writeBackStatus"))) {
                 successCount++;
             }
             writeBackResults.add(cigResult);
         }
-        return new int[]{successCount, totalCount};
+        return new int[]{successCount, dataList.size()};
     }
 
+    /**
+     * 构建单支卷烟的异常结果（任务本身抛出未捕获异常时使用）。
+     */
+    private Map<String, Object> buildErrorResult(Map<String, Object> advData, Throwable e) {
+        String cigCode = DistributionDataConverter.getStringIgnoreCase(advData, "cig_code");
+        log.error("处理卷烟 {} 时发生未捕获错误", cigCode, e);
+        Map<String, Object> cigResult = new HashMap<>();
+        cigResult.put("cigCode", cigCode);
+        cigResult.put("cigName", DistributionDataConverter.getStringIgnoreCase(advData, "cig_name"));
+        cigResult.put("writeBackStatus", "错误");
+        cigResult.put("writeBackMessage", "处理过程中发生错误: " + e.getMessage());
+        return cigResult;
+    }
 
     /**
      * 处理单个卷烟的分配。
-     * <p>流程：验证卷烟代码 → 提取字段 → 构建客户矩阵 → 执行分配算法 → 写回数据库</p>
+     * <p>流程：验证卷烟代码 → 提取字段 → 构建客户矩阵 → 执行分配算法 → 准备写回数据 → 提交写回流水线</p>
+     * <p>写回结果由写回线程异步回填到 writeBackStatus / writeBackMessage，会话关闭后可见。</p>
+     * <p>卷烟最终结果确定后（含异步写回完成）回调 {@link DistributionPlanProgressListener#onCigaretteCompleted}。</p>
      *
      * @param advData      卷烟投放信息 Map
      * @param request      请求 DTO
      * @param marketRatios 市场类型比例参数
+     * @param writeBack    写回会话
+     * @param listener     进度监听器
      * @return 处理结果 Map，包含 cigCode、cigName、writeBackStatus、writeBackMessage 等字段
      */
     private Map<String, Object> processSingleCigarette(Map<String, Object> advData,
                                                         GenerateDistributionPlanRequestDto request,
-                                                        Map<String, BigDecimal> marketRatios) {
+                                                        Map<String, BigDecimal> marketRatios,
+                                                        StandardWriteBackPipeline.Session writeBack,
+                                                        DistributionPlanProgressListener listener) {
         Map<String, Object> cigResult = new HashMap<>();
+        if (listener.isCancelled()) {
+            cigResult.put("cigCode", DistributionDataConverter.getStringIgnoreCase(advData, "cig_code"));
+            cigResult.put("cigName", DistributionDataConverter.getStringIgnoreCase(advData, "cig_name"));
+            cigResult.put("writeBackStatus", "跳过");
+            cigResult.put("writeBackMessage", "任务已取消");
+            reportCompleted(listener, cigResult);
+            return cigResult;
+        }
+        boolean writeBackPending = false;
+        try {
+            writeBackPending = allocateSingleCigarette(advData, marketRatios, writeBack, listener, cigResult);
+        } finally {
+            if (!writeBackPending) {
+                reportCompleted(listener, cigResult);
+            }
+        }
+        return cigResult;
+    }
+
+    /**
+     * 回报单支卷烟的最终结果。
+     */
+    private void reportCompleted(DistributionPlanProgressListener listener, Map<String, Object> cigResult) {
+        listener.onCigaretteCompleted((String) cigResult.get("cigCode"), (String) cigResult.get("cigName"),
+                "成功".equals(cigResult.get("writeBackStatus")), (String) cigResult.get("writeBackMessage"));
+    }
+
+    /**
+     * 执行单支卷烟的分配并提交写回。
+     *
+     * @return true 表示已提交写回流水线，最终结果由写回线程回填并回报
+     */
+    private boolean allocateSingleCigarette(Map<String, Object> advData,
+                                            Map<String, BigDecimal> marketRatios,
+                                            StandardWriteBackPipeline.Session writeBack,
+                                            DistributionPlanProgressListener listener,
+                                            Map<String, Object> cigResult) {
         
         // 提取并验证卷烟代码
         String rawCigCode = DistributionDataConverter.getStringIgnoreCase(advData, "cig_code");
@@ -524,7 +636,7 @@ public class StandardAllocationServiceImpl implements StandardAllocationService
             log.error("卷烟数据验证失败: 代码[{}] 名称[{}], 错误: {}", rawCigCode, cigName, e.getMessage());
             cigResult.put("writeBackStatus", "跳过");
             cigResult.put("writeBackMessage", "卷烟数据格式错误: " + e.getMessage());
-            return cigResult;
+            return false;
         }
         
         // 提取其他字段
@@ -556,7 +668,7 @@ public class StandardAllocationServiceImpl implements StandardAllocationService
         if (deliveryArea == null || deliveryArea.trim().isEmpty()) {
             cigResult.put("writeBackStatus", "跳过");
             cigResult.put("writeBackMessage", "投放区域为空");
-            return cigResult;
+            return false;
         }
         
         try {
@@ -569,7 +681,7 @@ public class StandardAllocationServiceImpl implements StandardAllocationService
             if (customerMatrix == null || customerMatrix.isEmpty()) {
                 cigResult.put("writeBackStatus", "跳过");
                 cigResult.put("writeBackMessage", "未找到匹配的投放区域");
-                return cigResult;
+                return false;
             }
             
             // 2. 执行分配算法
@@ -581,13 +693,24 @@ public class StandardAllocationServiceImpl implements StandardAllocationService
                     maxGrade, minGrade, groupRatios, regionGroupMapping, extraInfo);
             
             if (allocResult.isSuccess()) {
-                boolean writeBackSuccess = distributionWriteBackService.writeBackSingleCigarette(
-                    allocResult.getAllocationMatrix(), allocResult.getCustomerMatrix(), allocResult.getRegions(),
-                    cigCode, cigName, cigYear, cigMonth, cigWeekSeq,
-                    deliveryMethod, deliveryEtype, remark, tag, tagFilterConfig);
-                
-                cigResult.put("writeBackStatus", writeBackSuccess ? "成功" : "失败");
-                cigResult.put("writeBackMessage", writeBackSuccess ? "分配矩阵已成功写回数据库" : "分配矩阵写回数据库失败");
+                // 3. 在计算线程中完成编码与实际投放量计算，写库交给写回流水线
+                PreparedCigaretteWriteBack prepared = distributionWriteBackService.prepareSingleCigarette(
+                        allocResult.getAllocationMatrix(), allocResult.getCustomerMatrix(), allocResult.getRegions(),
+                        cigCode, cigName, cigYear, cigMonth, cigWeekSeq,
+                        deliveryMethod, deliveryEtype, remark, tag, tagFilterConfig);
+                if (prepared.isEmpty()) {
+                    cigResult.put("writeBackStatus", "失败");
+                    cigResult.put("writeBackMessage", "分配矩阵写回数据库失败");
+                } else {
+                    cigResult.put("writeBackStatus", "失败");
+                    cigResult.put("writeBackMessage", "分配矩阵写回未完成");
+                    writeBack.submit(prepared).thenAccept(ok -> {
+                        cigResult.put("writeBackStatus", ok ? "成功" : "失败");
+                        cigResult.put("writeBackMessage", ok ? "分配矩阵已成功写回数据库" : "分配矩阵写回数据库失败");
+                        reportCompleted(listener, cigResult);
+                    });
+                    return true;
+                }
             } else {
                 cigResult.put("writeBackStatus", "跳过");
                 cigResult.put("writeBackMessage", allocResult.getMessage() != null 
@@ -598,7 +721,7 @@ public class StandardAllocationServiceImpl implements StandardAllocationService
             cigResult.put("writeBackStatus", "错误");
             cigResult.put("writeBackMessage", "处理过程中发生错误: " + e.getMessage());
         }
-        return cigResult;
+        return false;
     }
 
     /**
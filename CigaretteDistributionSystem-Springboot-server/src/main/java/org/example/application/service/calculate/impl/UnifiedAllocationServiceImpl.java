@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import lombok.extern.slf4j.Slf4j;
 import org.example.application.dto.allocation.GenerateDistributionPlanRequestDto;
 import org.example.application.dto.allocation.GenerateDistributionPlanResponseDto;
+import org.example.application.service.calculate.DistributionPlanProgressListener;
 import org.example.application.service.calculate.PriceBandAllocationService;
 import org.example.application.service.calculate.StandardAllocationService;
 import org.example.application.service.calculate.UnifiedAllocationService;
@@ -80,9 +81,23 @@ public class UnifiedAllocationServiceImpl implements UnifiedAllocationService {
      */
     @Override
     public GenerateDistributionPlanResponseDto generateDistributionPlan(GenerateDistributionPlanRequestDto request) {
+        return generateDistributionPlan(request, DistributionPlanProgressListener.NOOP);
+    }
+
+    /**
+     * 生成分配方案（统一入口，回报进度）。
+     *
+     * @param request  分配请求，包含 year、month、weekSeq 等参数
+     * @param listener 进度监听器
+     * @return 分配响应；取消时 success=false
+     */
+    @Override
+    public GenerateDistributionPlanResponseDto generateDistributionPlan(GenerateDistributionPlanRequestDto request,
+                                                                        DistributionPlanProgressListener listener) {
         log.info("【统一分配】开始执行: {}-{}-{}", request.getYear(), request.getMonth(), request.getWeekSeq());
 
         // 1. 查询 info 表获取所有待分配卷烟
+        listener.onStageStarted(DistributionPlanProgressListener.STAGE_QUERY);
         partitionTableManager.ensurePartitionExists("cigarette_distribution_info",
                 request.getYear(), request.getMonth(), request.getWeekSeq());
         
@@ -117,12 +132,16 @@ public class UnifiedAllocationServiceImpl implements UnifiedAllocationService {
         
         log.info("【统一分配】分流完成 - 标准分配: {} 条, 价位段分配: {} 条", 
                 standardList.size(), priceBandList.size());
+        listener.onStageFinished(DistributionPlanProgressListener.STAGE_QUERY);
+        if (listener.isCancelled()) {
+            return createCancelledResponse(request);
+        }
 
         // 3. 执行标准分配
         GenerateDistributionPlanResponseDto response = null;
         if (!standardList.isEmpty()) {
             log.info("【统一分配】执行标准分配...");
-            response = standardAllocationService.generateDistributionPlan(request, standardList);
+            response = standardAllocationService.generateDistributionPlan(request, standardList, listener);
         } else {
             log.info("【统一分配】无标准分配数据，跳过");
             response = createEmptyResponse(request);
@@ -130,12 +149,19 @@ public class UnifiedAllocationServiceImpl implements UnifiedAllocationService {
 
         // 4. 执行价位段分配并合并统计信息
         int priceBandProcessed = 0;
-        if (!priceBandList.isEmpty()) {
+        if (listener.isCancelled()) {
+            log.info("【统一分配】任务已取消，跳过价位段分配");
+            response.setSuccess(false);
+            response.setMessage("任务已取消; " + response.getMessage());
+        } else if (!priceBandList.isEmpty()) {
             log.info("【统一分配】执行价位段分配...");
+            listener.onStageStarted(DistributionPlanProgressListener.STAGE_PRICE_BAND);
+            listener.onCigarettesPlanned(priceBandList.size());
             try {
                 priceBandProcessed = priceBandAllocationService.allocateForPriceBand(priceBandList, 
                         request.getYear(), request.getMonth(), request.getWeekSeq());
                 log.info("【统一分配】价位段分配完成，处理 {} 条", priceBandProcessed);
+                reportPriceBandCompleted(listener, priceBandList, true, "价位段分配完成");
                 
                 // 合并统计信息
                 if (response.getTotalCigarettes() != null) {
@@ -158,10 +184,12 @@ public class UnifiedAllocationServiceImpl implements UnifiedAllocationService {
                 }
             } catch (Exception e) {
                 log.error("【统一分配】价位段分配失败: {}", e.getMessage(), e);
+                reportPriceBandCompleted(listener, priceBandList, false, "价位段分配失败: " + e.getMessage());
                 if (response.getMessage() != null) {
                     response.setMessage(response.getMessage() + "; 价位段分配失败: " + e.getMessage());
                 }
             }
+            listener.onStageFinished(DistributionPlanProgressListener.STAGE_PRICE_BAND);
         } else {
             log.info("【统一分配】无价位段分配数据，跳过");
         }
@@ -201,6 +229,33 @@ public class UnifiedAllocationServiceImpl implements UnifiedAllocationService {
         return value != null ? value.toString() : null;
     }
 
+    /**
+     * 价位段分配按整体事务执行，结束后逐支回报同一结果。
+     */
+    private void reportPriceBandCompleted(DistributionPlanProgressListener listener,
+                                          List<Map<String, Object>> priceBandList,
+                                          boolean success, String message) {
+        for (Map<String, Object> cig : priceBandList) {
+            Object cigCode = cig.get("CIG_CODE");
+            Object cigName = cig.get("CIG_NAME");
+            listener.onCigaretteCompleted(cigCode != null ? cigCode.toString() : null,
+                    cigName != null ? cigName.toString() : null, success, message);
+        }
+    }
+
+    /**
+     * 创建取消响应（查询阶段后即被取消时使用）。
+     *
+     * @param request 分配请求
+     * @return success=false 的响应对象
+     */
+    private GenerateDistributionPlanResponseDto createCancelledResponse(GenerateDistributionPlanRequestDto request) {
+        GenerateDistributionPlanResponseDto response = createEmptyResponse(request);
+        response.setSuccess(false);
+        response.setMessage("任务已取消");
+        return response;
+    }
+
     /**
      * 创建空响应（无标准分配数据时使用）。
      *
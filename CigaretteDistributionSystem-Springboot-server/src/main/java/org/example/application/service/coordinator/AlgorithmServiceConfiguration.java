@@ -6,8 +6,12 @@ import org.example.domain.service.algorithm.PriceBandTruncationService;
 import org.example.domain.service.algorithm.SingleLevelDistributionService;
 import org.example.domain.service.algorithm.impl.ColumnWiseAdjustmentServiceImpl;
 import org.example.domain.service.algorithm.impl.GroupSplittingDistributionServiceImpl;
+import org.example.domain.service.algorithm.impl.KernelColumnWiseAdjustmentService;
+import org.example.domain.service.algorithm.impl.KernelSingleLevelDistributionService;
 import org.example.domain.service.algorithm.impl.PriceBandTruncationServiceImpl;
 import org.example.domain.service.algorithm.impl.SingleLevelDistributionServiceImpl;
+import org.example.infrastructure.config.allocation.AllocationExecutionProperties;
+import org.example.infrastructure.config.allocation.AllocationExecutionProperties.AlgorithmKernel;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -17,6 +21,11 @@ import org.springframework.context.annotation.Configuration;
  * 将纯领域算法实现注册到 Spring 容器中，
  * 供 {@link AllocationAlgorithmSelector} 等应用服务按依赖倒置原则调用。
  * </p>
+ * <p>
+ * 单层分配与整列调整按 {@link AllocationExecutionProperties} 选择计算内核：PRIMITIVE 时注册内核适配
+ * （输入无法无损转换为 long 时回退到 BigDecimal 实现），分组拆分的组内计算复用这两个 Bean，
+ * 并在 {@link GroupSplittingPool} 上并行求解各组；价位段截断的误差微调同样按配置选择 long 增量内核。
+ * </p>
  *
  * @author Robin
  */
@@ -24,24 +33,32 @@ import org.springframework.context.annotation.Configuration;
 public class AlgorithmServiceConfiguration {
 
     @Bean
-    public SingleLevelDistributionService singleLevelDistributionService() {
-        return new SingleLevelDistributionServiceImpl();
+    public SingleLevelDistributionService singleLevelDistributionService(AllocationExecutionProperties executionProperties) {
+        SingleLevelDistributionService decimal = new SingleLevelDistributionServiceImpl();
+        return executionProperties.getSingleLevelKernel() == AlgorithmKernel.PRIMITIVE
+                ? new KernelSingleLevelDistributionService(decimal)
+                : decimal;
     }
 
     @Bean
-    public ColumnWiseAdjustmentService columnWiseAdjustmentService() {
-        return new ColumnWiseAdjustmentServiceImpl();
+    public ColumnWiseAdjustmentService columnWiseAdjustmentService(AllocationExecutionProperties executionProperties) {
+        ColumnWiseAdjustmentService decimal = new ColumnWiseAdjustmentServiceImpl();
+        return executionProperties.getColumnWiseKernel() == AlgorithmKernel.PRIMITIVE
+                ? new KernelColumnWiseAdjustmentService(decimal)
+                : decimal;
     }
 
     @Bean
     public GroupSplittingDistributionService groupSplittingDistributionService(
             SingleLevelDistributionService singleLevelService,
-            ColumnWiseAdjustmentService columnWiseService) {
-        return new GroupSplittingDistributionServiceImpl(singleLevelService, columnWiseService);
+            ColumnWiseAdjustmentService columnWiseService,
+            GroupSplittingPool groupSplittingPool) {
+        return new GroupSplittingDistributionServiceImpl(singleLevelService, columnWiseService,
+                groupSplittingPool.getPool());
     }
 
     @Bean
-    public PriceBandTruncationService priceBandTruncationService() {
-        return new PriceBandTruncationServiceImpl();
+    public PriceBandTruncationService priceBandTruncationService(AllocationExecutionProperties executionProperties) {
+        return new PriceBandTruncationServiceImpl(executionProperties.getPriceBandKernel() == AlgorithmKernel.PRIMITIVE);
     }
 }
@@ -10,6 +10,7 @@ import org.example.domain.service.algorithm.ColumnWiseAdjustmentService;
 import org.example.domain.service.algorithm.GroupSplittingDistributionService;
 import org.example.domain.service.algorithm.SingleLevelDistributionService;
 import org.example.domain.service.delivery.DeliveryCombinationParser;
+import org.example.infrastructure.monitor.AllocationStageMetrics;
 import org.example.shared.util.AllocationMatrixUtils;
 import org.springframework.stereotype.Component;
 
@@ -37,17 +38,20 @@ public class AllocationAlgorithmSelector {
     private final ColumnWiseAdjustmentService columnWiseService;
     private final GroupSplittingDistributionService groupSplittingService;
     private final List<GroupRatioProvider> groupRatioProviders;
+    private final AllocationStageMetrics stageMetrics;
 
     public AllocationAlgorithmSelector(DeliveryCombinationParser combinationParser,
                                        SingleLevelDistributionService singleLevelService,
                                        ColumnWiseAdjustmentService columnWiseService,
                                        GroupSplittingDistributionService groupSplittingService,
-                                       List<GroupRatioProvider> groupRatioProviders) {
+                                       List<GroupRatioProvider> groupRatioProviders,
+                                       AllocationStageMetrics stageMetrics) {
         this.combinationParser = combinationParser;
         this.singleLevelService = singleLevelService;
         this.columnWiseService = columnWiseService;
         this.groupSplittingService = groupSplittingService;
         this.groupRatioProviders = groupRatioProviders != null ? groupRatioProviders : Collections.emptyList();
+        this.stageMetrics = stageMetrics;
     }
 
     /**
@@ -161,23 +165,22 @@ public class AllocationAlgorithmSelector {
         log.debug("选择算法: {} (regions={}, groupRatios={})", type, rows.size(), 
                 finalGroupRatios != null ? finalGroupRatios.keySet() : "null");
 
-        BigDecimal[][] finalAllocation;
         final Map<String, String> mappingForLambda = finalRegionGroupMapping;
-        switch (type) {
-            case SINGLE_LEVEL:
-                finalAllocation = singleLevelService.distribute(regions, matrix, roundedTarget, gradeRange);
-                break;
-            case GROUP_SPLITTING:
-                finalAllocation = groupSplittingService.distribute(
-                        regions, matrix, roundedTarget, gradeRange,
-                        region -> mappingForLambda.getOrDefault(region, region),
-                        finalGroupRatios);
-                break;
-            case COLUMN_WISE:
-            default:
-                finalAllocation = columnWiseService.distribute(regions, matrix, roundedTarget, gradeRange, null);
-                break;
-        }
+        final Map<String, BigDecimal> ratiosForLambda = finalGroupRatios;
+        BigDecimal[][] finalAllocation = stageMetrics.recordAlgorithm(type.name(), () -> {
+            switch (type) {
+                case SINGLE_LEVEL:
+                    return singleLevelService.distribute(regions, matrix, roundedTarget, gradeRange);
+                case GROUP_SPLITTING:
+                    return groupSplittingService.distribute(
+                            regions, matrix, roundedTarget, gradeRange,
+                            region -> mappingForLambda.getOrDefault(region, region),
+                            ratiosForLambda);
+                case COLUMN_WISE:
+                default:
+                    return columnWiseService.distribute(regions, matrix, roundedTarget, gradeRange, null);
+            }
+        });
 
         // 确保范围外的档位为0（算法应该已经保证，但这里再次确认）
         enforceGradeRangeBounds(finalAllocation, gradeRange);
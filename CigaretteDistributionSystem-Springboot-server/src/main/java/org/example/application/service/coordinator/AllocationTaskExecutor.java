@@ -0,0 +1,136 @@
+package org.example.application.service.coordinator;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.example.infrastructure.config.allocation.AllocationExecutionProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * 分配任务并行执行器。
+ * <p>
+ * 职责：
+ * <ul>
+ *   <li>以有界线程池并行执行逐卷烟的分配计算；</li>
+ *   <li>结果按输入顺序返回，与串行执行顺序一致；</li>
+ *   <li>单个任务失败只影响自身结果，由调用方提供的失败处理函数转换；</li>
+ *   <li>注入指标注册表时导出线程池队列深度等 executor_* 指标（name=allocationTaskExecutor）。</li>
+ * </ul>
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@Slf4j
+@Component
+public class AllocationTaskExecutor implements DisposableBean {
+
+    private final int parallelism;
+    private final ExecutorService executor;
+
+    public AllocationTaskExecutor(AllocationExecutionProperties properties) {
+        this(properties, null);
+    }
+
+    @Autowired
+    public AllocationTaskExecutor(AllocationExecutionProperties properties, MeterRegistry meterRegistry) {
+        this.parallelism = Math.max(1, properties.getParallelism());
+        if (parallelism > 1) {
+            AtomicInteger threadIndex = new AtomicInteger();
+            this.executor = new ThreadPoolExecutor(parallelism, parallelism,
+                    60L, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "allocation-worker-" + threadIndex.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+        } else {
+            this.executor = null;
+        }
+        if (meterRegistry != null && executor != null) {
+            new ExecutorServiceMetrics(executor, "allocationTaskExecutor", Tags.empty()).bindTo(meterRegistry);
+        }
+        log.info("分配任务执行器初始化: parallelism={}", parallelism);
+    }
+
+    /**
+     * 并行执行一批任务，结果顺序与输入顺序一致。
+     *
+     * @param items          输入列表
+     * @param task           单个任务
+     * @param failureHandler 任务抛出异常时的结果转换函数（入参为输入项与异常）
+     * @param <T>            输入类型
+     * @param <R>            结果类型
+     * @return 与输入一一对应的结果列表
+     * @example
+     * <pre>{@code
+     * List<Map<String, Object>> results = allocationTaskExecutor.executeAll(cigarettes,
+     *         cig -> processSingleCigarette(cig),
+     *         (cig, ex) -> errorResult(cig, ex));
+     * }</pre>
+     */
+    public <T, R> List<R> executeAll(List<T> items, Function<T, R> task, BiFunction<T, Throwable, R> failureHandler) {
+        List<R> results = new ArrayList<>(items.size());
+        if (executor == null || items.size() <= 1) {
+            for (T item : items) {
+                results.add(runSafely(item, task, failureHandler));
+            }
+            return results;
+        }
+
+        List<Future<R>> futures = new ArrayList<>(items.size());
+        for (T item : items) {
+            futures.add(executor.submit(() -> task.apply(item)));
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            T item = items.get(i);
+            try {
+                results.add(futures.get(i).get());
+            } catch (ExecutionException e) {
+                results.add(failureHandler.apply(item, e.getCause() != null ? e.getCause() : e));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                for (int j = i; j < futures.size(); j++) {
+                    futures.get(j).cancel(true);
+                }
+                for (int j = i; j < futures.size(); j++) {
+                    results.add(failureHandler.apply(items.get(j), e));
+                }
+                break;
+            }
+        }
+        return results;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private <T, R> R runSafely(T item, Function<T, R> task, BiFunction<T, Throwable, R> failureHandler) {
+        try {
+            return task.apply(item);
+        } catch (RuntimeException e) {
+            return failureHandler.apply(item, e);
+        }
+    }
+}
@@ -2,6 +2,8 @@ package org.example.application.service.coordinator;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.shared.util.CustomerTagBitmapIndexRegistry;
+import org.example.shared.util.OrderCycleBoostTableCache;
 import org.example.shared.util.PartitionTableManager;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -26,6 +28,8 @@ import java.time.temporal.ChronoUnit;
 public class CustomerFilterPartitionCleanupService {
 
     private final PartitionTableManager partitionTableManager;
+    private final CustomerTagBitmapIndexRegistry customerTagBitmapIndexRegistry;
+    private final OrderCycleBoostTableCache orderCycleBoostTableCache;
     
     private static final String CUSTOMER_FILTER_TABLE = "customer_filter";
     private static final int RETAIN_WEEKS = 1; // 保留1周的数据
@@ -82,6 +86,8 @@ public class CustomerFilterPartitionCleanupService {
                     if (partitionDate.isBefore(cutoffDate)) {
                         try {
                             partitionTableManager.truncatePartition(CUSTOMER_FILTER_TABLE, year, month, weekSeq);
+                            customerTagBitmapIndexRegistry.invalidate(year, month, weekSeq);
+                            orderCycleBoostTableCache.invalidate(year, month, weekSeq);
                             log.info("清理分区: {}.{} (日期: {})", CUSTOMER_FILTER_TABLE, partitionName, partitionDate);
                             cleanedCount++;
                         } catch (Exception e) {
@@ -105,6 +111,8 @@ public class CustomerFilterPartitionCleanupService {
     public void cleanupByYear(Integer year) {
         log.info("手动清理 customer_filter 表 {} 年的所有分区", year);
         partitionTableManager.dropPartitionsByYear(CUSTOMER_FILTER_TABLE, year);
+        customerTagBitmapIndexRegistry.invalidateYear(year);
+        orderCycleBoostTableCache.invalidateYear(year);
     }
 }
 
@@ -2,19 +2,17 @@ package org.example.application.service.coordinator;
 
 import lombok.extern.slf4j.Slf4j;
 import org.example.domain.model.valueobject.RegionCustomerMatrix;
-import org.example.domain.repository.RegionCustomerStatisticsRepository;
-import org.example.shared.util.GradeExtractor;
+import org.example.infrastructure.monitor.AllocationStageMetrics;
 import org.example.shared.util.KmpMatcher;
-import org.example.shared.util.MapValueExtractor;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
 import java.util.*;
 
 /**
  * 客户矩阵构建器。
  * <p>
  * 职责：根据投放区域从 region_customer_statistics 表构建区域客户数矩阵。
+ * 分区数据经 {@link RegionCustomerStatisticsSnapshotCache} 按周缓存，同一周的多支卷烟只读取一次。
  * </p>
  *
  * @author Robin
@@ -24,16 +22,19 @@ import java.util.*;
 @Component
 public class CustomerMatrixBuilder {
 
-    private final RegionCustomerStatisticsRepository regionCustomerStatisticsRepository;
+    private final RegionCustomerStatisticsSnapshotCache snapshotCache;
     private final KmpMatcher kmpMatcher;
     private final BiWeeklyVisitBoostService biWeeklyVisitBoostService;
+    private final AllocationStageMetrics stageMetrics;
 
-    public CustomerMatrixBuilder(RegionCustomerStatisticsRepository regionCustomerStatisticsRepository,
+    public CustomerMatrixBuilder(RegionCustomerStatisticsSnapshotCache snapshotCache,
                                  KmpMatcher kmpMatcher,
-                                 BiWeeklyVisitBoostService biWeeklyVisitBoostService) {
-        this.regionCustomerStatisticsRepository = regionCustomerStatisticsRepository;
+                                 BiWeeklyVisitBoostService biWeeklyVisitBoostService,
+                                 AllocationStageMetrics stageMetrics) {
+        this.snapshotCache = snapshotCache;
         this.kmpMatcher = kmpMatcher;
         this.biWeeklyVisitBoostService = biWeeklyVisitBoostService;
+        this.stageMetrics = stageMetrics;
     }
 
     /**
@@ -58,8 +59,8 @@ public class CustomerMatrixBuilder {
      * }</pre>
      */
     public RegionCustomerMatrix build(Integer year, Integer month, Integer weekSeq, String deliveryArea) {
-        List<Map<String, Object>> allStats = regionCustomerStatisticsRepository.findAll(year, month, weekSeq);
-        if (allStats == null || allStats.isEmpty()) {
+        RegionCustomerStatisticsSnapshot snapshot = snapshotCache.get(year, month, weekSeq);
+        if (snapshot.isEmpty()) {
             log.warn("region_customer_statistics 在 {}-{}-{} 分区无数据", year, month, weekSeq);
             return new RegionCustomerMatrix(new ArrayList<>());
         }
@@ -68,10 +69,18 @@ public class CustomerMatrixBuilder {
         log.debug("【区域匹配】解析后的目标区域列表: {}", targetAreas);
 
         if (targetAreas.isEmpty()) {
-            return buildFullMatrix(allStats);
+            RegionCustomerMatrix fullMatrix = snapshot.buildFullMatrix();
+            log.debug("【区域匹配】未指定区域，使用全集，共 {} 个区域", fullMatrix.getRows().size());
+            return fullMatrix;
         }
 
-        return buildFilteredMatrix(allStats, targetAreas);
+        Set<String> unmatchedTargetAreas = new LinkedHashSet<>();
+        RegionCustomerMatrix matrix = snapshot.buildFilteredMatrix(targetAreas, kmpMatcher::normalize, unmatchedTargetAreas);
+        if (!unmatchedTargetAreas.isEmpty()) {
+            log.warn("【区域匹配失败】以下目标区域未找到匹配: {}", unmatchedTargetAreas);
+        }
+        log.debug("【区域匹配】目标区域数={}, 匹配成功数={}", targetAreas.size(), matrix.getRows().size());
+        return matrix;
     }
 
     /**
@@ -107,12 +116,14 @@ public class CustomerMatrixBuilder {
                                                 String deliveryArea, String deliveryMethod,
                                                 String deliveryEtype, String tag,
                                                 String remark, Map<String, Object> extraInfo) {
-        RegionCustomerMatrix baseMatrix = build(year, month, weekSeq, deliveryArea);
-        
-        return biWeeklyVisitBoostService.applyBiWeeklyBoostIfNeeded(
-                baseMatrix, year, month, weekSeq,
-                deliveryMethod, deliveryEtype, tag, deliveryArea,
-                remark, extraInfo);
+        return stageMetrics.record(AllocationStageMetrics.Stage.MATRIX_BUILD, () -> {
+            RegionCustomerMatrix baseMatrix = build(year, month, weekSeq, deliveryArea);
+
+            return biWeeklyVisitBoostService.applyBiWeeklyBoostIfNeeded(
+                    baseMatrix, year, month, weekSeq,
+                    deliveryMethod, deliveryEtype, tag, deliveryArea,
+                    remark, extraInfo);
+        });
     }
 
     /**
@@ -134,67 +145,17 @@ public class CustomerMatrixBuilder {
      * }</pre>
      */
     public RegionCustomerMatrix buildCityWideMatrix(Integer year, Integer month, Integer weekSeq) {
-        List<Map<String, Object>> allStats = regionCustomerStatisticsRepository.findAll(year, month, weekSeq);
-        if (allStats == null || allStats.isEmpty()) {
+        RegionCustomerStatisticsSnapshot snapshot = snapshotCache.get(year, month, weekSeq);
+        if (snapshot.isEmpty()) {
             return new RegionCustomerMatrix(new ArrayList<>());
         }
 
         // 直接查找"全市"区域的数据，而不是累加所有区域
-        for (Map<String, Object> stat : allStats) {
-            String region = MapValueExtractor.getStringValue(stat, "REGION");
-            if ("全市".equals(region)) {
-                BigDecimal[] grades = GradeExtractor.extractFromMap(stat);
-                List<RegionCustomerMatrix.Row> rows = new ArrayList<>();
-                rows.add(new RegionCustomerMatrix.Row("全市", grades));
-                return new RegionCustomerMatrix(rows);
-            }
-        }
-
-        // 如果没有找到"全市"区域，返回空矩阵
-        log.warn("未找到'全市'区域的客户统计数据");
-        return new RegionCustomerMatrix(new ArrayList<>());
-    }
-
-    private RegionCustomerMatrix buildFullMatrix(List<Map<String, Object>> allStats) {
-        List<RegionCustomerMatrix.Row> allRows = new ArrayList<>();
-        for (Map<String, Object> row : allStats) {
-            String region = MapValueExtractor.getStringValue(row, "REGION");
-            BigDecimal[] grades = GradeExtractor.extractFromMap(row);
-            allRows.add(new RegionCustomerMatrix.Row(region, grades));
-        }
-        sortRowsByTotalDesc(allRows);
-        log.debug("【区域匹配】未指定区域，使用全集，共 {} 个区域", allRows.size());
-        return new RegionCustomerMatrix(allRows);
-    }
-
-    private RegionCustomerMatrix buildFilteredMatrix(List<Map<String, Object>> allStats, List<String> targetAreas) {
-        Map<String, RegionCustomerMatrix.Row> rowMap = new LinkedHashMap<>();
-        Set<String> matchedRegions = new HashSet<>();
-        Set<String> unmatchedTargetAreas = new HashSet<>(targetAreas);
-
-        for (Map<String, Object> stat : allStats) {
-            String regionName = MapValueExtractor.getStringValue(stat, "REGION");
-            if (regionName == null || regionName.trim().isEmpty()) {
-                continue;
-            }
-            String regionTrimmed = regionName.trim();
-            List<String> matched = kmpMatcher.matchPatterns(regionTrimmed, targetAreas);
-            if (!matched.isEmpty() && !rowMap.containsKey(regionTrimmed)) {
-                BigDecimal[] grades = GradeExtractor.extractFromMap(stat);
-                rowMap.put(regionTrimmed, new RegionCustomerMatrix.Row(regionTrimmed, grades));
-                matchedRegions.add(regionTrimmed);
-                unmatchedTargetAreas.removeAll(matched);
-            }
+        RegionCustomerMatrix cityMatrix = snapshot.buildCityWideMatrix();
+        if (cityMatrix.isEmpty()) {
+            log.warn("未找到'全市'区域的客户统计数据");
         }
-
-        if (!unmatchedTargetAreas.isEmpty()) {
-            log.warn("【区域匹配失败】以下目标区域未找到匹配: {}", unmatchedTargetAreas);
-        }
-        log.debug("【区域匹配】目标区域数={}, 匹配成功数={}", targetAreas.size(), matchedRegions.size());
-
-        List<RegionCustomerMatrix.Row> rows = new ArrayList<>(rowMap.values());
-        sortRowsByTotalDesc(rows);
-        return new RegionCustomerMatrix(rows);
+        return cityMatrix;
     }
 
     private List<String> parseDeliveryAreas(String deliveryArea) {
@@ -211,21 +172,4 @@ public class CustomerMatrixBuilder {
         }
         return regions;
     }
-
-    private void sortRowsByTotalDesc(List<RegionCustomerMatrix.Row> rows) {
-        rows.sort(Comparator.comparing(this::computeTotal).reversed());
-    }
-
-    private BigDecimal computeTotal(RegionCustomerMatrix.Row row) {
-        if (row == null || row.getGrades() == null) {
-            return BigDecimal.ZERO;
-        }
-        BigDecimal total = BigDecimal.ZERO;
-        for (BigDecimal v : row.getGrades()) {
-            if (v != null) {
-                total = total.add(v);
-            }
-        }
-        return total;
-    }
 }
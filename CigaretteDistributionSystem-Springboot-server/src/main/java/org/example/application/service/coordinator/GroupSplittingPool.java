@@ -0,0 +1,60 @@
+package org.example.application.service.coordinator;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.infrastructure.config.allocation.AllocationExecutionProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 分组拆分共享线程池。
+ * <p>
+ * 所有卷烟分配任务共用一个有界 {@link ForkJoinPool} 并行求解分组拆分的各组，
+ * 避免每支卷烟各自创建线程；并行度由 {@code distribution.allocation.group-splitting-parallelism} 控制，
+ * 小于等于 1 时不创建线程池（各组串行求解）。
+ * </p>
+ * <p>
+ * 线程池不注册为 {@link java.util.concurrent.Executor} Bean，以免影响 {@code @Async} 等默认执行器的解析。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@Slf4j
+@Component
+public class GroupSplittingPool implements DisposableBean {
+
+    private final ForkJoinPool pool;
+
+    public GroupSplittingPool(AllocationExecutionProperties properties) {
+        int parallelism = properties.getGroupSplittingParallelism();
+        if (parallelism > 1) {
+            AtomicInteger threadIndex = new AtomicInteger();
+            this.pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+                thread.setName("group-splitting-worker-" + threadIndex.incrementAndGet());
+                return thread;
+            }, null, false);
+        } else {
+            this.pool = null;
+        }
+        log.info("分组拆分线程池初始化: parallelism={}", parallelism);
+    }
+
+    /**
+     * @return 共享线程池；并行度小于等于 1 时返回 null
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    @Override
+    public void destroy() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+}
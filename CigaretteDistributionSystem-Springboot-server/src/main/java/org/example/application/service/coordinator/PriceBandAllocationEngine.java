@@ -0,0 +1,140 @@
+package org.example.application.service.coordinator;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.domain.model.valueobject.GradeRange;
+import org.example.domain.service.algorithm.SingleLevelDistributionService;
+import org.example.shared.constants.GradeConstants;
+import org.example.shared.util.WriteBackHelper;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 价位段自选投放初分配并行引擎。
+ * <p>
+ * 职责：
+ * <ul>
+ *   <li>在调用线程上一次性读取每支卷烟的 ADV、备注等输入，计算线程不访问候选卷烟的 {@code Map}；</li>
+ *   <li>全市客户数行及其两周一访上浮副本在各线程间只读共享（null 档位预先补0，算法不会回写）；</li>
+ *   <li>通过 {@link AllocationTaskExecutor} 并行执行逐卷烟 SingleLevel 初分配，结果写入与候选列表下标一一对应的数组；</li>
+ *   <li>任一卷烟计算失败时，按候选顺序抛出第一个异常，与串行执行一致。</li>
+ * </ul>
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@Slf4j
+@Component
+public class PriceBandAllocationEngine {
+
+    /** 需要使用上浮后客户数的备注关键字 */
+    public static final String BOOST_REMARK_KEYWORD = "两周一访上浮100%";
+
+    private static final List<String> CITY_REGIONS = Collections.singletonList("全市");
+
+    private final SingleLevelDistributionService singleLevelDistributionService;
+    private final AllocationTaskExecutor allocationTaskExecutor;
+
+    public PriceBandAllocationEngine(SingleLevelDistributionService singleLevelDistributionService,
+                                     AllocationTaskExecutor allocationTaskExecutor) {
+        this.singleLevelDistributionService = singleLevelDistributionService;
+        this.allocationTaskExecutor = allocationTaskExecutor;
+    }
+
+    /**
+     * 生成可在线程间只读共享的客户数行副本（null 档位补0）。
+     *
+     * @param customerRow 客户数行，可为 null
+     * @return 副本；入参为 null 时返回 null
+     */
+    public static BigDecimal[] shareableCustomerRow(BigDecimal[] customerRow) {
+        if (customerRow == null) {
+            return null;
+        }
+        BigDecimal[] copy = new BigDecimal[customerRow.length];
+        for (int i = 0; i < customerRow.length; i++) {
+            copy[i] = customerRow[i] != null ? customerRow[i] : BigDecimal.ZERO;
+        }
+        return copy;
+    }
+
+    /**
+     * 并行计算每支候选卷烟的 SingleLevel 初分配（全档位范围）。
+     * <p>
+     * ADV 为空或非正、分配结果为空时返回长度为30的空数组（元素为 null），与原逐卷烟写入 GRADES 的行为一致。
+     * </p>
+     *
+     * @param candidates         候选卷烟列表（只读）
+     * @param baseCustomerRow    原始全市客户数行（须为 {@link #shareableCustomerRow} 的结果）
+     * @param boostedCustomerRow 上浮后全市客户数行（可能为 null）
+     * @return 与 candidates 下标一一对应的档位分配数组
+     * @example
+     * <pre>{@code
+     * BigDecimal[] baseRow = PriceBandAllocationEngine.shareableCustomerRow(cityRow);
+     * BigDecimal[][] grades = priceBandAllocationEngine.allocateInitialGrades(candidates, baseRow, null);
+     * }</pre>
+     */
+    public BigDecimal[][] allocateInitialGrades(List<Map<String, Object>> candidates,
+                                                BigDecimal[] baseCustomerRow,
+                                                BigDecimal[] boostedCustomerRow) {
+        List<CigaretteInput> inputs = new ArrayList<>(candidates.size());
+        for (Map<String, Object> row : candidates) {
+            String remark = WriteBackHelper.getString(row, "BZ");
+            inputs.add(new CigaretteInput(
+                    WriteBackHelper.getString(row, "CIG_CODE"),
+                    WriteBackHelper.getString(row, "CIG_NAME"),
+                    WriteBackHelper.toBigDecimal(row.get("ADV")),
+                    remark != null && remark.contains(BOOST_REMARK_KEYWORD) && boostedCustomerRow != null));
+        }
+
+        List<RuntimeException> failures = new ArrayList<>(1);
+        List<BigDecimal[]> results = allocationTaskExecutor.executeAll(inputs,
+                input -> allocate(input, input.boosted ? boostedCustomerRow : baseCustomerRow),
+                (input, ex) -> {
+                    failures.add(ex instanceof RuntimeException
+                            ? (RuntimeException) ex
+                            : new IllegalStateException("价位段初分配失败: " + input.cigCode, ex));
+                    return null;
+                });
+        if (!failures.isEmpty()) {
+            throw failures.get(0);
+        }
+        return results.toArray(new BigDecimal[0][]);
+    }
+
+    private BigDecimal[] allocate(CigaretteInput input, BigDecimal[] customerRow) {
+        if (input.adv == null || input.adv.compareTo(BigDecimal.ZERO) <= 0) {
+            return new BigDecimal[GradeConstants.GRADE_COUNT];
+        }
+        BigDecimal[][] allocation = singleLevelDistributionService.distribute(
+                CITY_REGIONS, new BigDecimal[][]{customerRow}, input.adv, GradeRange.full());
+        if (allocation == null || allocation.length == 0 || allocation[0] == null || allocation[0].length == 0) {
+            log.debug("价位段初分配结果为空: cigCode={}, cigName={}, adv={}, boosted={}",
+                    input.cigCode, input.cigName, input.adv, input.boosted);
+            return new BigDecimal[GradeConstants.GRADE_COUNT];
+        }
+        return allocation[0];
+    }
+
+    /**
+     * 单支卷烟的初分配输入（在调用线程上读取，计算线程只读）。
+     */
+    private static final class CigaretteInput {
+        private final String cigCode;
+        private final String cigName;
+        private final BigDecimal adv;
+        private final boolean boosted;
+
+        private CigaretteInput(String cigCode, String cigName, BigDecimal adv, boolean boosted) {
+            this.cigCode = cigCode;
+            this.cigName = cigName;
+            this.adv = adv;
+            this.boosted = boosted;
+        }
+    }
+}
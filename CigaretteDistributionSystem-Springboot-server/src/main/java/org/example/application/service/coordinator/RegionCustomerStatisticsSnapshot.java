@@ -0,0 +1,239 @@
+package org.example.application.service.coordinator;
+
+import org.example.domain.model.valueobject.RegionCustomerMatrix;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 区域客户数统计分区快照（不可变）。
+ * <p>
+ * 一次性读取 region_customer_statistics 某周分区并预解析 30 档位客户数，
+ * 同时建立区域名称哈希索引，供同一周内的多支卷烟重复构建客户矩阵。
+ * </p>
+ * <p>
+ * 快照内部数组不会暴露给调用方：每次构建矩阵都会复制档位数组，
+ * 因为两周一访上浮等后续流程会直接修改矩阵行。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+public final class RegionCustomerStatisticsSnapshot {
+
+    private static final String REGION_FULL_CITY = "全市";
+
+    private final int partitionKey;
+    private final List<Entry> entries;
+    /** 按 TOTAL 降序排列后的下标（稳定排序，与原实现的全集矩阵顺序一致） */
+    private final int[] orderByTotalDesc;
+    /** 规范化区域名 -> 原始下标（升序） */
+    private final Map<String, int[]> normalizedIndex;
+    /** 原始区域名 -> 首个下标 */
+    private final Map<String, Integer> exactIndex;
+
+    private RegionCustomerStatisticsSnapshot(int partitionKey, List<Entry> entries,
+                                             Map<String, int[]> normalizedIndex,
+                                             Map<String, Integer> exactIndex) {
+        this.partitionKey = partitionKey;
+        this.entries = entries;
+        this.normalizedIndex = normalizedIndex;
+        this.exactIndex = exactIndex;
+        this.orderByTotalDesc = sortByTotalDesc(entries);
+    }
+
+    /**
+     * 基于分区数据构建快照。
+     *
+     * @param partitionKey 分区键，如 20251203
+     * @param regions      区域名称列表（与查询结果顺序一致）
+     * @param grades       与区域一一对应的 30 档位客户数
+     * @param normalizer   区域名称规范化函数（与 KmpMatcher 匹配规则保持一致）
+     * @return 不可变快照
+     */
+    public static RegionCustomerStatisticsSnapshot of(int partitionKey, List<String> regions, List<BigDecimal[]> grades,
+                                                      Function<String, String> normalizer) {
+        List<Entry> entries = new ArrayList<>(regions.size());
+        Map<String, List<Integer>> normalized = new HashMap<>();
+        Map<String, Integer> exact = new HashMap<>();
+        for (int i = 0; i < regions.size(); i++) {
+            String region = regions.get(i);
+            Entry entry = new Entry(region, grades.get(i));
+            entries.add(entry);
+            if (region != null) {
+                exact.putIfAbsent(region, i);
+                if (!entry.trimmedRegion.isEmpty()) {
+                    String key = normalizer.apply(entry.trimmedRegion);
+                    if (!key.isEmpty()) {
+                        normalized.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+                    }
+                }
+            }
+        }
+        Map<String, int[]> index = new HashMap<>(normalized.size() * 2);
+        for (Map.Entry<String, List<Integer>> e : normalized.entrySet()) {
+            index.put(e.getKey(), e.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
+        return new RegionCustomerStatisticsSnapshot(partitionKey, Collections.unmodifiableList(entries),
+                Collections.unmodifiableMap(index), Collections.unmodifiableMap(exact));
+    }
+
+    public int getPartitionKey() {
+        return partitionKey;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * 快照中的全部区域名称（原始区域名，去重，不可修改）。
+     *
+     * @return 区域名称集合
+     */
+    public Set<String> regionNames() {
+        return exactIndex.keySet();
+    }
+
+    /**
+     * 构建全集矩阵（全部区域，按客户总数降序）。
+     *
+     * @return 新的区域客户矩阵，行内档位数组为副本
+     */
+    public RegionCustomerMatrix buildFullMatrix() {
+        List<RegionCustomerMatrix.Row> rows = new ArrayList<>(entries.size());
+        for (int idx : orderByTotalDesc) {
+            Entry entry = entries.get(idx);
+            rows.add(new RegionCustomerMatrix.Row(entry.region, entry.copyGrades()));
+        }
+        return new RegionCustomerMatrix(rows);
+    }
+
+    /**
+     * 按目标区域构建子矩阵（按客户总数降序）。
+     * <p>
+     * 目标区域经规范化后在哈希索引中查找，命中的区域按原始查询顺序去重，
+     * 与逐行 KMP 匹配的结果完全一致。
+     * </p>
+     *
+     * @param targetAreas          目标区域列表
+     * @param normalizer           区域名称规范化函数
+     * @param unmatchedTargetAreas 输出参数：未匹配到任何区域的目标区域
+     * @return 新的区域客户矩阵，行内档位数组为副本
+     */
+    public RegionCustomerMatrix buildFilteredMatrix(List<String> targetAreas,
+                                                    Function<String, String> normalizer,
+                                                    Set<String> unmatchedTargetAreas) {
+        BitSet hits = new BitSet(entries.size());
+        for (String target : targetAreas) {
+            if (target == null) {
+                continue;
+            }
+            String key = normalizer.apply(target);
+            int[] positions = key.isEmpty() ? null : normalizedIndex.get(key);
+            if (positions == null) {
+                unmatchedTargetAreas.add(target);
+                continue;
+            }
+            for (int position : positions) {
+                hits.set(position);
+            }
+        }
+
+        Map<String, Integer> selected = new LinkedHashMap<>();
+        for (int i = hits.nextSetBit(0); i >= 0; i = hits.nextSetBit(i + 1)) {
+            selected.putIfAbsent(entries.get(i).trimmedRegion, i);
+        }
+        List<Entry> matched = new ArrayList<>(selected.size());
+        for (Integer idx : selected.values()) {
+            matched.add(entries.get(idx));
+        }
+
+        List<RegionCustomerMatrix.Row> rows = new ArrayList<>(matched.size());
+        for (int idx : sortByTotalDesc(matched)) {
+            Entry entry = matched.get(idx);
+            rows.add(new RegionCustomerMatrix.Row(entry.trimmedRegion, entry.copyGrades()));
+        }
+        return new RegionCustomerMatrix(rows);
+    }
+
+    /**
+     * 构建"全市"单行矩阵。
+     *
+     * @return "全市"单行矩阵；不存在时返回空矩阵
+     */
+    public RegionCustomerMatrix buildCityWideMatrix() {
+        Integer idx = exactIndex.get(REGION_FULL_CITY);
+        List<RegionCustomerMatrix.Row> rows = new ArrayList<>();
+        if (idx != null) {
+            rows.add(new RegionCustomerMatrix.Row(REGION_FULL_CITY, entries.get(idx).copyGrades()));
+        }
+        return new RegionCustomerMatrix(rows);
+    }
+
+    /**
+     * 按原始区域名精确查找档位数组。
+     *
+     * @param region 区域名称
+     * @return 档位数组副本；不存在时返回 null
+     */
+    public BigDecimal[] findGrades(String region) {
+        Integer idx = region == null ? null : exactIndex.get(region);
+        return idx == null ? null : entries.get(idx).copyGrades();
+    }
+
+    /**
+     * 判断区域是否存在（原始区域名精确匹配）。
+     *
+     * @param region 区域名称
+     * @return true 表示存在
+     */
+    public boolean containsRegion(String region) {
+        return region != null && exactIndex.containsKey(region);
+    }
+
+    private static int[] sortByTotalDesc(List<Entry> list) {
+        Integer[] order = new Integer[list.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> list.get(b).total.compareTo(list.get(a).total));
+        int[] result = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            result[i] = order[i];
+        }
+        return result;
+    }
+
+    /**
+     * 快照中的单个区域条目。
+     */
+    private static final class Entry {
+        private final String region;
+        private final String trimmedRegion;
+        private final BigDecimal[] grades;
+        private final BigDecimal total;
+
+        private Entry(String region, BigDecimal[] grades) {
+            this.region = region;
+            this.trimmedRegion = region == null ? "" : region.trim();
+            this.grades = grades;
+            BigDecimal sum = BigDecimal.ZERO;
+            for (BigDecimal v : grades) {
+                if (v != null) {
+                    sum = sum.add(v);
+                }
+            }
+            this.total = sum;
+        }
+
+        private BigDecimal[] copyGrades() {
+            return grades.clone();
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package org.example.application.service.coordinator;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.example.domain.repository.RegionCustomerStatisticsRepository;
+import org.example.shared.util.GradeExtractor;
+import org.example.shared.util.KmpMatcher;
+import org.example.shared.util.MapValueExtractor;
+import org.example.shared.util.PartitionChangeListener;
+import org.example.shared.util.PartitionTableManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 区域客户数统计周快照缓存。
+ * <p>
+ * 按 (year, month, weekSeq) 缓存 region_customer_statistics 分区的不可变快照，
+ * 使一次分配方案中数百支卷烟只读取、解析一次统计分区；只保留最近使用的 {@value #MAX_PARTITIONS} 个分区。
+ * </p>
+ * <p>
+ * 同时缓存每周的 {@link RegionPresenceIndex}（仅区域名称），供只需判断区域是否存在的调用方使用，
+ * 与快照共用失效版本号。
+ * </p>
+ * <p>
+ * 失效规则：统计表重建、删除或追加写入后必须调用 {@link #invalidate(Integer, Integer, Integer)}（快照与区域索引同时失效）；
+ * 若调用方处于事务中，会在事务结束后再次失效，避免其他线程在提交前读到旧数据并回填缓存。
+ * 通过 {@link PartitionTableManager} 截断或删除统计表分区时经 {@link PartitionChangeListener} 自动失效。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@Slf4j
+@Component
+public class RegionCustomerStatisticsSnapshotCache implements PartitionChangeListener {
+
+    private static final String TABLE_NAME = "region_customer_statistics";
+
+    /** 最多缓存的分区数 */
+    private static final int MAX_PARTITIONS = 4;
+
+    private static final String METRIC_CACHE_HIT = "region_stats_snapshot_cache_hit_total";
+    private static final String METRIC_CACHE_MISS = "region_stats_snapshot_cache_miss_total";
+    private static final String METRIC_CACHE_SIZE = "region_stats_snapshot_cache_size";
+
+    private final RegionCustomerStatisticsRepository regionCustomerStatisticsRepository;
+    private final KmpMatcher kmpMatcher;
+
+    /** 快照与区域索引均按访问顺序淘汰，读写都在 this 上同步 */
+    private final Map<Integer, RegionCustomerStatisticsSnapshot> snapshots = lruMap();
+    private final Map<Integer, RegionPresenceIndex> presenceIndexes = lruMap();
+    /** 失效版本号（任一分区失效时递增），用于丢弃与失效并发加载的旧数据 */
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    public RegionCustomerStatisticsSnapshotCache(RegionCustomerStatisticsRepository regionCustomerStatisticsRepository,
+                                                 KmpMatcher kmpMatcher,
+                                                 PartitionTableManager partitionTableManager,
+                                                 MeterRegistry meterRegistry) {
+        this.regionCustomerStatisticsRepository = regionCustomerStatisticsRepository;
+        this.kmpMatcher = kmpMatcher;
+        partitionTableManager.addChangeListener(this);
+        meterRegistry.more().counter(METRIC_CACHE_HIT, Tags.empty(), hitCount);
+        meterRegistry.more().counter(METRIC_CACHE_MISS, Tags.empty(), missCount);
+        meterRegistry.gauge(METRIC_CACHE_SIZE, Tags.empty(), this, RegionCustomerStatisticsSnapshotCache::size);
+    }
+
+    /**
+     * 获取指定周的统计快照（未命中时从分区表加载）。
+     * <p>空分区不缓存，以便统计表构建完成后立即可见。</p>
+     *
+     * @param year    年份
+     * @param month   月份
+     * @param weekSeq 周序号
+     * @return 快照（分区无数据时返回空快照，不为 null）
+     */
+    public RegionCustomerStatisticsSnapshot get(Integer year, Integer month, Integer weekSeq) {
+        int key = PartitionTableManager.calculatePartitionKey(year, month, weekSeq);
+        RegionCustomerStatisticsSnapshot cached;
+        synchronized (this) {
+            cached = snapshots.get(key);
+        }
+        if (cached != null) {
+            hitCount.incrementAndGet();
+            return cached;
+        }
+        missCount.incrementAndGet();
+
+        long versionBeforeLoad = version.get();
+        RegionCustomerStatisticsSnapshot loaded = load(key, year, month, weekSeq);
+        if (!loaded.isEmpty()) {
+            synchronized (this) {
+                if (version.get() == versionBeforeLoad) {
+                    RegionCustomerStatisticsSnapshot existing = snapshots.putIfAbsent(key, loaded);
+                    if (existing != null) {
+                        return existing;
+                    }
+                    log.debug("区域客户统计快照已缓存: {}-{}-{}, 区域数={}", year, month, weekSeq, loaded.size());
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * 获取指定周的区域存在性索引。
+     * <p>
+     * 未命中时若该周快照已缓存则直接由快照派生，否则只查询 REGION 列；空分区不缓存。
+     * </p>
+     *
+     * @param year    年份
+     * @param month   月份
+     * @param weekSeq 周序号
+     * @return 区域存在性索引（分区无数据时返回空索引，不为 null）
+     */
+    public RegionPresenceIndex getPresenceIndex(Integer year, Integer month, Integer weekSeq) {
+        int key = PartitionTableManager.calculatePartitionKey(year, month, weekSeq);
+        RegionPresenceIndex cached;
+        RegionCustomerStatisticsSnapshot snapshot;
+        synchronized (this) {
+            cached = presenceIndexes.get(key);
+            snapshot = snapshots.get(key);
+        }
+        if (cached != null) {
+            return cached;
+        }
+
+        long versionBeforeLoad = version.get();
+        RegionPresenceIndex loaded = snapshot != null
+                ? RegionPresenceIndex.of(key, snapshot.regionNames())
+                : RegionPresenceIndex.of(key, regionCustomerStatisticsRepository.findRegions(year, month, weekSeq));
+        if (!loaded.isEmpty()) {
+            synchronized (this) {
+                if (version.get() == versionBeforeLoad) {
+                    RegionPresenceIndex existing = presenceIndexes.putIfAbsent(key, loaded);
+                    if (existing != null) {
+                        return existing;
+                    }
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * 失效指定周的快照与区域存在性索引。
+     *
+     * @param year    年份
+     * @param month   月份
+     * @param weekSeq 周序号
+     */
+    public void invalidate(Integer year, Integer month, Integer weekSeq) {
+        int key = PartitionTableManager.calculatePartitionKey(year, month, weekSeq);
+        evict(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(key);
+                }
+            });
+        }
+        log.debug("区域客户统计快照已失效: {}-{}-{}", year, month, weekSeq);
+    }
+
+    /**
+     * 失效全部快照与区域存在性索引（如按年删除分区后）。
+     */
+    public synchronized void invalidateAll() {
+        version.incrementAndGet();
+        snapshots.clear();
+        presenceIndexes.clear();
+    }
+
+    @Override
+    public void onPartitionTruncated(String tableName, Integer year, Integer month, Integer weekSeq) {
+        if (TABLE_NAME.equals(tableName)) {
+            invalidate(year, month, weekSeq);
+        }
+    }
+
+    @Override
+    public void onPartitionsDropped(String tableName) {
+        if (TABLE_NAME.equals(tableName)) {
+            invalidateAll();
+            log.debug("区域客户统计分区已删除，快照全部失效");
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * 当前缓存的快照分区数。
+     */
+    public synchronized int size() {
+        return snapshots.size();
+    }
+
+    private synchronized void evict(int key) {
+        version.incrementAndGet();
+        snapshots.remove(key);
+        presenceIndexes.remove(key);
+    }
+
+    private static <V> Map<Integer, V> lruMap() {
+        return new LinkedHashMap<Integer, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, V> eldest) {
+                return size() > MAX_PARTITIONS;
+            }
+        };
+    }
+
+    private RegionCustomerStatisticsSnapshot load(int key, Integer year, Integer month, Integer weekSeq) {
+        List<Map<String, Object>> allStats = regionCustomerStatisticsRepository.findAll(year, month, weekSeq);
+        int size = allStats == null ? 0 : allStats.size();
+        List<String> regions = new ArrayList<>(size);
+        List<BigDecimal[]> grades = new ArrayList<>(size);
+        if (allStats != null) {
+            for (Map<String, Object> row : allStats) {
+                regions.add(MapValueExtractor.getStringValue(row, "REGION"));
+                grades.add(GradeExtractor.extractFromMap(row));
+            }
+        }
+        return RegionCustomerStatisticsSnapshot.of(key, regions, grades, kmpMatcher::normalize);
+    }
+}
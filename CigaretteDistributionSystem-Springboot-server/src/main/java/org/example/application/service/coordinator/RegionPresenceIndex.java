@@ -0,0 +1,133 @@
+package org.example.application.service.coordinator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 区域客户数统计分区的区域存在性索引（不可变）。
+ * <p>
+ * 只保存某周分区的区域名称：有序 {@code String[]} 负责精确判断，前置的布隆过滤器让绝大多数"不存在"的查询
+ * 不进入二分查找。区域名按原始值精确匹配（不做规范化），与按 REGION 列等值查询的结果一致。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+public final class RegionPresenceIndex {
+
+    /** 每个区域分配的位数，7 个哈希函数时误判率约 1% */
+    private static final int BITS_PER_REGION = 10;
+    private static final int HASH_COUNT = 7;
+
+    private final int partitionKey;
+    private final String[] sortedRegions;
+    private final long[] bloomWords;
+    private final int bloomBits;
+
+    private RegionPresenceIndex(int partitionKey, String[] sortedRegions) {
+        this.partitionKey = partitionKey;
+        this.sortedRegions = sortedRegions;
+        int words = Math.max(1, (sortedRegions.length * BITS_PER_REGION + 63) / 64);
+        this.bloomWords = new long[words];
+        this.bloomBits = words * 64;
+        for (String region : sortedRegions) {
+            int h1 = region.hashCode();
+            int h2 = secondHash(h1);
+            for (int i = 0; i < HASH_COUNT; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bloomBits);
+                bloomWords[bit >>> 6] |= 1L << bit;
+            }
+        }
+    }
+
+    /**
+     * 基于区域名称构建索引（忽略 null，自动去重）。
+     *
+     * @param partitionKey 分区键，如 20251203
+     * @param regions      区域名称
+     * @return 不可变索引
+     * @example
+     * <pre>{@code
+     * RegionPresenceIndex index = RegionPresenceIndex.of(20251203, Arrays.asList("全市", "丹江"));
+     * index.contains("丹江");   // true
+     * index.contains("郧西");   // false
+     * }</pre>
+     */
+    public static RegionPresenceIndex of(int partitionKey, Collection<String> regions) {
+        String[] sorted = regions == null
+                ? new String[0]
+                : regions.stream().filter(Objects::nonNull).distinct().sorted().toArray(String[]::new);
+        return new RegionPresenceIndex(partitionKey, sorted);
+    }
+
+    public int getPartitionKey() {
+        return partitionKey;
+    }
+
+    public int size() {
+        return sortedRegions.length;
+    }
+
+    public boolean isEmpty() {
+        return sortedRegions.length == 0;
+    }
+
+    /**
+     * 判断区域是否存在（原始区域名精确匹配）。
+     *
+     * @param region 区域名称
+     * @return true 表示存在
+     */
+    public boolean contains(String region) {
+        if (region == null || sortedRegions.length == 0 || !mightContain(region)) {
+            return false;
+        }
+        return Arrays.binarySearch(sortedRegions, region) >= 0;
+    }
+
+    /**
+     * 按输入顺序返回不存在的区域。
+     *
+     * @param regions 待检查的区域名称
+     * @return 不存在的区域（保持输入顺序）
+     */
+    public List<String> findMissing(Collection<String> regions) {
+        List<String> missing = new ArrayList<>();
+        for (String region : regions) {
+            if (!contains(region)) {
+                missing.add(region);
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * 布隆过滤器判断：返回 false 时区域一定不存在。
+     */
+    boolean mightContain(String region) {
+        int h1 = region.hashCode();
+        int h2 = secondHash(h1);
+        for (int i = 0; i < HASH_COUNT; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bloomBits);
+            if ((bloomWords[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 由 {@link String#hashCode()} 派生第二个哈希（murmur3 fmix32，强制为奇数避免步长为0）。
+     */
+    private static int secondHash(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h | 1;
+    }
+}
@@ -7,6 +7,8 @@ import org.example.application.service.coordinator.TagExtractionService;
 import org.example.domain.repository.FilterCustomerTableRepository;
 import org.example.domain.service.rule.BiWeeklyVisitBoostRule;
 import org.example.shared.util.CombinationStrategyAnalyzer;
+import org.example.shared.util.OrderCycleBoostTable;
+import org.example.shared.util.OrderCycleBoostTableCache;
 import org.example.shared.util.OrderCycleMatrixCalculator;
 import org.example.domain.model.tag.TagFilter;
 import org.example.domain.model.valueobject.RegionCustomerMatrix;
@@ -18,6 +20,10 @@ import java.util.*;
 
 /**
  * “两周一访上浮100%”双周/单周客户上浮服务实现类。
+ * <p>
+ * 订单周期检测与区域增量按周缓存在 {@link OrderCycleBoostTableCache} 中，
+ * 同一周投放组合相同的卷烟只统计一次，之后的上浮为逐档数组相加。
+ * </p>
  *
  * @author Robin
  * @version 1.0
@@ -35,6 +41,7 @@ public class BiWeeklyVisitBoostServiceImpl implements BiWeeklyVisitBoostService
     private final TagExtractionService tagExtractionService;
     private final CombinationStrategyAnalyzer strategyAnalyzer;
     private final OrderCycleMatrixCalculator matrixCalculator;
+    private final OrderCycleBoostTableCache boostTableCache;
 
     /**
      * 对卷烟的客户矩阵执行“两周一访上浮100%”：
@@ -88,7 +95,9 @@ public class BiWeeklyVisitBoostServiceImpl implements BiWeeklyVisitBoostService
             return baseMatrix;
         }
 
-        Set<OrderCycleMatrixCalculator.OrderCycleType> boostTypes = detectBoostTypes(year, month, weekSeq);
+        OrderCycleBoostTable boostTable = boostTableCache.get(year, month, weekSeq,
+                () -> filterCustomerTableRepository.listOrderCyclesPartition(year, month, weekSeq));
+        Set<OrderCycleMatrixCalculator.OrderCycleType> boostTypes = boostTable.getBoostTypes();
         if (boostTypes.isEmpty()) {
             log.info("两周一访上浮100%：分区 {}-{}-{} 中不存在单周/双周客户，跳过上浮", year, month, weekSeq);
             return baseMatrix;
@@ -109,24 +118,22 @@ public class BiWeeklyVisitBoostServiceImpl implements BiWeeklyVisitBoostService
         }
         
         for (OrderCycleMatrixCalculator.OrderCycleType type : boostTypes) {
-            Map<String, BigDecimal[]> increments = matrixCalculator.calculateOrderCycleMatrix(
-                    strategy, year, month, weekSeq, tagRules, type);
+            Map<String, long[]> increments = boostTable.getDeltas(strategy, tagRules, type,
+                    () -> matrixCalculator.calculateOrderCycleMatrix(strategy, year, month, weekSeq, tagRules, type));
             
             // 应用上浮规则：直接操作原始矩阵
-            for (Map.Entry<String, BigDecimal[]> entry : increments.entrySet()) {
+            for (Map.Entry<String, long[]> entry : increments.entrySet()) {
                 RegionCustomerMatrix.Row row = rowIndex.get(entry.getKey());
                 if (row == null) {
                     log.debug("两周一访上浮100%：区域 {} 未在客户矩阵中出现，跳过叠加", entry.getKey());
                     continue;
                 }
                 BigDecimal[] grades = row.getGrades();
-                BigDecimal[] addition = entry.getValue();
                 BOOST_RULE.ensureLength(grades);
-                BOOST_RULE.ensureLength(addition);
+                long[] addition = entry.getValue();
                 for (int i = 0; i < grades.length && i < addition.length; i++) {
                     BigDecimal base = grades[i] == null ? BigDecimal.ZERO : grades[i];
-                    BigDecimal delta = addition[i] == null ? BigDecimal.ZERO : addition[i];
-                    grades[i] = base.add(delta);
+                    grades[i] = addition[i] == 0L ? base : base.add(BigDecimal.valueOf(addition[i]));
                 }
                 log.debug("两周一访上浮100%：区域 {} 叠加 {} 客户数成功", entry.getKey(), type);
             }
@@ -138,31 +145,6 @@ public class BiWeeklyVisitBoostServiceImpl implements BiWeeklyVisitBoostService
 
 
 
-    /**
-     * 从分区表扫描订单周期，判断是否存在单周/双周客户。
-     *
-     * @param year    年份
-     * @param month   月份
-     * @param weekSeq 周序号
-     * @return 检测到的周期类型集合，可能包含 OrderCycleType.SINGLE（单周）和/或 OrderCycleType.DOUBLE（双周）
-     */
-    private Set<OrderCycleMatrixCalculator.OrderCycleType> detectBoostTypes(Integer year, Integer month, Integer weekSeq) {
-        List<String> cycles = filterCustomerTableRepository.listOrderCyclesPartition(year, month, weekSeq);
-        Set<OrderCycleMatrixCalculator.OrderCycleType> types = EnumSet.noneOf(OrderCycleMatrixCalculator.OrderCycleType.class);
-        cycles.stream()
-                .filter(Objects::nonNull)
-                .forEach(cycle -> {
-                    if (cycle.contains("单周")) {
-                        types.add(OrderCycleMatrixCalculator.OrderCycleType.SINGLE);
-                    }
-                    if (cycle.contains("双周")) {
-                        types.add(OrderCycleMatrixCalculator.OrderCycleType.DOUBLE);
-                    }
-                });
-        return types;
-    }
-
-
     /**
      * 解析标签过滤规则。
      * <p>
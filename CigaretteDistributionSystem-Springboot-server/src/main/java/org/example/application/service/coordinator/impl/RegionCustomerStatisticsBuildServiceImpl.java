@@ -3,11 +3,13 @@ package org.example.application.service.coordinator.impl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.application.service.coordinator.RegionCustomerStatisticsBuildService;
+import org.example.application.service.coordinator.RegionCustomerStatisticsSnapshotCache;
 import org.example.application.service.coordinator.TagExtractionService;
 import org.example.domain.model.tag.TagFilter;
 import org.example.domain.repository.CigaretteDistributionInfoRepository;
 import org.example.domain.repository.RegionCustomerStatisticsRepository;
 import org.example.shared.exception.RegionNoCustomerException;
+import org.example.shared.util.GradeAggregationCube;
 import org.example.shared.util.RegionRecordBuilder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -37,6 +39,7 @@ public class RegionCustomerStatisticsBuildServiceImpl implements RegionCustomerS
     private final RegionCustomerStatisticsRepository regionCustomerStatisticsRepository;
     private final TagExtractionService tagExtractionService;
     private final RegionRecordBuilder regionRecordBuilder;
+    private final RegionCustomerStatisticsSnapshotCache regionCustomerStatisticsSnapshotCache;
     
     /**
      * 构建全量区域客户数表
@@ -56,8 +59,9 @@ public class RegionCustomerStatisticsBuildServiceImpl implements RegionCustomerS
         Map<String, Object> result = new HashMap<>();
         
         try {
-            // 1. 清空对应分区的旧数据（Repository层会自动确保分区存在）
+            // 1. 清空对应分区的旧数据（Repository层会自动确保分区存在），同时失效周快照缓存
             int deletedCount = regionCustomerStatisticsRepository.deleteByYearMonthWeekSeq(year, month, weekSeq);
+            regionCustomerStatisticsSnapshotCache.invalidate(year, month, weekSeq);
             log.info("清空区域客户数统计表分区: {}-{}-{}, 删除 {} 条旧记录", year, month, weekSeq, deletedCount);
             
             // 3. 扫描cigarette_distribution_info表，获取所有不重复的投放组合
@@ -70,21 +74,32 @@ public class RegionCustomerStatisticsBuildServiceImpl implements RegionCustomerS
                 return result;
             }
             
-            // 4. 对每个投放组合，构建区域客户数统计
+            // 4. 解析所有投放组合的标签规则，并对 customer_filter 分区做一次流式聚合
+            List<List<TagFilter>> combinationTagRules = new ArrayList<>(distinctCombinations.size());
+            Set<TagFilter> allTagRules = new LinkedHashSet<>();
+            for (Map<String, Object> combination : distinctCombinations) {
+                List<TagFilter> tagRules = tagExtractionService.resolveTagFilters(combination);
+                combinationTagRules.add(tagRules);
+                allTagRules.addAll(tagRules);
+            }
+            GradeAggregationCube cube = regionRecordBuilder.aggregateWeek(year, month, weekSeq, allTagRules);
+
+            // 5. 对每个投放组合，基于聚合立方体构建区域客户数统计
             Map<String, RegionCustomerRecord> regionRecordMap = new LinkedHashMap<>();
             List<String> noCustomerRegions = new ArrayList<>(); // 记录无客户数据的区域
 
-            for (Map<String, Object> combination : distinctCombinations) {
+            for (int c = 0; c < distinctCombinations.size(); c++) {
+                Map<String, Object> combination = distinctCombinations.get(c);
                 String deliveryMethod = getStringValue(combination, "DELIVERY_METHOD");
                 String deliveryEtype = getStringValue(combination, "DELIVERY_ETYPE");
                 log.debug("处理投放组合: DELIVERY_METHOD={}, DELIVERY_ETYPE={}", deliveryMethod, deliveryEtype);
 
-                List<TagFilter> tagRules = tagExtractionService.resolveTagFilters(combination);
+                List<TagFilter> tagRules = combinationTagRules.get(c);
 
                 try {
-                // 使用分区表
+                // 使用分区聚合立方体（无法在内存中求值的规则自动回退为分区表查询）
                 List<RegionCustomerRecord> records = regionRecordBuilder.buildRecordsForCombination(
-                        deliveryMethod, deliveryEtype, tagRules, year, month, weekSeq);
+                        deliveryMethod, deliveryEtype, tagRules, year, month, weekSeq, cube);
 
                 // 合并：如果区域已存在，去重（保留第一次结果，因为同一区域应该使用同一份数据）
                 // 规则：
@@ -122,9 +137,10 @@ public class RegionCustomerStatisticsBuildServiceImpl implements RegionCustomerS
             List<RegionCustomerRecord> allRecords =
                 new ArrayList<>(regionRecordMap.values());
             
-            // 5. 批量插入到region_customer_statistics分区表
+            // 6. 批量插入到region_customer_statistics分区表
             if (!allRecords.isEmpty()) {
                 int insertedCount = regionCustomerStatisticsRepository.batchUpsert(year, month, weekSeq, allRecords);
+                regionCustomerStatisticsSnapshotCache.invalidate(year, month, weekSeq);
                 log.info("区域客户数统计表构建完成: {}-{}-{}, 插入 {} 条记录", year, month, weekSeq, insertedCount);
                 
                 result.put("success", true);
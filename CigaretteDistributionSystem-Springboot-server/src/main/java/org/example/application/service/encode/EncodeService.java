@@ -3,6 +3,7 @@ package org.example.application.service.encode;
 import org.example.infrastructure.persistence.po.CigaretteDistributionPredictionPO;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * 语义编码服务（精简版）。
@@ -30,4 +31,22 @@ public interface EncodeService {
      */
     String encodeForSpecificArea(String cigCode, String cigName, String deliveryMethod, String deliveryEtype,
                                  String targetArea, List<CigaretteDistributionPredictionPO> allCigaretteRecords);
+
+    /**
+     * 为单卷烟的全部区域一次性生成编码表达式。
+     *
+     * @param cigCode             卷烟代码
+     * @param cigName             卷烟名称
+     * @param deliveryMethod      投放方式
+     * @param deliveryEtype       扩展投放类型
+     * @param allCigaretteRecords 全部区域的投放记录
+     * @return 区域 → 编码表达式，无法编码时为空 Map
+     */
+    Map<String, String> encodeAllAreas(String cigCode, String cigName, String deliveryMethod, String deliveryEtype,
+                                       List<CigaretteDistributionPredictionPO> allCigaretteRecords);
+
+    /**
+     * 重新加载编码规则并重建编码索引。
+     */
+    void reload();
 }
@@ -2,18 +2,16 @@ package org.example.application.service.encode.impl;
 
 import lombok.extern.slf4j.Slf4j;
 import org.example.application.service.encode.EncodeService;
-import org.example.domain.model.valueobject.DeliveryExtensionType;
 import org.example.domain.service.rule.EncodingRule;
 import org.example.infrastructure.config.encoding.EncodingRuleRepository;
 import org.example.infrastructure.persistence.po.CigaretteDistributionPredictionPO;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 
 /**
  * 语义编码解码服务实现（精简版，仅保留分配流程所需的单区域编码）。
@@ -30,8 +28,12 @@ public class EncodeServiceImpl implements EncodeService {
 
     private final EncodingRuleRepository encodingRuleRepository;
 
+    /** 预编译编码索引，{@link #reload()} 时整体替换 */
+    private volatile EncodingIndex index;
+
     public EncodeServiceImpl(EncodingRuleRepository encodingRuleRepository) {
         this.encodingRuleRepository = encodingRuleRepository;
+        this.index = EncodingIndex.build(encodingRuleRepository);
     }
 
     /**
@@ -72,10 +74,85 @@ public class EncodeServiceImpl implements EncodeService {
             return "";
         }
 
+        String header = buildHeaderCode(deliveryMethod, deliveryEtype);
+        if (header == null) {
+            return "";
+        }
+
+        CigaretteDistributionPredictionPO targetRecord = null;
+        for (CigaretteDistributionPredictionPO record : allCigaretteRecords) {
+            if (targetArea.equals(record.getDeliveryArea())) {
+                targetRecord = record;
+                break;
+            }
+        }
+        if (targetRecord == null) {
+            log.warn("未找到区域 {} 在卷烟 {} - {} 的记录中", targetArea, cigCode, cigName);
+            return "";
+        }
+        return encodeRecord(header, deliveryEtype, targetArea, targetRecord);
+    }
+
+    /**
+     * 为卷烟的全部区域一次性生成编码表达式。
+     * <p>
+     * 投放方式/扩展类型编码只解析一次，区域→记录按输入顺序建立索引（同一区域取第一条记录，
+     * 与 {@link #encodeForSpecificArea} 一致），整体为 O(n)。
+     * </p>
+     *
+     * @param cigCode             卷烟代码
+     * @param cigName             卷烟名称
+     * @param deliveryMethod      投放方式
+     * @param deliveryEtype       扩展投放类型
+     * @param allCigaretteRecords 该卷烟的所有投放记录列表
+     * @return 区域 → 编码表达式（按记录顺序），投放方式或扩展类型无法编码时为空 Map
+     */
+    @Override
+    public Map<String, String> encodeAllAreas(String cigCode, String cigName, String deliveryMethod, String deliveryEtype,
+                                              List<CigaretteDistributionPredictionPO> allCigaretteRecords) {
+        if (allCigaretteRecords == null || allCigaretteRecords.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        String header = buildHeaderCode(deliveryMethod, deliveryEtype);
+        if (header == null) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, CigaretteDistributionPredictionPO> recordsByArea = new LinkedHashMap<>();
+        for (CigaretteDistributionPredictionPO record : allCigaretteRecords) {
+            if (record.getDeliveryArea() != null) {
+                recordsByArea.putIfAbsent(record.getDeliveryArea(), record);
+            }
+        }
+
+        Map<String, String> encoded = new LinkedHashMap<>(recordsByArea.size() * 2);
+        for (Map.Entry<String, CigaretteDistributionPredictionPO> entry : recordsByArea.entrySet()) {
+            encoded.put(entry.getKey(), encodeRecord(header, deliveryEtype, entry.getKey(), entry.getValue()));
+        }
+        return encoded;
+    }
+
+    /**
+     * 重新加载编码规则，并原子替换预编译编码索引。
+     */
+    @Override
+    public synchronized void reload() {
+        encodingRuleRepository.reload();
+        index = EncodingIndex.build(encodingRuleRepository);
+        log.info("编码索引已重建");
+    }
+
+    /**
+     * 生成编码头部：投放类型编码 + 扩展投放类型编码（仅 B 类）。
+     *
+     * @return 头部编码（不含标签后缀），无法编码时返回 null
+     */
+    private String buildHeaderCode(String deliveryMethod, String deliveryEtype) {
         String methodCode = encodingRuleRepository.findDeliveryMethodCode(deliveryMethod);
         if (methodCode == null) {
             log.warn("无法编码投放方式: {}", deliveryMethod);
-            return "";
+            return null;
         }
 
         String etypeCode = "";
@@ -83,25 +160,22 @@ public class EncodeServiceImpl implements EncodeService {
             etypeCode = resolveExtensionTypeCode(deliveryEtype);
             if (etypeCode == null) {
                 log.warn("无法编码扩展投放类型: {}", deliveryEtype);
-                return "";
+                return null;
             }
         }
+        return methodCode + etypeCode;
+    }
 
-        CigaretteDistributionPredictionPO targetRecord = allCigaretteRecords.stream()
-                .filter(r -> targetArea.equals(r.getDeliveryArea()))
-                .findFirst()
-                .orElse(null);
-        if (targetRecord == null) {
-            log.warn("未找到区域 {} 在卷烟 {} - {} 的记录中", targetArea, cigCode, cigName);
-            return "";
-        }
-
+    /**
+     * 编码单条区域记录。
+     */
+    private String encodeRecord(String header, String deliveryEtype, String targetArea,
+                                CigaretteDistributionPredictionPO targetRecord) {
         String gradeCodes = ENCODING_RULE.encodeGradeSequences(extractGrades(targetRecord));
         String tagSuffix = buildTagSuffix(targetRecord.getTag());
 
         StringBuilder sb = new StringBuilder()
-                .append(methodCode)
-                .append(etypeCode)
+                .append(header)
                 .append(tagSuffix);
 
         // 当区域为"全市"时，不再单独编码区域部分，直接编码投放量
@@ -117,7 +191,7 @@ public class EncodeServiceImpl implements EncodeService {
     /**
      * 解析区域编码。
      * <p>
-     * 根据扩展投放类型查找区域对应的编码，如果找不到则返回原区域名称。
+     * 根据扩展投放类型查找区域对应的编码，如果找不到则返回原区域名称。结果由 {@link EncodingIndex} 缓存。
      * </p>
      *
      * @param deliveryEtype 扩展投放类型字符串（如："区县公司"、"市场类型"）
@@ -125,69 +199,7 @@ public class EncodeServiceImpl implements EncodeService {
      * @return 区域编码（如果找到）或原区域名称（如果未找到）
      */
     String resolveRegionCode(String deliveryEtype, String targetArea) {
-        // 解析复合区域名称：形如 "丹江（城网）" → mainRegionName="丹江"，subRegionName="城网"
-        String mainRegionName = targetArea;
-        String subRegionName = null;
-        int leftIdx = targetArea.indexOf('（');
-        int rightIdx = targetArea.indexOf('）');
-        if (leftIdx > 0 && rightIdx > leftIdx) {
-            mainRegionName = targetArea.substring(0, leftIdx);
-            subRegionName = targetArea.substring(leftIdx + 1, rightIdx);
-        }
-
-        // 识别所有扩展类型（支持双扩展）
-        List<DeliveryExtensionType> allTypes = findAllExtensionTypes(deliveryEtype);
-        if (allTypes.isEmpty()) {
-            // 如果findAllExtensionTypes找不到，尝试使用from方法
-            Optional<DeliveryExtensionType> singleTypeOpt = DeliveryExtensionType.from(deliveryEtype);
-            if (singleTypeOpt.isPresent()) {
-                allTypes = Collections.singletonList(singleTypeOpt.get());
-            }
-        }
-
-        if (allTypes.isEmpty()) {
-            log.warn("无法识别扩展类型: deliveryEtype={}, targetArea={}", deliveryEtype, targetArea);
-            return targetArea;
-        }
-
-        // 主扩展类型（通常是第一个，区县优先）
-        DeliveryExtensionType mainType = allTypes.get(0);
-        
-        // 主扩展编码（只允许精确匹配）
-        String mainCode = null;
-        java.util.Map<String, String> mainRegionMap = encodingRuleRepository.getRegionCodeMap(mainType);
-        if (mainRegionMap != null && !mainRegionMap.isEmpty()) {
-            mainCode = mainRegionMap.get(mainRegionName);
-            if (mainCode == null) {
-                log.warn("无法找到主区域编码: mainRegionName={}, mainType={}, 可用键: {}", 
-                        mainRegionName, mainType, mainRegionMap.keySet());
-            }
-        }
-
-        // 子扩展编码（仅当存在子扩展名称和子扩展类型时，只允许精确匹配）
-        String subCode = null;
-        if (subRegionName != null && allTypes.size() > 1) {
-            DeliveryExtensionType subType = allTypes.get(1);
-            java.util.Map<String, String> subRegionMap = encodingRuleRepository.getRegionCodeMap(subType);
-            if (subRegionMap != null && !subRegionMap.isEmpty()) {
-                subCode = subRegionMap.get(subRegionName);
-                if (subCode == null) {
-                    log.warn("无法找到子区域编码: subRegionName={}, subType={}, 可用键: {}", 
-                            subRegionName, subType, subRegionMap.keySet());
-                }
-            }
-        }
-
-        if (mainCode != null && subCode != null) {
-            return mainCode + " +" + subCode;
-        }
-        if (mainCode != null) {
-            return mainCode;
-        }
-        
-        log.warn("无法解析区域编码: deliveryEtype={}, targetArea={}, mainRegionName={}, subRegionName={}, mainType={}, mainCode={}, subCode={}", 
-                deliveryEtype, targetArea, mainRegionName, subRegionName, mainType, mainCode, subCode);
-        return targetArea;
+        return index.regionCode(deliveryEtype, targetArea);
     }
 
     /**
@@ -211,123 +223,13 @@ public class EncodeServiceImpl implements EncodeService {
     }
 
     /**
-     * 解析扩展投放类型编码，支持单扩展与双扩展。
+     * 解析扩展投放类型编码，支持单扩展与双扩展。结果由 {@link EncodingIndex} 缓存。
      *
      * @param deliveryEtype 扩展投放类型原始字符串（如 "档位+区县"、"档位+区县+市场类型"）
      * @return 扩展投放类型编码（如 "1" 或 "1-2"），无法解析时返回 null
      */
     String resolveExtensionTypeCode(String deliveryEtype) {
-        if (deliveryEtype == null || deliveryEtype.trim().isEmpty()) {
-            return null;
-        }
-
-        // 首先尝试精确匹配（适用于单扩展或已定义的双扩展组合）
-        Optional<DeliveryExtensionType> mainTypeOpt = DeliveryExtensionType.from(deliveryEtype);
-        DeliveryExtensionType mainType;
-        
-        if (mainTypeOpt.isPresent()) {
-            mainType = mainTypeOpt.get();
-        } else {
-            // 如果精确匹配失败，尝试从字符串中提取所有扩展类型
-            // 适用于未在别名列表中定义的双扩展组合（如 "档位+区县+城乡分类代码"）
-            List<DeliveryExtensionType> foundTypes = findAllExtensionTypes(deliveryEtype);
-            if (foundTypes.isEmpty()) {
-            return null;
-            }
-            // 选择第一个作为主扩展类型
-            mainType = foundTypes.get(0);
-        }
-
-        // 主扩展编码
-        String mainLabel = "档位+" + mainType.getDisplayName();
-        String mainCode = encodingRuleRepository.findExtensionTypeCode(mainLabel);
-        if (mainCode == null) {
-            return null;
-        }
-
-        // 尝试解析子扩展
-        Optional<DeliveryExtensionType> subTypeOpt = findSubExtensionType(deliveryEtype, mainType);
-        if (!subTypeOpt.isPresent()) {
-            return mainCode;
-        }
-        DeliveryExtensionType subType = subTypeOpt.get();
-        String subLabel = "档位+" + subType.getDisplayName();
-        String subCode = encodingRuleRepository.findExtensionTypeCode(subLabel);
-        if (subCode == null) {
-            return mainCode;
-        }
-        return mainCode + "-" + subCode;
-    }
-
-    /**
-     * 从扩展投放类型字符串中提取所有匹配的扩展类型。
-     * 用于处理未在别名列表中定义的双扩展组合。
-     *
-     * @param rawEtype 原始扩展类型字符串
-     * @return 找到的所有扩展类型列表（按优先级排序，区县优先）
-     */
-    private List<DeliveryExtensionType> findAllExtensionTypes(String rawEtype) {
-        if (rawEtype == null) {
-            return Collections.emptyList();
-        }
-        String normalized = rawEtype.replaceAll("\\s+", "");
-        List<DeliveryExtensionType> foundTypes = new ArrayList<>();
-        
-        // 定义扩展类型的优先级：区县 > 市场类型 > 其他类型
-        // 区县应该总是作为主扩展类型，因为它是地理区域的基础
-        java.util.Map<DeliveryExtensionType, Integer> priorityMap = new java.util.HashMap<>();
-        priorityMap.put(DeliveryExtensionType.COUNTY, 1);  // 最高优先级
-        priorityMap.put(DeliveryExtensionType.MARKET_TYPE, 2);
-        priorityMap.put(DeliveryExtensionType.URBAN_RURAL_CODE, 3);
-        priorityMap.put(DeliveryExtensionType.BUSINESS_FORMAT, 4);
-        priorityMap.put(DeliveryExtensionType.MARKET_DEPARTMENT, 5);
-        priorityMap.put(DeliveryExtensionType.BUSINESS_DISTRICT, 6);
-        priorityMap.put(DeliveryExtensionType.CREDIT_LEVEL, 7);
-        priorityMap.put(DeliveryExtensionType.INTEGRITY_GROUP, 8);
-        
-        // 按显示名称长度从长到短排序，优先匹配更长的名称（避免误匹配）
-        List<DeliveryExtensionType> sortedTypes = Arrays.stream(DeliveryExtensionType.values())
-                .filter(type -> type != DeliveryExtensionType.UNKNOWN)
-                .sorted((a, b) -> Integer.compare(b.getDisplayName().length(), a.getDisplayName().length()))
-                .collect(java.util.stream.Collectors.toList());
-        
-        for (DeliveryExtensionType type : sortedTypes) {
-            if (normalized.contains(type.getDisplayName())) {
-                foundTypes.add(type);
-            }
-        }
-        
-        // 按优先级排序，区县优先
-        foundTypes.sort((a, b) -> {
-            int priorityA = priorityMap.getOrDefault(a, 999);
-            int priorityB = priorityMap.getOrDefault(b, 999);
-            return Integer.compare(priorityA, priorityB);
-        });
-        
-        return foundTypes;
-    }
-
-    /**
-     * 从扩展投放类型原始字符串中解析子扩展类型（双扩展场景）。
-     *
-     * @param rawEtype 原始扩展类型字符串
-     * @param mainType 已识别的主扩展类型
-     * @return 子扩展类型（若不存在或无法解析则返回 empty）
-     */
-    private Optional<DeliveryExtensionType> findSubExtensionType(String rawEtype, DeliveryExtensionType mainType) {
-        if (rawEtype == null) {
-            return Optional.empty();
-        }
-        String normalized = rawEtype.replaceAll("\\s+", "");
-        for (DeliveryExtensionType type : DeliveryExtensionType.values()) {
-            if (type == DeliveryExtensionType.UNKNOWN || type == mainType) {
-                continue;
-            }
-            if (normalized.contains(type.getDisplayName())) {
-                return Optional.of(type);
-            }
-        }
-        return Optional.empty();
+        return index.extensionTypeCode(deliveryEtype);
     }
 
     /**
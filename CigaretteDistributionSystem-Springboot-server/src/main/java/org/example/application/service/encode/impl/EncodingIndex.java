@@ -0,0 +1,259 @@
+package org.example.application.service.encode.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.domain.model.valueobject.DeliveryExtensionType;
+import org.example.infrastructure.config.encoding.EncodingRuleRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 预编译编码索引（不可变快照）。
+ * <p>
+ * 职责：
+ * <ul>
+ *   <li>扩展类型优先级表、按显示名长度排序的扩展类型列表为静态常量，只构建一次；</li>
+ *   <li>构建时从 {@link EncodingRuleRepository} 复制各扩展类型的区域编码表；</li>
+ *   <li>扩展投放类型 → 扩展类型列表 / 扩展类型编码、(扩展投放类型, 区域) → 区域编码 的解析结果按键缓存，
+ *       同一组合只解析一次。</li>
+ * </ul>
+ * 编码规则重新加载时由 {@link EncodeServiceImpl#reload()} 整体替换实例，读线程始终看到完整的一份快照。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@Slf4j
+final class EncodingIndex {
+
+    /** 缓存中表示"无法解析"的占位值 */
+    private static final String UNRESOLVED = "\u0000";
+
+    /**
+     * 扩展类型优先级：区县 > 市场类型 > 其他类型。
+     * 区县应该总是作为主扩展类型，因为它是地理区域的基础。
+     */
+    private static final Map<DeliveryExtensionType, Integer> PRIORITY;
+
+    /** 按显示名称长度从长到短排序的扩展类型，优先匹配更长的名称（避免误匹配） */
+    private static final List<DeliveryExtensionType> TYPES_BY_NAME_LENGTH;
+
+    static {
+        Map<DeliveryExtensionType, Integer> priority = new EnumMap<>(DeliveryExtensionType.class);
+        priority.put(DeliveryExtensionType.COUNTY, 1);
+        priority.put(DeliveryExtensionType.MARKET_TYPE, 2);
+        priority.put(DeliveryExtensionType.URBAN_RURAL_CODE, 3);
+        priority.put(DeliveryExtensionType.BUSINESS_FORMAT, 4);
+        priority.put(DeliveryExtensionType.MARKET_DEPARTMENT, 5);
+        priority.put(DeliveryExtensionType.BUSINESS_DISTRICT, 6);
+        priority.put(DeliveryExtensionType.CREDIT_LEVEL, 7);
+        priority.put(DeliveryExtensionType.INTEGRITY_GROUP, 8);
+        PRIORITY = Collections.unmodifiableMap(priority);
+
+        TYPES_BY_NAME_LENGTH = Collections.unmodifiableList(Arrays.stream(DeliveryExtensionType.values())
+                .filter(type -> type != DeliveryExtensionType.UNKNOWN)
+                .sorted((a, b) -> Integer.compare(b.getDisplayName().length(), a.getDisplayName().length()))
+                .collect(Collectors.toList()));
+    }
+
+    private final EncodingRuleRepository encodingRuleRepository;
+    private final Map<DeliveryExtensionType, Map<String, String>> regionCodeMaps;
+
+    private final Map<String, List<DeliveryExtensionType>> extensionTypesCache = new ConcurrentHashMap<>();
+    private final Map<String, String> extensionTypeCodeCache = new ConcurrentHashMap<>();
+    private final Map<String, String> regionCodeCache = new ConcurrentHashMap<>();
+
+    private EncodingIndex(EncodingRuleRepository encodingRuleRepository,
+                          Map<DeliveryExtensionType, Map<String, String>> regionCodeMaps) {
+        this.encodingRuleRepository = encodingRuleRepository;
+        this.regionCodeMaps = regionCodeMaps;
+    }
+
+    /**
+     * 基于编码规则仓库当前内容构建索引。
+     *
+     * @param encodingRuleRepository 编码规则仓库（应已完成加载）
+     * @return 新索引
+     */
+    static EncodingIndex build(EncodingRuleRepository encodingRuleRepository) {
+        Map<DeliveryExtensionType, Map<String, String>> regionCodeMaps = new EnumMap<>(DeliveryExtensionType.class);
+        for (DeliveryExtensionType type : DeliveryExtensionType.values()) {
+            Map<String, String> map = encodingRuleRepository.getRegionCodeMap(type);
+            if (map != null && !map.isEmpty()) {
+                regionCodeMaps.put(type, Collections.unmodifiableMap(new LinkedHashMap<>(map)));
+            }
+        }
+        return new EncodingIndex(encodingRuleRepository, Collections.unmodifiableMap(regionCodeMaps));
+    }
+
+    /**
+     * 扩展投放类型 → 扩展类型列表（按优先级排序，区县优先）；缓存结果。
+     */
+    List<DeliveryExtensionType> extensionTypes(String rawEtype) {
+        if (rawEtype == null) {
+            return Collections.emptyList();
+        }
+        return extensionTypesCache.computeIfAbsent(rawEtype, EncodingIndex::findAllExtensionTypes);
+    }
+
+    /**
+     * 扩展投放类型 → 扩展类型编码（如 "1"、"1-2"）；缓存结果，无法解析时返回 null。
+     */
+    String extensionTypeCode(String deliveryEtype) {
+        if (deliveryEtype == null || deliveryEtype.trim().isEmpty()) {
+            return null;
+        }
+        String code = extensionTypeCodeCache.computeIfAbsent(deliveryEtype, key -> {
+            String resolved = resolveExtensionTypeCode(key);
+            return resolved != null ? resolved : UNRESOLVED;
+        });
+        return UNRESOLVED.equals(code) ? null : code;
+    }
+
+    /**
+     * (扩展投放类型, 目标区域) → 区域编码；缓存结果，无法解析时返回原区域名称。
+     */
+    String regionCode(String deliveryEtype, String targetArea) {
+        String key = deliveryEtype + UNRESOLVED + targetArea;
+        return regionCodeCache.computeIfAbsent(key, k -> resolveRegionCode(deliveryEtype, targetArea));
+    }
+
+    /**
+     * 指定扩展类型的区域别名 → 编码表。
+     */
+    Map<String, String> regionCodeMap(DeliveryExtensionType type) {
+        return regionCodeMaps.getOrDefault(type, Collections.emptyMap());
+    }
+
+    private String resolveExtensionTypeCode(String deliveryEtype) {
+        // 首先尝试精确匹配（适用于单扩展或已定义的双扩展组合）
+        Optional<DeliveryExtensionType> mainTypeOpt = DeliveryExtensionType.from(deliveryEtype);
+        DeliveryExtensionType mainType;
+        if (mainTypeOpt.isPresent()) {
+            mainType = mainTypeOpt.get();
+        } else {
+            // 如果精确匹配失败，尝试从字符串中提取所有扩展类型
+            // 适用于未在别名列表中定义的双扩展组合（如 "档位+区县+城乡分类代码"）
+            List<DeliveryExtensionType> foundTypes = extensionTypes(deliveryEtype);
+            if (foundTypes.isEmpty()) {
+                return null;
+            }
+            mainType = foundTypes.get(0);
+        }
+
+        String mainCode = encodingRuleRepository.findExtensionTypeCode("档位+" + mainType.getDisplayName());
+        if (mainCode == null) {
+            return null;
+        }
+
+        DeliveryExtensionType subType = findSubExtensionType(deliveryEtype, mainType);
+        if (subType == null) {
+            return mainCode;
+        }
+        String subCode = encodingRuleRepository.findExtensionTypeCode("档位+" + subType.getDisplayName());
+        if (subCode == null) {
+            return mainCode;
+        }
+        return mainCode + "-" + subCode;
+    }
+
+    private String resolveRegionCode(String deliveryEtype, String targetArea) {
+        // 解析复合区域名称：形如 "丹江（城网）" → mainRegionName="丹江"，subRegionName="城网"
+        String mainRegionName = targetArea;
+        String subRegionName = null;
+        int leftIdx = targetArea.indexOf('（');
+        int rightIdx = targetArea.indexOf('）');
+        if (leftIdx > 0 && rightIdx > leftIdx) {
+            mainRegionName = targetArea.substring(0, leftIdx);
+            subRegionName = targetArea.substring(leftIdx + 1, rightIdx);
+        }
+
+        // 识别所有扩展类型（支持双扩展）
+        List<DeliveryExtensionType> allTypes = extensionTypes(deliveryEtype);
+        if (allTypes.isEmpty()) {
+            Optional<DeliveryExtensionType> singleTypeOpt = DeliveryExtensionType.from(deliveryEtype);
+            if (singleTypeOpt.isPresent()) {
+                allTypes = Collections.singletonList(singleTypeOpt.get());
+            }
+        }
+        if (allTypes.isEmpty()) {
+            log.warn("无法识别扩展类型: deliveryEtype={}, targetArea={}", deliveryEtype, targetArea);
+            return targetArea;
+        }
+
+        // 主扩展编码（只允许精确匹配）
+        DeliveryExtensionType mainType = allTypes.get(0);
+        Map<String, String> mainRegionMap = regionCodeMap(mainType);
+        String mainCode = null;
+        if (!mainRegionMap.isEmpty()) {
+            mainCode = mainRegionMap.get(mainRegionName);
+            if (mainCode == null) {
+                log.warn("无法找到主区域编码: mainRegionName={}, mainType={}, 可用键: {}",
+                        mainRegionName, mainType, mainRegionMap.keySet());
+            }
+        }
+
+        // 子扩展编码（仅当存在子扩展名称和子扩展类型时，只允许精确匹配）
+        String subCode = null;
+        if (subRegionName != null && allTypes.size() > 1) {
+            DeliveryExtensionType subType = allTypes.get(1);
+            Map<String, String> subRegionMap = regionCodeMap(subType);
+            if (!subRegionMap.isEmpty()) {
+                subCode = subRegionMap.get(subRegionName);
+                if (subCode == null) {
+                    log.warn("无法找到子区域编码: subRegionName={}, subType={}, 可用键: {}",
+                            subRegionName, subType, subRegionMap.keySet());
+                }
+            }
+        }
+
+        if (mainCode != null && subCode != null) {
+            return mainCode + " +" + subCode;
+        }
+        if (mainCode != null) {
+            return mainCode;
+        }
+        log.warn("无法解析区域编码: deliveryEtype={}, targetArea={}, mainRegionName={}, subRegionName={}, mainType={}, mainCode={}, subCode={}",
+                deliveryEtype, targetArea, mainRegionName, subRegionName, mainType, mainCode, subCode);
+        return targetArea;
+    }
+
+    /**
+     * 从扩展投放类型字符串中提取所有匹配的扩展类型（按优先级排序，区县优先）。
+     */
+    private static List<DeliveryExtensionType> findAllExtensionTypes(String rawEtype) {
+        String normalized = rawEtype.replaceAll("\\s+", "");
+        List<DeliveryExtensionType> foundTypes = new ArrayList<>();
+        for (DeliveryExtensionType type : TYPES_BY_NAME_LENGTH) {
+            if (normalized.contains(type.getDisplayName())) {
+                foundTypes.add(type);
+            }
+        }
+        foundTypes.sort((a, b) -> Integer.compare(PRIORITY.getOrDefault(a, 999), PRIORITY.getOrDefault(b, 999)));
+        return Collections.unmodifiableList(foundTypes);
+    }
+
+    /**
+     * 从扩展投放类型原始字符串中解析子扩展类型（双扩展场景），不存在时返回 null。
+     */
+    private static DeliveryExtensionType findSubExtensionType(String rawEtype, DeliveryExtensionType mainType) {
+        String normalized = rawEtype.replaceAll("\\s+", "");
+        for (DeliveryExtensionType type : DeliveryExtensionType.values()) {
+            if (type == DeliveryExtensionType.UNKNOWN || type == mainType) {
+                continue;
+            }
+            if (normalized.contains(type.getDisplayName())) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
@@ -21,6 +21,35 @@ public interface CigaretteImportValidator {
      * @example excelData.size()=100 -> 执行一次批次级校验，不合法时抛出业务异常
      */
     void validate(List<Map<String, Object>> excelData);
+
+    /**
+     * 打开逐行校验会话（流式导入使用）。
+     * <p>单行级规则（货源属性合法性）在 {@link Session#accept} 时立即校验，
+     * 批次级规则（全市占比）基于累计计数在 {@link Session#complete} 时校验，结果与 {@link #validate} 一致。</p>
+     *
+     * @return 校验会话
+     *
+     * @example session.accept(row) 逐行调用，读取结束后调用 session.complete()
+     */
+    Session openSession();
+
+    /**
+     * 逐行校验会话（非线程安全）。
+     */
+    interface Session {
+
+        /**
+         * 校验单行数据，不合法时抛出业务异常。
+         *
+         * @param row 单行数据（列名->值）
+         */
+        void accept(Map<String, Object> row);
+
+        /**
+         * 全部行读取完毕后执行批次级校验，不合法时抛出业务异常；无数据行时直接放行。
+         */
+        void complete();
+    }
 }
 
 
@@ -23,7 +23,8 @@ import java.util.stream.Collectors;
 /**
  * 卷烟投放基础信息导入业务校验器实现。
  *
- * <p>职责：对整批导入数据执行“全市占比 + 货源属性合法性”等业务规则校验。</p>
+ * <p>职责：对整批导入数据执行“全市占比 + 货源属性合法性”等业务规则校验，
+ * 也支持流式导入时逐行校验（{@link #openSession()}）。</p>
  *
  * @author Robin
  * @since 2025-12-18
@@ -47,22 +48,45 @@ public class CigaretteImportValidatorImpl implements CigaretteImportValidator {
         if (excelData == null || excelData.isEmpty()) {
             return;
         }
-        validateCityWideRatio(excelData);
-        validateSupplyAttributeRules(excelData);
+        validateCityWideRatio(excelData.size(), excelData.stream().filter(this::isCityWideRecord).count());
+        for (Map<String, Object> row : excelData) {
+            validateSupplyAttributeRule(row);
+        }
+    }
+
+    @Override
+    public Session openSession() {
+        return new Session() {
+            private long totalCount;
+            private long cityWideCount;
+
+            @Override
+            public void accept(Map<String, Object> row) {
+                validateSupplyAttributeRule(row);
+                totalCount++;
+                if (isCityWideRecord(row)) {
+                    cityWideCount++;
+                }
+            }
+
+            @Override
+            public void complete() {
+                if (totalCount > 0) {
+                    validateCityWideRatio(totalCount, cityWideCount);
+                }
+            }
+        };
     }
 
     /**
      * 校验全市投放卷烟占比。
      *
-     * @param excelData Excel 行数据
+     * @param totalCount    总行数
+     * @param cityWideCount 全市投放行数
      *
      * @example cityWideCount/totalCount &lt; minRatio 时抛出 IllegalArgumentException
      */
-    private void validateCityWideRatio(List<Map<String, Object>> excelData) {
-        long totalCount = excelData.size();
-        long cityWideCount = excelData.stream()
-                .filter(this::isCityWideRecord)
-                .count();
+    private void validateCityWideRatio(long totalCount, long cityWideCount) {
         double minRatio = importValidationRuleRepository.getMinCityWideRatio();
         cityWideRatioRule.validate(totalCount, cityWideCount, minRatio);
     }
@@ -85,43 +109,41 @@ public class CigaretteImportValidatorImpl implements CigaretteImportValidator {
     }
 
     /**
-     * 校验货源属性 + 投放类型 + 标签组合是否合法。
+     * 校验单行货源属性 + 投放类型 + 标签组合是否合法。
      *
-     * @param excelData Excel 行数据
+     * @param row Excel 单行数据
      *
      * @example SUPPLY_ATTRIBUTE="TIGHT" 且 DELIVERY_METHOD="按档位投放" 且 TAG 为空 -> 合法
      */
-    private void validateSupplyAttributeRules(List<Map<String, Object>> excelData) {
-        for (Map<String, Object> row : excelData) {
-            String sourceCode = toSourceCode(row.get("SUPPLY_ATTRIBUTE"));
-            if (sourceCode == null) {
-                // 未配置货源属性编码时，跳过规则校验
-                continue;
-            }
+    private void validateSupplyAttributeRule(Map<String, Object> row) {
+        String sourceCode = toSourceCode(row.get("SUPPLY_ATTRIBUTE"));
+        if (sourceCode == null) {
+            // 未配置货源属性编码时，跳过规则校验
+            return;
+        }
 
-            String deliveryMethodLabel = toString(row.get("DELIVERY_METHOD"));
-            String deliveryMethodCode = encodingRuleRepository.findDeliveryMethodCode(deliveryMethodLabel);
-            boolean hasTag = hasTag(row.get("TAG"));
+        String deliveryMethodLabel = toString(row.get("DELIVERY_METHOD"));
+        String deliveryMethodCode = encodingRuleRepository.findDeliveryMethodCode(deliveryMethodLabel);
+        boolean hasTag = hasTag(row.get("TAG"));
 
-            Optional<ImportValidationRuleProperties.SupplyRuleConfig> cfgOpt =
-                    importValidationRuleRepository.findSupplyRule(sourceCode);
-            if (!cfgOpt.isPresent()) {
-                // 未配置对应货源属性规则时，默认放行
-                log.debug("未找到货源属性[{}]的规则配置，跳过合法性校验", sourceCode);
-                continue;
-            }
+        Optional<ImportValidationRuleProperties.SupplyRuleConfig> cfgOpt =
+                importValidationRuleRepository.findSupplyRule(sourceCode);
+        if (!cfgOpt.isPresent()) {
+            // 未配置对应货源属性规则时，默认放行
+            log.debug("未找到货源属性[{}]的规则配置，跳过合法性校验", sourceCode);
+            return;
+        }
 
-            ImportValidationRuleProperties.SupplyRuleConfig cfg = cfgOpt.get();
-            Set<String> allowedMethods = cfg.getAllowedDeliveryMethods().stream()
-                    .filter(Objects::nonNull)
-                    .map(s -> s.trim().toUpperCase(Locale.ROOT))
-                    .collect(Collectors.toSet());
-            SupplySourceValidationRule.SupplyRuleDefinition definition =
-                    new SupplySourceValidationRule.SupplyRuleDefinition(
-                            cfg.getSourceCode(), allowedMethods, cfg.isAllowTag());
+        ImportValidationRuleProperties.SupplyRuleConfig cfg = cfgOpt.get();
+        Set<String> allowedMethods = cfg.getAllowedDeliveryMethods().stream()
+                .filter(Objects::nonNull)
+                .map(s -> s.trim().toUpperCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+        SupplySourceValidationRule.SupplyRuleDefinition definition =
+                new SupplySourceValidationRule.SupplyRuleDefinition(
+                        cfg.getSourceCode(), allowedMethods, cfg.isAllowTag());
 
-            supplySourceValidationRule.validate(sourceCode, deliveryMethodCode, hasTag, definition);
-        }
+        supplySourceValidationRule.validate(sourceCode, deliveryMethodCode, hasTag, definition);
     }
 
     private String toSourceCode(Object value) {
@@ -6,6 +6,7 @@ import org.example.application.dto.importing.BaseCustomerInfoImportRequestDto;
 import org.example.application.dto.importing.CigaretteImportRequestDto;
 import org.example.application.service.importing.CigaretteImportValidator;
 import org.example.application.service.importing.ExcelImportService;
+import org.example.infrastructure.config.importing.ImportExecutionProperties;
 import org.example.shared.constants.TableConstants;
 import org.example.shared.helper.BaseCustomerTableManager;
 import org.example.shared.helper.CigaretteInfoWriter;
@@ -18,6 +19,7 @@ import org.example.domain.event.DataImportFailedEvent;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -42,6 +44,7 @@ public class ExcelImportServiceImpl implements ExcelImportService {
     private final IntegrityGroupMappingService integrityGroupMappingService;
     private final ApplicationEventPublisher eventPublisher;
     private final CigaretteImportValidator cigaretteImportValidator;
+    private final ImportExecutionProperties importExecutionProperties;
 
     private static final Map<String, String> BASE_CUSTOMER_COLUMN_DEFINITIONS = new LinkedHashMap<>();
 
@@ -84,8 +87,19 @@ public class ExcelImportServiceImpl implements ExcelImportService {
                 return result;
             }
             
-            // 2. 读取Excel数据
-            List<Map<String, Object>> excelData = ExcelParseHelper.readCigaretteInfo(request.getFile());
+            // 2. 流式读取Excel数据：首行校验数据结构（必需列），之后逐行执行货源属性规则校验
+            List<Map<String, Object>> excelData = new ArrayList<>();
+            boolean[] structureValid = {true};
+            CigaretteImportValidator.Session validation = cigaretteImportValidator.openSession();
+            ExcelParseHelper.streamCigaretteInfo(request.getFile(), row -> {
+                if (excelData.isEmpty()) {
+                    structureValid[0] = validateCigaretteInfoStructure(row);
+                }
+                excelData.add(row);
+                if (structureValid[0]) {
+                    validation.accept(row);
+                }
+            });
             if (excelData.isEmpty()) {
                 result.put("success", false);
                 result.put("message", "Excel文件为空或格式不正确");
@@ -93,14 +107,14 @@ public class ExcelImportServiceImpl implements ExcelImportService {
             }
             
             // 3. 验证数据结构（必需列）
-            if (!validateCigaretteInfoStructure(excelData.get(0))) {
+            if (!structureValid[0]) {
                 result.put("success", false);
                 result.put("message", "Excel文件结构不符合要求，请检查列名是否与cigarette_distribution_info表结构完全一致");
                 return result;
             }
 
-            // 4. 业务合法性校验（全市占比 + 货源属性规则）
-            cigaretteImportValidator.validate(excelData);
+            // 4. 业务合法性校验（全市占比，基于读取过程中累计的计数）
+            validation.complete();
             
             // 5. 插入数据到分区表
             int insertedCount = cigaretteInfoWriter.writeToPartition(
@@ -149,27 +163,22 @@ public class ExcelImportServiceImpl implements ExcelImportService {
                 return result;
             }
             
-            ExcelParseHelper.BaseCustomerExcelData excelData = ExcelParseHelper.readBaseCustomerInfo(request.getFile());
-            if (excelData.getRows().isEmpty()) {
+            // 流式读取并按批写入：首个有效行到达时才重建表，空文件/缺少必填列时不影响现有数据
+            BaseCustomerStreamingSink sink = new BaseCustomerStreamingSink(importExecutionProperties.getBatchSize());
+            ExcelParseHelper.streamBaseCustomerInfo(request.getFile(), sink);
+            if (sink.rowCount == 0) {
                 result.put("success", false);
                 result.put("message", "Excel文件为空或格式不正确");
                 return result;
             }
             
-            if (!excelData.getColumns().contains("CUST_CODE")) {
+            if (!sink.columns.contains("CUST_CODE")) {
                 result.put("success", false);
                 result.put("message", "Excel文件中缺少必填列：CUST_CODE");
                 return result;
             }
             
-            baseCustomerTableManager.recreateTable(excelData.getColumns(),
-                    BASE_CUSTOMER_COLUMN_DEFINITIONS,
-                    TableConstants.DEFAULT_DYNAMIC_COLUMN_TYPE,
-                    TableConstants.BASE_CUSTOMER_INFO);
-            BaseCustomerTableManager.BaseCustomerImportStats stats = baseCustomerTableManager.insertAll(
-                    excelData.getColumns(),
-                    excelData.getRows(),
-                    TableConstants.MANDATORY_CUSTOMER_COLUMN);
+            BaseCustomerTableManager.BaseCustomerImportStats stats = sink.writer.finish();
             
             // 重要：必须在导入 base_customer_info 后立即同步生成 integrity_group_code_mapping
             // 确保两个表保持同步，这是使用诚信互助小组扩展类型的前提条件
@@ -218,6 +227,42 @@ public class ExcelImportServiceImpl implements ExcelImportService {
 
     // ==================== 私有辅助方法 ====================
 
+    /**
+     * 客户基础信息流式导入接收器：表头确定列顺序，首个有效行到达时重建表，随后逐行交给按批写入器。
+     */
+    private class BaseCustomerStreamingSink implements ExcelParseHelper.BaseCustomerRowListener {
+        private final int batchSize;
+        private final List<String> columns = new ArrayList<>();
+        private BaseCustomerTableManager.BatchWriter writer;
+        private int rowCount;
+
+        private BaseCustomerStreamingSink(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public void onColumns(List<String> headerColumns) {
+            columns.addAll(headerColumns);
+        }
+
+        @Override
+        public void onRow(Map<String, Object> row) {
+            rowCount++;
+            if (!columns.contains("CUST_CODE")) {
+                return;
+            }
+            if (writer == null) {
+                baseCustomerTableManager.recreateTable(columns,
+                        BASE_CUSTOMER_COLUMN_DEFINITIONS,
+                        TableConstants.DEFAULT_DYNAMIC_COLUMN_TYPE,
+                        TableConstants.BASE_CUSTOMER_INFO);
+                writer = baseCustomerTableManager.openBatchWriter(columns,
+                        TableConstants.MANDATORY_CUSTOMER_COLUMN, batchSize);
+            }
+            writer.add(row);
+        }
+    }
+
     /**
      * 验证卷烟投放基础信息数据结构。
      *
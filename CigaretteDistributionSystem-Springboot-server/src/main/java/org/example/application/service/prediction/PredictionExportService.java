@@ -0,0 +1,76 @@
+package org.example.application.service.prediction;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 预测分区数据流式导出服务接口
+ * <p>
+ * 按时间分区逐行读取预测表或价位段预测表并直接写入输出流（xlsx 或 gzip CSV），
+ * 字段顺序与 {@link PredictionQueryService#listByTime} 一致，堆占用与分区行数无关。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+public interface PredictionExportService {
+
+    /**
+     * 导出格式。
+     */
+    enum Format {
+        /** Excel 2007+（SXSSF 流式写出） */
+        XLSX("xlsx", "xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+        /** gzip 压缩的 UTF-8 CSV */
+        CSV_GZIP("csv", "csv.gz", "application/gzip");
+
+        private final String code;
+        private final String extension;
+        private final String contentType;
+
+        Format(String code, String extension, String contentType) {
+            this.code = code;
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * 按请求参数解析导出格式（不区分大小写）。
+         *
+         * @param code xlsx 或 csv
+         * @return 导出格式
+         * @throws IllegalArgumentException 不支持的格式
+         */
+        public static Format fromCode(String code) {
+            for (Format format : values()) {
+                if (format.code.equalsIgnoreCase(code)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("不支持的导出格式: " + code + "，可选 xlsx、csv");
+        }
+    }
+
+    /**
+     * 流式导出指定时间分区的预测数据。
+     *
+     * @param year      年份
+     * @param month     月份
+     * @param weekSeq   周序号
+     * @param priceBand true 导出价位段预测表，false 导出预测表（含 ADV）
+     * @param format    导出格式
+     * @param out       输出流（导出结束后关闭）
+     * @return 导出的数据行数（不含表头）
+     * @throws IOException 写出失败（如客户端断开）
+     */
+    long exportByTime(Integer year, Integer month, Integer weekSeq, boolean priceBand,
+                      Format format, OutputStream out) throws IOException;
+}
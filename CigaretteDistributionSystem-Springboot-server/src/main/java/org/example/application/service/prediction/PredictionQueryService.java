@@ -1,5 +1,8 @@
 package org.example.application.service.prediction;
 
+import org.example.application.dto.prediction.PredictionPageDto;
+import org.example.application.dto.prediction.PredictionPageQueryDto;
+
 import java.util.List;
 import java.util.Map;
 
@@ -41,4 +44,25 @@ public interface PredictionQueryService {
      * @return 价位段预测数据列表，每个Map包含有序的字段
      */
     List<Map<String, Object>> listPriceByTime(Integer year, Integer month, Integer weekSeq);
+
+    /**
+     * 按时间分区游标分页查询预测数据（含 ADV）。
+     * <p>
+     * 按卷烟代码、卷烟名称、投放区域、主键ID排序，每页只读取 pageSize + 1 条；字段顺序同 {@link #listByTime}。
+     * </p>
+     *
+     * @param query 分页查询条件（年月周必填，游标、每页条数、卷烟代码前缀、投放方式可选）
+     * @return 本页记录与下一页游标
+     * @throws IllegalArgumentException 参数缺失、每页条数越界或游标无效
+     */
+    PredictionPageDto pageByTime(PredictionPageQueryDto query);
+
+    /**
+     * 按时间分区游标分页查询价位段预测数据。
+     *
+     * @param query 分页查询条件
+     * @return 本页记录与下一页游标
+     * @throws IllegalArgumentException 参数缺失、每页条数越界或游标无效
+     */
+    PredictionPageDto pagePriceByTime(PredictionPageQueryDto query);
 }
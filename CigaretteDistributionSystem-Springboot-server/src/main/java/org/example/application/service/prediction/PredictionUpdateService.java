@@ -1,5 +1,6 @@
 package org.example.application.service.prediction;
 
+import org.example.application.dto.prediction.BatchUpdateRegionGradesDto;
 import org.example.application.dto.prediction.UpdateRegionGradesDto;
 
 /**
@@ -29,4 +30,19 @@ public interface PredictionUpdateService {
      * @throws IllegalStateException    业务规则校验失败时抛出（如记录不存在）
      */
     void updateRegionGrades(UpdateRegionGradesDto dto);
+
+    /**
+     * 批量修改同一年月周内多支卷烟、多个区域的档位值。
+     * <p>
+     * 全部修改项先整体校验（每支卷烟只查询一次 Info 与预测记录），再按表各执行一条多行 UPDATE，
+     * 每支卷烟只生成一次编码表达式；UPDATE 后在同一事务内按卷烟核对更新条数，任一校验或行数检查失败则整体回滚。
+     * 批量修改不支持变更 HG/LG，档位单调性按 Info 表中的 HG/LG 校验。
+     * </p>
+     *
+     * @param dto 批量修改请求参数
+     * @return 更新的记录数
+     * @throws IllegalArgumentException 参数校验失败时抛出（如修改项为空、超过上限、区域重复）
+     * @throws IllegalStateException    业务规则校验失败时抛出（如记录不存在、更新行数不符）
+     */
+    int batchUpdateRegionGrades(BatchUpdateRegionGradesDto dto);
 }
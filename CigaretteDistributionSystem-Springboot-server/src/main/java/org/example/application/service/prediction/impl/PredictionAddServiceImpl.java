@@ -3,12 +3,10 @@ package org.example.application.service.prediction.impl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.application.dto.prediction.AddRegionAllocationDto;
-import org.example.application.service.encode.EncodeService;
 import org.example.application.service.prediction.PredictionAddService;
 import org.example.domain.repository.CigaretteDistributionInfoRepository;
 import org.example.domain.repository.CigaretteDistributionPredictionPriceRepository;
 import org.example.domain.repository.CigaretteDistributionPredictionRepository;
-import org.example.domain.repository.RegionCustomerStatisticsRepository;
 import org.example.domain.service.rule.PredictionValidationRule;
 import org.example.domain.service.rule.PredictionValidationRule.RegionSets;
 import org.example.domain.service.rule.PredictionValidationRule.ValidationResult;
@@ -22,9 +20,9 @@ import org.example.shared.util.WriteBackHelper;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * 预测分配数据新增服务实现
@@ -45,8 +43,7 @@ public class PredictionAddServiceImpl implements PredictionAddService {
     private final CigaretteDistributionInfoRepository infoRepository;
     private final CigaretteDistributionPredictionRepository predictionRepository;
     private final CigaretteDistributionPredictionPriceRepository predictionPriceRepository;
-    private final RegionCustomerStatisticsRepository regionCustomerStatisticsRepository;
-    private final EncodeService encodeService;
+    private final PredictionEditSupport editSupport;
 
     @Override
     public void addRegionAllocation(AddRegionAllocationDto dto) {
@@ -83,30 +80,29 @@ public class PredictionAddServiceImpl implements PredictionAddService {
         // 5. 校验档位值单调性（基于 HG/LG 范围）
         validationRule.validateGradesMonotonicityWithRange(dto.getGrades(), hg, lg).throwIfInvalid();
 
-        // 6. 校验记录是否已存在
-        boolean recordExists = checkRecordExists(dto.getYear(), dto.getMonth(), dto.getWeekSeq(),
-                dto.getCigCode(), deliveryArea, deliveryMethod);
+        // 6. 校验记录是否已存在（按卷烟代码查询，不读取整周分区）
+        boolean isPriceBand = PRICE_BAND_DELIVERY_METHOD.equals(deliveryMethod);
+        List<Map<String, Object>> cigaretteRecords = editSupport.findCigaretteRecords(
+                dto.getYear(), dto.getMonth(), dto.getWeekSeq(), dto.getCigCode(), isPriceBand);
+        boolean recordExists = PredictionEditSupport.containsArea(cigaretteRecords, null, deliveryArea);
         validationRule.validateRecordNotExists(recordExists, dto.getCigCode(),
                 dto.getCigName(), deliveryArea).throwIfInvalid();
 
         // 7. 计算实际投放量
         BigDecimal[] gradesArray = dto.getGrades().toArray(new BigDecimal[0]);
-        BigDecimal[] customerCounts = getCustomerCountsForRegion(
+        BigDecimal[] customerCounts = editSupport.customerCountsForRegion(
                 dto.getYear(), dto.getMonth(), dto.getWeekSeq(), deliveryArea);
         BigDecimal actualDelivery = ActualDeliveryCalculator.calculateFixed30(gradesArray, customerCounts);
 
         // 8. 根据投放方式判断写入哪张表
-        boolean isPriceBand = PRICE_BAND_DELIVERY_METHOD.equals(deliveryMethod);
-
         if (isPriceBand) {
             // 写入 prediction_price 表
             CigaretteDistributionPredictionPricePO po = buildPricePO(dto, deliveryArea,
                     deliveryMethod, deliveryEtype, tag, tagFilterConfig, actualDelivery, gradesArray);
             
             // 生成编码表达式
-            String deployinfoCode = encodeService.encodeForSpecificArea(
-                    dto.getCigCode(), dto.getCigName(), deliveryMethod, deliveryEtype,
-                    deliveryArea, Collections.singletonList(po));
+            String deployinfoCode = editSupport.encode(
+                    dto.getCigCode(), dto.getCigName(), deliveryMethod, deliveryEtype, po);
             po.setDeployinfoCode(deployinfoCode);
 
             predictionPriceRepository.upsert(po);
@@ -117,9 +113,8 @@ public class PredictionAddServiceImpl implements PredictionAddService {
                     deliveryMethod, deliveryEtype, tag, tagFilterConfig, actualDelivery, gradesArray);
 
             // 生成编码表达式
-            String deployinfoCode = encodeService.encodeForSpecificArea(
-                    dto.getCigCode(), dto.getCigName(), deliveryMethod, deliveryEtype,
-                    deliveryArea, Collections.singletonList(po));
+            String deployinfoCode = editSupport.encode(
+                    dto.getCigCode(), dto.getCigName(), deliveryMethod, deliveryEtype, po);
             po.setDeployinfoCode(deployinfoCode);
 
             predictionRepository.upsert(po);
@@ -128,14 +123,14 @@ public class PredictionAddServiceImpl implements PredictionAddService {
     }
 
     /**
-     * 校验投放区域合法性
+     * 校验投放区域合法性（区域名称取自周快照，不读取统计分区）
      */
     private void validateDeliveryArea(Integer year, Integer month, Integer weekSeq,
                                       String primaryRegion, String secondaryRegion, String deliveryArea) {
-        List<Map<String, Object>> allStats = regionCustomerStatisticsRepository.findAll(year, month, weekSeq);
-        validationRule.validateBatchRegionStatsExists(allStats, year, month, weekSeq).throwIfInvalid();
+        Set<String> regionNames = editSupport.regionNames(year, month, weekSeq);
+        validationRule.validateBatchRegionStatsExists(regionNames, year, month, weekSeq).throwIfInvalid();
 
-        RegionSets regionSets = validationRule.parseRegionSets(allStats);
+        RegionSets regionSets = validationRule.parseRegionSets(regionNames);
 
         ValidationResult result;
         if (!ParamValidators.isDualExtension(secondaryRegion)) {
@@ -149,44 +144,6 @@ public class PredictionAddServiceImpl implements PredictionAddService {
         result.throwIfInvalid();
     }
 
-    /**
-     * 检查记录是否已存在
-     */
-    private boolean checkRecordExists(Integer year, Integer month, Integer weekSeq,
-                                      String cigCode, String deliveryArea, String deliveryMethod) {
-        boolean isPriceBand = PRICE_BAND_DELIVERY_METHOD.equals(deliveryMethod);
-
-        if (isPriceBand) {
-            List<Map<String, Object>> existing = predictionPriceRepository.findAll(year, month, weekSeq);
-            for (Map<String, Object> record : existing) {
-                if (cigCode.equals(getString(record, "CIG_CODE"))
-                        && deliveryArea.equals(getString(record, "DELIVERY_AREA"))) {
-                    return true;
-                }
-            }
-        } else {
-            List<Map<String, Object>> existing = predictionRepository.findByCigCode(year, month, weekSeq, cigCode);
-            for (Map<String, Object> record : existing) {
-                if (deliveryArea.equals(getString(record, "DELIVERY_AREA"))) {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-
-    /**
-     * 获取指定区域的客户数数组
-     */
-    private BigDecimal[] getCustomerCountsForRegion(Integer year, Integer month, Integer weekSeq, String regionName) {
-        Map<String, Object> stat = regionCustomerStatisticsRepository.findByRegion(year, month, weekSeq, regionName);
-        if (stat == null) {
-            log.warn("未找到区域 {} 的客户统计数据，使用全0数组", regionName);
-            return new BigDecimal[30];
-        }
-        return org.example.shared.util.GradeExtractor.extractFromMap(stat);
-    }
-
     /**
      * 构建 prediction 表 PO
      */
@@ -0,0 +1,148 @@
+package org.example.application.service.prediction.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.application.service.coordinator.RegionCustomerStatisticsSnapshotCache;
+import org.example.application.service.encode.EncodeService;
+import org.example.domain.repository.CigaretteDistributionPredictionPriceRepository;
+import org.example.domain.repository.CigaretteDistributionPredictionRepository;
+import org.example.infrastructure.persistence.po.CigaretteDistributionPredictionPO;
+import org.example.shared.constants.GradeConstants;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 人工新增/修改预测记录的公共支撑。
+ * <p>
+ * 单次编辑只涉及一支卷烟的一个区域（批量修改按卷烟分组后逐支处理），因此：
+ * <ul>
+ *   <li>记录存在性按卷烟代码 + 年月周查询（分区裁剪 + IDX_CIG_CODE_NAME 索引），不再读取整周分区；</li>
+ *   <li>区域合法性与区域客户数取自 {@link RegionCustomerStatisticsSnapshotCache} 的周快照，连续编辑同一周时为缓存命中；</li>
+ *   <li>编码表达式逐区域独立生成，只编码被编辑的行，不需要同卷烟其他区域的档位。</li>
+ * </ul>
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PredictionEditSupport {
+
+    private final CigaretteDistributionPredictionRepository predictionRepository;
+    private final CigaretteDistributionPredictionPriceRepository predictionPriceRepository;
+    private final RegionCustomerStatisticsSnapshotCache snapshotCache;
+    private final EncodeService encodeService;
+
+    /**
+     * 查询某卷烟代码在指定周的全部预测记录。
+     *
+     * @param year        年份
+     * @param month       月份
+     * @param weekSeq     周序号
+     * @param cigCode     卷烟代码
+     * @param isPriceBand 是否按价位段自选投放（决定查询 prediction_price 还是 prediction 表）
+     * @return 该卷烟代码的预测记录
+     */
+    public List<Map<String, Object>> findCigaretteRecords(Integer year, Integer month, Integer weekSeq,
+                                                          String cigCode, boolean isPriceBand) {
+        return isPriceBand
+                ? predictionPriceRepository.findByCigCode(year, month, weekSeq, cigCode)
+                : predictionRepository.findByCigCode(year, month, weekSeq, cigCode);
+    }
+
+    /**
+     * 判断记录列表中是否已有指定卷烟、区域的记录。
+     *
+     * @param records      同一卷烟代码的预测记录
+     * @param cigName      卷烟名称，为 null 时不比较名称
+     * @param deliveryArea 投放区域
+     * @return true 表示存在
+     * @example
+     * <pre>{@code
+     * List<Map<String, Object>> records = editSupport.findCigaretteRecords(2025, 9, 3, "42020181", false);
+     * boolean exists = PredictionEditSupport.containsArea(records, "黄鹤楼(硬平装)", "江汉区");
+     * }</pre>
+     */
+    public static boolean containsArea(List<Map<String, Object>> records, String cigName, String deliveryArea) {
+        for (Map<String, Object> record : records) {
+            if (deliveryArea.equals(getString(record, "DELIVERY_AREA"))
+                    && (cigName == null || cigName.equals(getString(record, "CIG_NAME")))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 获取该周区域客户统计中的全部区域名称（来自周快照）。
+     *
+     * @param year    年份
+     * @param month   月份
+     * @param weekSeq 周序号
+     * @return 区域名称集合，该周无统计数据时为空
+     */
+    public Set<String> regionNames(Integer year, Integer month, Integer weekSeq) {
+        return snapshotCache.get(year, month, weekSeq).regionNames();
+    }
+
+    /**
+     * 获取指定区域的客户数数组（来自周快照）。
+     *
+     * @param year       年份
+     * @param month      月份
+     * @param weekSeq    周序号
+     * @param regionName 区域名称（精确匹配）
+     * @return 30 档位客户数；区域不存在时返回全 null 数组（按0计算实际投放量）
+     */
+    public BigDecimal[] customerCountsForRegion(Integer year, Integer month, Integer weekSeq, String regionName) {
+        BigDecimal[] grades = snapshotCache.get(year, month, weekSeq).findGrades(regionName);
+        if (grades == null) {
+            log.warn("未找到区域 {} 的客户统计数据，使用全0数组", regionName);
+            return new BigDecimal[GradeConstants.GRADE_COUNT];
+        }
+        return grades;
+    }
+
+    /**
+     * 为被编辑的单条记录生成编码表达式。
+     *
+     * @param cigCode        卷烟代码
+     * @param cigName        卷烟名称
+     * @param deliveryMethod 投放方式
+     * @param deliveryEtype  扩展投放类型
+     * @param editedRecord   已设置区域、标签和档位的记录
+     * @return 编码表达式，无法编码时为空字符串
+     */
+    public String encode(String cigCode, String cigName, String deliveryMethod, String deliveryEtype,
+                         CigaretteDistributionPredictionPO editedRecord) {
+        return encodeService.encodeForSpecificArea(cigCode, cigName, deliveryMethod, deliveryEtype,
+                editedRecord.getDeliveryArea(), Collections.singletonList(editedRecord));
+    }
+
+    /**
+     * 为同一卷烟的多条被编辑记录一次性生成编码表达式。
+     *
+     * @param cigCode        卷烟代码
+     * @param cigName        卷烟名称
+     * @param deliveryMethod 投放方式
+     * @param deliveryEtype  扩展投放类型
+     * @param editedRecords  同一卷烟已设置区域、标签和档位的记录
+     * @return 区域 → 编码表达式，无法编码时为空 Map
+     */
+    public Map<String, String> encodeAll(String cigCode, String cigName, String deliveryMethod, String deliveryEtype,
+                                         List<CigaretteDistributionPredictionPO> editedRecords) {
+        return encodeService.encodeAllAreas(cigCode, cigName, deliveryMethod, deliveryEtype, editedRecords);
+    }
+
+    private static String getString(Map<String, Object> map, String key) {
+        Object value = map.get(key);
+        return value != null ? value.toString() : null;
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.application.service.prediction.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.application.service.prediction.PredictionExportService;
+import org.example.domain.repository.CigaretteDistributionPredictionPriceRepository;
+import org.example.domain.repository.CigaretteDistributionPredictionRepository;
+import org.example.shared.helper.CsvStreamingWriter;
+import org.example.shared.helper.ExcelStreamingWriter;
+import org.example.shared.helper.TableRowWriter;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 预测分区数据流式导出服务实现类
+ * <p>
+ * MyBatis {@code ResultHandler} 逐行回调（MySQL 流式结果集），每行按 {@link PredictionRecordColumns} 取值后
+ * 立即交给 {@link TableRowWriter}，不构建整周的 {@code List<Map>}。
+ * 写出失败（如客户端断开）时立即中断结果集读取，并向调用方抛出原始 {@link IOException}。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PredictionExportServiceImpl implements PredictionExportService {
+
+    private final CigaretteDistributionPredictionRepository predictionRepository;
+    private final CigaretteDistributionPredictionPriceRepository predictionPriceRepository;
+
+    @Override
+    public long exportByTime(Integer year, Integer month, Integer weekSeq, boolean priceBand,
+                             Format format, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        int columnCount = PredictionRecordColumns.KEYS.size();
+        long[] rowCount = new long[1];
+
+        try (TableRowWriter writer = openWriter(format, out, priceBand)) {
+            writer.writeRow(PredictionRecordColumns.KEYS.toArray());
+
+            Object[] values = new Object[columnCount];
+            IOException[] writeFailure = new IOException[1];
+            Consumer<Map<String, Object>> rowWriter = row -> {
+                for (int i = 0; i < columnCount; i++) {
+                    values[i] = PredictionRecordColumns.value(row, i);
+                }
+                try {
+                    writer.writeRow(values);
+                } catch (IOException e) {
+                    writeFailure[0] = e;
+                    throw new UncheckedIOException(e);
+                }
+                rowCount[0]++;
+            };
+
+            try {
+                if (priceBand) {
+                    predictionPriceRepository.streamAll(year, month, weekSeq, rowWriter);
+                } else {
+                    predictionRepository.streamAllWithAdv(year, month, weekSeq, rowWriter);
+                }
+            } catch (RuntimeException e) {
+                // 持久层会包装回调抛出的异常，这里还原为写出失败
+                if (writeFailure[0] != null) {
+                    throw writeFailure[0];
+                }
+                throw e;
+            }
+            writer.finish();
+        }
+
+        log.info("导出{}预测数据完成: {}-{}-{}, 格式={}, {} 行, 耗时 {} ms",
+                priceBand ? "价位段" : "", year, month, weekSeq, format, rowCount[0],
+                System.currentTimeMillis() - start);
+        return rowCount[0];
+    }
+
+    private TableRowWriter openWriter(Format format, OutputStream out, boolean priceBand) throws IOException {
+        if (format == Format.XLSX) {
+            return new ExcelStreamingWriter(out, priceBand ? "价位段预测" : "预测");
+        }
+        return new CsvStreamingWriter(out);
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.application.service.prediction.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 预测数据分页游标编解码。
+ * <p>
+ * 游标为上一页最后一条记录的 (CIG_CODE, CIG_NAME, DELIVERY_AREA, ID)。建表脚本只以 ID 为主键，
+ * 同一分区内前三列可能重复，末尾的 ID 保证排序键唯一、翻页时不跳过同键记录；
+ * 以单元分隔符拼接后做 URL 安全的 Base64 编码，对前端不透明。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+final class PredictionPageCursor {
+
+    private static final char SEPARATOR = '\u001F';
+
+    final String cigCode;
+    final String cigName;
+    final String deliveryArea;
+    final Long id;
+
+    private PredictionPageCursor(String cigCode, String cigName, String deliveryArea, Long id) {
+        this.cigCode = cigCode;
+        this.cigName = cigName;
+        this.deliveryArea = deliveryArea;
+        this.id = id;
+    }
+
+    /**
+     * 由记录的排序键生成游标（字符串 null 按空串处理）。
+     */
+    static String encode(String cigCode, String cigName, String deliveryArea, long id) {
+        String raw = nullToEmpty(cigCode) + SEPARATOR + nullToEmpty(cigName) + SEPARATOR + nullToEmpty(deliveryArea)
+                + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标。
+     *
+     * @param token 游标
+     * @return 游标位置
+     * @throws IllegalArgumentException 游标格式无效
+     */
+    static PredictionPageCursor decode(String token) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("无效的分页游标: " + token);
+        }
+        int first = raw.indexOf(SEPARATOR);
+        int second = first < 0 ? -1 : raw.indexOf(SEPARATOR, first + 1);
+        int third = second < 0 ? -1 : raw.indexOf(SEPARATOR, second + 1);
+        if (third < 0 || raw.indexOf(SEPARATOR, third + 1) >= 0) {
+            throw new IllegalArgumentException("无效的分页游标: " + token);
+        }
+        long id;
+        try {
+            id = Long.parseLong(raw.substring(third + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("无效的分页游标: " + token);
+        }
+        return new PredictionPageCursor(raw.substring(0, first), raw.substring(first + 1, second),
+                raw.substring(second + 1, third), id);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
@@ -1,11 +1,14 @@
 package org.example.application.service.prediction.impl;
 
 import lombok.extern.slf4j.Slf4j;
+import org.example.application.dto.prediction.PredictionPageDto;
+import org.example.application.dto.prediction.PredictionPageQueryDto;
 import org.example.application.service.prediction.PredictionQueryService;
 import org.example.domain.repository.CigaretteDistributionPredictionRepository;
 import org.example.domain.repository.CigaretteDistributionPredictionPriceRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -27,6 +30,9 @@ import java.util.stream.Collectors;
 @Service
 public class PredictionQueryServiceImpl implements PredictionQueryService {
 
+    static final int DEFAULT_PAGE_SIZE = 200;
+    static final int MAX_PAGE_SIZE = 1000;
+
     @Autowired
     private CigaretteDistributionPredictionRepository predictionRepository;
     @Autowired
@@ -48,26 +54,77 @@ public class PredictionQueryServiceImpl implements PredictionQueryService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public PredictionPageDto pageByTime(PredictionPageQueryDto query) {
+        return page(query, false);
+    }
+
+    @Override
+    public PredictionPageDto pagePriceByTime(PredictionPageQueryDto query) {
+        return page(query, true);
+    }
+
+    /**
+     * 多取一条判断是否还有下一页，下一页游标取本页最后一条的排序键。
+     */
+    private PredictionPageDto page(PredictionPageQueryDto query, boolean priceBand) {
+        if (query.getYear() == null || query.getMonth() == null || query.getWeekSeq() == null) {
+            throw new IllegalArgumentException("年份、月份、周序号不能为空");
+        }
+        int pageSize = query.getPageSize() != null ? query.getPageSize() : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("每页条数须在 1 到 " + MAX_PAGE_SIZE + " 之间");
+        }
+        PredictionPageCursor after = StringUtils.hasText(query.getCursor())
+                ? PredictionPageCursor.decode(query.getCursor())
+                : null;
+        String cigCodePrefix = StringUtils.hasText(query.getCigCodePrefix())
+                ? escapeLike(query.getCigCodePrefix().trim())
+                : null;
+        String deliveryMethod = StringUtils.hasText(query.getDeliveryMethod()) ? query.getDeliveryMethod().trim() : null;
+
+        List<Map<String, Object>> rows = priceBand
+                ? predictionPriceRepository.findPage(query.getYear(), query.getMonth(), query.getWeekSeq(),
+                        cigCodePrefix, deliveryMethod,
+                        after != null ? after.cigCode : null, after != null ? after.cigName : null,
+                        after != null ? after.deliveryArea : null, after != null ? after.id : null, pageSize + 1)
+                : predictionRepository.findPageWithAdv(query.getYear(), query.getMonth(), query.getWeekSeq(),
+                        cigCodePrefix, deliveryMethod,
+                        after != null ? after.cigCode : null, after != null ? after.cigName : null,
+                        after != null ? after.deliveryArea : null, after != null ? after.id : null, pageSize + 1);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Map<String, Object>> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+
+        PredictionPageDto page = new PredictionPageDto();
+        page.setRecords(pageRows.stream()
+                .map(this::toOrderedRecord)
+                .collect(Collectors.toList()));
+        page.setHasMore(hasMore);
+        if (hasMore) {
+            Map<String, Object> last = pageRows.get(pageRows.size() - 1);
+            page.setNextCursor(PredictionPageCursor.encode(
+                    (String) last.get("CIG_CODE"), (String) last.get("CIG_NAME"), (String) last.get("DELIVERY_AREA"),
+                    ((Number) last.get("ID")).longValue()));
+        }
+        return page;
+    }
+
+    /**
+     * 转义 LIKE 通配符，使前缀按字面匹配。
+     */
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
     /**
      * 将Map行数据转换为有序的记录格式。
      */
     private Map<String, Object> toOrderedRecord(Map<String, Object> row) {
         LinkedHashMap<String, Object> ordered = new LinkedHashMap<>();
-        ordered.put("cig_code", row.get("CIG_CODE"));
-        ordered.put("cig_name", row.get("CIG_NAME"));
-        ordered.put("deployinfo_code", row.get("DEPLOYINFO_CODE"));
-        ordered.put("delivery_method", row.get("DELIVERY_METHOD"));
-        ordered.put("delivery_etype", row.get("DELIVERY_ETYPE"));
-        ordered.put("delivery_area", row.get("DELIVERY_AREA"));
-        ordered.put("tag", row.get("TAG"));
-        ordered.put("tag_filter_config", row.get("TAG_FILTER_CONFIG"));
-        ordered.put("adv", row.get("ADV") != null ? row.get("ADV") : row.get("adv"));
-        for (int i = 30; i >= 1; i--) {
-            String key = "D" + i;
-            ordered.put(key, row.get(key));
+        for (int i = 0; i < PredictionRecordColumns.KEYS.size(); i++) {
+            ordered.put(PredictionRecordColumns.KEYS.get(i), PredictionRecordColumns.value(row, i));
         }
-        ordered.put("bz", row.get("BZ") != null ? row.get("BZ") : row.get("bz"));
-        ordered.put("actual_delivery", row.get("ACTUAL_DELIVERY"));
         return ordered;
     }
 }
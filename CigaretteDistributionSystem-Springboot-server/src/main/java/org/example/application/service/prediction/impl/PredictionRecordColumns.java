@@ -0,0 +1,69 @@
+package org.example.application.service.prediction.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 预测记录对外输出的字段顺序（查询接口与导出共用）。
+ * <p>
+ * 输出键依次为 cig_code、cig_name、deployinfo_code、delivery_method、delivery_etype、delivery_area、tag、
+ * tag_filter_config、adv、D30..D1、bz、actual_delivery；取值来自 prediction / prediction_price 表的原始列名。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+final class PredictionRecordColumns {
+
+    /** 输出键 */
+    static final List<String> KEYS;
+
+    /** 与 {@link #KEYS} 一一对应的源列名 */
+    private static final String[] SOURCE_COLUMNS;
+
+    static {
+        List<String> keys = new ArrayList<>();
+        List<String> sources = new ArrayList<>();
+        add(keys, sources, "cig_code", "CIG_CODE");
+        add(keys, sources, "cig_name", "CIG_NAME");
+        add(keys, sources, "deployinfo_code", "DEPLOYINFO_CODE");
+        add(keys, sources, "delivery_method", "DELIVERY_METHOD");
+        add(keys, sources, "delivery_etype", "DELIVERY_ETYPE");
+        add(keys, sources, "delivery_area", "DELIVERY_AREA");
+        add(keys, sources, "tag", "TAG");
+        add(keys, sources, "tag_filter_config", "TAG_FILTER_CONFIG");
+        add(keys, sources, "adv", "ADV");
+        for (int i = 30; i >= 1; i--) {
+            add(keys, sources, "D" + i, "D" + i);
+        }
+        add(keys, sources, "bz", "BZ");
+        add(keys, sources, "actual_delivery", "ACTUAL_DELIVERY");
+        KEYS = Collections.unmodifiableList(keys);
+        SOURCE_COLUMNS = sources.toArray(new String[0]);
+    }
+
+    private PredictionRecordColumns() {}
+
+    /**
+     * 取第 index 个输出字段的值（ADV、BZ 兼容小写列名）。
+     *
+     * @param row   查询结果行
+     * @param index 输出字段下标
+     * @return 字段值
+     */
+    static Object value(Map<String, Object> row, int index) {
+        String column = SOURCE_COLUMNS[index];
+        Object value = row.get(column);
+        if (value == null && ("ADV".equals(column) || "BZ".equals(column))) {
+            return row.get(column.toLowerCase());
+        }
+        return value;
+    }
+
+    private static void add(List<String> keys, List<String> sources, String key, String sourceColumn) {
+        keys.add(key);
+        sources.add(sourceColumn);
+    }
+}
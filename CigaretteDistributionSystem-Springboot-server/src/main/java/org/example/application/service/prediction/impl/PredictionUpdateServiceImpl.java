@@ -2,19 +2,18 @@ package org.example.application.service.prediction.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.application.dto.prediction.BatchUpdateRegionGradesDto;
 import org.example.application.dto.prediction.UpdateRegionGradesDto;
-import org.example.application.service.encode.EncodeService;
 import org.example.application.service.prediction.PredictionUpdateService;
 import org.example.domain.repository.CigaretteDistributionInfoRepository;
 import org.example.domain.repository.CigaretteDistributionPredictionPriceRepository;
 import org.example.domain.repository.CigaretteDistributionPredictionRepository;
-import org.example.domain.repository.RegionCustomerStatisticsRepository;
 import org.example.domain.service.rule.PredictionValidationRule;
 import org.example.domain.service.rule.impl.PredictionValidationRuleImpl;
 import org.example.infrastructure.persistence.po.CigaretteDistributionPredictionPO;
 import org.example.infrastructure.persistence.po.CigaretteDistributionPredictionPricePO;
 import org.example.shared.util.ActualDeliveryCalculator;
-import org.example.shared.util.GradeExtractor;
+import org.example.shared.util.MapValueExtractor;
 import org.example.shared.util.ParamValidators;
 import org.example.shared.util.RemarkHelper;
 import org.example.shared.util.WriteBackHelper;
@@ -22,9 +21,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * 预测分配数据修改服务实现
@@ -39,14 +42,16 @@ public class PredictionUpdateServiceImpl implements PredictionUpdateService {
 
     private static final String PRICE_BAND_DELIVERY_METHOD = "按价位段自选投放";
 
+    /** 批量修改单次最多修改项数（与请求 VO 上限一致） */
+    private static final int MAX_BATCH_ITEMS = 500;
+
     /** 领域级校验规则（纯 Java 对象，不注册为 Spring Bean） */
     private final PredictionValidationRule validationRule = new PredictionValidationRuleImpl();
 
     private final CigaretteDistributionInfoRepository infoRepository;
     private final CigaretteDistributionPredictionRepository predictionRepository;
     private final CigaretteDistributionPredictionPriceRepository predictionPriceRepository;
-    private final RegionCustomerStatisticsRepository regionCustomerStatisticsRepository;
-    private final EncodeService encodeService;
+    private final PredictionEditSupport editSupport;
 
     @Override
     @Transactional
@@ -85,10 +90,10 @@ public class PredictionUpdateServiceImpl implements PredictionUpdateService {
         // 6. 校验档位值单调性（基于 HG/LG 范围）
         validationRule.validateGradesMonotonicityWithRange(dto.getGrades(), hg, lg).throwIfInvalid();
 
-        // 7. 校验记录是否存在
-        boolean recordExists = checkRecordExists(dto.getYear(), dto.getMonth(), dto.getWeekSeq(),
-                dto.getCigCode(), dto.getCigName(), deliveryArea, isPriceBand);
-        if (!recordExists) {
+        // 7. 校验记录是否存在（按卷烟代码查询，不读取整周分区）
+        List<Map<String, Object>> cigaretteRecords = editSupport.findCigaretteRecords(
+                dto.getYear(), dto.getMonth(), dto.getWeekSeq(), dto.getCigCode(), isPriceBand);
+        if (!PredictionEditSupport.containsArea(cigaretteRecords, dto.getCigName(), deliveryArea)) {
             throw new IllegalStateException(String.format(
                     "[业务错误] 未找到卷烟 %s(%s) 在区域 %s 的分配记录",
                     dto.getCigName(), dto.getCigCode(), deliveryArea));
@@ -96,7 +101,7 @@ public class PredictionUpdateServiceImpl implements PredictionUpdateService {
 
         // 8. 计算实际投放量
         BigDecimal[] gradesArray = dto.getGrades().toArray(new BigDecimal[0]);
-        BigDecimal[] customerCounts = getCustomerCountsForRegion(
+        BigDecimal[] customerCounts = editSupport.customerCountsForRegion(
                 dto.getYear(), dto.getMonth(), dto.getWeekSeq(), deliveryArea);
         BigDecimal actualDelivery = ActualDeliveryCalculator.calculateFixed30(gradesArray, customerCounts);
 
@@ -118,10 +123,10 @@ public class PredictionUpdateServiceImpl implements PredictionUpdateService {
         po.setActualDelivery(actualDelivery);
         po.setBz(finalRemark);
         WriteBackHelper.setGradesToEntity(po, gradesArray);
-        
-        String deployinfoCode = encodeService.encodeForSpecificArea(
-                dto.getCigCode(), dto.getCigName(), deliveryMethod, deliveryEtype,
-                deliveryArea, Collections.singletonList(po));
+
+        // 只编码被修改的区域行
+        String deployinfoCode = editSupport.encode(
+                dto.getCigCode(), dto.getCigName(), deliveryMethod, deliveryEtype, po);
         po.setDeployinfoCode(deployinfoCode);
 
         // 10. 执行更新
@@ -157,42 +162,173 @@ public class PredictionUpdateServiceImpl implements PredictionUpdateService {
                 dto.getCigCode(), dto.getCigName(), deliveryArea, actualDelivery, deployinfoCode, finalRemark);
     }
 
+    @Override
+    @Transactional
+    public int batchUpdateRegionGrades(BatchUpdateRegionGradesDto dto) {
+        List<BatchUpdateRegionGradesDto.Item> items = dto.getItems();
+        log.info("批量修改区域档位值: year={}, month={}, weekSeq={}, 修改项={}",
+                dto.getYear(), dto.getMonth(), dto.getWeekSeq(), items == null ? 0 : items.size());
+
+        // 1. 基础参数校验，并按卷烟分组
+        ParamValidators.validateTimeParams(dto.getYear(), dto.getMonth(), dto.getWeekSeq());
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("修改项不能为空");
+        }
+        if (items.size() > MAX_BATCH_ITEMS) {
+            throw new IllegalArgumentException(String.format(
+                    "单次最多修改%d个区域，当前为%d个", MAX_BATCH_ITEMS, items.size()));
+        }
+        Map<String, List<BatchUpdateRegionGradesDto.Item>> itemsByCigarette = new LinkedHashMap<>();
+        Set<String> seenKeys = new HashSet<>();
+        for (BatchUpdateRegionGradesDto.Item item : items) {
+            ParamValidators.validateAddOrUpdateParams(dto.getYear(), dto.getMonth(), dto.getWeekSeq(),
+                    item.getCigCode(), item.getCigName(), item.getPrimaryRegion(), item.getGrades());
+            String cigaretteKey = item.getCigCode() + "|" + item.getCigName();
+            String deliveryArea = ParamValidators.buildDeliveryArea(item.getPrimaryRegion(), item.getSecondaryRegion());
+            if (!seenKeys.add(cigaretteKey + "|" + deliveryArea)) {
+                throw new IllegalArgumentException(String.format(
+                        "卷烟 %s(%s) 的区域 %s 在修改项中重复出现", item.getCigName(), item.getCigCode(), deliveryArea));
+            }
+            itemsByCigarette.computeIfAbsent(cigaretteKey, k -> new ArrayList<>()).add(item);
+        }
+
+        // 2. 逐卷烟校验并构建记录：每支卷烟只查询一次 Info 与预测记录、只编码一次
+        List<CigaretteDistributionPredictionPO> standardRecords = new ArrayList<>();
+        List<CigaretteDistributionPredictionPricePO> priceRecords = new ArrayList<>();
+        for (List<BatchUpdateRegionGradesDto.Item> cigaretteItems : itemsByCigarette.values()) {
+            buildCigaretteRecords(dto.getYear(), dto.getMonth(), dto.getWeekSeq(), cigaretteItems,
+                    standardRecords, priceRecords);
+        }
+
+        // 3. 每张表一条多行 UPDATE，随后在同一事务内按卷烟核对更新条数，任一卷烟不符时抛出异常整体回滚
+        int updatedCount = 0;
+        if (!standardRecords.isEmpty()) {
+            int count = predictionRepository.batchUpdateGrades(
+                    dto.getYear(), dto.getMonth(), dto.getWeekSeq(), standardRecords);
+            checkBatchUpdatedCount("prediction", count, standardRecords.size());
+            checkCigaretteUpdatedCounts("prediction", standardRecords, predictionRepository.countByCigaretteAreas(
+                    dto.getYear(), dto.getMonth(), dto.getWeekSeq(), standardRecords));
+            updatedCount += count;
+        }
+        if (!priceRecords.isEmpty()) {
+            int count = predictionPriceRepository.batchUpdateGrades(
+                    dto.getYear(), dto.getMonth(), dto.getWeekSeq(), priceRecords);
+            checkBatchUpdatedCount("prediction_price", count, priceRecords.size());
+            checkCigaretteUpdatedCounts("prediction_price", priceRecords, predictionPriceRepository.countByCigaretteAreas(
+                    dto.getYear(), dto.getMonth(), dto.getWeekSeq(), priceRecords));
+            updatedCount += count;
+        }
+
+        log.info("批量修改区域档位值成功: year={}, month={}, weekSeq={}, 卷烟数={}, 更新记录数={}",
+                dto.getYear(), dto.getMonth(), dto.getWeekSeq(), itemsByCigarette.size(), updatedCount);
+        return updatedCount;
+    }
+
     /**
-     * 检查记录是否存在
+     * 校验并构建同一卷烟的批量修改记录，按投放方式分别加入 prediction 或 prediction_price 记录列表。
      */
-    private boolean checkRecordExists(Integer year, Integer month, Integer weekSeq,
-                                      String cigCode, String cigName, String deliveryArea, boolean isPriceBand) {
-        if (isPriceBand) {
-            List<Map<String, Object>> existing = predictionPriceRepository.findAll(year, month, weekSeq);
-            for (Map<String, Object> record : existing) {
-                if (cigCode.equals(getString(record, "CIG_CODE"))
-                        && cigName.equals(getString(record, "CIG_NAME"))
-                        && deliveryArea.equals(getString(record, "DELIVERY_AREA"))) {
-                    return true;
-                }
+    private void buildCigaretteRecords(Integer year, Integer month, Integer weekSeq,
+                                       List<BatchUpdateRegionGradesDto.Item> cigaretteItems,
+                                       List<CigaretteDistributionPredictionPO> standardRecords,
+                                       List<CigaretteDistributionPredictionPricePO> priceRecords) {
+        String cigCode = cigaretteItems.get(0).getCigCode();
+        String cigName = cigaretteItems.get(0).getCigName();
+
+        Map<String, Object> cigInfo = infoRepository.findByCigCodeAndName(year, month, weekSeq, cigCode, cigName);
+        validationRule.validateCigaretteExists(cigInfo, cigCode, cigName, year, month, weekSeq).throwIfInvalid();
+
+        String deliveryMethod = getString(cigInfo, "DELIVERY_METHOD");
+        String deliveryEtype = getString(cigInfo, "DELIVERY_ETYPE");
+        String tag = getString(cigInfo, "TAG");
+        String tagFilterConfig = getString(cigInfo, "TAG_FILTER_CONFIG");
+        String hg = getString(cigInfo, "HG");
+        String lg = getString(cigInfo, "LG");
+        boolean isPriceBand = PRICE_BAND_DELIVERY_METHOD.equals(deliveryMethod);
+
+        List<Map<String, Object>> existingRecords = editSupport.findCigaretteRecords(
+                year, month, weekSeq, cigCode, isPriceBand);
+        List<CigaretteDistributionPredictionPO> records = new ArrayList<>(cigaretteItems.size());
+        for (BatchUpdateRegionGradesDto.Item item : cigaretteItems) {
+            String deliveryArea = ParamValidators.buildDeliveryArea(item.getPrimaryRegion(), item.getSecondaryRegion());
+            validationRule.validateGradesMonotonicityWithRange(item.getGrades(), hg, lg).throwIfInvalid();
+            if (!PredictionEditSupport.containsArea(existingRecords, cigName, deliveryArea)) {
+                throw new IllegalStateException(String.format(
+                        "[业务错误] 未找到卷烟 %s(%s) 在区域 %s 的分配记录", cigName, cigCode, deliveryArea));
             }
-        } else {
-            List<Map<String, Object>> existing = predictionRepository.findByCigCode(year, month, weekSeq, cigCode);
-            for (Map<String, Object> record : existing) {
-                if (cigName.equals(getString(record, "CIG_NAME"))
-                        && deliveryArea.equals(getString(record, "DELIVERY_AREA"))) {
-                    return true;
-                }
+
+            BigDecimal[] gradesArray = item.getGrades().toArray(new BigDecimal[0]);
+            BigDecimal[] customerCounts = editSupport.customerCountsForRegion(year, month, weekSeq, deliveryArea);
+
+            CigaretteDistributionPredictionPO po = isPriceBand
+                    ? new CigaretteDistributionPredictionPricePO()
+                    : new CigaretteDistributionPredictionPO();
+            po.setYear(year);
+            po.setMonth(month);
+            po.setWeekSeq(weekSeq);
+            po.setCigCode(cigCode);
+            po.setCigName(cigName);
+            po.setDeliveryArea(deliveryArea);
+            po.setDeliveryMethod(deliveryMethod);
+            po.setDeliveryEtype(deliveryEtype);
+            po.setTag(tag);
+            po.setTagFilterConfig(tagFilterConfig);
+            po.setActualDelivery(ActualDeliveryCalculator.calculateFixed30(gradesArray, customerCounts));
+            po.setBz(item.getRemark());
+            WriteBackHelper.setGradesToEntity(po, gradesArray);
+            records.add(po);
+        }
+
+        // 同一卷烟的全部修改区域一次编码
+        Map<String, String> codes = editSupport.encodeAll(cigCode, cigName, deliveryMethod, deliveryEtype, records);
+        for (CigaretteDistributionPredictionPO po : records) {
+            po.setDeployinfoCode(codes.getOrDefault(po.getDeliveryArea(), ""));
+            if (isPriceBand) {
+                priceRecords.add((CigaretteDistributionPredictionPricePO) po);
+            } else {
+                standardRecords.add(po);
             }
         }
-        return false;
     }
 
     /**
-     * 获取指定区域的客户数数组
+     * 校验批量 UPDATE 的影响行数，不足时抛出异常以回滚整个批次。
      */
-    private BigDecimal[] getCustomerCountsForRegion(Integer year, Integer month, Integer weekSeq, String regionName) {
-        Map<String, Object> stat = regionCustomerStatisticsRepository.findByRegion(year, month, weekSeq, regionName);
-        if (stat == null) {
-            log.warn("未找到区域 {} 的客户统计数据，使用全0数组", regionName);
-            return new BigDecimal[30];
+    private void checkBatchUpdatedCount(String table, int updatedCount, int expectedCount) {
+        if (updatedCount < expectedCount) {
+            throw new IllegalStateException(String.format(
+                    "[业务错误] 批量更新 %s 表失败，预期更新 %d 条记录，实际 %d 条，已全部回滚",
+                    table, expectedCount, updatedCount));
         }
-        return GradeExtractor.extractFromMap(stat);
+    }
+
+    /**
+     * 按卷烟核对批量 UPDATE 定位到的记录数，任一卷烟与其修改项数不符时抛出异常以回滚整个批次。
+     * <p>表级影响行数只能发现总数不足，某支卷烟少更新、另一支多匹配时总数仍可能相等。</p>
+     */
+    private void checkCigaretteUpdatedCounts(String table, List<? extends CigaretteDistributionPredictionPO> records,
+                                             List<Map<String, Object>> countRows) {
+        Map<String, Long> actualCounts = new HashMap<>();
+        for (Map<String, Object> row : countRows) {
+            Long count = MapValueExtractor.getLongValue(row, "RECORD_COUNT");
+            actualCounts.put(cigaretteLabel(getString(row, "CIG_CODE"), getString(row, "CIG_NAME")),
+                    count == null ? 0L : count);
+        }
+        Map<String, Long> expectedCounts = new LinkedHashMap<>();
+        for (CigaretteDistributionPredictionPO po : records) {
+            expectedCounts.merge(cigaretteLabel(po.getCigCode(), po.getCigName()), 1L, Long::sum);
+        }
+        for (Map.Entry<String, Long> expected : expectedCounts.entrySet()) {
+            long actual = actualCounts.getOrDefault(expected.getKey(), 0L);
+            if (actual != expected.getValue()) {
+                throw new IllegalStateException(String.format(
+                        "[业务错误] 批量更新 %s 表失败，卷烟 %s 预期更新 %d 条记录，实际 %d 条，已全部回滚",
+                        table, expected.getKey(), expected.getValue(), actual));
+            }
+        }
+    }
+
+    private static String cigaretteLabel(String cigCode, String cigName) {
+        return cigName + "(" + cigCode + ")";
     }
 
     private String getString(Map<String, Object> map, String key) {
@@ -0,0 +1,121 @@
+package org.example.application.service.region.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.application.service.calculate.DistributionPlanJobService;
+import org.example.application.service.coordinator.RegionCustomerStatisticsSnapshotCache;
+import org.example.domain.repository.RegionCustomerStatisticsRepository;
+import org.example.shared.dto.RegionCustomerRecord;
+import org.example.shared.exception.DistributionPlanJobConflictException;
+import org.example.shared.util.PartitionTableManager;
+import org.example.shared.util.RegionRecordBuilder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * 缺失区域客户数统计的后台补建任务。
+ * <p>
+ * 可用区域查询发现理论区域在 region_customer_statistics 中缺失时，不再在请求线程内写表，
+ * 而是提交到 eventTaskExecutor 异步补建。同一 (分区, 投放方式, 扩展类型) 同一时刻最多一个任务在排队或执行，
+ * 重复请求直接合并；任务执行时按最新的区域存在性索引重新计算缺失区域，只写入仍然缺失的记录。
+ * </p>
+ * <p>
+ * 补建通过 {@link DistributionPlanJobService#runExclusively} 占用该周分区，避免与一键生成分配方案的统计表重建交错写入；
+ * 分区已被占用时本次补建直接跳过，区域仍缺失时由下一次可用区域查询重新提交。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@Slf4j
+@Component
+public class MissingRegionStatisticsMaterializer {
+
+    private final RegionRecordBuilder regionRecordBuilder;
+    private final RegionCustomerStatisticsRepository regionCustomerStatisticsRepository;
+    private final RegionCustomerStatisticsSnapshotCache snapshotCache;
+    private final DistributionPlanJobService distributionPlanJobService;
+    private final Executor executor;
+
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public MissingRegionStatisticsMaterializer(RegionRecordBuilder regionRecordBuilder,
+                                               RegionCustomerStatisticsRepository regionCustomerStatisticsRepository,
+                                               RegionCustomerStatisticsSnapshotCache snapshotCache,
+                                               DistributionPlanJobService distributionPlanJobService,
+                                               @Qualifier("eventTaskExecutor") Executor executor) {
+        this.regionRecordBuilder = regionRecordBuilder;
+        this.regionCustomerStatisticsRepository = regionCustomerStatisticsRepository;
+        this.snapshotCache = snapshotCache;
+        this.distributionPlanJobService = distributionPlanJobService;
+        this.executor = executor;
+    }
+
+    /**
+     * 提交缺失区域补建任务（同一组合已在排队或执行时合并）。
+     *
+     * @param year           年份
+     * @param month          月份
+     * @param weekSeq        周序号
+     * @param deliveryMethod 投放方式
+     * @param deliveryEtype  扩展投放类型
+     * @return true 表示新提交了任务；false 表示已有相同任务或线程池拒绝
+     */
+    public boolean schedule(Integer year, Integer month, Integer weekSeq, String deliveryMethod, String deliveryEtype) {
+        String taskKey = PartitionTableManager.calculatePartitionKey(year, month, weekSeq)
+                + "|" + deliveryMethod + "|" + deliveryEtype;
+        if (!inFlight.add(taskKey)) {
+            log.debug("缺失区域补建任务已在进行中，合并请求: {}", taskKey);
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    distributionPlanJobService.runExclusively(year, month, weekSeq, () -> {
+                        materialize(year, month, weekSeq, deliveryMethod, deliveryEtype);
+                        return null;
+                    });
+                } catch (DistributionPlanJobConflictException e) {
+                    log.info("分区正被分配任务占用，跳过本次缺失区域补建: {}, {}", taskKey, e.getMessage());
+                } catch (Exception e) {
+                    log.error("缺失区域补建失败: {}", taskKey, e);
+                } finally {
+                    inFlight.remove(taskKey);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(taskKey);
+            log.warn("线程池繁忙，缺失区域补建任务被拒绝: {}", taskKey);
+            return false;
+        }
+    }
+
+    private void materialize(Integer year, Integer month, Integer weekSeq, String deliveryMethod, String deliveryEtype) {
+        List<RegionCustomerRecord> records = regionRecordBuilder.buildRecordsForCombination(
+                deliveryMethod, deliveryEtype, Collections.emptyList(), year, month, weekSeq);
+        Set<String> missingRegions = snapshotCache.getPresenceIndex(year, month, weekSeq)
+                .findMissing(records.stream().map(RegionCustomerRecord::getRegion).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toSet());
+        List<RegionCustomerRecord> missingRecords = records.stream()
+                .filter(record -> missingRegions.contains(record.getRegion()))
+                .collect(Collectors.toList());
+        if (missingRecords.isEmpty()) {
+            log.debug("缺失区域已被其他写入补齐: {}-{}-{}, {}/{}", year, month, weekSeq, deliveryMethod, deliveryEtype);
+            return;
+        }
+
+        int insertedCount = regionCustomerStatisticsRepository.batchUpsert(year, month, weekSeq, missingRecords);
+        snapshotCache.invalidate(year, month, weekSeq);
+        log.info("后台补建缺失区域完成: {}-{}-{}, 投放类型={}, 扩展类型={}, 区域={}, 写入 {} 条",
+                year, month, weekSeq, deliveryMethod, deliveryEtype, missingRegions, insertedCount);
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.application.service.writeback;
+
+import lombok.Value;
+import org.example.infrastructure.persistence.po.CigaretteDistributionPredictionPO;
+
+import java.util.List;
+
+/**
+ * 单支卷烟的待写回数据（已完成编码与实际投放量计算，尚未写库）。
+ * <p>
+ * 由 {@link StandardDistributionWriteBackService#prepareSingleCigarette} 在计算线程中生成，
+ * 再由 {@link StandardDistributionWriteBackService#writeBackBatch} 与其他卷烟合并写入。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@Value
+public class PreparedCigaretteWriteBack {
+
+    String cigCode;
+    String cigName;
+    Integer year;
+    Integer month;
+    Integer weekSeq;
+    String deliveryMethod;
+
+    /**
+     * 待写入的区域记录（已设置 YEAR/MONTH/WEEK_SEQ）。
+     */
+    List<CigaretteDistributionPredictionPO> records;
+
+    /**
+     * 处理失败（未生成记录）的区域。
+     */
+    List<String> failedTargets;
+
+    public boolean isEmpty() {
+        return records == null || records.isEmpty();
+    }
+}
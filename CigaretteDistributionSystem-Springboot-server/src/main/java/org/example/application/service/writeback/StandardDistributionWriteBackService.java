@@ -7,7 +7,9 @@ import java.util.List;
  * 标准分配结果写回服务接口。
  * <p>
  * 负责按档位投放、按档位扩展投放等标准场景的分配结果写回操作。
- * 支持多区域分配结果的写回，每条卷烟在独立事务中完成写回。
+ * 支持多区域分配结果的写回：既可单条卷烟独立事务写回，也可先在计算线程中
+ * {@link #prepareSingleCigarette 准备}写回记录，再由写回流水线将多支卷烟合并为一个事务
+ * {@link #writeBackBatch 批量写回}。
  * </p>
  *
  * @author Robin
@@ -50,4 +52,39 @@ public interface StandardDistributionWriteBackService {
                                      String remark,
                                      String tag,
                                      String tagFilterConfig);
+
+    /**
+     * 准备单条卷烟的写回记录（校验、计算实际投放量、编码），不访问预测表、不开启事务。
+     * <p>
+     * 参数含义与 {@link #writeBackSingleCigarette} 一致；区域级失败记入 {@link PreparedCigaretteWriteBack#getFailedTargets()}。
+     * </p>
+     *
+     * @return 待写回记录（全部区域失败时为空）
+     * @throws IllegalArgumentException 参数校验失败
+     */
+    PreparedCigaretteWriteBack prepareSingleCigarette(BigDecimal[][] allocationMatrix,
+                                                      BigDecimal[][] customerMatrix,
+                                                      List<String> targetList,
+                                                      String cigCode,
+                                                      String cigName,
+                                                      Integer year,
+                                                      Integer month,
+                                                      Integer weekSeq,
+                                                      String deliveryMethod,
+                                                      String deliveryEtype,
+                                                      String remark,
+                                                      String tag,
+                                                      String tagFilterConfig);
+
+    /**
+     * 在同一事务中批量写回多支卷烟。
+     * <p>
+     * 按目标表与分区分组：标准预测表对同组卷烟执行一次多卷烟删除，再分块 batchUpsert；
+     * 价位段预测表逐卷烟删除后 upsert。任一卷烟失败则整批回滚。
+     * </p>
+     *
+     * @param batch 已准备的写回记录
+     * @return 插入/更新行数
+     */
+    int writeBackBatch(List<PreparedCigaretteWriteBack> batch);
 }
@@ -0,0 +1,231 @@
+package org.example.application.service.writeback;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.infrastructure.config.allocation.AllocationExecutionProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 标准分配写回流水线。
+ * <p>
+ * 职责：
+ * <ul>
+ *   <li>计算线程把已准备好的卷烟写回数据放入有界队列后立即继续计算下一支卷烟；</li>
+ *   <li>每个会话由单个写回线程消费队列，每次取至多 {@code writeBackBatchSize} 支卷烟，
+ *       通过 {@link StandardDistributionWriteBackService#writeBackBatch} 在一个事务中写库；</li>
+ *   <li>队列满时计算线程阻塞等待（背压），避免待写回数据无限堆积；</li>
+ *   <li>批量事务失败时逐支卷烟重试，失败只影响对应卷烟的结果。</li>
+ * </ul>
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@Slf4j
+@Component
+public class StandardWriteBackPipeline implements DisposableBean {
+
+    /** 队列结束标记 */
+    private static final Entry END = new Entry(null, null);
+
+    private final StandardDistributionWriteBackService writeBackService;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final ExecutorService writerThreads;
+
+    public StandardWriteBackPipeline(StandardDistributionWriteBackService writeBackService,
+                                     AllocationExecutionProperties properties) {
+        this.writeBackService = writeBackService;
+        this.batchSize = Math.max(1, properties.getWriteBackBatchSize());
+        this.queueCapacity = Math.max(1, properties.getWriteBackQueueCapacity());
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.writerThreads = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "allocation-writeback-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 打开一个写回会话（一次一键生成分配方案对应一个会话）。
+     *
+     * @return 写回会话，使用完毕必须关闭
+     * @example
+     * <pre>{@code
+     * try (StandardWriteBackPipeline.Session writeBack = standardWriteBackPipeline.open()) {
+     *     writeBack.submit(prepared).thenAccept(ok -> ...);
+     * }
+     * }</pre>
+     */
+    public Session open() {
+        return new Session();
+    }
+
+    @Override
+    public void destroy() {
+        writerThreads.shutdownNow();
+    }
+
+    /**
+     * 写回会话：有界队列 + 单写回线程。
+     */
+    public final class Session implements AutoCloseable {
+
+        private final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final Future<?> writer;
+
+        private Session() {
+            this.writer = writerThreads.submit(this::drainLoop);
+        }
+
+        /**
+         * 提交一支卷烟的写回数据，队列满时阻塞。
+         *
+         * @param prepared 待写回数据
+         * @return 写回结果（true=成功），写回线程完成后回调
+         */
+        public CompletableFuture<Boolean> submit(PreparedCigaretteWriteBack prepared) {
+            CompletableFuture<Boolean> result = new CompletableFuture<>();
+            try {
+                queue.put(new Entry(prepared, result));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("提交写回任务时被中断: 卷烟 {} - {}", prepared.getCigCode(), prepared.getCigName());
+                result.complete(false);
+            }
+            return result;
+        }
+
+        /**
+         * 等待队列中剩余卷烟全部写回后结束会话。
+         */
+        @Override
+        public void close() {
+            boolean interrupted = false;
+            // 写回线程已异常结束时不再等待队列空位
+            while (!writer.isDone()) {
+                try {
+                    if (queue.offer(END, 100, TimeUnit.MILLISECONDS)) {
+                        break;
+                    }
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            while (true) {
+                try {
+                    writer.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    log.error("写回线程异常结束", e.getCause());
+                    break;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void drainLoop() {
+            List<Entry> batch = new ArrayList<>(batchSize);
+            boolean finished = false;
+            while (!finished) {
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException e) {
+                    // 应用关闭：放弃剩余写回
+                    Thread.currentThread().interrupt();
+                    failRemaining();
+                    return;
+                }
+                queue.drainTo(batch, batchSize - 1);
+                if (batch.remove(END)) {
+                    finished = true;
+                    // END 之后不会再有新条目，收尾时把剩余条目一并写回
+                    queue.drainTo(batch);
+                    batch.remove(END);
+                }
+                flush(batch);
+                batch.clear();
+            }
+        }
+
+        private void flush(List<Entry> batch) {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<PreparedCigaretteWriteBack> items = new ArrayList<>(batch.size());
+            for (Entry entry : batch) {
+                items.add(entry.prepared);
+            }
+            long startTime = System.currentTimeMillis();
+            try {
+                writeBackService.writeBackBatch(items);
+                log.debug("批量写回事务完成: 卷烟 {} 支, 耗时: {}ms", items.size(), System.currentTimeMillis() - startTime);
+                for (Entry entry : batch) {
+                    entry.result.complete(true);
+                }
+            } catch (Exception e) {
+                if (batch.size() == 1) {
+                    logFailure(batch.get(0), e);
+                    batch.get(0).result.complete(false);
+                    return;
+                }
+                log.warn("批量写回事务失败（卷烟 {} 支），逐支重试: {}", batch.size(), e.getMessage());
+                for (Entry entry : batch) {
+                    try {
+                        writeBackService.writeBackBatch(Collections.singletonList(entry.prepared));
+                        entry.result.complete(true);
+                    } catch (Exception single) {
+                        logFailure(entry, single);
+                        entry.result.complete(false);
+                    }
+                }
+            }
+        }
+
+        private void logFailure(Entry entry, Exception e) {
+            log.error("写回数据库失败，卷烟: {} - {}, deliveryMethod: {}, 错误类型: {}, 错误信息: {}",
+                    entry.prepared.getCigCode(), entry.prepared.getCigName(), entry.prepared.getDeliveryMethod(),
+                    e.getClass().getSimpleName(), e.getMessage(), e);
+        }
+
+        private void failRemaining() {
+            List<Entry> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            for (Entry entry : remaining) {
+                if (entry != END) {
+                    entry.result.complete(false);
+                }
+            }
+        }
+    }
+
+    /**
+     * 队列条目：待写回数据及其结果。
+     */
+    private static final class Entry {
+        private final PreparedCigaretteWriteBack prepared;
+        private final CompletableFuture<Boolean> result;
+
+        private Entry(PreparedCigaretteWriteBack prepared, CompletableFuture<Boolean> result) {
+            this.prepared = prepared;
+            this.result = result;
+        }
+    }
+}
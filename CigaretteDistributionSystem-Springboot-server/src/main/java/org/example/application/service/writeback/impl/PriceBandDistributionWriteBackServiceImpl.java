@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.example.application.service.encode.EncodeService;
 import org.example.application.service.writeback.PriceBandDistributionWriteBackService;
 import org.example.domain.repository.CigaretteDistributionPredictionPriceRepository;
+import org.example.infrastructure.monitor.AllocationStageMetrics;
 import org.example.shared.util.ActualDeliveryCalculator;
 import org.example.shared.util.PartitionTableManager;
 import org.example.shared.util.WriteBackHelper;
@@ -32,6 +33,7 @@ public class PriceBandDistributionWriteBackServiceImpl implements PriceBandDistr
     private final CigaretteDistributionPredictionPriceRepository predictionPriceRepository;
     private final PartitionTableManager partitionTableManager;
     private final EncodeService encodeService;
+    private final AllocationStageMetrics stageMetrics;
 
     @Override
     public void writeBackPriceBandAllocations(List<Map<String, Object>> candidates,
@@ -104,10 +106,11 @@ public class PriceBandDistributionWriteBackServiceImpl implements PriceBandDistr
             
             // 通过 EncodeService 生成编码表达式（复用 encodeForSpecificArea）
             // 价位段自选投放的区域都是"全市"，传入单条记录列表即可
-            String deployinfoCode = encodeService.encodeForSpecificArea(
-                    cigCode, cigName, 
-                    po.getDeliveryMethod(), deliveryEtype, 
-                    po.getDeliveryArea(), Collections.singletonList(po));
+            String deployinfoCode = stageMetrics.record(AllocationStageMetrics.Stage.ENCODING,
+                    () -> encodeService.encodeForSpecificArea(
+                            cigCode, cigName,
+                            po.getDeliveryMethod(), deliveryEtype,
+                            po.getDeliveryArea(), Collections.singletonList(po)));
             po.setDeployinfoCode(deployinfoCode);
 
             predictionList.add(po);
@@ -115,7 +118,8 @@ public class PriceBandDistributionWriteBackServiceImpl implements PriceBandDistr
 
         if (!predictionList.isEmpty()) {
             try {
-                int count = predictionPriceRepository.batchUpsert(predictionList);
+                int count = stageMetrics.record(AllocationStageMetrics.Stage.WRITE_BACK,
+                        () -> predictionPriceRepository.batchUpsert(predictionList));
                 log.info("价位段自选投放分配结果写回完成: {}-{}-{}, 写回 {} 条记录", year, month, weekSeq, count);
             } catch (Exception e) {
                 log.error("价位段自选投放分配结果写回失败: {}-{}-{}", year, month, weekSeq, e);
@@ -3,11 +3,13 @@ package org.example.application.service.writeback.impl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.application.service.encode.EncodeService;
+import org.example.application.service.writeback.PreparedCigaretteWriteBack;
 import org.example.application.service.writeback.StandardDistributionWriteBackService;
 import org.example.domain.repository.CigaretteDistributionPredictionPriceRepository;
 import org.example.domain.repository.CigaretteDistributionPredictionRepository;
 import org.example.domain.repository.RegionCustomerStatisticsRepository;
 import org.example.domain.service.rule.BiWeeklyVisitBoostRule;
+import org.example.infrastructure.monitor.AllocationStageMetrics;
 import org.example.infrastructure.persistence.po.CigaretteDistributionPredictionPO;
 import org.example.shared.util.ActualDeliveryCalculator;
 import org.example.shared.util.PartitionTableManager;
@@ -17,6 +19,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -38,8 +42,11 @@ public class StandardDistributionWriteBackServiceImpl implements StandardDistrib
     private final RegionCustomerStatisticsRepository regionCustomerStatisticsRepository;
     private final PartitionTableManager partitionTableManager;
     private final EncodeService encodeService;
+    private final AllocationStageMetrics stageMetrics;
     private static final BiWeeklyVisitBoostRule BI_WEEKLY_VISIT_BOOST_RULE = new org.example.domain.service.rule.impl.BiWeeklyVisitBoostRuleImpl();
     private static final String PRICE_METHOD = "按价位段自选投放";
+    /** 单条 batchUpsert 语句的最大记录数 */
+    private static final int UPSERT_CHUNK_SIZE = 500;
 
     @Override
     @Transactional(rollbackFor = Exception.class, timeout = 60)
@@ -61,101 +68,153 @@ public class StandardDistributionWriteBackServiceImpl implements StandardDistrib
             log.info("【事务监控】写回事务开始: 卷烟 {} - {}, 表: {}_{}_{}",
                     cigCode, cigName, year, month, weekSeq);
 
-            validateWriteBackParams(allocationMatrix, targetList, cigCode, cigName,
-                    year, month, weekSeq, deliveryMethod, deliveryEtype);
+            PreparedCigaretteWriteBack prepared = prepareSingleCigarette(allocationMatrix, customerMatrix, targetList,
+                    cigCode, cigName, year, month, weekSeq, deliveryMethod, deliveryEtype, remark, tag, tagFilterConfig);
+            if (prepared.isEmpty()) {
+                return false;
+            }
+
+            writeBackBatch(Collections.singletonList(prepared));
+
+            long elapsedTime = System.currentTimeMillis() - startTime;
+            log.info("【事务监控】写回事务完成: 卷烟 {} - {}, 耗时: {}ms", cigCode, cigName, elapsedTime);
+            return true;
+        } catch (Exception e) {
+            long elapsedTime = System.currentTimeMillis() - startTime;
+            log.error("【事务监控】写回事务失败: 卷烟 {} - {}, 耗时: {}ms", cigCode, cigName, elapsedTime);
+            log.error("写回数据库失败，卷烟: {} - {}, deliveryMethod: {}, deliveryEtype: {}, 错误类型: {}, 错误信息: {}",
+                    cigCode, cigName, deliveryMethod, deliveryEtype, e.getClass().getSimpleName(), e.getMessage());
+            log.error("详细堆栈信息:", e);
+            return false;
+        }
+    }
+
+    @Override
+    public PreparedCigaretteWriteBack prepareSingleCigarette(BigDecimal[][] allocationMatrix,
+                                                             BigDecimal[][] customerMatrix,
+                                                             List<String> targetList,
+                                                             String cigCode,
+                                                             String cigName,
+                                                             Integer year,
+                                                             Integer month,
+                                                             Integer weekSeq,
+                                                             String deliveryMethod,
+                                                             String deliveryEtype,
+                                                             String remark,
+                                                             String tag,
+                                                             String tagFilterConfig) {
+        validateWriteBackParams(allocationMatrix, targetList, cigCode, cigName,
+                year, month, weekSeq, deliveryMethod, deliveryEtype);
 
-            log.debug("writeBackSingleCigarette - 卷烟: {} - {}, deliveryMethod: {}, deliveryEtype: {}",
-                    cigCode, cigName, deliveryMethod, deliveryEtype);
+        log.debug("prepareSingleCigarette - 卷烟: {} - {}, deliveryMethod: {}, deliveryEtype: {}",
+                cigCode, cigName, deliveryMethod, deliveryEtype);
 
-            // remark 参数是从 Info 表传入的 BZ 字段，直接使用
-            // 如果 remark 为 null，使用默认值
-            String finalRemark = (remark != null && !remark.trim().isEmpty()) ? remark : "算法自动生成";
+        // remark 参数是从 Info 表传入的 BZ 字段，直接使用
+        // 如果 remark 为 null，使用默认值
+        String finalRemark = (remark != null && !remark.trim().isEmpty()) ? remark : "算法自动生成";
 
-            // 构建所有区域记录用于编码表达式
-            List<CigaretteDistributionPredictionPO> allCigaretteRecords = buildPredictionRecords(
-                    cigCode, cigName, deliveryMethod, deliveryEtype, allocationMatrix, targetList, tag, tagFilterConfig);
+        // 构建所有区域记录，一次性生成各区域编码表达式
+        List<CigaretteDistributionPredictionPO> allCigaretteRecords = buildPredictionRecords(
+                cigCode, cigName, deliveryMethod, deliveryEtype, allocationMatrix, targetList, tag, tagFilterConfig);
+        Map<String, String> encodedByArea = stageMetrics.record(AllocationStageMetrics.Stage.ENCODING,
+                () -> encodeService.encodeAllAreas(cigCode, cigName, deliveryMethod, deliveryEtype, allCigaretteRecords));
 
-            List<CigaretteDistributionPredictionPO> predictionDataList = new ArrayList<>();
-            List<String> failedTargets = new ArrayList<>();
+        List<CigaretteDistributionPredictionPO> predictionDataList = new ArrayList<>();
+        List<String> failedTargets = new ArrayList<>();
 
-            for (int i = 0; i < targetList.size(); i++) {
-                String target = targetList.get(i);
-                try {
-                    BigDecimal actualDelivery;
-                    BigDecimal[] customerCounts = null;
-                    if (customerMatrix != null && i < customerMatrix.length && customerMatrix[i] != null) {
-                        customerCounts = customerMatrix[i];
-                        actualDelivery = ActualDeliveryCalculator.calculateFixed30(allocationMatrix[i], customerMatrix[i]);
-                    } else {
-                        customerCounts = findCustomerCountsByRegion(year, month, weekSeq, target);
-                        if (customerCounts == null || customerCounts.length != 30) {
-                            throw new IllegalStateException(String.format(
-                                    "在分区表中未找到目标区域 '%s' (投放方法: %s, 投放类型: %s, 时间: %d-%d-%d) 的客户数数据",
-                                    target, deliveryMethod, deliveryEtype, year, month, weekSeq));
-                        }
-                        // 检查区域客户数是否全为0
-                        if (isAllGradesZero(customerCounts)) {
-                            log.warn("跳过区域 '{}' 的分配：30个档位客户数全为0 (投放方法: {}, 投放类型: {}, 时间: {}-{}-{})",
-                                    target, deliveryMethod, deliveryEtype, year, month, weekSeq);
-                            failedTargets.add(target);
-                            continue; // 跳过该区域，继续处理下一个区域
-                        }
-                        actualDelivery = ActualDeliveryCalculator.calculateFixed30(allocationMatrix[i], customerCounts);
+        for (int i = 0; i < targetList.size(); i++) {
+            String target = targetList.get(i);
+            try {
+                BigDecimal actualDelivery;
+                BigDecimal[] customerCounts = null;
+                if (customerMatrix != null && i < customerMatrix.length && customerMatrix[i] != null) {
+                    customerCounts = customerMatrix[i];
+                    actualDelivery = ActualDeliveryCalculator.calculateFixed30(allocationMatrix[i], customerMatrix[i]);
+                } else {
+                    customerCounts = findCustomerCountsByRegion(year, month, weekSeq, target);
+                    if (customerCounts == null || customerCounts.length != 30) {
+                        throw new IllegalStateException(String.format(
+                                "在分区表中未找到目标区域 '%s' (投放方法: %s, 投放类型: %s, 时间: %d-%d-%d) 的客户数数据",
+                                target, deliveryMethod, deliveryEtype, year, month, weekSeq));
                     }
+                    // 检查区域客户数是否全为0
+                    if (isAllGradesZero(customerCounts)) {
+                        log.warn("跳过区域 '{}' 的分配：30个档位客户数全为0 (投放方法: {}, 投放类型: {}, 时间: {}-{}-{})",
+                                target, deliveryMethod, deliveryEtype, year, month, weekSeq);
+                        failedTargets.add(target);
+                        continue; // 跳过该区域，继续处理下一个区域
+                    }
+                    actualDelivery = ActualDeliveryCalculator.calculateFixed30(allocationMatrix[i], customerCounts);
+                }
 
-                    String encoded = encodeService.encodeForSpecificArea(
-                            cigCode, cigName, deliveryMethod, deliveryEtype, target, allCigaretteRecords);
+                String encoded = encodedByArea.getOrDefault(target, "");
 
-                    CigaretteDistributionPredictionPO predictionData = new CigaretteDistributionPredictionPO();
-                    predictionData.setCigCode(cigCode);
-                    predictionData.setCigName(cigName);
-                    predictionData.setDeliveryArea(target);
-                    predictionData.setDeliveryMethod(deliveryMethod);
-                    predictionData.setDeliveryEtype(deliveryEtype);
-                    predictionData.setYear(year);
-                    predictionData.setMonth(month);
-                    predictionData.setWeekSeq(weekSeq);
-                    predictionData.setTag(tag);
-                    predictionData.setTagFilterConfig(tagFilterConfig);
-                    predictionData.setActualDelivery(actualDelivery);
-                    predictionData.setDeployinfoCode(encoded);
-                    // 使用从 Info 表传入的备注
-                    predictionData.setBz(finalRemark);
+                CigaretteDistributionPredictionPO predictionData = new CigaretteDistributionPredictionPO();
+                predictionData.setCigCode(cigCode);
+                predictionData.setCigName(cigName);
+                predictionData.setDeliveryArea(target);
+                predictionData.setDeliveryMethod(deliveryMethod);
+                predictionData.setDeliveryEtype(deliveryEtype);
+                predictionData.setYear(year);
+                predictionData.setMonth(month);
+                predictionData.setWeekSeq(weekSeq);
+                predictionData.setTag(tag);
+                predictionData.setTagFilterConfig(tagFilterConfig);
+                predictionData.setActualDelivery(actualDelivery);
+                predictionData.setDeployinfoCode(encoded);
+                // 使用从 Info 表传入的备注
+                predictionData.setBz(finalRemark);
 
-                    // 使用 WriteBackHelper 设置档位值
-                    WriteBackHelper.setGradesToEntity(predictionData, allocationMatrix[i]);
-                    predictionDataList.add(predictionData);
-                } catch (Exception ex) {
-                    log.warn("卷烟 '{}' 在区域 '{}' 处理失败: {}", cigName, target, ex.getMessage(), ex);
-                    failedTargets.add(target);
-                }
+                // 使用 WriteBackHelper 设置档位值
+                WriteBackHelper.setGradesToEntity(predictionData, allocationMatrix[i]);
+                predictionDataList.add(predictionData);
+            } catch (Exception ex) {
+                log.warn("卷烟 '{}' 在区域 '{}' 处理失败: {}", cigName, target, ex.getMessage(), ex);
+                failedTargets.add(target);
             }
+        }
 
-            if (predictionDataList.isEmpty()) {
-                log.warn("卷烟 {} 没有可插入的数据，所有区域处理失败: {}", cigName, failedTargets);
-                return false;
-            }
+        if (predictionDataList.isEmpty()) {
+            log.warn("卷烟 {} 没有可插入的数据，所有区域处理失败: {}", cigName, failedTargets);
+        } else if (!failedTargets.isEmpty()) {
+            log.warn("卷烟 {} 部分区域处理失败: {}", cigName, failedTargets);
+        }
+        return new PreparedCigaretteWriteBack(cigCode, cigName, year, month, weekSeq, deliveryMethod,
+                predictionDataList, failedTargets);
+    }
 
-            int insertedCount = writeBackToProperTable(deliveryMethod,
-                    year, month, weekSeq, cigCode, cigName, predictionDataList);
-            log.info("卷烟 {} 写回完成，成功: {}/{}, 失败: {}", cigName,
-                    insertedCount, predictionDataList.size(), failedTargets.size());
+    @Override
+    @Transactional(rollbackFor = Exception.class, timeout = 60)
+    public int writeBackBatch(List<PreparedCigaretteWriteBack> batch) {
+        return stageMetrics.record(AllocationStageMetrics.Stage.WRITE_BACK, () -> writeBackGroups(batch));
+    }
 
-            if (!failedTargets.isEmpty()) {
-                log.warn("卷烟 {} 部分区域处理失败: {}", cigName, failedTargets);
+    /**
+     * 按目标表与分区分组写回。
+     */
+    private int writeBackGroups(List<PreparedCigaretteWriteBack> batch) {
+        // 按 目标表 + 分区 分组，同组卷烟一次删除、分块 upsert
+        Map<String, List<PreparedCigaretteWriteBack>> groups = new LinkedHashMap<>();
+        for (PreparedCigaretteWriteBack item : batch) {
+            if (item == null || item.isEmpty()) {
+                continue;
             }
+            String key = PRICE_METHOD.equals(item.getDeliveryMethod()) + "_"
+                    + item.getYear() + "_" + item.getMonth() + "_" + item.getWeekSeq();
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(item);
+        }
 
-            long elapsedTime = System.currentTimeMillis() - startTime;
-            log.info("【事务监控】写回事务完成: 卷烟 {} - {}, 耗时: {}ms", cigCode, cigName, elapsedTime);
-            return true;
-        } catch (Exception e) {
-            long elapsedTime = System.currentTimeMillis() - startTime;
-            log.error("【事务监控】写回事务失败: 卷烟 {} - {}, 耗时: {}ms", cigCode, cigName, elapsedTime);
-            log.error("写回数据库失败，卷烟: {} - {}, deliveryMethod: {}, deliveryEtype: {}, 错误类型: {}, 错误信息: {}",
-                    cigCode, cigName, deliveryMethod, deliveryEtype, e.getClass().getSimpleName(), e.getMessage());
-            log.error("详细堆栈信息:", e);
-            return false;
+        int total = 0;
+        for (List<PreparedCigaretteWriteBack> group : groups.values()) {
+            PreparedCigaretteWriteBack head = group.get(0);
+            if (PRICE_METHOD.equals(head.getDeliveryMethod())) {
+                total += writeBackPriceGroup(group);
+            } else {
+                total += writeBackStandardGroup(group);
+            }
         }
+        log.info("批量写回完成: 卷烟 {} 支, 写入 {} 条记录", batch.size(), total);
+        return total;
     }
 
     /**
@@ -224,43 +283,53 @@ public class StandardDistributionWriteBackServiceImpl implements StandardDistrib
         return records;
     }
 
+    /**
+     * 写回标准预测表：同一分区的多支卷烟一次删除，记录按 {@value #UPSERT_CHUNK_SIZE} 条分块 upsert。
+     *
+     * @param group 同一分区的待写回卷烟
+     * @return 插入/更新行数
+     */
+    private int writeBackStandardGroup(List<PreparedCigaretteWriteBack> group) {
+        PreparedCigaretteWriteBack head = group.get(0);
+        Integer year = head.getYear();
+        Integer month = head.getMonth();
+        Integer weekSeq = head.getWeekSeq();
+        partitionTableManager.ensurePartitionExists("cigarette_distribution_prediction", year, month, weekSeq);
+
+        List<CigaretteDistributionPredictionPO> cigarettes = new ArrayList<>(group.size());
+        List<CigaretteDistributionPredictionPO> records = new ArrayList<>();
+        for (PreparedCigaretteWriteBack item : group) {
+            cigarettes.add(item.getRecords().get(0));
+            records.addAll(item.getRecords());
+        }
+        // 使用精确删除方法，减少锁范围
+        predictionRepository.deleteByCigarettes(year, month, weekSeq, cigarettes);
 
+        int upserted = 0;
+        for (int offset = 0; offset < records.size(); offset += UPSERT_CHUNK_SIZE) {
+            upserted += predictionRepository.batchUpsert(
+                    records.subList(offset, Math.min(offset + UPSERT_CHUNK_SIZE, records.size())));
+        }
+        return upserted;
+    }
 
     /**
-     * 根据投放方式选择对应分表写回。
+     * 写回价位段预测表（逐卷烟删除后批量 upsert）。
      *
-     * @param deliveryMethod 投放方式
-     * @param year           年份
-     * @param month          月份
-     * @param weekSeq        周序号
-     * @param cigCode        卷烟代码
-     * @param cigName        卷烟名称
-     * @param predictionDataList 预测数据列表
+     * @param group 同一分区的待写回卷烟
      * @return 插入/更新行数
      */
-    private int writeBackToProperTable(String deliveryMethod,
-                                       Integer year, Integer month, Integer weekSeq,
-                                       String cigCode, String cigName,
-                                       List<CigaretteDistributionPredictionPO> predictionDataList) {
-        if (PRICE_METHOD.equals(deliveryMethod)) {
-            partitionTableManager.ensurePartitionExists("cigarette_distribution_prediction_price", year, month, weekSeq);
-            predictionDataList.forEach(d -> {
-                d.setYear(year);
-                d.setMonth(month);
-                d.setWeekSeq(weekSeq);
-            });
-            predictionPriceRepository.deleteByCig(year, month, weekSeq, cigCode, cigName);
-            return predictionPriceRepository.batchUpsert(predictionDataList);
+    private int writeBackPriceGroup(List<PreparedCigaretteWriteBack> group) {
+        PreparedCigaretteWriteBack head = group.get(0);
+        partitionTableManager.ensurePartitionExists("cigarette_distribution_prediction_price",
+                head.getYear(), head.getMonth(), head.getWeekSeq());
+        int upserted = 0;
+        for (PreparedCigaretteWriteBack item : group) {
+            predictionPriceRepository.deleteByCig(item.getYear(), item.getMonth(), item.getWeekSeq(),
+                    item.getCigCode(), item.getCigName());
+            upserted += predictionPriceRepository.batchUpsert(item.getRecords());
         }
-        partitionTableManager.ensurePartitionExists("cigarette_distribution_prediction", year, month, weekSeq);
-        predictionDataList.forEach(d -> {
-            d.setYear(year);
-            d.setMonth(month);
-            d.setWeekSeq(weekSeq);
-        });
-        // 使用精确删除方法，减少锁范围
-        predictionRepository.deleteByCigarette(year, month, weekSeq, cigCode, cigName);
-        return predictionRepository.batchUpsert(predictionDataList);
+        return upserted;
     }
 
     /**
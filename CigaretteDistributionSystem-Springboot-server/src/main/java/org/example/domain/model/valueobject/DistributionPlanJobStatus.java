@@ -0,0 +1,28 @@
+package org.example.domain.model.valueobject;
+
+/**
+ * 一键生成分配方案异步任务状态。
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+public enum DistributionPlanJobStatus {
+
+    /** 已提交，等待执行线程 */
+    QUEUED,
+    /** 执行中 */
+    RUNNING,
+    /** 执行完成 */
+    SUCCEEDED,
+    /** 执行失败（含服务重启导致的中断） */
+    FAILED,
+    /** 已取消 */
+    CANCELLED;
+
+    /**
+     * @return 是否为终止状态
+     */
+    public boolean isFinished() {
+        return this == SUCCEEDED || this == FAILED || this == CANCELLED;
+    }
+}
@@ -40,6 +40,15 @@ public interface BaseCustomerInfoRepository {
      */
     int insertRow(List<String> columns, Map<String, Object> row);
 
+    /**
+     * 动态列多行插入（单条 INSERT ... VALUES (...), (...)）
+     *
+     * @param columns 列名顺序
+     * @param rows    按列顺序的行值列表
+     * @return 影响行数
+     */
+    int batchInsertRows(List<String> columns, List<List<Object>> rows);
+
     /**
      * 诚信互助小组统计
      *
@@ -6,6 +6,7 @@ import org.example.infrastructure.persistence.po.CigaretteDistributionPrediction
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * 预测分配表仓储接口（cigarette_distribution_prediction）
@@ -22,8 +23,64 @@ public interface CigaretteDistributionPredictionRepository {
     int updateGrades(Integer year, Integer month, Integer weekSeq,
                     String cigCode, String cigName, String deliveryArea, BigDecimal[] grades);
 
+    /**
+     * 批量更新同一分区内多条记录的档位、实际投放量、编码表达式和备注（单条多行 UPDATE）
+     *
+     * @param year    年份
+     * @param month   月份
+     * @param weekSeq 周序号
+     * @param records 待更新记录（按卷烟代码 + 卷烟名称 + 投放区域定位，不可重复）
+     * @return 影响行数
+     */
+    int batchUpdateGrades(Integer year, Integer month, Integer weekSeq,
+                          List<? extends CigaretteDistributionPredictionPO> records);
+
+    /**
+     * 按卷烟统计指定（卷烟代码, 卷烟名称, 投放区域）定位到的记录数，用于批量更新后在同一事务内校验
+     *
+     * @param year    年份
+     * @param month   月份
+     * @param weekSeq 周序号
+     * @param records 待校验记录（按卷烟代码 + 卷烟名称 + 投放区域定位）
+     * @return 每支卷烟一行，包含 CIG_CODE、CIG_NAME、RECORD_COUNT
+     */
+    List<Map<String, Object>> countByCigaretteAreas(Integer year, Integer month, Integer weekSeq,
+                                                    List<? extends CigaretteDistributionPredictionPO> records);
+
     List<Map<String, Object>> findAllWithAdv(Integer year, Integer month, Integer weekSeq);
 
+    /**
+     * 流式读取指定年月周的全部预测记录（含 ADV，字段与排序同 {@link #findAllWithAdv}）。
+     *
+     * <p>逐行回调，不在内存中聚集整周结果；回调内不得在同一连接上执行其他查询。</p>
+     *
+     * @param year     年份
+     * @param month    月份
+     * @param weekSeq  周序号
+     * @param consumer 逐行消费者
+     */
+    void streamAllWithAdv(Integer year, Integer month, Integer weekSeq, Consumer<Map<String, Object>> consumer);
+
+    /**
+     * 游标分页查询指定年月周的预测记录（含 ADV）（按卷烟代码、卷烟名称、投放区域、主键ID排序）。
+     *
+     * @param year              年份
+     * @param month             月份
+     * @param weekSeq           周序号
+     * @param cigCodePrefix     卷烟代码前缀（LIKE 通配符需已转义，为空不过滤）
+     * @param deliveryMethod    投放方式（为空不过滤）
+     * @param afterCigCode      游标卷烟代码（为 null 表示第一页）
+     * @param afterCigName      游标卷烟名称
+     * @param afterDeliveryArea 游标投放区域
+     * @param afterId           游标主键ID
+     * @param limit             最多返回条数
+     * @return 游标之后的预测数据列表
+     */
+    List<Map<String, Object>> findPageWithAdv(Integer year, Integer month, Integer weekSeq,
+                                              String cigCodePrefix, String deliveryMethod,
+                                              String afterCigCode, String afterCigName, String afterDeliveryArea, Long afterId,
+                                              int limit);
+
     /**
      * 查询指定年月周下某支卷烟的所有预测记录（按区域）。
      *
@@ -37,6 +94,18 @@ public interface CigaretteDistributionPredictionRepository {
      */
     List<Map<String, Object>> findByCigCode(Integer year, Integer month, Integer weekSeq, String cigCode);
 
+    /**
+     * 查询指定年月周下某支卷烟（代码+名称）的所有预测记录（按区域）。
+     *
+     * @param year    年份
+     * @param month   月份
+     * @param weekSeq 周序号
+     * @param cigCode 卷烟代码
+     * @param cigName 卷烟名称
+     * @return 该卷烟在该批次下的预测数据列表，按投放区域排序
+     */
+    List<Map<String, Object>> findByCigarette(Integer year, Integer month, Integer weekSeq, String cigCode, String cigName);
+
     /**
      * 查询指定年月周的所有预测数据
      *
@@ -81,6 +150,17 @@ public interface CigaretteDistributionPredictionRepository {
      */
     int deleteByCigarette(Integer year, Integer month, Integer weekSeq, String cigCode, String cigName);
 
+    /**
+     * 删除多支卷烟的所有区域记录（单条 DELETE，用于批量写回）
+     *
+     * @param year       年份
+     * @param month      月份
+     * @param weekSeq    周序号
+     * @param cigarettes 卷烟列表（仅使用 CIG_CODE / CIG_NAME）
+     * @return 删除行数
+     */
+    int deleteByCigarettes(Integer year, Integer month, Integer weekSeq, List<CigaretteDistributionPredictionPO> cigarettes);
+
     /**
      * 删除指定卷烟的特定区域记录
      *
@@ -0,0 +1,56 @@
+package org.example.domain.repository;
+
+import org.example.infrastructure.persistence.po.DistributionPlanJobPO;
+
+import java.util.List;
+
+/**
+ * 一键生成分配方案任务仓储接口
+ * <p>
+ * 定义对 {@code distribution_plan_job} 数据的抽象访问方式，用于服务重启后仍可查询任务历史。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+public interface DistributionPlanJobRepository {
+
+    /**
+     * 确保表存在（不存在则创建）
+     */
+    void createTableIfNotExists();
+
+    /**
+     * 保存任务（存在则更新状态与进度）
+     *
+     * @param job 任务
+     */
+    void save(DistributionPlanJobPO job);
+
+    /**
+     * 按任务ID查询
+     *
+     * @param jobId 任务ID
+     * @return 任务，不存在时返回 null
+     */
+    DistributionPlanJobPO findByJobId(String jobId);
+
+    /**
+     * 按分区查询最近的任务
+     *
+     * @param year    年份，null 表示不过滤
+     * @param month   月份，null 表示不过滤
+     * @param weekSeq 周序号，null 表示不过滤
+     * @param limit   最大条数
+     * @return 任务列表（按创建时间倒序）
+     */
+    List<DistributionPlanJobPO> findRecent(Integer year, Integer month, Integer weekSeq, int limit);
+
+    /**
+     * 将未结束的任务标记为失败（服务重启后调用）
+     *
+     * @param message 失败说明
+     * @return 影响行数
+     */
+    int markUnfinishedAsFailed(String message);
+}
@@ -2,6 +2,7 @@ package org.example.domain.repository;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * 客户过滤表仓储接口（分区表）
@@ -95,5 +96,30 @@ public interface FilterCustomerTableRepository {
                                          String tagOperator,
                                          Object tagValue,
                                          String orderCyclePattern);
-}
 
+    /**
+     * 单次流式扫描分区，按 档位 + 订单周期 + 扩展维度 + 标签值 分组统计客户数
+     *
+     * @param year             年份
+     * @param month            月份
+     * @param weekSeq          周序号
+     * @param dimensionColumns 扩展维度列
+     * @param tagColumns       标签列（结果列名依次为 TAG_0、TAG_1 ...）
+     * @param consumer         逐行消费者，行内包含 GRADE、ORDER_CYCLE、维度列、TAG_n、CUSTOMER_COUNT
+     */
+    void streamGradeAggregation(Integer year, Integer month, Integer weekSeq,
+                                List<String> dimensionColumns,
+                                List<String> tagColumns,
+                                Consumer<Map<String, Object>> consumer);
+
+    /**
+     * 统计带有指定标签的客户数（固定标签列为非空值，动态标签为 DYNAMIC_TAGS 中存在该键）
+     *
+     * @param year      年份
+     * @param month     月份
+     * @param weekSeq   周序号
+     * @param tagColumn 固定标签列名（如 QUALITY_DATA_SHARE）或动态标签键
+     * @return 客户数
+     */
+    long countTaggedCustomers(Integer year, Integer month, Integer weekSeq, String tagColumn);
+}
@@ -26,5 +26,15 @@ public interface RegionCustomerStatisticsRepository {
      * @return 区域客户统计数据列表
      */
     List<Map<String, Object>> findAll(Integer year, Integer month, Integer weekSeq);
+
+    /**
+     * 查询指定分区的全部区域名称（不读取档位列）
+     *
+     * @param year    年份
+     * @param month   月份
+     * @param weekSeq 周序号
+     * @return 区域名称列表，按区域名称排序
+     */
+    List<String> findRegions(Integer year, Integer month, Integer weekSeq);
 }
 
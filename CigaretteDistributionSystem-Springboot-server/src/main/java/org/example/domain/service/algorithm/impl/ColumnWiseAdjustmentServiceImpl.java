@@ -2,6 +2,9 @@ package org.example.domain.service.algorithm.impl;
 
 import org.example.domain.model.valueobject.GradeRange;
 import org.example.domain.service.algorithm.ColumnWiseAdjustmentService;
+import org.example.domain.service.algorithm.kernel.ColumnWiseCoarseKernel;
+import org.example.domain.service.algorithm.subset.SubsetSumResult;
+import org.example.domain.service.algorithm.subset.SubsetSumSolvers;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
@@ -225,6 +228,10 @@ public class ColumnWiseAdjustmentServiceImpl implements ColumnWiseAdjustmentServ
 
     /**
      * 粗调阶段：从HG到LG，多轮逐档位列+1（整列+1），直到刚好超出目标
+     * <p>
+     * 由 {@link ColumnWiseCoarseKernel} 根据档位列和直接求出各列取值；客户数或目标量非整数、
+     * 客户数为负或计算溢出 long 时回退到逐列迭代实现。
+     * </p>
      * 
      * @param segmentCount 区域数量
      * @param customerMatrix 客户数矩阵
@@ -238,6 +245,44 @@ public class ColumnWiseAdjustmentServiceImpl implements ColumnWiseAdjustmentServ
                                             BigDecimal targetAmount,
                                             int maxIndex,
                                             int minIndex) {
+        long[] levels;
+        try {
+            long[] columnSums = new long[GRADE_COUNT];
+            for (BigDecimal[] row : customerMatrix) {
+                for (int grade = maxIndex; grade <= minIndex; grade++) {
+                    columnSums[grade] = Math.addExact(columnSums[grade], row[grade].longValueExact());
+                }
+            }
+            levels = ColumnWiseCoarseKernel.coarseLevels(columnSums, targetAmount.longValueExact(), maxIndex, minIndex);
+        } catch (ArithmeticException | IllegalArgumentException ex) {
+            return coarseAdjustmentIterative(segmentCount, customerMatrix, targetAmount, maxIndex, minIndex);
+        }
+        return fillColumns(segmentCount, levels);
+    }
+
+    /**
+     * 按各档位整列取值构造分配矩阵（同一列各区域共享同一 BigDecimal 实例）。
+     */
+    private BigDecimal[][] fillColumns(int segmentCount, long[] levels) {
+        BigDecimal[] columnValues = new BigDecimal[GRADE_COUNT];
+        for (int grade = 0; grade < GRADE_COUNT; grade++) {
+            columnValues[grade] = BigDecimal.valueOf(levels[grade]);
+        }
+        BigDecimal[][] matrix = new BigDecimal[segmentCount][];
+        for (int segment = 0; segment < segmentCount; segment++) {
+            matrix[segment] = columnValues.clone();
+        }
+        return matrix;
+    }
+
+    /**
+     * 粗调阶段逐列迭代实现（BigDecimal），仅在闭式内核无法处理时使用。
+     */
+    private BigDecimal[][] coarseAdjustmentIterative(int segmentCount,
+                                                     BigDecimal[][] customerMatrix,
+                                                     BigDecimal targetAmount,
+                                                     int maxIndex,
+                                                     int minIndex) {
         BigDecimal[][] allocationMatrix = initMatrix(segmentCount);
         BigDecimal currentAmount = BigDecimal.ZERO;
 
@@ -342,7 +387,8 @@ public class ColumnWiseAdjustmentServiceImpl implements ColumnWiseAdjustmentServ
                                                     int maxIndex,
                                                     int minIndex) {
         ColumnFillResult result = new ColumnFillResult();
-        BigDecimal[][] working = deepCopy(baseMatrix);
+        // 调用方总是以本轮结果替换 baseMatrix，直接原地填充，避免每轮整矩阵拷贝
+        BigDecimal[][] working = baseMatrix;
         BigDecimal currentAmount = startAmount;
         boolean hasProgress = false;
 
@@ -453,7 +499,7 @@ public class ColumnWiseAdjustmentServiceImpl implements ColumnWiseAdjustmentServ
 
     /**
      * 基于候选方案3，在HG列选择部分区域+1，使得总增量尽量贴近当前余量 remainder。
-     * 这是一个典型的 0-1 背包 / 子集和问题：每个区域的"重量"为该区域 HG 档客户数。
+     * 这是一个典型的 0-1 背包 / 子集和问题：每个区域的"重量"为该区域 HG 档客户数，求解见 {@link SubsetSumSolvers}。
      */
     private HgSubsetCandidate4Result generateHgSubsetCandidate4(BigDecimal[][] baseMatrix,
                                                                 BigDecimal[][] customerMatrix,
@@ -473,17 +519,15 @@ public class ColumnWiseAdjustmentServiceImpl implements ColumnWiseAdjustmentServ
             return null;
         }
 
-        // 预处理每个可选区域的"重量" = HG档客户数，同时统计总重量与最大重量
+        // 预处理每个可选区域的"重量" = HG档客户数，交给子集和求解器
         long[] weights = new long[segmentCount];
         int[] indexMap = new int[segmentCount]; // 有效区域索引 -> 实际segment索引
         int itemCount = 0;
-        long totalWeight = 0L;
-        long maxWeight = 0L;
         boolean[] zeroWeightEligible = new boolean[segmentCount]; // HG客户数为0但可+1且不影响单调性的区域
         for (int s = 0; s < segmentCount; s++) {
             BigDecimal customerCount = customerMatrix[s][maxIndex];
 
-            // HG 客户数为 0 的区域：本轮在 DP 中视为"零权重物品"，不参与子集和搜索，
+            // HG 客户数为 0 的区域：本轮视为"零权重物品"，不参与子集和搜索，
             // 但在构造最终候选方案时会无成本地一起 +1。
             if (customerCount == null || customerCount.compareTo(BigDecimal.ZERO) <= 0) {
                 zeroWeightEligible[s] = true;
@@ -499,69 +543,24 @@ public class ColumnWiseAdjustmentServiceImpl implements ColumnWiseAdjustmentServ
             weights[itemCount] = w;
             indexMap[itemCount] = s;
             itemCount++;
-            totalWeight += w;
-            if (w > maxWeight) {
-                maxWeight = w;
-            }
         }
 
         if (itemCount == 0) {
             return null;
         }
 
-        // DP 容量：覆盖所有正权重区域的总和，确保"整列+1"的组合必然在状态空间内
-        if (totalWeight <= 0 || totalWeight > 10_000_000L) {
-            // 极端情况下放弃DP以避免内存过大，但这种场景下仍有候选4兜底
-            return null;
-        }
-        int capacity = (int) totalWeight;
-
-        boolean[] dp = new boolean[capacity + 1];
-        int[] prevSum = new int[capacity + 1];
-        int[] prevItem = new int[capacity + 1];
-        Arrays.fill(prevItem, -1);
-
-        dp[0] = true;
-        prevSum[0] = -1;
-
-        // 0-1 背包：选出总增量尽量接近（且不超过）remainder 的区域集合
-        for (int i = 0; i < itemCount; i++) {
-            int w = (int) weights[i];
-            for (int s = capacity; s >= w; s--) {
-                if (!dp[s] && dp[s - w]) {
-                    dp[s] = true;
-                    prevSum[s] = s - w;
-                    prevItem[s] = i;
-                }
-            }
-        }
-
-        int bestSum = 0;
-        long bestDiff = Long.MAX_VALUE;
-        for (int s = 1; s <= capacity; s++) {
-            if (dp[s]) {
-                long diff = Math.abs(remainderLong - s);
-                if (diff < bestDiff || (diff == bestDiff && s > bestSum)) {
-                    bestDiff = diff;
-                    bestSum = s;
-                }
-            }
-        }
-        if (bestSum == 0) {
+        // 子集和：选出总增量尽量接近 remainder 的区域集合（按区域数与重量规模选择求解器，内存有上界）
+        SubsetSumResult subset = SubsetSumSolvers.solve(Arrays.copyOf(weights, itemCount), remainderLong);
+        if (subset == null || subset.getSum() <= 0) {
             return null;
         }
+        long bestSum = subset.getSum();
 
-        // 回溯选中的区域集合
         boolean[] chosen = new boolean[segmentCount];
-        int cur = bestSum;
-        while (cur > 0) {
-            int item = prevItem[cur];
-            if (item < 0) {
-                break;
+        for (int item = 0; item < itemCount; item++) {
+            if (subset.isChosen(item)) {
+                chosen[indexMap[item]] = true;
             }
-            int segIndex = indexMap[item];
-            chosen[segIndex] = true;
-            cur = prevSum[cur];
         }
 
         BigDecimal[][] candidate4 = deepCopy(baseMatrix);
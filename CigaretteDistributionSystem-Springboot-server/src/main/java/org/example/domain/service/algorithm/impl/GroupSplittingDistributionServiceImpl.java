@@ -4,23 +4,30 @@ import org.example.domain.model.valueobject.GradeRange;
 import org.example.domain.service.algorithm.ColumnWiseAdjustmentService;
 import org.example.domain.service.algorithm.GroupSplittingDistributionService;
 import org.example.domain.service.algorithm.SingleLevelDistributionService;
+import org.example.domain.service.algorithm.kernel.TargetApportionment;
 
 import java.math.BigDecimal;
-import java.math.MathContext;
 import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 
 /**
  * 多区域带权重分配领域服务实现。
  * <p>
  * 封装了多区域带权重分配的核心算法逻辑，不依赖于Spring框架或持久化层。
- * 该实现复制自 {@link org.example.infrastructure.algorithm.impl.DefaultGroupSplittingDistributionAlgorithm}，
- * 移除了Spring注解和日志依赖，保持算法逻辑完全一致。
+ * 算法只在领域层维护，基础设施层的 {@link org.example.infrastructure.algorithm.impl.DefaultGroupSplittingDistributionAlgorithm} 委托本服务实现。
+ * </p>
+ * <p>
+ * 分组目标量按权重以最大余数法整数拆分（{@link TargetApportionment}），各组目标量之和恰好等于总目标量；
+ * 各组相互独立，提供 {@link ForkJoinPool} 时并行求解，结果按分组首次出现顺序写回，与串行执行逐位一致。
  * </p>
  *
  * @author Robin
@@ -30,15 +37,25 @@ import java.util.function.Function;
 public class GroupSplittingDistributionServiceImpl implements GroupSplittingDistributionService {
 
     private static final int GRADE_COUNT = 30;
-    private static final MathContext MATH_CONTEXT = new MathContext(16, RoundingMode.HALF_UP);
     
     private final SingleLevelDistributionService singleLevelService;
     private final ColumnWiseAdjustmentService columnWiseService;
+    private final ForkJoinPool groupPool;
     
     public GroupSplittingDistributionServiceImpl(SingleLevelDistributionService singleLevelService,
                                                   ColumnWiseAdjustmentService columnWiseService) {
+        this(singleLevelService, columnWiseService, null);
+    }
+
+    /**
+     * @param groupPool 分组并行求解线程池，为 null 或并行度为 1 时串行求解
+     */
+    public GroupSplittingDistributionServiceImpl(SingleLevelDistributionService singleLevelService,
+                                                  ColumnWiseAdjustmentService columnWiseService,
+                                                  ForkJoinPool groupPool) {
         this.singleLevelService = singleLevelService;
         this.columnWiseService = columnWiseService;
+        this.groupPool = groupPool;
     }
 
     @Override
@@ -95,27 +112,89 @@ public class GroupSplittingDistributionServiceImpl implements GroupSplittingDist
             throw new IllegalArgumentException("所有分组权重均为 0，无法拆分目标量");
         }
 
-        BigDecimal[][] finalMatrix = initMatrix(regions.size());
-        for (Map.Entry<String, GroupContext> entry : groups.entrySet()) {
-            String groupId = entry.getKey();
-            GroupContext context = entry.getValue();
-            BigDecimal weight = weights.get(groupId);
-            BigDecimal groupTarget = roundToWholeNumber(
-                    normalizedTarget.multiply(weight.divide(totalWeight, MATH_CONTEXT)));
+        List<GroupContext> contexts = new ArrayList<>(groups.values());
+        BigDecimal[] groupWeights = new BigDecimal[contexts.size()];
+        int index = 0;
+        for (String groupId : groups.keySet()) {
+            groupWeights[index++] = weights.get(groupId);
+        }
+        long[] groupTargets = TargetApportionment.largestRemainder(normalizedTarget.longValueExact(), groupWeights);
 
-            BigDecimal[][] groupMatrix = extractSubMatrix(context.indices(), customerMatrix);
-            List<String> groupRegions = extractGroupRegions(context.indices(), regions);
-            // 传递 GradeRange 给内部算法
-            BigDecimal[][] groupAllocation = runStandaloneAlgorithm(groupRegions, groupMatrix, groupTarget, range);
-            copyGroupResult(groupAllocation, context.indices(), finalMatrix);
+        List<BigDecimal[][]> groupAllocations = solveGroups(contexts, groupTargets, regions, customerMatrix, range);
+        BigDecimal[][] finalMatrix = initMatrix(regions.size());
+        for (int g = 0; g < contexts.size(); g++) {
+            copyGroupResult(groupAllocations.get(g), contexts.get(g).indices(), finalMatrix);
         }
 
         return finalMatrix;
     }
 
+    /**
+     * 求解各分组的分配矩阵，结果顺序与 contexts 一致。
+     * <p>
+     * 并行时第一个分组由调用线程计算，其余提交到分组线程池；按分组顺序等待结果，
+     * 异常按分组顺序原样抛出，与串行执行一致。
+     * </p>
+     */
+    private List<BigDecimal[][]> solveGroups(List<GroupContext> contexts,
+                                             long[] groupTargets,
+                                             List<String> regions,
+                                             BigDecimal[][] customerMatrix,
+                                             GradeRange range) {
+        List<BigDecimal[][]> results = new ArrayList<>(contexts.size());
+        if (groupPool == null || groupPool.getParallelism() <= 1 || contexts.size() <= 1) {
+            for (int g = 0; g < contexts.size(); g++) {
+                results.add(solveGroup(contexts.get(g), groupTargets[g], regions, customerMatrix, range));
+            }
+            return results;
+        }
+
+        List<Future<BigDecimal[][]>> futures = new ArrayList<>(contexts.size() - 1);
+        for (int g = 1; g < contexts.size(); g++) {
+            GroupContext context = contexts.get(g);
+            long groupTarget = groupTargets[g];
+            futures.add(groupPool.submit(() -> solveGroup(context, groupTarget, regions, customerMatrix, range)));
+        }
+        try {
+            results.add(solveGroup(contexts.get(0), groupTargets[0], regions, customerMatrix, range));
+            for (Future<BigDecimal[][]> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("分组分配计算失败", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待分组分配结果时被中断", e);
+        } finally {
+            for (Future<BigDecimal[][]> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private BigDecimal[][] solveGroup(GroupContext context,
+                                      long groupTarget,
+                                      List<String> regions,
+                                      BigDecimal[][] customerMatrix,
+                                      GradeRange range) {
+        BigDecimal[][] groupMatrix = extractSubMatrix(context.indices(), customerMatrix);
+        List<String> groupRegions = extractGroupRegions(context.indices(), regions);
+        // 传递 GradeRange 给内部算法
+        return runStandaloneAlgorithm(groupRegions, groupMatrix, BigDecimal.valueOf(groupTarget), range);
+    }
+
     private Map<String, GroupContext> buildGroups(List<String> regions,
                                                   Function<String, String> groupingFunction) {
-        Map<String, GroupContext> groups = new HashMap<>();
+        // 按分组首次出现顺序排列，保证目标量拆分与结果写回顺序确定
+        Map<String, GroupContext> groups = new LinkedHashMap<>();
         for (int i = 0; i < regions.size(); i++) {
             String region = regions.get(i);
             String groupId = groupingFunction.apply(region);
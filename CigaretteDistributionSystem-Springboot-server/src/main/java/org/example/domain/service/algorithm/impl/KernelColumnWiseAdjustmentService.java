@@ -0,0 +1,55 @@
+package org.example.domain.service.algorithm.impl;
+
+import org.example.domain.model.valueobject.GradeRange;
+import org.example.domain.service.algorithm.ColumnWiseAdjustmentService;
+import org.example.domain.service.algorithm.kernel.ColumnWiseKernel;
+import org.example.domain.service.algorithm.kernel.KernelMatrices;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 多区域无权重分配领域服务的原始类型内核适配。
+ * <p>
+ * 输入可无损转换为 long 时由 {@link ColumnWiseKernel} 计算，否则以及计算溢出时回退到 BigDecimal 实现；
+ * 结果与 {@link ColumnWiseAdjustmentServiceImpl} 逐位一致（区域在档位范围内客户数全为0时同样抛出 {@link IllegalStateException}）。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+public class KernelColumnWiseAdjustmentService implements ColumnWiseAdjustmentService {
+
+    private static final int GRADE_COUNT = 30;
+
+    private final ColumnWiseAdjustmentService fallback;
+
+    public KernelColumnWiseAdjustmentService(ColumnWiseAdjustmentService fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public BigDecimal[][] distribute(List<String> segments,
+                                     BigDecimal[][] customerMatrix,
+                                     BigDecimal targetAmount,
+                                     GradeRange gradeRange,
+                                     Comparator<Integer> segmentComparator) {
+        if (segments == null || segments.isEmpty()
+                || customerMatrix == null
+                || targetAmount == null
+                || targetAmount.compareTo(BigDecimal.ZERO) <= 0) {
+            return new BigDecimal[0][0];
+        }
+        Long target = KernelMatrices.toLongTarget(targetAmount);
+        long[][] customers = KernelMatrices.toLongMatrix(customerMatrix, GRADE_COUNT);
+        if (target == null || customers == null || customers.length != segments.size()) {
+            return fallback.distribute(segments, customerMatrix, targetAmount, gradeRange, segmentComparator);
+        }
+        try {
+            return KernelMatrices.toDecimalMatrix(ColumnWiseKernel.distribute(customers, target, gradeRange));
+        } catch (ArithmeticException ex) {
+            return fallback.distribute(segments, customerMatrix, targetAmount, gradeRange, segmentComparator);
+        }
+    }
+}
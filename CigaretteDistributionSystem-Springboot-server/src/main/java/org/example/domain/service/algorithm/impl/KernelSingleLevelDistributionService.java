@@ -0,0 +1,58 @@
+package org.example.domain.service.algorithm.impl;
+
+import org.example.domain.model.valueobject.GradeRange;
+import org.example.domain.service.algorithm.SingleLevelDistributionService;
+import org.example.domain.service.algorithm.kernel.KernelMatrices;
+import org.example.domain.service.algorithm.kernel.SingleLevelKernel;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 单层区域分配领域服务的原始类型内核适配。
+ * <p>
+ * 输入可无损转换为 long（客户数为非负整数、目标量为正整数）时由 {@link SingleLevelKernel} 计算，
+ * 否则以及计算溢出时回退到 BigDecimal 实现；结果与 {@link SingleLevelDistributionServiceImpl} 逐位一致。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+public class KernelSingleLevelDistributionService implements SingleLevelDistributionService {
+
+    private final SingleLevelDistributionService fallback;
+
+    public KernelSingleLevelDistributionService(SingleLevelDistributionService fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public BigDecimal[][] distribute(List<String> targetRegions,
+                                     BigDecimal[][] regionCustomerMatrix,
+                                     BigDecimal targetAmount,
+                                     GradeRange gradeRange) {
+        Long target = KernelMatrices.toLongTarget(targetAmount);
+        if (targetRegions == null || targetRegions.size() != 1
+                || regionCustomerMatrix == null || regionCustomerMatrix.length != 1
+                || target == null) {
+            return fallback.distribute(targetRegions, regionCustomerMatrix, targetAmount, gradeRange);
+        }
+        GradeRange range = gradeRange != null ? gradeRange : GradeRange.full();
+        long[] customers = KernelMatrices.toLongRow(regionCustomerMatrix[0]);
+        if (customers == null || range.getMinIndex() >= customers.length) {
+            return fallback.distribute(targetRegions, regionCustomerMatrix, targetAmount, gradeRange);
+        }
+        try {
+            long[] allocation = SingleLevelKernel.distribute(customers, target, range.getMaxIndex(), range.getMinIndex());
+            return new BigDecimal[][]{KernelMatrices.toDecimalRow(allocation)};
+        } catch (ArithmeticException ex) {
+            return fallback.distribute(targetRegions, regionCustomerMatrix, targetAmount, gradeRange);
+        } catch (RuntimeException ex) {
+            // 与 BigDecimal 实现一致：单区域分配失败时返回全0分配
+            BigDecimal[] row = new BigDecimal[customers.length];
+            Arrays.fill(row, BigDecimal.ZERO);
+            return new BigDecimal[][]{row};
+        }
+    }
+}
@@ -2,6 +2,8 @@ package org.example.domain.service.algorithm.impl;
 
 import org.example.domain.model.valueobject.GradeRange;
 import org.example.domain.service.algorithm.PriceBandTruncationService;
+import org.example.domain.service.algorithm.kernel.KernelMatrices;
+import org.example.domain.service.algorithm.kernel.PriceBandAdjustmentKernel;
 import org.example.shared.constants.GradeConstants;
 import org.example.shared.util.ActualDeliveryCalculator;
 import org.example.shared.util.WriteBackHelper;
@@ -16,6 +18,11 @@ import java.util.Map;
  * <p>
  * 纯领域逻辑，不含 Spring 依赖，可独立测试。
  * </p>
+ * <p>
+ * 误差微调默认由 {@link PriceBandAdjustmentKernel} 增量计算：每个价位段只将客户数转换为 long 一次，
+ * 每支卷烟按前缀和直接求出各档位增量；分配值、目标量或客户数无法无损转换为 long（小数、负数、null 档位）
+ * 或计算溢出时，回退到原逐轮 BigDecimal 微调。
+ * </p>
  *
  * @author Robin
  * @since 2025-12-22
@@ -24,6 +31,19 @@ public class PriceBandTruncationServiceImpl implements PriceBandTruncationServic
 
     private static final int MAX_ITERATIONS = 10_000_000;
 
+    private final boolean incrementalAdjustment;
+
+    public PriceBandTruncationServiceImpl() {
+        this(true);
+    }
+
+    /**
+     * @param incrementalAdjustment true 时误差微调使用 long 增量内核，false 时使用原逐轮 BigDecimal 实现
+     */
+    public PriceBandTruncationServiceImpl(boolean incrementalAdjustment) {
+        this.incrementalAdjustment = incrementalAdjustment;
+    }
+
     @Override
     public void truncateAndAdjust(Map<Integer, List<Map<String, Object>>> bandsNeedingTruncation,
                                   BigDecimal[] cityCustomerRow,
@@ -234,6 +254,10 @@ public class PriceBandTruncationServiceImpl implements PriceBandTruncationServic
             return;
         }
 
+        // 客户数每个价位段只转换一次
+        long[] baseCustomers = incrementalAdjustment ? toKernelCustomers(baseCustomerRow) : null;
+        long[] boostedCustomers = incrementalAdjustment ? toKernelCustomers(boostedCustomerRow) : null;
+
         for (Map<String, Object> row : group) {
             BigDecimal[] grades = (BigDecimal[]) row.get("GRADES");
             if (grades == null || grades.length == 0) {
@@ -248,49 +272,109 @@ public class PriceBandTruncationServiceImpl implements PriceBandTruncationServic
             // 根据备注选择客户数数组
             String remark = WriteBackHelper.getString(row, "BZ");
             boolean needsBoost = remark != null && remark.contains("两周一访上浮100%");
-            BigDecimal[] cityCustomerRow = (needsBoost && boostedCustomerRow != null) ? boostedCustomerRow : baseCustomerRow;
+            boolean useBoosted = needsBoost && boostedCustomerRow != null;
+            BigDecimal[] cityCustomerRow = useBoosted ? boostedCustomerRow : baseCustomerRow;
 
-            BigDecimal currentAmount = ActualDeliveryCalculator.calculateFixed30(grades, cityCustomerRow);
-            if (currentAmount.compareTo(target) >= 0) {
+            long[] customers = useBoosted ? boostedCustomers : baseCustomers;
+            if (customers != null && adjustIncrementally(grades, customers, target, maxIndex, cutoffIndex)) {
                 continue;
             }
+            adjustIteratively(grades, cityCustomerRow, target, maxIndex, cutoffIndex);
+        }
+    }
 
-            BigDecimal maxGradeCustomerCount = cityCustomerRow[maxIndex] != null
-                    ? cityCustomerRow[maxIndex]
-                    : BigDecimal.ZERO;
+    /**
+     * 使用 long 增量内核微调单支卷烟，结果与 {@link #adjustIteratively} 一致。
+     *
+     * @return 是否已完成微调；输入无法无损转换或计算溢出时返回 false（grades 未被修改）
+     */
+    private boolean adjustIncrementally(BigDecimal[] grades, long[] customers, BigDecimal target,
+                                        int maxIndex, int cutoffIndex) {
+        if (grades.length != GradeConstants.GRADE_COUNT) {
+            return false;
+        }
+        for (int grade = maxIndex; grade <= cutoffIndex && grade < grades.length; grade++) {
+            if (grades[grade] == null) {
+                return false;
+            }
+        }
+        long[] currentGrades = KernelMatrices.toLongRow(grades);
+        Long longTarget = KernelMatrices.toLongTarget(target);
+        if (currentGrades == null || longTarget == null) {
+            return false;
+        }
+        long[] deltas;
+        try {
+            deltas = PriceBandAdjustmentKernel.increments(currentGrades, customers, longTarget, maxIndex, cutoffIndex);
+        } catch (ArithmeticException | IllegalArgumentException ex) {
+            return false;
+        }
+        for (int grade = 0; grade < deltas.length; grade++) {
+            if (deltas[grade] != 0) {
+                grades[grade] = grades[grade].add(BigDecimal.valueOf(deltas[grade]));
+            }
+        }
+        return true;
+    }
 
-            // 迭代微调
-            int refineIterations = 0;
-            while (true) {
-                if (++refineIterations > MAX_ITERATIONS) {
-                    break;
-                }
+    private long[] toKernelCustomers(BigDecimal[] customerRow) {
+        if (customerRow == null || customerRow.length != GradeConstants.GRADE_COUNT) {
+            return null;
+        }
+        return KernelMatrices.toLongRow(customerRow);
+    }
 
-                BigDecimal remainder = target.subtract(currentAmount);
+    /**
+     * 原逐轮 BigDecimal 误差微调：从 maxIndex→cutoffIndex 逐档位+1，直到实际投放量逼近目标值。
+     *
+     * @param grades          分配方案数组（会被原地修改）
+     * @param cityCustomerRow 该卷烟使用的客户数数组
+     * @param target          目标投放量
+     * @param maxIndex        最高档位索引（如 D30=0）
+     * @param cutoffIndex     截断点索引
+     */
+    private void adjustIteratively(BigDecimal[] grades, BigDecimal[] cityCustomerRow, BigDecimal target,
+                                   int maxIndex, int cutoffIndex) {
+        BigDecimal currentAmount = ActualDeliveryCalculator.calculateFixed30(grades, cityCustomerRow);
+        if (currentAmount.compareTo(target) >= 0) {
+            return;
+        }
 
-                // 终止条件：余量 < maxIndex客户数
-                if (remainder.compareTo(maxGradeCustomerCount) < 0) {
-                    handleFinalAdjustment(grades, cityCustomerRow, target, currentAmount, maxIndex, maxGradeCustomerCount);
-                    break;
-                }
+        BigDecimal maxGradeCustomerCount = cityCustomerRow[maxIndex] != null
+                ? cityCustomerRow[maxIndex]
+                : BigDecimal.ZERO;
 
-                // 执行一轮 maxIndex→cutoffIndex 填充
-                FillResult result = runFillIteration(grades, cityCustomerRow, target, maxIndex, cutoffIndex, currentAmount);
+        // 迭代微调
+        int refineIterations = 0;
+        while (true) {
+            if (++refineIterations > MAX_ITERATIONS) {
+                break;
+            }
 
-                if (!result.progressMade) {
-                    break;
-                }
+            BigDecimal remainder = target.subtract(currentAmount);
 
-                if (result.hitExactTarget) {
-                    break;
-                }
+            // 终止条件：余量 < maxIndex客户数
+            if (remainder.compareTo(maxGradeCustomerCount) < 0) {
+                handleFinalAdjustment(grades, cityCustomerRow, target, currentAmount, maxIndex, maxGradeCustomerCount);
+                break;
+            }
 
-                if (result.exceeded) {
-                    grades[result.lastGrade] = grades[result.lastGrade].subtract(BigDecimal.ONE);
-                    currentAmount = result.amount.subtract(result.lastIncrement);
-                } else {
-                    currentAmount = result.amount;
-                }
+            // 执行一轮 maxIndex→cutoffIndex 填充
+            FillResult result = runFillIteration(grades, cityCustomerRow, target, maxIndex, cutoffIndex, currentAmount);
+
+            if (!result.progressMade) {
+                break;
+            }
+
+            if (result.hitExactTarget) {
+                break;
+            }
+
+            if (result.exceeded) {
+                grades[result.lastGrade] = grades[result.lastGrade].subtract(BigDecimal.ONE);
+                currentAmount = result.amount.subtract(result.lastIncrement);
+            } else {
+                currentAmount = result.amount;
             }
         }
     }
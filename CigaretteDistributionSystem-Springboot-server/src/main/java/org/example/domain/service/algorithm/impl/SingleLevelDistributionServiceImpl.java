@@ -11,8 +11,7 @@ import java.util.List;
  * 单层区域分配领域服务实现
  * <p>
  * 纯领域逻辑，不含Spring依赖，可独立测试。
- * 该实现复制自 {@link org.example.infrastructure.algorithm.impl.DefaultSingleLevelDistributionAlgorithm}，
- * 移除了Spring注解和日志依赖，保持算法逻辑完全一致。
+ * 算法只在领域层维护，基础设施层的 {@link org.example.infrastructure.algorithm.impl.DefaultSingleLevelDistributionAlgorithm} 委托本服务实现。
  * </p>
  *
  * @author Robin
@@ -0,0 +1,92 @@
+package org.example.domain.service.algorithm.kernel;
+
+/**
+ * 多区域整列调整粗调阶段的闭式内核。
+ * <p>
+ * 原粗调从全0矩阵出发，按 HG→LG 逐档位整列+1，直到再加一列会超出目标（恰好等于目标时加上后返回）。
+ * 粗调全程每一列在所有区域上取值相同，结果只取决于各档位列的客户数总和：
+ * <ul>
+ *   <li>整轮数 = (目标 - 1) / 范围内列和总数，由除法直接得到；</li>
+ *   <li>最后一轮的填充终点在档位列前缀和上二分查找：第一个使累计量达到目标的档位，
+ *       恰好等于目标时包含该档位，否则不包含。</li>
+ * </ul>
+ * 返回每个档位的整列取值（{@code long[]} 工作缓冲），与原逐列实现逐位一致。
+ * </p>
+ * <p>
+ * 前置条件：列和非负；目标量为正。数值溢出时抛出 {@link ArithmeticException}，调用方应回退到 BigDecimal 实现。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+public final class ColumnWiseCoarseKernel {
+
+    private ColumnWiseCoarseKernel() {
+    }
+
+    /**
+     * 计算粗调（候选方案1）的各档位整列取值。
+     *
+     * @param columnSums 各档位列客户数总和（索引0对应D30），不可含负数
+     * @param target     目标投放量（正整数）
+     * @param maxIndex   HG 索引
+     * @param minIndex   LG 索引
+     * @return 各档位整列取值（与 columnSums 等长，范围外为0）
+     * @throws IllegalStateException    范围内列和全部为0
+     * @throws IllegalArgumentException 档位范围越界、列和为负或目标量非正
+     * @throws ArithmeticException      计算溢出 long
+     */
+    public static long[] coarseLevels(long[] columnSums, long target, int maxIndex, int minIndex) {
+        if (maxIndex < 0 || minIndex >= columnSums.length || maxIndex > minIndex) {
+            throw new IllegalArgumentException("档位范围越界: maxIndex=" + maxIndex + ", minIndex=" + minIndex);
+        }
+        if (target <= 0) {
+            throw new IllegalArgumentException("目标量必须为正: " + target);
+        }
+
+        // 范围内前缀和：prefix[k] = columnSums[maxIndex] + ... + columnSums[maxIndex + k]
+        long[] prefix = new long[minIndex - maxIndex + 1];
+        long running = 0;
+        for (int k = 0; k < prefix.length; k++) {
+            long sum = columnSums[maxIndex + k];
+            if (sum < 0) {
+                throw new IllegalArgumentException("列客户数总和不可为负: index=" + (maxIndex + k));
+            }
+            running = Math.addExact(running, sum);
+            prefix[k] = running;
+        }
+        long roundSum = running;
+        if (roundSum == 0) {
+            throw new IllegalStateException("ColumnWise 粗调失败：档位范围内各列客户数总和全部为0");
+        }
+
+        long fullRounds = (target - 1) / roundSum;
+        long base = Math.multiplyExact(fullRounds, roundSum);
+        int k = firstReaching(prefix, base, target);
+        // 恰好等于目标时包含档位 k，否则最后一次整列+1停在 k 之前
+        int lastFilled = base + prefix[k] == target ? maxIndex + k : maxIndex + k - 1;
+
+        long[] levels = new long[columnSums.length];
+        for (int grade = maxIndex; grade <= minIndex; grade++) {
+            levels[grade] = grade <= lastFilled ? fullRounds + 1 : fullRounds;
+        }
+        return levels;
+    }
+
+    /**
+     * 在前缀和上二分查找第一个满足 base + prefix[k] >= threshold 的位置。
+     */
+    private static int firstReaching(long[] prefix, long base, long threshold) {
+        int low = 0;
+        int high = prefix.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (base + prefix[mid] >= threshold) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+}
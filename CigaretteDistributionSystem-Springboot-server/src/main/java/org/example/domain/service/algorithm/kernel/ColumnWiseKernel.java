@@ -0,0 +1,307 @@
+package org.example.domain.service.algorithm.kernel;
+
+import org.example.domain.model.valueobject.GradeRange;
+import org.example.domain.service.algorithm.subset.SubsetSumResult;
+import org.example.domain.service.algorithm.subset.SubsetSumSolvers;
+
+import java.util.Arrays;
+
+/**
+ * 多区域整列调整原始类型内核。
+ * <p>
+ * 与 {@link org.example.domain.service.algorithm.impl.ColumnWiseAdjustmentServiceImpl} 结果逐位一致，
+ * 但全部在 {@code long[][]} 上计算：
+ * <ul>
+ *   <li>粗调：由 {@link ColumnWiseCoarseKernel} 按档位列和闭式求出；</li>
+ *   <li>回撤、迭代微调与候选方案3~5的生成、选择规则保持不变，整列增量由预先计算的列和给出；</li>
+ *   <li>微调中某一轮只加入了导致超出的那一列（撤销后矩阵不变）时，后续每轮都会重复同一状态直到 1e7 迭代上限，
+ *       此时直接结束微调，结果与跑满上限一致。</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 前置条件：客户数非负；目标量为正。数值溢出时抛出 {@link ArithmeticException}，调用方应回退到 BigDecimal 实现。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+public final class ColumnWiseKernel {
+
+    /** 与原实现一致的微调迭代上限 */
+    static final long ITERATION_LIMIT = 10_000_000L;
+
+    private ColumnWiseKernel() {
+    }
+
+    /**
+     * 计算多区域整列调整分配方案。
+     *
+     * @param customers  客户数矩阵 [segmentCount][gradeCount]（索引0对应D30），不可含负数
+     * @param target     目标投放量（正整数）
+     * @param gradeRange 档位范围，为 null 时使用默认范围（D30-D1）
+     * @return 分配矩阵（与 customers 同维度，范围外为0）
+     * @see #distribute(long[][], long, int, int)
+     */
+    public static long[][] distribute(long[][] customers, long target, GradeRange gradeRange) {
+        GradeRange range = gradeRange != null ? gradeRange : GradeRange.full();
+        return distribute(customers, target, range.getMaxIndex(), range.getMinIndex());
+    }
+
+    /**
+     * 计算多区域整列调整分配方案。
+     *
+     * @param customers 客户数矩阵 [segmentCount][gradeCount]（索引0对应D30），不可含负数
+     * @param target    目标投放量（正整数）
+     * @param maxIndex  HG 索引
+     * @param minIndex  LG 索引
+     * @return 分配矩阵（与 customers 同维度，范围外为0）
+     * @throws IllegalStateException    某一区域在档位范围内客户数全部为0
+     * @throws IllegalArgumentException 矩阵为空、列数不一致、档位范围越界、客户数为负或目标量非正
+     * @throws ArithmeticException      计算溢出 long
+     */
+    public static long[][] distribute(long[][] customers, long target, int maxIndex, int minIndex) {
+        if (customers.length == 0) {
+            throw new IllegalArgumentException("客户矩阵不能为空");
+        }
+        int gradeCount = customers[0].length;
+        if (maxIndex < 0 || minIndex >= gradeCount || maxIndex > minIndex) {
+            throw new IllegalArgumentException("档位范围越界: maxIndex=" + maxIndex + ", minIndex=" + minIndex);
+        }
+        if (target <= 0) {
+            throw new IllegalArgumentException("目标量必须为正: " + target);
+        }
+        long[] columnSums = new long[gradeCount];
+        for (int r = 0; r < customers.length; r++) {
+            long[] row = customers[r];
+            if (row.length != gradeCount) {
+                throw new IllegalArgumentException("客户矩阵列数必须为 " + gradeCount);
+            }
+            boolean allZero = true;
+            for (int g = maxIndex; g <= minIndex; g++) {
+                if (row[g] < 0) {
+                    throw new IllegalArgumentException("客户数不可为负: segment=" + r + ", index=" + g);
+                }
+                if (row[g] > 0) {
+                    allZero = false;
+                }
+                columnSums[g] = Math.addExact(columnSums[g], row[g]);
+            }
+            if (allZero) {
+                throw new IllegalStateException(
+                        "ColumnWise 分配失败：区域索引 " + r + " 在档位范围内客户数全部为0，已停止本卷烟分配以避免死循环");
+            }
+        }
+
+        // 1. 粗调（候选方案1）：各列在所有区域上取值相同
+        long[] levels = ColumnWiseCoarseKernel.coarseLevels(columnSums, target, maxIndex, minIndex);
+        long[][] candidate1 = new long[customers.length][];
+        long amount1 = 0;
+        for (int g = maxIndex; g <= minIndex; g++) {
+            amount1 = Math.addExact(amount1, Math.multiplyExact(levels[g], columnSums[g]));
+        }
+        for (int s = 0; s < customers.length; s++) {
+            candidate1[s] = levels.clone();
+        }
+        if (amount1 == target) {
+            return candidate1;
+        }
+        long error1 = Math.abs(target - amount1);
+
+        // 2. 撤销粗调最后一次整列+1（候选方案2）
+        long[][] candidate2 = deepCopy(candidate1);
+        long currentAmount = amount1;
+        for (int grade = minIndex; grade >= maxIndex; grade--) {
+            if (allPositive(candidate2, grade) && currentAmount - columnSums[grade] <= target) {
+                addColumn(candidate2, grade, -1);
+                currentAmount -= columnSums[grade];
+                break;
+            }
+        }
+
+        // 3. 迭代微调（候选方案3、4、5）
+        long[][] candidate3 = null;
+        long[][] candidate4 = null;
+        long[][] candidate5 = null;
+        long error3 = 0;
+        long error4 = 0;
+        long error5 = 0;
+        long hgColumnIncrement = columnSums[maxIndex];
+        long refineIterations = 0;
+
+        while (true) {
+            if (++refineIterations > ITERATION_LIMIT) {
+                break;
+            }
+            long remainder = target - currentAmount;
+            if (hgColumnIncrement > 0 && remainder < hgColumnIncrement) {
+                candidate3 = deepCopy(candidate2);
+                error3 = Math.abs(remainder);
+                if (canIncrementColumn(candidate2, maxIndex)) {
+                    candidate4 = deepCopy(candidate2);
+                    addColumn(candidate4, maxIndex, 1);
+                    error4 = Math.abs(target - Math.addExact(currentAmount, hgColumnIncrement));
+                }
+                HgSubsetCandidate subset = generateHgSubsetCandidate(candidate3, customers, remainder, maxIndex);
+                if (subset != null) {
+                    candidate5 = subset.matrix;
+                    error5 = Math.abs(target - Math.addExact(currentAmount, subset.sum));
+                }
+                break;
+            }
+
+            // 一轮 HG→LG 整列填充（原地），直到刚好超过或等于目标
+            long amount = currentAmount;
+            long increments = 0;
+            int exceededGrade = -1;
+            boolean hitExactTarget = false;
+            fill:
+            while (true) {
+                boolean roundProgress = false;
+                for (int grade = maxIndex; grade <= minIndex; grade++) {
+                    if (!canIncrementColumn(candidate2, grade)) {
+                        continue;
+                    }
+                    addColumn(candidate2, grade, 1);
+                    increments++;
+                    roundProgress = true;
+                    long newAmount = Math.addExact(amount, columnSums[grade]);
+                    if (newAmount > target) {
+                        exceededGrade = grade;
+                        break fill;
+                    }
+                    amount = newAmount;
+                    if (newAmount == target) {
+                        hitExactTarget = true;
+                        break fill;
+                    }
+                }
+                if (!roundProgress) {
+                    break;
+                }
+            }
+
+            if (increments == 0) {
+                break;
+            }
+            currentAmount = amount;
+            if (hitExactTarget) {
+                candidate3 = deepCopy(candidate2);
+                error3 = 0;
+                break;
+            }
+            if (exceededGrade >= 0) {
+                addColumn(candidate2, exceededGrade, -1);
+                if (increments == 1) {
+                    // 撤销后矩阵与本轮开始时相同，之后每轮都会重复，等价于跑满迭代上限
+                    break;
+                }
+            }
+        }
+        long error2 = Math.abs(target - currentAmount);
+
+        // 4. 方案选择：误差最小，误差相同时选择编号较大的方案
+        long[][] best = candidate1;
+        long bestError = error1;
+        if (error2 <= bestError) {
+            best = candidate2;
+            bestError = error2;
+        }
+        if (candidate3 != null && error3 <= bestError) {
+            best = candidate3;
+            bestError = error3;
+        }
+        if (candidate4 != null && error4 <= bestError) {
+            best = candidate4;
+            bestError = error4;
+        }
+        if (candidate5 != null && error5 <= bestError) {
+            best = candidate5;
+        }
+        return best;
+    }
+
+    /**
+     * 基于候选方案3在 HG 列选择部分区域+1，使总增量尽量贴近余量（子集和）；HG 客户数为0的区域无成本地一起+1。
+     */
+    private static HgSubsetCandidate generateHgSubsetCandidate(long[][] base, long[][] customers,
+                                                               long remainder, int maxIndex) {
+        if (remainder <= 0) {
+            return null;
+        }
+        int segmentCount = base.length;
+        long[] weights = new long[segmentCount];
+        int[] indexMap = new int[segmentCount];
+        int itemCount = 0;
+        for (int s = 0; s < segmentCount; s++) {
+            if (customers[s][maxIndex] > 0) {
+                weights[itemCount] = customers[s][maxIndex];
+                indexMap[itemCount++] = s;
+            }
+        }
+        if (itemCount == 0) {
+            return null;
+        }
+        SubsetSumResult subset = SubsetSumSolvers.solve(Arrays.copyOf(weights, itemCount), remainder);
+        if (subset == null || subset.getSum() <= 0) {
+            return null;
+        }
+
+        long[][] matrix = deepCopy(base);
+        for (int item = 0; item < itemCount; item++) {
+            if (subset.isChosen(item)) {
+                matrix[indexMap[item]][maxIndex]++;
+            }
+        }
+        for (int s = 0; s < segmentCount; s++) {
+            if (customers[s][maxIndex] == 0) {
+                matrix[s][maxIndex]++;
+            }
+        }
+        return new HgSubsetCandidate(matrix, subset.getSum());
+    }
+
+    private static boolean canIncrementColumn(long[][] matrix, int grade) {
+        if (grade == 0) {
+            return true;
+        }
+        for (long[] row : matrix) {
+            if (row[grade - 1] < row[grade] + 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean allPositive(long[][] matrix, int grade) {
+        for (long[] row : matrix) {
+            if (row[grade] <= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void addColumn(long[][] matrix, int grade, long delta) {
+        for (long[] row : matrix) {
+            row[grade] += delta;
+        }
+    }
+
+    private static long[][] deepCopy(long[][] original) {
+        long[][] copy = new long[original.length][];
+        for (int i = 0; i < original.length; i++) {
+            copy[i] = original[i].clone();
+        }
+        return copy;
+    }
+
+    private static final class HgSubsetCandidate {
+        private final long[][] matrix;
+        private final long sum;
+
+        private HgSubsetCandidate(long[][] matrix, long sum) {
+            this.matrix = matrix;
+            this.sum = sum;
+        }
+    }
+}
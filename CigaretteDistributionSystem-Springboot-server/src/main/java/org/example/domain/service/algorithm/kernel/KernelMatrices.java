@@ -0,0 +1,110 @@
+package org.example.domain.service.algorithm.kernel;
+
+import java.math.BigDecimal;
+
+/**
+ * 分配内核与 BigDecimal 矩阵之间的转换。
+ * <p>
+ * 内核只接受非负整数客户数与正整数目标量；转换有损（小数、负数、超出 long、行为 null 或列数不符）时返回 null，
+ * 调用方应回退到 BigDecimal 实现。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+public final class KernelMatrices {
+
+    private KernelMatrices() {
+    }
+
+    /**
+     * 将客户数行转换为 long[]（null 视为0）。
+     *
+     * @param row 客户数行
+     * @return long 数组；行为空或存在小数、负数、超出 long 范围时返回 null
+     */
+    public static long[] toLongRow(BigDecimal[] row) {
+        if (row == null || row.length == 0) {
+            return null;
+        }
+        long[] values = new long[row.length];
+        for (int i = 0; i < row.length; i++) {
+            BigDecimal value = row[i];
+            if (value == null) {
+                continue;
+            }
+            if (value.signum() < 0) {
+                return null;
+            }
+            try {
+                values[i] = value.longValueExact();
+            } catch (ArithmeticException ex) {
+                return null;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 将客户数矩阵转换为 long[][]，要求每行列数均为 columns。
+     *
+     * @param matrix  客户数矩阵
+     * @param columns 期望列数
+     * @return long 矩阵；任一行无法无损转换或列数不符时返回 null
+     */
+    public static long[][] toLongMatrix(BigDecimal[][] matrix, int columns) {
+        if (matrix == null) {
+            return null;
+        }
+        long[][] values = new long[matrix.length][];
+        for (int r = 0; r < matrix.length; r++) {
+            if (matrix[r] == null || matrix[r].length != columns) {
+                return null;
+            }
+            values[r] = toLongRow(matrix[r]);
+            if (values[r] == null) {
+                return null;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 将目标量转换为 long。
+     *
+     * @param amount 目标量
+     * @return 正整数目标量；为空、非正、含小数或超出 long 范围时返回 null
+     */
+    public static Long toLongTarget(BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0) {
+            return null;
+        }
+        try {
+            return amount.longValueExact();
+        } catch (ArithmeticException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * 将分配结果转换回 BigDecimal 行。
+     */
+    public static BigDecimal[] toDecimalRow(long[] row) {
+        BigDecimal[] values = new BigDecimal[row.length];
+        for (int i = 0; i < row.length; i++) {
+            values[i] = row[i] == 0 ? BigDecimal.ZERO : BigDecimal.valueOf(row[i]);
+        }
+        return values;
+    }
+
+    /**
+     * 将分配结果转换回 BigDecimal 矩阵。
+     */
+    public static BigDecimal[][] toDecimalMatrix(long[][] matrix) {
+        BigDecimal[][] values = new BigDecimal[matrix.length][];
+        for (int r = 0; r < matrix.length; r++) {
+            values[r] = toDecimalRow(matrix[r]);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,121 @@
+package org.example.domain.service.algorithm.kernel;
+
+/**
+ * 价位段截断后单支卷烟误差微调的原始类型内核。
+ * <p>
+ * 与 {@link org.example.domain.service.algorithm.impl.PriceBandTruncationServiceImpl} 的逐轮微调结果逐位一致：
+ * 每轮从 maxIndex 向 cutoffIndex 逐档位+1，超出目标时撤销最后一档，余量小于 maxIndex 客户数时比较是否再对
+ * maxIndex+1。内核以 long 维护当前投放量，并在档位客户数前缀和上二分查找每轮的超出位置；
+ * 超出位置相同的连续多轮一次性累加，每支卷烟至多处理 30 段。
+ * </p>
+ * <p>
+ * 前置条件：客户数与分配值非负。数值溢出时抛出 {@link ArithmeticException}，调用方应回退到 BigDecimal 实现。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+public final class PriceBandAdjustmentKernel {
+
+    /** 与原实现一致的微调迭代上限 */
+    static final long ITERATION_LIMIT = 10_000_000L;
+
+    private PriceBandAdjustmentKernel() {
+    }
+
+    /**
+     * 计算误差微调在各档位上的增量。
+     *
+     * @param grades      当前分配值（截断后）
+     * @param customers   客户数，长度与 grades 相同
+     * @param target      目标投放量
+     * @param maxIndex    最高档位索引
+     * @param cutoffIndex 截断点索引，微调范围为 [maxIndex, cutoffIndex]
+     * @return 各档位增量（与 grades 同长度），当前投放量已达到目标时全为0
+     * @throws IllegalArgumentException 数组长度不一致或 maxIndex 越界
+     * @throws ArithmeticException      计算溢出 long
+     */
+    public static long[] increments(long[] grades, long[] customers, long target, int maxIndex, int cutoffIndex) {
+        int gradeCount = grades.length;
+        if (customers.length != gradeCount) {
+            throw new IllegalArgumentException("客户数数组长度必须为 " + gradeCount);
+        }
+        if (maxIndex < 0 || maxIndex >= gradeCount) {
+            throw new IllegalArgumentException("maxIndex 越界: " + maxIndex);
+        }
+        long amount = 0;
+        for (int g = 0; g < gradeCount; g++) {
+            amount = Math.addExact(amount, Math.multiplyExact(grades[g], customers[g]));
+        }
+        long[] deltas = new long[gradeCount];
+        if (amount >= target) {
+            return deltas;
+        }
+
+        // prefix[g] = customers[maxIndex..g] 之和，即一轮填充到 g 时的累计增量
+        int lastGrade = Math.min(cutoffIndex, gradeCount - 1);
+        long[] prefix = new long[gradeCount];
+        long cumulative = 0;
+        for (int g = maxIndex; g <= lastGrade; g++) {
+            cumulative = Math.addExact(cumulative, customers[g]);
+            prefix[g] = cumulative;
+        }
+
+        long maxGradeCustomers = customers[maxIndex];
+        long budget = ITERATION_LIMIT;
+        while (budget > 0) {
+            long remainder = target - amount;
+            if (remainder < maxGradeCustomers) {
+                // 余量 < maxIndex 客户数：不+1 与 +1 的误差分别为 remainder 与 maxGradeCustomers - remainder
+                if (remainder > maxGradeCustomers - remainder) {
+                    deltas[maxIndex]++;
+                }
+                break;
+            }
+            if (lastGrade < maxIndex) {
+                break;
+            }
+
+            int reaching = firstReaching(prefix, maxIndex, lastGrade, remainder);
+            if (reaching >= 0 && prefix[reaching] == remainder) {
+                addRange(deltas, maxIndex, reaching, 1);
+                break;
+            }
+            // 超出发生在 reaching（撤销后本轮只保留到 reaching-1），或整轮都未超出
+            int filledTo = reaching >= 0 ? reaching - 1 : lastGrade;
+            long step = prefix[filledTo];
+            long rounds = step > 0 ? (remainder - 1) / step : budget;
+            rounds = Math.min(rounds, budget);
+            addRange(deltas, maxIndex, filledTo, rounds);
+            amount += rounds * step;
+            budget -= rounds;
+        }
+        return deltas;
+    }
+
+    /**
+     * 在 [from, to] 上二分查找首个前缀和不小于 value 的档位；不存在时返回 -1。
+     */
+    private static int firstReaching(long[] prefix, int from, int to, long value) {
+        if (prefix[to] < value) {
+            return -1;
+        }
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (prefix[mid] >= value) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private static void addRange(long[] deltas, int from, int to, long value) {
+        for (int g = from; g <= to; g++) {
+            deltas[g] += value;
+        }
+    }
+}
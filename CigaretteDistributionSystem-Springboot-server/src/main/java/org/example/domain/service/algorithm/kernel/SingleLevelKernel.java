@@ -0,0 +1,224 @@
+package org.example.domain.service.algorithm.kernel;
+
+/**
+ * 单层区域分配原始类型内核。
+ * <p>
+ * 与 {@link org.example.domain.service.algorithm.impl.SingleLevelDistributionServiceImpl} 结果逐位一致，
+ * 但全部在 {@code long[]} 上计算：
+ * <ul>
+ *   <li>粗调：HG→LG 逐轮 +1 的过程等价于"整轮数 + 一段前缀"，整轮数由除法直接得到，
+ *       前缀终点在档位前缀和上二分查找（余量补齐）；</li>
+ *   <li>微调：每轮 HG→LG 填充同样以闭式求出，候选方案1~4的生成与选择规则保持不变；</li>
+ *   <li>原实现的 1e7 粗调轮数上限、1e7 微调迭代上限以及 HG=0 时"余量连续100轮不变"终止条件均按原语义保留。</li>
+ * </ul>
+ * </p>
+ * <p>
+ * 前置条件：客户数非负；目标量为正。数值溢出时抛出 {@link ArithmeticException}，调用方应回退到 BigDecimal 实现。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+public final class SingleLevelKernel {
+
+    /** 与原实现一致的粗调轮数 / 微调迭代上限 */
+    static final long ITERATION_LIMIT = 10_000_000L;
+    /** HG 客户数为 0 时，余量连续不变的终止轮数 */
+    private static final int STAGNANT_ROUND_LIMIT = 100;
+
+    private SingleLevelKernel() {
+    }
+
+    /**
+     * 计算单区域分配方案。
+     *
+     * @param customers 客户数数组（索引0对应D30），不可含负数
+     * @param target    目标投放量（正整数）
+     * @param maxIndex  HG 索引
+     * @param minIndex  LG 索引
+     * @return 分配方案（与 customers 等长，范围外为0）
+     * @throws IllegalStateException    范围内客户数全部为0
+     * @throws IllegalArgumentException 档位范围越界或客户数为负
+     * @throws ArithmeticException      计算溢出 long
+     */
+    public static long[] distribute(long[] customers, long target, int maxIndex, int minIndex) {
+        int gradeCount = customers.length;
+        if (maxIndex < 0 || minIndex >= gradeCount) {
+            throw new IllegalArgumentException("档位范围越界: maxIndex=" + maxIndex + ", minIndex=" + minIndex);
+        }
+        boolean allZero = true;
+        for (int i = maxIndex; i <= minIndex; i++) {
+            if (customers[i] < 0) {
+                throw new IllegalArgumentException("客户数不可为负: index=" + i);
+            }
+            if (customers[i] > 0) {
+                allZero = false;
+            }
+        }
+        if (allZero) {
+            throw new IllegalStateException("SingleLevel 分配失败：该卷烟在档位范围内客户数全部为0，已停止本卷烟分配以避免死循环");
+        }
+
+        // 范围内前缀和：prefix[k] = customers[maxIndex] + ... + customers[maxIndex + k]
+        long[] prefix = new long[minIndex - maxIndex + 1];
+        long running = 0;
+        for (int k = 0; k < prefix.length; k++) {
+            running = Math.addExact(running, customers[maxIndex + k]);
+            prefix[k] = running;
+        }
+        long roundSum = running;
+
+        // 1. 粗调（候选方案1）
+        long[] candidate1 = new long[gradeCount];
+        long amount1;
+        int lastIncrementedGrade;
+        long fullRounds = (target - 1) / roundSum;
+        if (fullRounds >= ITERATION_LIMIT) {
+            // 原实现在 1e7 轮后放弃粗调，最后一次 +1 落在 LG
+            fill(candidate1, maxIndex, minIndex, ITERATION_LIMIT);
+            amount1 = Math.multiplyExact(ITERATION_LIMIT, roundSum);
+            lastIncrementedGrade = minIndex;
+        } else {
+            long base = Math.multiplyExact(fullRounds, roundSum);
+            int k = firstReaching(prefix, base, target);
+            fill(candidate1, maxIndex, minIndex, fullRounds);
+            fill(candidate1, maxIndex, maxIndex + k, 1);
+            amount1 = base + prefix[k];
+            if (amount1 == target) {
+                return candidate1;
+            }
+            lastIncrementedGrade = maxIndex + k;
+        }
+        long error1 = Math.abs(target - amount1);
+
+        // 2. 撤销粗调最后一次 +1（候选方案2）
+        long[] candidate2 = candidate1.clone();
+        long currentAmount = amount1;
+        int rollbackGrade = -1;
+        if (candidate2[lastIncrementedGrade] > 0) {
+            rollbackGrade = lastIncrementedGrade;
+        } else {
+            for (int grade = gradeCount - 1; grade >= 0; grade--) {
+                if (candidate2[grade] > 0) {
+                    rollbackGrade = grade;
+                    break;
+                }
+            }
+        }
+        if (rollbackGrade >= 0) {
+            candidate2[rollbackGrade]--;
+            currentAmount -= customers[rollbackGrade];
+        }
+
+        // 3. 迭代微调（候选方案3、4）
+        long[] candidate3 = null;
+        long[] candidate4 = null;
+        long error3 = 0;
+        long error4 = 0;
+        long hgCustomerCount = customers[maxIndex];
+        long refineIterations = 0;
+        long lastRemainder = 0;
+        boolean hasLastRemainder = false;
+        int stagnantRemainderRounds = 0;
+
+        while (true) {
+            if (++refineIterations > ITERATION_LIMIT) {
+                break;
+            }
+            long remainder = target - currentAmount;
+            if (hgCustomerCount > 0) {
+                if (remainder < hgCustomerCount) {
+                    candidate3 = candidate2.clone();
+                    error3 = Math.abs(remainder);
+                    candidate4 = candidate2.clone();
+                    candidate4[maxIndex]++;
+                    error4 = Math.abs(target - Math.addExact(currentAmount, hgCustomerCount));
+                    break;
+                }
+            } else {
+                stagnantRemainderRounds = hasLastRemainder && remainder == lastRemainder ? stagnantRemainderRounds + 1 : 1;
+                lastRemainder = remainder;
+                hasLastRemainder = true;
+                if (stagnantRemainderRounds >= STAGNANT_ROUND_LIMIT) {
+                    candidate3 = candidate2.clone();
+                    error3 = Math.abs(remainder);
+                    break;
+                }
+            }
+
+            // 一轮 HG→LG 填充：整轮数 + 前缀，直到刚好达到或超过余量
+            long rounds = (remainder - 1) / roundSum;
+            long base = Math.multiplyExact(rounds, roundSum);
+            int k = firstReaching(prefix, base, remainder);
+            fill(candidate2, maxIndex, minIndex, rounds);
+            if (base + prefix[k] == remainder) {
+                fill(candidate2, maxIndex, maxIndex + k, 1);
+                currentAmount = target;
+                candidate3 = candidate2.clone();
+                error3 = 0;
+                break;
+            }
+            // 超出：撤销导致超出的那一次 +1
+            fill(candidate2, maxIndex, maxIndex + k - 1, 1);
+            currentAmount += base + prefix[k] - customers[maxIndex + k];
+        }
+        long error2 = Math.abs(target - currentAmount);
+
+        // 4. 方案选择：误差最小，误差相同时选择编号较大的方案
+        long[] best = candidate1;
+        long bestError = error1;
+        if (error2 <= bestError) {
+            best = candidate2;
+            bestError = error2;
+        }
+        if (candidate3 != null && error3 <= bestError) {
+            best = candidate3;
+            bestError = error3;
+        }
+        if (candidate4 != null && error4 <= bestError) {
+            best = candidate4;
+        }
+        return best;
+    }
+
+    /**
+     * 在前缀和上二分查找第一个满足 base + prefix[k] >= threshold 的位置。
+     */
+    private static int firstReaching(long[] prefix, long base, long threshold) {
+        int low = 0;
+        int high = prefix.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (base + prefix[mid] >= threshold) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private static void fill(long[] allocation, int from, int to, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        for (int i = from; i <= to; i++) {
+            allocation[i] = Math.addExact(allocation[i], delta);
+        }
+    }
+
+    /**
+     * 计算分配方案的实际投放量。
+     *
+     * @param allocation 分配方案
+     * @param customers  客户数
+     * @return Σ allocation[i] × customers[i]
+     */
+    public static long amount(long[] allocation, long[] customers) {
+        long total = 0;
+        for (int i = 0; i < allocation.length && i < customers.length; i++) {
+            total = Math.addExact(total, Math.multiplyExact(allocation[i], customers[i]));
+        }
+        return total;
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.domain.service.algorithm.kernel;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * 目标量按权重的整数拆分（最大余数法）。
+ * <p>
+ * 各份额先取 total × w<sub>i</sub> / Σw 的整数部分，剩余的量按余数从大到小逐个 +1（余数相同时靠前者优先），
+ * 拆分结果之和恰好等于 total。计算全程使用整数（权重按最大小数位数放大），结果与调用顺序、线程无关。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+public final class TargetApportionment {
+
+    private TargetApportionment() {
+    }
+
+    /**
+     * 按权重拆分目标量。
+     *
+     * @param total   目标总量（非负）
+     * @param weights 各份额权重（均为正数）
+     * @return 与 weights 一一对应的整数份额，之和等于 total
+     * @throws IllegalArgumentException total 为负、权重为空或存在非正权重
+     */
+    public static long[] largestRemainder(long total, BigDecimal[] weights) {
+        if (total < 0) {
+            throw new IllegalArgumentException("目标总量不可为负: " + total);
+        }
+        if (weights == null || weights.length == 0) {
+            throw new IllegalArgumentException("权重不能为空");
+        }
+        int scale = 0;
+        for (BigDecimal weight : weights) {
+            if (weight == null || weight.signum() <= 0) {
+                throw new IllegalArgumentException("权重必须为正数: " + weight);
+            }
+            scale = Math.max(scale, weight.stripTrailingZeros().scale());
+        }
+
+        int count = weights.length;
+        BigInteger[] scaled = new BigInteger[count];
+        BigInteger weightSum = BigInteger.ZERO;
+        for (int i = 0; i < count; i++) {
+            scaled[i] = weights[i].movePointRight(scale).toBigIntegerExact();
+            weightSum = weightSum.add(scaled[i]);
+        }
+
+        BigInteger totalValue = BigInteger.valueOf(total);
+        long[] shares = new long[count];
+        BigInteger[] remainders = new BigInteger[count];
+        long assigned = 0;
+        for (int i = 0; i < count; i++) {
+            BigInteger[] quotient = totalValue.multiply(scaled[i]).divideAndRemainder(weightSum);
+            shares[i] = quotient[0].longValueExact();
+            remainders[i] = quotient[1];
+            assigned += shares[i];
+        }
+
+        // 剩余量小于份额数，按余数从大到小分配，余数相同时靠前者优先
+        long leftover = total - assigned;
+        if (leftover > 0) {
+            Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.<Integer, BigInteger>comparing(i -> remainders[i]).reversed()
+                    .thenComparing(Comparator.naturalOrder()));
+            for (int k = 0; k < leftover; k++) {
+                shares[order[k]]++;
+            }
+        }
+        return shares;
+    }
+}
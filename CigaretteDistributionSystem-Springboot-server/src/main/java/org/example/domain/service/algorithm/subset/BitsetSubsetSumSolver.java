@@ -0,0 +1,234 @@
+package org.example.domain.service.algorithm.subset;
+
+import java.util.Arrays;
+
+/**
+ * 位集平移动态规划求解器。
+ * <p>
+ * 可达子集和保存在 {@code long[]} 位集中，每个物品做一次 {@code reach |= reach << w}（按 64 位字批量处理）。
+ * 容量只需覆盖 [0, min(总重量, target + 最大重量 - 1)]：若存在和 >= target 的子集，则必存在和落在
+ * [target, target + 最大重量) 内的子集（逐个移除物品直到再移除就低于 target）。
+ * </p>
+ * <p>
+ * 回溯时从后往前选取"剩余和在其之前不可达"的物品，与 {@link DynamicProgrammingSubsetSumSolver} 按
+ * prevItem 回溯得到的选中集合相同。需要的前缀位集按内存预算二选一重算：
+ * <ul>
+ *   <li>每隔 √n 个物品保存一次检查点、逐段重算，约 2√n 个位集，不超过 {@value #MAX_WORDS} 个 long（约 16MB）时使用；</li>
+ *   <li>否则二分回溯：先重算后半段再处理前半段，每层只保留一个位集，约 ⌈log₂n⌉ + 2 个位集、
+ *       重算量为 O(n log n) 次平移；总重量 1e7 以内（{@link SubsetSumSolvers} 的适用范围）不超过
+ *       {@value #MAX_HALVING_WORDS} 个 long（约 36MB），超出时放弃求解。</li>
+ * </ul>
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+public final class BitsetSubsetSumSolver implements SubsetSumSolver {
+
+    /** 检查点回溯的位集内存预算（long 个数，约 16MB） */
+    static final long MAX_WORDS = 2_000_000L;
+
+    /** 二分回溯的位集内存上限（long 个数，约 36MB） */
+    static final long MAX_HALVING_WORDS = 4_500_000L;
+
+    @Override
+    public SubsetSumResult solve(long[] weights, long target) {
+        int itemCount = weights.length;
+        if (itemCount == 0) {
+            return null;
+        }
+        long totalWeight = 0L;
+        long maxWeight = 0L;
+        for (long w : weights) {
+            totalWeight += w;
+            maxWeight = Math.max(maxWeight, w);
+        }
+        long capacityLong = Math.min(totalWeight, target + maxWeight - 1);
+        if (capacityLong >= Integer.MAX_VALUE) {
+            return null;
+        }
+        int capacity = (int) capacityLong;
+        int words = (capacity >>> 6) + 1;
+        int blockSize = Math.max(1, (int) Math.ceil(Math.sqrt(itemCount)));
+        int blockCount = (itemCount + blockSize - 1) / blockSize;
+        boolean useCheckpoints = fitsCheckpointBudget(itemCount, capacity);
+        if (!useCheckpoints && (long) (halvingDepth(itemCount) + 2) * words > MAX_HALVING_WORDS) {
+            return null;
+        }
+
+        // 前向：checkpoints[b] 为处理第 b*blockSize 个物品之前的可达集合（二分回溯时不保存）
+        long[][] checkpoints = useCheckpoints ? new long[blockCount][] : null;
+        long[] reach = new long[words];
+        reach[0] = 1L;
+        for (int i = 0; i < itemCount; i++) {
+            if (useCheckpoints && i % blockSize == 0) {
+                checkpoints[i / blockSize] = reach.clone();
+            }
+            shiftOr(reach, weights[i], capacity);
+        }
+
+        long bestSum = -1L;
+        int below = previousSetBit(reach, (int) Math.min(target, capacity));
+        if (below > 0) {
+            bestSum = below;
+        }
+        if (target <= capacity) {
+            int above = nextSetBit(reach, (int) target, capacity);
+            if (above > 0 && (bestSum < 0 || SubsetSumResult.isBetter(above, bestSum, target))) {
+                bestSum = above;
+            }
+        }
+        if (bestSum <= 0) {
+            return null;
+        }
+
+        boolean[] chosen = new boolean[itemCount];
+        if (!useCheckpoints) {
+            // 回溯阶段不再需要前向位集，复用为第 0 层（处理第 0 个物品之前的可达集合）
+            long[][] levels = new long[halvingDepth(itemCount) + 1][];
+            Arrays.fill(reach, 0L);
+            reach[0] = 1L;
+            levels[0] = reach;
+            for (int d = 1; d < levels.length; d++) {
+                levels[d] = new long[words];
+            }
+            backtrackByHalving(weights, capacity, levels, 0, 0, itemCount, bestSum, chosen);
+            return new SubsetSumResult(bestSum, chosen);
+        }
+
+        // 回溯：从最后一段向前，段内重算前缀位集
+        long remaining = bestSum;
+        long[][] blockPrefixes = new long[blockSize][words];
+        for (int b = blockCount - 1; b >= 0 && remaining > 0; b--) {
+            int start = b * blockSize;
+            int end = Math.min(itemCount, start + blockSize);
+            System.arraycopy(checkpoints[b], 0, blockPrefixes[0], 0, words);
+            for (int i = start + 1; i < end; i++) {
+                long[] prefix = blockPrefixes[i - start];
+                System.arraycopy(blockPrefixes[i - start - 1], 0, prefix, 0, words);
+                shiftOr(prefix, weights[i - 1], capacity);
+            }
+            for (int i = end - 1; i >= start && remaining > 0; i--) {
+                if (!testBit(blockPrefixes[i - start], remaining)) {
+                    chosen[i] = true;
+                    remaining -= weights[i];
+                }
+            }
+        }
+        return new SubsetSumResult(bestSum, chosen);
+    }
+
+    @Override
+    public String name() {
+        return "BITSET";
+    }
+
+    /**
+     * √n 检查点回溯所需的位集是否在 {@link #MAX_WORDS} 预算内。
+     */
+    static boolean fitsCheckpointBudget(int itemCount, int capacity) {
+        int words = (capacity >>> 6) + 1;
+        int blockSize = Math.max(1, (int) Math.ceil(Math.sqrt(itemCount)));
+        int blockCount = (itemCount + blockSize - 1) / blockSize;
+        return (long) (blockCount + blockSize + 1) * words <= MAX_WORDS;
+    }
+
+    /**
+     * 二分回溯的层数 ⌈log₂n⌉。
+     */
+    private static int halvingDepth(int itemCount) {
+        return itemCount <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(itemCount - 1);
+    }
+
+    /**
+     * 二分回溯 [lo, hi) 内的物品：levels[depth] 为处理第 lo 个物品之前的可达集合。
+     * 先由它重算中点处的位集（写入 levels[depth + 1]）并回溯后半段，再回溯前半段；
+     * 物品仍按从后往前的顺序判定，选中集合与检查点回溯一致。
+     *
+     * @return 回溯完 [lo, hi) 后剩余的和
+     */
+    private static long backtrackByHalving(long[] weights, int capacity, long[][] levels, int depth,
+                                           int lo, int hi, long remaining, boolean[] chosen) {
+        if (remaining <= 0) {
+            return remaining;
+        }
+        if (hi - lo == 1) {
+            if (!testBit(levels[depth], remaining)) {
+                chosen[lo] = true;
+                remaining -= weights[lo];
+            }
+            return remaining;
+        }
+        int mid = (lo + hi) >>> 1;
+        long[] midBits = levels[depth + 1];
+        System.arraycopy(levels[depth], 0, midBits, 0, midBits.length);
+        for (int i = lo; i < mid; i++) {
+            shiftOr(midBits, weights[i], capacity);
+        }
+        remaining = backtrackByHalving(weights, capacity, levels, depth + 1, mid, hi, remaining, chosen);
+        // 前半段的起点仍是 levels[depth]，子调用只写更深的层
+        return backtrackByHalving(weights, capacity, levels, depth, lo, mid, remaining, chosen);
+    }
+
+    /**
+     * bits |= bits << shift，超出 capacity 的位清零。
+     */
+    static void shiftOr(long[] bits, long shift, int capacity) {
+        if (shift <= 0 || shift > capacity) {
+            return;
+        }
+        int wordShift = (int) (shift >>> 6);
+        int bitShift = (int) (shift & 63);
+        for (int d = bits.length - 1; d >= wordShift; d--) {
+            int src = d - wordShift;
+            long v = bits[src] << bitShift;
+            if (bitShift != 0 && src > 0) {
+                v |= bits[src - 1] >>> (64 - bitShift);
+            }
+            bits[d] |= v;
+        }
+        int tailBits = (capacity & 63) + 1;
+        if (tailBits < 64) {
+            bits[bits.length - 1] &= (1L << tailBits) - 1;
+        }
+    }
+
+    private static boolean testBit(long[] bits, long index) {
+        return (bits[(int) (index >>> 6)] & (1L << (index & 63))) != 0;
+    }
+
+    /**
+     * <= from 的最大置位下标，不存在返回 -1。
+     */
+    private static int previousSetBit(long[] bits, int from) {
+        int word = from >>> 6;
+        long masked = bits[word] & (-1L >>> (63 - (from & 63)));
+        while (true) {
+            if (masked != 0) {
+                return (word << 6) + 63 - Long.numberOfLeadingZeros(masked);
+            }
+            if (--word < 0) {
+                return -1;
+            }
+            masked = bits[word];
+        }
+    }
+
+    /**
+     * [from, to] 内的最小置位下标，不存在返回 -1。
+     */
+    private static int nextSetBit(long[] bits, int from, int to) {
+        int word = from >>> 6;
+        long masked = bits[word] & (-1L << (from & 63));
+        while (true) {
+            if (masked != 0) {
+                int index = (word << 6) + Long.numberOfTrailingZeros(masked);
+                return index <= to ? index : -1;
+            }
+            if (++word >= bits.length) {
+                return -1;
+            }
+            masked = bits[word];
+        }
+    }
+}
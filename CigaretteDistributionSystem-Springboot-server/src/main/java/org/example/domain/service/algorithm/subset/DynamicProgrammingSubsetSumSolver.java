@@ -0,0 +1,70 @@
+package org.example.domain.service.algorithm.subset;
+
+import java.util.Arrays;
+
+/**
+ * 0-1 背包动态规划求解器（原候选方案实现，仅作回归对照与基准测试，不在 {@link SubsetSumSolvers} 的求解链上）。
+ * <p>
+ * 状态表覆盖 [0, 总重量]：{@code boolean[]} + 两个 {@code int[]}，总重量 1e7 时一次分配约 90MB，
+ * 超过 {@value #MAX_CAPACITY} 时放弃求解。
+ * 回溯得到的选中集合是和为最优值的子集中掩码（物品 i 对应第 i 位）最小者，其余求解器均与之对齐。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+public final class DynamicProgrammingSubsetSumSolver implements SubsetSumSolver {
+
+    static final long MAX_CAPACITY = 10_000_000L;
+
+    @Override
+    public SubsetSumResult solve(long[] weights, long target) {
+        int itemCount = weights.length;
+        long totalWeight = 0L;
+        for (long w : weights) {
+            totalWeight += w;
+        }
+        if (itemCount == 0 || totalWeight <= 0 || totalWeight > MAX_CAPACITY) {
+            return null;
+        }
+        int capacity = (int) totalWeight;
+
+        boolean[] dp = new boolean[capacity + 1];
+        int[] prevSum = new int[capacity + 1];
+        int[] prevItem = new int[capacity + 1];
+        Arrays.fill(prevItem, -1);
+        dp[0] = true;
+        prevSum[0] = -1;
+
+        for (int i = 0; i < itemCount; i++) {
+            int w = (int) weights[i];
+            for (int s = capacity; s >= w; s--) {
+                if (!dp[s] && dp[s - w]) {
+                    dp[s] = true;
+                    prevSum[s] = s - w;
+                    prevItem[s] = i;
+                }
+            }
+        }
+
+        int bestSum = 0;
+        for (int s = 1; s <= capacity; s++) {
+            if (dp[s] && (bestSum == 0 || SubsetSumResult.isBetter(s, bestSum, target))) {
+                bestSum = s;
+            }
+        }
+
+        boolean[] chosen = new boolean[itemCount];
+        int cur = bestSum;
+        while (cur > 0 && prevItem[cur] >= 0) {
+            chosen[prevItem[cur]] = true;
+            cur = prevSum[cur];
+        }
+        return new SubsetSumResult(bestSum, chosen);
+    }
+
+    @Override
+    public String name() {
+        return "DP";
+    }
+}
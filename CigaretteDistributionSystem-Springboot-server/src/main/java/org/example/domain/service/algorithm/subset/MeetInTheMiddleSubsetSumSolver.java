@@ -0,0 +1,150 @@
+package org.example.domain.service.algorithm.subset;
+
+/**
+ * 折半枚举（meet-in-the-middle）子集和求解器，适用于物品数较少（不超过 {@value #MAX_ITEMS}）的场景。
+ * <p>
+ * 两半分别按"归并 + 平移"生成有序子集和（附带选择掩码），再对左半每个和在右半二分查找最接近的补数。
+ * 时间 O(2^(n/2) · n)，内存 O(2^(n/2))，与重量大小无关。
+ * 和相同的多个子集中取掩码最小者，与 {@link DynamicProgrammingSubsetSumSolver} 的回溯结果一致。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+public final class MeetInTheMiddleSubsetSumSolver implements SubsetSumSolver {
+
+    /** 单侧最多 16 个物品（65536 个子集和） */
+    static final int MAX_ITEMS = 32;
+
+    @Override
+    public SubsetSumResult solve(long[] weights, long target) {
+        int itemCount = weights.length;
+        if (itemCount == 0 || itemCount > MAX_ITEMS) {
+            return null;
+        }
+        int leftCount = itemCount / 2;
+        int rightCount = itemCount - leftCount;
+        long[] leftSums = new long[1 << leftCount];
+        int[] leftMasks = new int[1 << leftCount];
+        long[] rightSums = new long[1 << rightCount];
+        int[] rightMasks = new int[1 << rightCount];
+        enumerate(weights, 0, leftCount, leftSums, leftMasks);
+        enumerate(weights, leftCount, itemCount, rightSums, rightMasks);
+
+        long bestSum = -1L;
+        for (int i = 0; i < leftSums.length; i++) {
+            int above = lowerBound(rightSums, target - leftSums[i]);
+            for (int j = above - 1; j <= above; j++) {
+                // 左右都为空集时跳过（要求非空子集）；右半下标0恒为空集
+                if (j < 0 || j >= rightSums.length || (j == 0 && leftMasks[i] == 0)) {
+                    continue;
+                }
+                long sum = leftSums[i] + rightSums[j];
+                if (bestSum < 0 || SubsetSumResult.isBetter(sum, bestSum, target)) {
+                    bestSum = sum;
+                }
+            }
+        }
+
+        // 与原背包 DP 的回溯结果一致：和为 bestSum 的子集中取掩码最小者（物品 i 对应第 i 位，右半为高位）
+        int[] leftMinMasks = minMaskPerRun(leftSums, leftMasks);
+        long bestMask = -1L;
+        for (int j = 0; j < rightSums.length; j++) {
+            long rest = bestSum - rightSums[j];
+            int i = lowerBound(leftSums, rest);
+            if (i < leftSums.length && leftSums[i] == rest) {
+                long mask = ((long) rightMasks[j] << leftCount) | leftMinMasks[i];
+                if (bestMask < 0 || mask < bestMask) {
+                    bestMask = mask;
+                }
+            }
+        }
+
+        boolean[] chosen = new boolean[itemCount];
+        for (int k = 0; k < itemCount; k++) {
+            chosen[k] = (bestMask & (1L << k)) != 0;
+        }
+        return new SubsetSumResult(bestSum, chosen);
+    }
+
+    @Override
+    public String name() {
+        return "MITM";
+    }
+
+    /**
+     * 生成 weights[from, to) 的全部子集和（升序）及对应掩码（第 k 位表示 weights[from + k]）。
+     */
+    private static void enumerate(long[] weights, int from, int to, long[] sums, int[] masks) {
+        long[] tmpSums = new long[sums.length];
+        int[] tmpMasks = new int[masks.length];
+        long[] curSums = sums;
+        int[] curMasks = masks;
+        int size = 1;
+        curSums[0] = 0L;
+        curMasks[0] = 0;
+        for (int k = 0; k < to - from; k++) {
+            long w = weights[from + k];
+            int bit = 1 << k;
+            int i = 0;
+            int j = 0;
+            int o = 0;
+            while (i < size || j < size) {
+                if (j >= size || (i < size && curSums[i] <= curSums[j] + w)) {
+                    tmpSums[o] = curSums[i];
+                    tmpMasks[o++] = curMasks[i++];
+                } else {
+                    tmpSums[o] = curSums[j] + w;
+                    tmpMasks[o++] = curMasks[j++] | bit;
+                }
+            }
+            long[] swapSums = curSums;
+            curSums = tmpSums;
+            tmpSums = swapSums;
+            int[] swapMasks = curMasks;
+            curMasks = tmpMasks;
+            tmpMasks = swapMasks;
+            size <<= 1;
+        }
+        if (curSums != sums) {
+            System.arraycopy(curSums, 0, sums, 0, size);
+            System.arraycopy(curMasks, 0, masks, 0, size);
+        }
+    }
+
+    /**
+     * 有序子集和中每段相同和的最小掩码，记录在该段第一个下标处。
+     */
+    private static int[] minMaskPerRun(long[] sums, int[] masks) {
+        int[] minMasks = new int[sums.length];
+        int start = 0;
+        for (int i = 1; i <= sums.length; i++) {
+            if (i == sums.length || sums[i] != sums[start]) {
+                int min = masks[start];
+                for (int k = start + 1; k < i; k++) {
+                    min = Math.min(min, masks[k]);
+                }
+                minMasks[start] = min;
+                start = i;
+            }
+        }
+        return minMasks;
+    }
+
+    /**
+     * 第一个 >= key 的下标（不存在时返回 sorted.length）。
+     */
+    private static int lowerBound(long[] sorted, long key) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.domain.service.algorithm.subset;
+
+/**
+ * 子集和求解结果。
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+public final class SubsetSumResult {
+
+    private final long sum;
+    private final boolean[] chosen;
+
+    SubsetSumResult(long sum, boolean[] chosen) {
+        this.sum = sum;
+        this.chosen = chosen;
+    }
+
+    /**
+     * 选中物品的重量和。
+     */
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * 物品 i 是否被选中（下标与输入 weights 一致）。
+     */
+    public boolean isChosen(int item) {
+        return chosen[item];
+    }
+
+    /**
+     * 判断子集和 candidate 是否优于 incumbent：误差更小，或误差相同且和更大。
+     */
+    static boolean isBetter(long candidate, long incumbent, long target) {
+        long candidateDiff = Math.abs(target - candidate);
+        long incumbentDiff = Math.abs(target - incumbent);
+        return candidateDiff < incumbentDiff || (candidateDiff == incumbentDiff && candidate > incumbent);
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.domain.service.algorithm.subset;
+
+/**
+ * 子集和求解器。
+ * <p>
+ * 用于多区域整列调整的候选方案（HG 列部分区域+1）：给定每个区域的"重量"（HG 档客户数，正整数）与余量 target，
+ * 选出非空子集使 |target - 子集和| 最小；误差相同时取子集和较大者。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+public interface SubsetSumSolver {
+
+    /**
+     * 求解子集和。
+     *
+     * @param weights 物品重量（均为正整数，调用方不得修改）
+     * @param target  目标和（正整数）
+     * @return 求解结果；问题规模超出本求解器的限制（物品数、内存预算）时返回 null
+     */
+    SubsetSumResult solve(long[] weights, long target);
+
+    /**
+     * 求解器名称（用于日志与基准测试）。
+     */
+    String name();
+}
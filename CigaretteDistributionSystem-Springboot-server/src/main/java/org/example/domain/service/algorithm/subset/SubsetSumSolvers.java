@@ -0,0 +1,55 @@
+package org.example.domain.service.algorithm.subset;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 子集和求解器选择。
+ * <p>
+ * 适用范围与原背包 DP 相同（总重量不超过 {@value DynamicProgrammingSubsetSumSolver#MAX_CAPACITY}，超出时返回 null，
+ * 由调用方放弃候选方案），范围内按问题规模依次尝试（前一个返回 null 时交给下一个）：
+ * <ol>
+ *   <li>物品数不超过 32：折半枚举（内存与重量无关）；</li>
+ *   <li>其余：{@code long[]} 位集平移 DP，回溯内存超出检查点预算时改用二分回溯，总重量 1e7 时不超过约 36MB。</li>
+ * </ol>
+ * 原 {@code boolean[]} + {@code int[]} 背包 DP（总重量 1e7 时约 90MB）不在链上，仅作回归对照；
+ * 各求解器的子集和与选中集合均与 {@link DynamicProgrammingSubsetSumSolver} 一致，结果与机器负载无关。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+public final class SubsetSumSolvers {
+
+    static final List<SubsetSumSolver> DEFAULT_CHAIN = Collections.unmodifiableList(Arrays.asList(
+            new MeetInTheMiddleSubsetSumSolver(),
+            new BitsetSubsetSumSolver()));
+
+    private SubsetSumSolvers() {
+    }
+
+    /**
+     * 按问题规模选择求解器并求解。
+     *
+     * @param weights 物品重量（均为正整数）
+     * @param target  目标和（正整数）
+     * @return 求解结果；没有物品或总重量超出原背包 DP 的容量上限时返回 null
+     */
+    public static SubsetSumResult solve(long[] weights, long target) {
+        long totalWeight = 0L;
+        for (long w : weights) {
+            totalWeight += w;
+        }
+        if (totalWeight > DynamicProgrammingSubsetSumSolver.MAX_CAPACITY) {
+            return null;
+        }
+        for (SubsetSumSolver solver : DEFAULT_CHAIN) {
+            SubsetSumResult result = solver.solve(weights, target);
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+}
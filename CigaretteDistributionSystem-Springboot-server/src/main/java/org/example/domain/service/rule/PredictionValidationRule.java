@@ -1,6 +1,7 @@
 package org.example.domain.service.rule;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -59,15 +60,15 @@ public interface PredictionValidationRule {
     /**
      * 校验批次区域统计数据是否存在。
      *
-     * @param allStats 区域统计数据列表
-     * @param year     年份
-     * @param month    月份
-     * @param weekSeq  周序号
+     * @param regionNames 该批次区域统计中的区域名称
+     * @param year        年份
+     * @param month       月份
+     * @param weekSeq     周序号
      * @return 校验结果
      * @example validateBatchRegionStatsExists([], 2025, 9, 3) -> 失败，批次数据为空
-     * @example validateBatchRegionStatsExists([{...}], 2025, 9, 3) -> 成功
+     * @example validateBatchRegionStatsExists(["全市"], 2025, 9, 3) -> 成功
      */
-    ValidationResult validateBatchRegionStatsExists(List<Map<String, Object>> allStats,
+    ValidationResult validateBatchRegionStatsExists(Collection<String> regionNames,
                                                     Integer year, Integer month, Integer weekSeq);
 
     // ==================== 区域校验 ====================
@@ -184,14 +185,14 @@ public interface PredictionValidationRule {
     // ==================== 区域解析 ====================
 
     /**
-     * 从区域统计数据中解析区域集合。
+     * 从区域统计中的区域名称解析区域集合。
      *
-     * @param allStats 区域统计数据列表
+     * @param regionNames 区域名称
      * @return RegionSets 包含完整区域集合、主区域集合、子区域集合
-     * @example parseRegionSets([{region: "城区（A片区）"}, {region: "郊区"}])
+     * @example parseRegionSets(["城区（A片区）", "郊区"])
      *          -> {validRegions: ["城区（A片区）", "郊区"], primaryRegions: ["城区", "郊区"], secondaryRegions: ["A片区"]}
      */
-    RegionSets parseRegionSets(List<Map<String, Object>> allStats);
+    RegionSets parseRegionSets(Collection<String> regionNames);
 
     // ==================== 内部类 ====================
 
@@ -4,6 +4,7 @@ import org.example.domain.service.rule.PredictionValidationRule;
 import org.example.shared.util.ParamValidators;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -35,9 +36,9 @@ public class PredictionValidationRuleImpl implements PredictionValidationRule {
     }
 
     @Override
-    public ValidationResult validateBatchRegionStatsExists(List<Map<String, Object>> allStats,
+    public ValidationResult validateBatchRegionStatsExists(Collection<String> regionNames,
                                                            Integer year, Integer month, Integer weekSeq) {
-        if (allStats == null || allStats.isEmpty()) {
+        if (regionNames == null || regionNames.isEmpty()) {
             String msg = String.format(
                     "批次数据不存在：[%d年%d月第%d周]的区域客户统计数据为空。" +
                     "请先确保该批次的客户数据已导入。",
@@ -241,20 +242,13 @@ public class PredictionValidationRuleImpl implements PredictionValidationRule {
     }
 
     @Override
-    public RegionSets parseRegionSets(List<Map<String, Object>> allStats) {
+    public RegionSets parseRegionSets(Collection<String> regionNames) {
         Set<String> validRegions = new HashSet<>();
         Set<String> primaryRegions = new HashSet<>();
         Set<String> secondaryRegions = new HashSet<>();
 
-        for (Map<String, Object> stat : allStats) {
-            // 兼容不同的列名：region（小写，来自 resultMap）或 REGION（大写）
-            Object regionObj = stat.get("region");
-            if (regionObj == null) {
-                regionObj = stat.get("REGION");
-            }
-            if (regionObj == null) continue;
-
-            String regionName = regionObj.toString();
+        for (String regionName : regionNames) {
+            if (regionName == null) continue;
             validRegions.add(regionName);
 
             // 解析主区域和子区域
@@ -5,7 +5,7 @@ import java.util.Comparator;
 import java.util.List;
 
 /**
- * 多区域无权重分配算法（历史版本最新算法，实现已迁移到domain，仅用于对比与回归验证）：
+ * 多区域无权重分配算法（全档位范围接口，默认实现委托领域层内核，算法只在domain维护）：
  * <ol>
  *     <li>粗调阶段：从最高档位（HG）到最低档位（LG），多轮逐档位列+1（整列+1），直到刚好超出目标。</li>
  *     <li>高档位微调阶段：撤销粗调方案最后一次档位列+1操作，基于此进行迭代微调，生成多个候选方案。</li>
@@ -6,7 +6,7 @@ import java.util.Map;
 import java.util.function.Function;
 
 /**
- * 多区域带权重的分配算法（历史版本最新算法，实现已迁移到domain，仅用于对比与回归验证）：
+ * 多区域带权重的分配算法（全档位范围接口，默认实现委托领域层内核，算法只在domain维护）：
  * <ol>
  *     <li>分组拆分阶段：根据分组与比例，将目标量拆分到各分组。</li>
  *     <li>分组独立分配阶段：对每个分组独立运行分配算法。</li>
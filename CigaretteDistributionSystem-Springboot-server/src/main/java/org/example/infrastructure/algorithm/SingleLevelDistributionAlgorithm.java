@@ -4,7 +4,7 @@ import java.math.BigDecimal;
 import java.util.List;
 
 /**
- * 单层区域分配算法抽象。（历史版本最新算法，实现已迁移到domain，仅用于对比与回归验证）：
+ * 单层区域分配算法抽象。（全档位范围接口，默认实现委托领域层内核，算法只在domain维护）：
  * <ol>
  *     <li>粗调阶段：从最高档位（HG）到最低档位（LG），多轮逐档位+1，直到刚好超出目标。</li>
  *     <li>高档位微调阶段：撤销粗调方案一次+1操作，基于此进行迭代微调，生成多个候选方案。</li>
@@ -1,5 +1,8 @@
 package org.example.infrastructure.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -9,21 +12,22 @@ import java.util.concurrent.Executor;
 
 /**
  * 异步配置类
- * 配置事件处理的线程池
+ * 配置事件处理的线程池，并导出队列深度、活跃线程数等 executor_* 指标（name=eventTaskExecutor）
  */
 @Configuration
 @EnableAsync
 public class AsyncConfig {
 
     @Bean(name = "eventTaskExecutor")
-    public Executor eventTaskExecutor() {
+    public Executor eventTaskExecutor(MeterRegistry meterRegistry) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(5);
         executor.setMaxPoolSize(10);
         executor.setQueueCapacity(100);
         executor.setThreadNamePrefix("event-async-");
         executor.initialize();
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "eventTaskExecutor", Tags.empty())
+                .bindTo(meterRegistry);
         return executor;
     }
 }
-
@@ -1,21 +1,51 @@
 package org.example.infrastructure.config;
 
+import com.zaxxer.hikari.HikariDataSource;
 import io.micrometer.core.instrument.MeterRegistry;
-import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 /**
- * 提供最简 MeterRegistry，便于本地/测试环境运行。
- * 如需接入 Prometheus/其他监控，再提供对应的 Registry Bean。
+ * 指标注册表配置。
+ * <p>
+ * 使用 Prometheus 注册表，由 {@code /api/metrics/prometheus} 以文本格式导出；
+ * 统一过滤批次号等高基数标签，并绑定 Hikari 连接池指标（项目未引入 actuator，需手工绑定）。
+ * </p>
  */
 @Configuration
 public class MeterRegistryConfig {
 
+    /** 无界取值的标签，任何指标都不允许携带 */
+    private static final String[] HIGH_CARDINALITY_TAGS = {"batchId", "cigCode", "cigName"};
+
     @Bean
-    public MeterRegistry meterRegistry() {
-        return new SimpleMeterRegistry();
+    public PrometheusMeterRegistry meterRegistry() {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        registry.config().meterFilter(MeterFilter.ignoreTags(HIGH_CARDINALITY_TAGS));
+        return registry;
     }
-}
-
 
+    /**
+     * 在 Hikari 连接池启动（首次获取连接）前为其设置指标注册表，导出 hikaricp_connections_* 指标。
+     */
+    @Bean
+    public static BeanPostProcessor hikariMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource) {
+                    HikariDataSource dataSource = (HikariDataSource) bean;
+                    if (dataSource.getMetricRegistry() == null && dataSource.getMetricsTrackerFactory() == null) {
+                        dataSource.setMetricRegistry(meterRegistry.getObject());
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.infrastructure.config.allocation;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 分配执行配置属性。
+ *
+ * <p>从 {@code application.yml} 的 {@code distribution.allocation} 节点绑定，
+ * 控制一键生成分配方案时的并行度与写回批次。</p>
+ *
+ * <p>注意：计算线程在构建客户矩阵时也可能短暂占用连接，
+ * 每个任务另有一个写回线程，{@code parallelism + maxConcurrentJobs} 应小于 Hikari 连接池大小（默认 20）。</p>
+ *
+ * <p>写回流水线：计算完成的卷烟进入容量为 {@code writeBackQueueCapacity} 的有界队列，
+ * 由单个写回线程每次取至多 {@code writeBackBatchSize} 支卷烟合并为一个事务写库。</p>
+ *
+ * <p>{@code singleLevelKernel} / {@code columnWiseKernel} / {@code priceBandKernel} 分别选择单层分配、
+ * 整列调整与价位段误差微调的计算内核（分组拆分的组内计算随之切换），出现结果差异时可切回 {@code DECIMAL} 对比排查。</p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "distribution.allocation")
+public class AllocationExecutionProperties {
+
+    /**
+     * 卷烟分配计算并行度，小于等于 1 时退化为串行执行。
+     */
+    private int parallelism = Math.min(8, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * 等待执行的任务队列容量，队列满时由提交线程直接执行（背压）。
+     */
+    private int queueCapacity = 1000;
+
+    /**
+     * 每个写回事务合并的最大卷烟数。
+     */
+    private int writeBackBatchSize = 16;
+
+    /**
+     * 待写回卷烟队列容量，队列满时计算线程阻塞等待（背压）。
+     */
+    private int writeBackQueueCapacity = 64;
+
+    /**
+     * 同时执行的一键生成分配方案异步任务数（同一分区同一时间只允许一个任务）。
+     */
+    private int maxConcurrentJobs = 2;
+
+    /**
+     * 分组拆分时组内求解的共享线程池并行度（所有卷烟任务共用），小于等于 1 时各组串行求解。
+     */
+    private int groupSplittingParallelism = Math.min(4, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * 单层区域分配计算内核。
+     */
+    private AlgorithmKernel singleLevelKernel = AlgorithmKernel.PRIMITIVE;
+
+    /**
+     * 多区域整列调整计算内核。
+     */
+    private AlgorithmKernel columnWiseKernel = AlgorithmKernel.PRIMITIVE;
+
+    /**
+     * 价位段截断后误差微调计算内核。
+     */
+    private AlgorithmKernel priceBandKernel = AlgorithmKernel.PRIMITIVE;
+
+    /**
+     * 分配算法计算内核类型。
+     */
+    public enum AlgorithmKernel {
+        /** 基于 long[] 的闭式内核（默认） */
+        PRIMITIVE,
+        /** 原 BigDecimal 逐步 +1 实现 */
+        DECIMAL
+    }
+}
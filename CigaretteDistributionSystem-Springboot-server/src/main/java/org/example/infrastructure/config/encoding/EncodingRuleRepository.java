@@ -17,7 +17,7 @@ import java.util.*;
  * - 对外提供 label->code 及 code->label 查询，避免反复解析配置文件。
  *
  * 生命周期：
- * - @PostConstruct 自动初始化，支持 reload() 动态刷新。
+ * - @PostConstruct 自动初始化，支持 reload() 动态刷新；运行期刷新请经 EncodeService#reload()，以同时重建编码索引。
  *
  * @author Robin
  * @version 1.0
@@ -0,0 +1,25 @@
+package org.example.infrastructure.config.importing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Excel 导入执行配置属性。
+ *
+ * <p>从 {@code application.yml} 的 {@code distribution.importing} 节点绑定，
+ * 控制客户基础信息导入时多行 INSERT 的批次大小。</p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "distribution.importing")
+public class ImportExecutionProperties {
+
+    /**
+     * 每条多行 INSERT 语句包含的客户行数（受 MySQL max_allowed_packet 限制，不宜过大）。
+     */
+    private int batchSize = 1000;
+}
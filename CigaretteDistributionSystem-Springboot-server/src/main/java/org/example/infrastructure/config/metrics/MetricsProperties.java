@@ -0,0 +1,25 @@
+package org.example.infrastructure.config.metrics;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 指标导出配置属性。
+ *
+ * <p>从 {@code application.yml} 的 {@code distribution.metrics} 节点绑定，
+ * 控制 Prometheus 文本格式抓取端点的访问范围。</p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "distribution.metrics")
+public class MetricsProperties {
+
+    /**
+     * 抓取端点是否只允许本机（回环地址）访问；部署在独立监控网络时可关闭。
+     */
+    private boolean scrapeLocalOnly = true;
+}
@@ -0,0 +1,140 @@
+package org.example.infrastructure.monitor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.shared.util.PartitionDdlTimer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 分配流水线分阶段耗时指标。
+ * <p>
+ * 每个阶段一个计时器（标签仅 {@code stage}），算法阶段另按算法类型（标签仅 {@code algorithm}）计时，
+ * 均发布直方图桶，标签取值固定且有限；批次、卷烟、年月周等高基数信息只写日志，不进入标签。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@Component
+public class AllocationStageMetrics implements PartitionDdlTimer {
+
+    static final String METRIC_STAGE_DURATION = "distribution_stage_duration";
+    static final String METRIC_ALGORITHM_DURATION = "distribution_algorithm_duration";
+
+    private static final Duration MIN_EXPECTED = Duration.ofMillis(1);
+    private static final Duration MAX_EXPECTED = Duration.ofSeconds(60);
+
+    /**
+     * 流水线阶段。
+     */
+    public enum Stage {
+        /** 客户矩阵构建（含两周一访上浮） */
+        MATRIX_BUILD("matrix_build"),
+        /** 分配算法（全部类型合计） */
+        ALGORITHM("algorithm"),
+        /** 价位段截断与误差微调 */
+        TRUNCATION("truncation"),
+        /** 投放编码表达式生成 */
+        ENCODING("encoding"),
+        /** 预测表写回（删除 + upsert） */
+        WRITE_BACK("write_back"),
+        /** 分区 DDL（REORGANIZE PARTITION） */
+        PARTITION_DDL("partition_ddl"),
+        /** 单支卷烟增量重算（读取、分配、写回、读回合计） */
+        RECOMPUTE("recompute");
+
+        private final String tagValue;
+
+        Stage(String tagValue) {
+            this.tagValue = tagValue;
+        }
+
+        public String getTagValue() {
+            return tagValue;
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final Map<String, Timer> algorithmTimers = new ConcurrentHashMap<>();
+
+    public AllocationStageMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, histogramTimer(METRIC_STAGE_DURATION, "stage", stage.getTagValue()));
+        }
+    }
+
+    /**
+     * 不导出的实例，用于单元测试或未注入指标的手工构造场景。
+     */
+    public static AllocationStageMetrics noop() {
+        return new AllocationStageMetrics(new SimpleMeterRegistry());
+    }
+
+    /**
+     * 计时执行一个阶段。
+     *
+     * @param stage 阶段
+     * @param body  阶段逻辑
+     * @return 阶段逻辑的返回值
+     * @example
+     * <pre>{@code
+     * RegionCustomerMatrix matrix = stageMetrics.record(Stage.MATRIX_BUILD, () -> build(...));
+     * }</pre>
+     */
+    public <T> T record(Stage stage, Supplier<T> body) {
+        return stageTimers.get(stage).record(body);
+    }
+
+    /**
+     * 计时执行一个无返回值的阶段。
+     */
+    public void record(Stage stage, Runnable body) {
+        stageTimers.get(stage).record(body);
+    }
+
+    /**
+     * 分区 DDL 计入 {@link Stage#PARTITION_DDL} 阶段。
+     */
+    @Override
+    public void timeDdl(Runnable ddl) {
+        record(Stage.PARTITION_DDL, ddl);
+    }
+
+    /**
+     * 计时执行一次分配算法，同时计入算法阶段与对应算法类型的计时器。
+     *
+     * @param algorithm 算法类型名（取值须为有限枚举，如 SINGLE_LEVEL）
+     * @param body      算法逻辑
+     * @return 算法结果
+     */
+    public <T> T recordAlgorithm(String algorithm, Supplier<T> body) {
+        long start = meterRegistry.config().clock().monotonicTime();
+        try {
+            return body.get();
+        } finally {
+            long elapsed = meterRegistry.config().clock().monotonicTime() - start;
+            stageTimers.get(Stage.ALGORITHM).record(Duration.ofNanos(elapsed));
+            algorithmTimers.computeIfAbsent(algorithm,
+                    name -> histogramTimer(METRIC_ALGORITHM_DURATION, "algorithm", name))
+                    .record(Duration.ofNanos(elapsed));
+        }
+    }
+
+    private Timer histogramTimer(String name, String tagKey, String tagValue) {
+        return Timer.builder(name)
+                .tag(tagKey, tagValue)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED)
+                .register(meterRegistry);
+    }
+}
@@ -29,14 +29,9 @@ public interface AdminMapper {
     List<String> listPartitions(@Param("tableName") String tableName);
 
     /**
-     * 统计指定分区是否存在
+     * 列出表的分区名及边界值（PARTITION_NAME、PARTITION_DESCRIPTION，按顺序）
      */
-    Integer countPartition(@Param("tableName") String tableName, @Param("partitionName") String partitionName);
-
-    /**
-     * 查询最大分区描述（PARTITION_DESCRIPTION）
-     */
-    String getMaxPartitionDescription(@Param("tableName") String tableName);
+    List<Map<String, Object>> listPartitionDescriptions(@Param("tableName") String tableName);
 
     // ===================== 事务监控相关方法 =====================
 
@@ -67,6 +67,16 @@ public interface BaseCustomerInfoMapper extends BaseMapper<BaseCustomerInfoPO> {
                   @Param("row") Map<String, Object> row,
                   @Param("values") List<Object> values);
 
+    /**
+     * 动态列多行插入
+     *
+     * @param columns 列名顺序（不含 ID）
+     * @param rows 按列顺序的行值列表
+     * @return 影响行数
+     */
+    int batchInsertRows(@Param("columns") List<String> columns,
+                        @Param("rows") List<List<Object>> rows);
+
     /**
      * 诚信互助小组统计
      *
@@ -3,6 +3,7 @@ package org.example.infrastructure.persistence.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 import org.example.infrastructure.persistence.po.CigaretteDistributionPredictionPO;
 
 import java.math.BigDecimal;
@@ -65,6 +66,34 @@ public interface CigaretteDistributionPredictionMapper extends BaseMapper<Cigare
                      @Param("deliveryArea") String deliveryArea,
                      @Param("grades") BigDecimal[] grades);
 
+    /**
+     * 批量更新同一分区内多条记录的档位、实际投放量、编码表达式和备注（单条 CASE 多行 UPDATE）
+     *
+     * @param year    年
+     * @param month   月
+     * @param weekSeq 周序
+     * @param list    待更新记录（按卷烟代码 + 卷烟名称 + 投放区域定位，不可重复）
+     * @return 影响行数
+     */
+    int batchUpdateGrades(@Param("year") Integer year,
+                          @Param("month") Integer month,
+                          @Param("weekSeq") Integer weekSeq,
+                          @Param("list") List<? extends CigaretteDistributionPredictionPO> list);
+
+    /**
+     * 按卷烟统计指定（卷烟代码, 卷烟名称, 投放区域）定位到的记录数
+     *
+     * @param year    年
+     * @param month   月
+     * @param weekSeq 周序
+     * @param list    待校验记录（按卷烟代码 + 卷烟名称 + 投放区域定位）
+     * @return 每支卷烟一行，包含 CIG_CODE、CIG_NAME、RECORD_COUNT
+     */
+    List<Map<String, Object>> countByCigaretteAreas(@Param("year") Integer year,
+                                                    @Param("month") Integer month,
+                                                    @Param("weekSeq") Integer weekSeq,
+                                                    @Param("list") List<? extends CigaretteDistributionPredictionPO> list);
+
     /**
      * 联表 info 表，补充 ADV 字段
      *
@@ -77,6 +106,45 @@ public interface CigaretteDistributionPredictionMapper extends BaseMapper<Cigare
                                              @Param("month") Integer month,
                                              @Param("weekSeq") Integer weekSeq);
 
+    /**
+     * 流式读取指定分区全部记录（联表补充 ADV，字段与排序同 {@link #findAllWithAdv}）
+     *
+     * @param year 年
+     * @param month 月
+     * @param weekSeq 周序
+     * @param handler 逐行结果处理器
+     */
+    void streamAllWithAdv(@Param("year") Integer year,
+                          @Param("month") Integer month,
+                          @Param("weekSeq") Integer weekSeq,
+                          ResultHandler<Map<String, Object>> handler);
+
+    /**
+     * 游标分页查询，联表补充 ADV（按 CIG_CODE、CIG_NAME、DELIVERY_AREA、ID 排序）
+     *
+     * @param year              年
+     * @param month             月
+     * @param weekSeq           周序
+     * @param cigCodePrefix     卷烟代码前缀（LIKE 通配符需已转义，为空不过滤）
+     * @param deliveryMethod    投放方式（为空不过滤）
+     * @param afterCigCode      游标：上一页最后一条的卷烟代码（为 null 表示第一页）
+     * @param afterCigName      游标：上一页最后一条的卷烟名称
+     * @param afterDeliveryArea 游标：上一页最后一条的投放区域
+     * @param afterId           游标：上一页最后一条的主键ID
+     * @param limit             最多返回条数
+     * @return 结果列表
+     */
+    List<Map<String, Object>> findPageWithAdv(@Param("year") Integer year,
+                                              @Param("month") Integer month,
+                                              @Param("weekSeq") Integer weekSeq,
+                                              @Param("cigCodePrefix") String cigCodePrefix,
+                                              @Param("deliveryMethod") String deliveryMethod,
+                                              @Param("afterCigCode") String afterCigCode,
+                                              @Param("afterCigName") String afterCigName,
+                                              @Param("afterDeliveryArea") String afterDeliveryArea,
+                                              @Param("afterId") Long afterId,
+                                              @Param("limit") int limit);
+
     /**
      * 查询指定年月周的所有预测数据
      *
@@ -103,6 +171,22 @@ public interface CigaretteDistributionPredictionMapper extends BaseMapper<Cigare
                                             @Param("weekSeq") Integer weekSeq,
                                             @Param("cigCode") String cigCode);
 
+    /**
+     * 查询指定年月周下某支卷烟（代码+名称）的所有预测记录（按区域）。
+     *
+     * @param year    年
+     * @param month   月
+     * @param weekSeq 周序
+     * @param cigCode 卷烟代码
+     * @param cigName 卷烟名称
+     * @return 预测数据列表
+     */
+    List<Map<String, Object>> findByCigarette(@Param("year") Integer year,
+                                              @Param("month") Integer month,
+                                              @Param("weekSeq") Integer weekSeq,
+                                              @Param("cigCode") String cigCode,
+                                              @Param("cigName") String cigName);
+
     /**
      * 统计指定年月周的记录数
      *
@@ -143,6 +227,20 @@ public interface CigaretteDistributionPredictionMapper extends BaseMapper<Cigare
                           @Param("cigCode") String cigCode,
                           @Param("cigName") String cigName);
 
+    /**
+     * 删除多支卷烟的所有区域记录
+     *
+     * @param year       年
+     * @param month      月
+     * @param weekSeq    周序
+     * @param cigarettes 卷烟列表（仅使用 CIG_CODE / CIG_NAME）
+     * @return 删除行数
+     */
+    int deleteByCigarettes(@Param("year") Integer year,
+                           @Param("month") Integer month,
+                           @Param("weekSeq") Integer weekSeq,
+                           @Param("cigarettes") List<CigaretteDistributionPredictionPO> cigarettes);
+
     /**
      * 删除指定卷烟的特定区域记录
      *
@@ -2,6 +2,7 @@ package org.example.infrastructure.persistence.mapper;
 
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 import org.example.infrastructure.persistence.po.CigaretteDistributionPredictionPricePO;
 
 import java.util.List;
@@ -30,6 +31,75 @@ public interface CigaretteDistributionPredictionPriceMapper {
                                       @Param("month") Integer month,
                                       @Param("weekSeq") Integer weekSeq);
 
+    /**
+     * 流式读取指定分区的全部记录（字段与排序同 {@link #findAll}）
+     *
+     * @param year    年
+     * @param month   月
+     * @param weekSeq 周序
+     * @param handler 逐行结果处理器
+     */
+    void streamAll(@Param("year") Integer year,
+                   @Param("month") Integer month,
+                   @Param("weekSeq") Integer weekSeq,
+                   ResultHandler<Map<String, Object>> handler);
+
+    /**
+     * 游标分页查询（按 CIG_CODE、CIG_NAME、DELIVERY_AREA、ID 排序）
+     *
+     * @param year              年
+     * @param month             月
+     * @param weekSeq           周序
+     * @param cigCodePrefix     卷烟代码前缀（LIKE 通配符需已转义，为空不过滤）
+     * @param deliveryMethod    投放方式（为空不过滤）
+     * @param afterCigCode      游标：上一页最后一条的卷烟代码（为 null 表示第一页）
+     * @param afterCigName      游标：上一页最后一条的卷烟名称
+     * @param afterDeliveryArea 游标：上一页最后一条的投放区域
+     * @param afterId           游标：上一页最后一条的主键ID
+     * @param limit             最多返回条数
+     * @return 结果列表
+     */
+    List<Map<String, Object>> findPage(@Param("year") Integer year,
+                                       @Param("month") Integer month,
+                                       @Param("weekSeq") Integer weekSeq,
+                                       @Param("cigCodePrefix") String cigCodePrefix,
+                                       @Param("deliveryMethod") String deliveryMethod,
+                                       @Param("afterCigCode") String afterCigCode,
+                                       @Param("afterCigName") String afterCigName,
+                                       @Param("afterDeliveryArea") String afterDeliveryArea,
+                                       @Param("afterId") Long afterId,
+                                       @Param("limit") int limit);
+
+    /**
+     * 查询指定分区内某卷烟代码的全部记录
+     *
+     * @param year    年
+     * @param month   月
+     * @param weekSeq 周序
+     * @param cigCode 卷烟代码
+     * @return 结果列表
+     */
+    List<Map<String, Object>> findByCigCode(@Param("year") Integer year,
+                                            @Param("month") Integer month,
+                                            @Param("weekSeq") Integer weekSeq,
+                                            @Param("cigCode") String cigCode);
+
+    /**
+     * 查询指定分区内某支卷烟（代码+名称）的全部记录
+     *
+     * @param year    年
+     * @param month   月
+     * @param weekSeq 周序
+     * @param cigCode 卷烟代码
+     * @param cigName 卷烟名称
+     * @return 结果列表
+     */
+    List<Map<String, Object>> findByCigarette(@Param("year") Integer year,
+                                              @Param("month") Integer month,
+                                              @Param("weekSeq") Integer weekSeq,
+                                              @Param("cigCode") String cigCode,
+                                              @Param("cigName") String cigName);
+
     /**
      * 单条 UPSERT（主键：YEAR/MONTH/WEEK_SEQ + CIG_CODE/CIG_NAME + DELIVERY_AREA）
      *
@@ -75,6 +145,34 @@ public interface CigaretteDistributionPredictionPriceMapper {
                      @Param("deliveryArea") String deliveryArea,
                      @Param("grades") java.math.BigDecimal[] grades);
 
+    /**
+     * 批量更新同一分区内多条记录的档位、实际投放量、编码表达式和备注（单条 CASE 多行 UPDATE）
+     *
+     * @param year    年
+     * @param month   月
+     * @param weekSeq 周序
+     * @param list    待更新记录（按卷烟代码 + 卷烟名称 + 投放区域定位，不可重复）
+     * @return 影响行数
+     */
+    int batchUpdateGrades(@Param("year") Integer year,
+                          @Param("month") Integer month,
+                          @Param("weekSeq") Integer weekSeq,
+                          @Param("list") List<? extends org.example.infrastructure.persistence.po.CigaretteDistributionPredictionPO> list);
+
+    /**
+     * 按卷烟统计指定（卷烟代码, 卷烟名称, 投放区域）定位到的记录数
+     *
+     * @param year    年
+     * @param month   月
+     * @param weekSeq 周序
+     * @param list    待校验记录（按卷烟代码 + 卷烟名称 + 投放区域定位）
+     * @return 每支卷烟一行，包含 CIG_CODE、CIG_NAME、RECORD_COUNT
+     */
+    List<Map<String, Object>> countByCigaretteAreas(@Param("year") Integer year,
+                                                    @Param("month") Integer month,
+                                                    @Param("weekSeq") Integer weekSeq,
+                                                    @Param("list") List<? extends org.example.infrastructure.persistence.po.CigaretteDistributionPredictionPO> list);
+
     /**
      * 联表 info 表，补充 ADV 字段
      *
@@ -0,0 +1,42 @@
+package org.example.infrastructure.persistence.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.example.infrastructure.persistence.po.DistributionPlanJobPO;
+
+import java.util.List;
+
+/**
+ * 一键生成分配方案任务表 Mapper。
+ */
+@Mapper
+public interface DistributionPlanJobMapper {
+
+    /**
+     * 确保表存在（不存在则创建）。
+     */
+    void createTableIfNotExists();
+
+    /**
+     * 插入或按 job_id 更新任务。
+     */
+    int upsert(@Param("job") DistributionPlanJobPO job);
+
+    /**
+     * 按任务ID查询。
+     */
+    DistributionPlanJobPO selectByJobId(@Param("jobId") String jobId);
+
+    /**
+     * 按分区查询最近的任务（参数为 null 时不过滤），按创建时间倒序。
+     */
+    List<DistributionPlanJobPO> selectRecent(@Param("year") Integer year,
+                                             @Param("month") Integer month,
+                                             @Param("weekSeq") Integer weekSeq,
+                                             @Param("limit") int limit);
+
+    /**
+     * 将未结束（QUEUED / RUNNING）的任务标记为 FAILED。
+     */
+    int markUnfinishedAsFailed(@Param("message") String message);
+}
@@ -2,6 +2,7 @@ package org.example.infrastructure.persistence.mapper;
 
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
 import java.util.List;
 import java.util.Map;
@@ -112,5 +113,50 @@ public interface FilterCustomerTableMapper {
                                                    @Param("tagOperator") String tagOperator,
                                                    @Param("tagValue") Object tagValue,
                                                    @Param("orderCyclePattern") String orderCyclePattern);
-}
 
+    /**
+     * 单次流式扫描分区，按 档位 + 订单周期 + 扩展维度 + 标签值 分组统计客户数。
+     *
+     * @param year             年份
+     * @param month            月份
+     * @param weekSeq          周序号
+     * @param dimensionColumns 扩展维度列
+     * @param tagColumns       标签列（结果列名依次为 TAG_0、TAG_1 ...）
+     * @param handler          逐行结果处理器，包含 GRADE、ORDER_CYCLE、维度列、TAG_n、CUSTOMER_COUNT
+     */
+    void streamGradeAggregation(@Param("year") Integer year,
+                                @Param("month") Integer month,
+                                @Param("weekSeq") Integer weekSeq,
+                                @Param("dimensionColumns") List<String> dimensionColumns,
+                                @Param("tagColumns") List<String> tagColumns,
+                                ResultHandler<Map<String, Object>> handler);
+
+    /**
+     * 流式扫描分区逐客户读取建索引所需列（GRADE、ORDER_CYCLE、维度列、QUALITY_DATA_SHARE、DYNAMIC_TAGS）。
+     *
+     * @param year             年份
+     * @param month            月份
+     * @param weekSeq          周序号
+     * @param dimensionColumns 扩展维度列
+     * @param handler          逐行结果处理器
+     */
+    void streamTagIndexRows(@Param("year") Integer year,
+                            @Param("month") Integer month,
+                            @Param("weekSeq") Integer weekSeq,
+                            @Param("dimensionColumns") List<String> dimensionColumns,
+                            ResultHandler<Map<String, Object>> handler);
+
+    /**
+     * 统计带有指定标签的客户数（固定标签列为非空值，动态标签为 DYNAMIC_TAGS 中存在该键）。
+     *
+     * @param year      年份
+     * @param month     月份
+     * @param weekSeq   周序号
+     * @param tagColumn 固定标签列名或动态标签键
+     * @return 客户数
+     */
+    long countTaggedCustomers(@Param("year") Integer year,
+                              @Param("month") Integer month,
+                              @Param("weekSeq") Integer weekSeq,
+                              @Param("tagColumn") String tagColumn);
+}
@@ -30,6 +30,18 @@ public interface RegionCustomerStatisticsMapper {
                                       @Param("month") Integer month,
                                       @Param("weekSeq") Integer weekSeq);
 
+    /**
+     * 查询指定分区全部区域名称（仅 REGION 列，可走唯一索引）
+     *
+     * @param year 年
+     * @param month 月
+     * @param weekSeq 周序
+     * @return 区域名称列表
+     */
+    List<String> findRegions(@Param("year") Integer year,
+                             @Param("month") Integer month,
+                             @Param("weekSeq") Integer weekSeq);
+
     /**
      * 按区域查询一条记录
      *
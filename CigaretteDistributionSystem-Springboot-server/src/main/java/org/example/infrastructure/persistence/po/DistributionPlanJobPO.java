@@ -0,0 +1,54 @@
+package org.example.infrastructure.persistence.po;
+
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 一键生成分配方案任务持久化对象（PO）
+ * <p>
+ * 对应表：distribution_plan_job；stageTimings、failures 以 JSON 文本存储。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@Data
+@TableName("distribution_plan_job")
+public class DistributionPlanJobPO {
+
+    @TableId
+    private String jobId;
+
+    private Integer year;
+
+    private Integer month;
+
+    private Integer weekSeq;
+
+    private String status;
+
+    private String currentStage;
+
+    private String stageTimings;
+
+    private Integer totalCount;
+
+    private Integer processedCount;
+
+    private Integer successCount;
+
+    private Integer failedCount;
+
+    private String failures;
+
+    private String message;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+}
@@ -66,6 +66,21 @@ public class BaseCustomerInfoRepositoryImpl implements BaseCustomerInfoRepositor
         return baseCustomerInfoMapper.insertRow(columns, row, values);
     }
 
+    /**
+     * 动态列多行插入
+     *
+     * @param columns 列名顺序（不含 ID）
+     * @param rows    按列顺序的行值列表
+     * @return 影响行数
+     */
+    @Override
+    public int batchInsertRows(List<String> columns, List<List<Object>> rows) {
+        if (rows == null || rows.isEmpty()) {
+            return 0;
+        }
+        return baseCustomerInfoMapper.batchInsertRows(columns, rows);
+    }
+
     /**
      * 诚信互助小组统计
      *
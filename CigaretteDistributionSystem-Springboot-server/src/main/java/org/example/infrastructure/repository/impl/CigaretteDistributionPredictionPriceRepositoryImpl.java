@@ -10,8 +10,10 @@ import org.example.shared.util.PartitionTableManager;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * 基于 MyBatis-Plus Mapper 的预测价格表仓储实现。
@@ -48,6 +50,27 @@ public class CigaretteDistributionPredictionPriceRepositoryImpl implements Cigar
         return predictionPriceMapper.updateGrades(year, month, weekSeq, cigCode, cigName, deliveryArea, grades);
     }
 
+    @Override
+    public int batchUpdateGrades(Integer year, Integer month, Integer weekSeq,
+                                 List<? extends CigaretteDistributionPredictionPO> records) {
+        if (records == null || records.isEmpty()) {
+            return 0;
+        }
+        partitionTableManager.ensurePartitionExists(TABLE_NAME, year, month, weekSeq);
+        int count = predictionPriceMapper.batchUpdateGrades(year, month, weekSeq, records);
+        log.debug("批量更新预测价格数据: {}-{}-{}, 提交 {} 条, 影响 {} 行", year, month, weekSeq, records.size(), count);
+        return count;
+    }
+
+    @Override
+    public List<Map<String, Object>> countByCigaretteAreas(Integer year, Integer month, Integer weekSeq,
+                                                           List<? extends CigaretteDistributionPredictionPO> records) {
+        if (records == null || records.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return predictionPriceMapper.countByCigaretteAreas(year, month, weekSeq, records);
+    }
+
     /**
      * 按卷烟删除指定分区的记录
      *
@@ -100,6 +123,42 @@ public class CigaretteDistributionPredictionPriceRepositoryImpl implements Cigar
         return result;
     }
 
+    @Override
+    public void streamAll(Integer year, Integer month, Integer weekSeq, Consumer<Map<String, Object>> consumer) {
+        partitionTableManager.ensurePartitionExists(TABLE_NAME, year, month, weekSeq);
+        predictionPriceMapper.streamAll(year, month, weekSeq, context -> consumer.accept(context.getResultObject()));
+    }
+
+    @Override
+    public List<Map<String, Object>> findPage(Integer year, Integer month, Integer weekSeq,
+                                              String cigCodePrefix, String deliveryMethod,
+                                              String afterCigCode, String afterCigName, String afterDeliveryArea, Long afterId,
+                                              int limit) {
+        partitionTableManager.ensurePartitionExists(TABLE_NAME, year, month, weekSeq);
+        List<Map<String, Object>> result = predictionPriceMapper.findPage(year, month, weekSeq, cigCodePrefix, deliveryMethod,
+                afterCigCode, afterCigName, afterDeliveryArea, afterId, limit);
+        log.debug("分页查询预测价格数据: {}-{}-{}, 游标={}/{}/{}/{}, 返回 {} 条记录",
+                year, month, weekSeq, afterCigCode, afterCigName, afterDeliveryArea, afterId, result.size());
+        return result;
+    }
+
+    @Override
+    public List<Map<String, Object>> findByCigCode(Integer year, Integer month, Integer weekSeq, String cigCode) {
+        partitionTableManager.ensurePartitionExists(TABLE_NAME, year, month, weekSeq);
+        List<Map<String, Object>> result = predictionPriceMapper.findByCigCode(year, month, weekSeq, cigCode);
+        log.debug("查询预测价格数据: {}-{}-{}, cigCode={}, 返回 {} 条记录", year, month, weekSeq, cigCode, result.size());
+        return result;
+    }
+
+    @Override
+    public List<Map<String, Object>> findByCigarette(Integer year, Integer month, Integer weekSeq,
+                                                     String cigCode, String cigName) {
+        partitionTableManager.ensurePartitionExists(TABLE_NAME, year, month, weekSeq);
+        List<Map<String, Object>> result = predictionPriceMapper.findByCigarette(year, month, weekSeq, cigCode, cigName);
+        log.debug("查询预测价格数据: {}-{}-{}, 卷烟: {}-{}, 返回 {} 条记录", year, month, weekSeq, cigCode, cigName, result.size());
+        return result;
+    }
+
     @Override
     public int batchUpsert(List<? extends CigaretteDistributionPredictionPO> list) {
         if (list == null || list.isEmpty()) {
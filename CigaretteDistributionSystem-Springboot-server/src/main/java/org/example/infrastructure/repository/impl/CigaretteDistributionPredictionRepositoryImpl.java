@@ -10,8 +10,10 @@ import org.example.shared.util.PartitionTableManager;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * 基于 MyBatis-Plus Mapper 的预测表仓储实现。
@@ -53,11 +55,50 @@ public class CigaretteDistributionPredictionRepositoryImpl implements CigaretteD
         return predictionMapper.updateGrades(year, month, weekSeq, cigCode, cigName, deliveryArea, grades);
     }
 
+    @Override
+    public int batchUpdateGrades(Integer year, Integer month, Integer weekSeq,
+                                 List<? extends CigaretteDistributionPredictionPO> records) {
+        if (records == null || records.isEmpty()) {
+            return 0;
+        }
+        partitionTableManager.ensurePartitionExists(TABLE_NAME, year, month, weekSeq);
+        int count = predictionMapper.batchUpdateGrades(year, month, weekSeq, records);
+        log.debug("批量更新预测数据: {}-{}-{}, 提交 {} 条, 影响 {} 行", year, month, weekSeq, records.size(), count);
+        return count;
+    }
+
+    @Override
+    public List<Map<String, Object>> countByCigaretteAreas(Integer year, Integer month, Integer weekSeq,
+                                                           List<? extends CigaretteDistributionPredictionPO> records) {
+        if (records == null || records.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return predictionMapper.countByCigaretteAreas(year, month, weekSeq, records);
+    }
+
     @Override
     public List<Map<String, Object>> findAllWithAdv(Integer year, Integer month, Integer weekSeq) {
         return predictionMapper.findAllWithAdv(year, month, weekSeq);
     }
 
+    @Override
+    public void streamAllWithAdv(Integer year, Integer month, Integer weekSeq, Consumer<Map<String, Object>> consumer) {
+        predictionMapper.streamAllWithAdv(year, month, weekSeq, context -> consumer.accept(context.getResultObject()));
+    }
+
+    @Override
+    public List<Map<String, Object>> findPageWithAdv(Integer year, Integer month, Integer weekSeq,
+                                                     String cigCodePrefix, String deliveryMethod,
+                                                     String afterCigCode, String afterCigName, String afterDeliveryArea, Long afterId,
+                                                     int limit) {
+        partitionTableManager.ensurePartitionExists(TABLE_NAME, year, month, weekSeq);
+        List<Map<String, Object>> result = predictionMapper.findPageWithAdv(year, month, weekSeq, cigCodePrefix, deliveryMethod,
+                afterCigCode, afterCigName, afterDeliveryArea, afterId, limit);
+        log.debug("分页查询预测数据: {}-{}-{}, 游标={}/{}/{}/{}, 返回 {} 条记录",
+                year, month, weekSeq, afterCigCode, afterCigName, afterDeliveryArea, afterId, result.size());
+        return result;
+    }
+
     @Override
     public List<Map<String, Object>> findByCigCode(Integer year, Integer month, Integer weekSeq, String cigCode) {
         partitionTableManager.ensurePartitionExists(TABLE_NAME, year, month, weekSeq);
@@ -66,6 +107,15 @@ public class CigaretteDistributionPredictionRepositoryImpl implements CigaretteD
         return result;
     }
 
+    @Override
+    public List<Map<String, Object>> findByCigarette(Integer year, Integer month, Integer weekSeq,
+                                                     String cigCode, String cigName) {
+        partitionTableManager.ensurePartitionExists(TABLE_NAME, year, month, weekSeq);
+        List<Map<String, Object>> result = predictionMapper.findByCigarette(year, month, weekSeq, cigCode, cigName);
+        log.debug("查询卷烟预测数据: {}-{}-{}, 卷烟: {}-{}, 返回 {} 条记录", year, month, weekSeq, cigCode, cigName, result.size());
+        return result;
+    }
+
     @Override
     public int delete(QueryWrapper<CigaretteDistributionPredictionPO> queryWrapper) {
         return predictionMapper.delete(queryWrapper);
@@ -138,6 +188,26 @@ public class CigaretteDistributionPredictionRepositoryImpl implements CigaretteD
         return count;
     }
 
+    /**
+     * 删除多支卷烟的所有区域记录
+     *
+     * @param year       年份
+     * @param month      月份
+     * @param weekSeq    周序号
+     * @param cigarettes 卷烟列表（仅使用 CIG_CODE / CIG_NAME）
+     * @return 删除行数
+     */
+    @Override
+    public int deleteByCigarettes(Integer year, Integer month, Integer weekSeq,
+                                  List<CigaretteDistributionPredictionPO> cigarettes) {
+        if (cigarettes == null || cigarettes.isEmpty()) {
+            return 0;
+        }
+        int count = predictionMapper.deleteByCigarettes(year, month, weekSeq, cigarettes);
+        log.info("批量删除卷烟预测数据完成: {}-{}-{}, 卷烟 {} 支, 删除 {} 条记录", year, month, weekSeq, cigarettes.size(), count);
+        return count;
+    }
+
     /**
      * 删除指定卷烟的特定区域记录
      *
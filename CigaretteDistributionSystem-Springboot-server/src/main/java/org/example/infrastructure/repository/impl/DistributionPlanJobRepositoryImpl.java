@@ -0,0 +1,47 @@
+package org.example.infrastructure.repository.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.example.domain.repository.DistributionPlanJobRepository;
+import org.example.infrastructure.persistence.mapper.DistributionPlanJobMapper;
+import org.example.infrastructure.persistence.po.DistributionPlanJobPO;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * {@link DistributionPlanJobRepository} 的 MyBatis 实现。
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@Repository
+@RequiredArgsConstructor
+public class DistributionPlanJobRepositoryImpl implements DistributionPlanJobRepository {
+
+    private final DistributionPlanJobMapper distributionPlanJobMapper;
+
+    @Override
+    public void createTableIfNotExists() {
+        distributionPlanJobMapper.createTableIfNotExists();
+    }
+
+    @Override
+    public void save(DistributionPlanJobPO job) {
+        distributionPlanJobMapper.upsert(job);
+    }
+
+    @Override
+    public DistributionPlanJobPO findByJobId(String jobId) {
+        return distributionPlanJobMapper.selectByJobId(jobId);
+    }
+
+    @Override
+    public List<DistributionPlanJobPO> findRecent(Integer year, Integer month, Integer weekSeq, int limit) {
+        return distributionPlanJobMapper.selectRecent(year, month, weekSeq, limit);
+    }
+
+    @Override
+    public int markUnfinishedAsFailed(String message) {
+        return distributionPlanJobMapper.markUnfinishedAsFailed(message);
+    }
+}
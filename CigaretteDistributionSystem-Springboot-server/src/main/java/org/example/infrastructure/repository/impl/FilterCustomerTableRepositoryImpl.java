@@ -1,21 +1,34 @@
 package org.example.infrastructure.repository.impl;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.domain.repository.FilterCustomerTableRepository;
 import org.example.infrastructure.persistence.mapper.FilterCustomerTableMapper;
 import org.example.shared.helper.CustomerFilterTableSyncService;
+import org.example.shared.util.CustomerTagBitmapIndex;
+import org.example.shared.util.CustomerTagBitmapIndexRegistry;
+import org.example.shared.util.OrderCycleBoostTableCache;
 import org.example.shared.util.PartitionTableManager;
 import org.springframework.stereotype.Repository;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * {@link FilterCustomerTableRepository} 的 MyBatis-Plus 实现。
  * <p>
  * 适配 {@code FilterCustomerTableMapper} 提供数据访问。
  * 只支持分区表模式。
+ * 分区数据写入后同步构建 {@link CustomerTagBitmapIndex}，档位统计与标签计数优先走内存位图，索引缺失时回退 SQL。
  * </p>
  *
  * @author Robin
@@ -30,11 +43,25 @@ public class FilterCustomerTableRepositoryImpl implements FilterCustomerTableRep
     private final FilterCustomerTableMapper filterCustomerTableMapper;
     private final PartitionTableManager partitionTableManager;
     private final CustomerFilterTableSyncService customerFilterTableSyncService;
+    private final CustomerTagBitmapIndexRegistry customerTagBitmapIndexRegistry;
+    private final OrderCycleBoostTableCache orderCycleBoostTableCache;
     
     private static final String CUSTOMER_FILTER_TABLE = "customer_filter";
+    private static final String QUALITY_DATA_SHARE = "QUALITY_DATA_SHARE";
+
+    /** 建立位图的扩展维度列（与 RegionRecordBuilder 的区域扩展列一致） */
+    private static final List<String> INDEXED_DIMENSION_COLUMNS = Collections.unmodifiableList(Arrays.asList(
+            "COMPANY_DISTRICT", "MARKET_TYPE", "CLASSIFICATION_CODE", "CUST_FORMAT",
+            "MARKET_DEPARTMENT", "BUSINESS_DISTRICT_TYPE", "GROUP_NAME", "CREDIT_LEVEL"));
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> TAGS_TYPE = new TypeReference<Map<String, Object>>() {};
 
     @Override
     public void ensurePartitionAndInsertData(Integer year, Integer month, Integer weekSeq, String whereClause) {
+        customerTagBitmapIndexRegistry.invalidate(year, month, weekSeq);
+        orderCycleBoostTableCache.invalidate(year, month, weekSeq);
+
         // 1. 同步表结构（确保 customer_filter 包含 base_customer_info 的所有字段）
         try {
             List<String> addedColumns = customerFilterTableSyncService.syncTableStructure();
@@ -65,10 +92,62 @@ public class FilterCustomerTableRepositoryImpl implements FilterCustomerTableRep
         filterCustomerTableMapper.ensurePartitionAndInsertDataDynamic(year, month, weekSeq, whereClause, filterColumns);
         log.info("分区数据插入成功: {}.{} (year={}, month={}, weekSeq={})", 
                 CUSTOMER_FILTER_TABLE, partitionName, year, month, weekSeq);
+
+        // 6. 构建标签位图索引（失败不影响写入，统计回退 SQL），并丢弃写入期间可能回填的上浮预计算表
+        buildTagIndex(year, month, weekSeq);
+        orderCycleBoostTableCache.invalidate(year, month, weekSeq);
+    }
+
+    private void buildTagIndex(Integer year, Integer month, Integer weekSeq) {
+        long start = System.currentTimeMillis();
+        try {
+            CustomerTagBitmapIndex.Builder builder = CustomerTagBitmapIndex.builder(
+                    INDEXED_DIMENSION_COLUMNS, Collections.singleton(QUALITY_DATA_SHARE));
+            Object[] dimensions = new Object[INDEXED_DIMENSION_COLUMNS.size()];
+            filterCustomerTableMapper.streamTagIndexRows(year, month, weekSeq, INDEXED_DIMENSION_COLUMNS, context -> {
+                Map<String, Object> row = context.getResultObject();
+                for (int i = 0; i < dimensions.length; i++) {
+                    dimensions[i] = row.get(INDEXED_DIMENSION_COLUMNS.get(i));
+                }
+                Map<String, Object> tags = parseDynamicTags(row.get("DYNAMIC_TAGS"));
+                if (row.containsKey(QUALITY_DATA_SHARE)) {
+                    tags.put(QUALITY_DATA_SHARE, row.get(QUALITY_DATA_SHARE));
+                }
+                builder.add(row.get("GRADE"), row.get("ORDER_CYCLE"), dimensions, tags);
+            });
+            CustomerTagBitmapIndex index = builder.build();
+            customerTagBitmapIndexRegistry.put(year, month, weekSeq, index);
+            log.info("标签位图索引构建完成: year={}, month={}, weekSeq={}, 客户数={}, 耗时={}ms",
+                    year, month, weekSeq, index.getCustomerCount(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.warn("标签位图索引构建失败，档位统计回退 SQL: year={}, month={}, weekSeq={}", year, month, weekSeq, e);
+        }
+    }
+
+    /**
+     * 解析 DYNAMIC_TAGS JSON；在 ResultHandler 回调中使用，解析失败以非受检异常抛出并由 {@link #buildTagIndex} 兜底。
+     */
+    private static Map<String, Object> parseDynamicTags(Object value) {
+        if (value == null) {
+            return new HashMap<>();
+        }
+        String json = value instanceof byte[]
+                ? new String((byte[]) value, StandardCharsets.UTF_8) : value.toString();
+        if (json.trim().isEmpty()) {
+            return new HashMap<>();
+        }
+        try {
+            Map<String, Object> tags = OBJECT_MAPPER.readValue(json, TAGS_TYPE);
+            return tags == null ? new HashMap<>() : tags;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     @Override
     public void truncatePartition(Integer year, Integer month, Integer weekSeq) {
+        customerTagBitmapIndexRegistry.invalidate(year, month, weekSeq);
+        orderCycleBoostTableCache.invalidate(year, month, weekSeq);
         String partitionName = PartitionTableManager.generatePartitionName(year, month, weekSeq);
         filterCustomerTableMapper.truncatePartition(partitionName);
         log.info("截断分区成功: {}.{}", CUSTOMER_FILTER_TABLE, partitionName);
@@ -101,7 +180,28 @@ public class FilterCustomerTableRepositoryImpl implements FilterCustomerTableRep
                                                           String tagOperator,
                                                           Object tagValue,
                                                           String orderCyclePattern) {
+        CustomerTagBitmapIndex index = customerTagBitmapIndexRegistry.get(year, month, weekSeq);
+        if (index != null && index.supports(filters, tagColumn, tagOperator, tagValue)) {
+            return index.statGrades(filters, tagColumn, tagOperator, tagValue, orderCyclePattern);
+        }
         return filterCustomerTableMapper.statGradesPartition(year, month, weekSeq, filters, tagColumn, tagOperator, tagValue, orderCyclePattern);
     }
-}
 
+    @Override
+    public void streamGradeAggregation(Integer year, Integer month, Integer weekSeq,
+                                       List<String> dimensionColumns,
+                                       List<String> tagColumns,
+                                       Consumer<Map<String, Object>> consumer) {
+        filterCustomerTableMapper.streamGradeAggregation(year, month, weekSeq, dimensionColumns, tagColumns,
+                context -> consumer.accept(context.getResultObject()));
+    }
+
+    @Override
+    public long countTaggedCustomers(Integer year, Integer month, Integer weekSeq, String tagColumn) {
+        CustomerTagBitmapIndex index = customerTagBitmapIndexRegistry.get(year, month, weekSeq);
+        if (index != null) {
+            return index.countTagged(tagColumn);
+        }
+        return filterCustomerTableMapper.countTaggedCustomers(year, month, weekSeq, tagColumn);
+    }
+}
@@ -138,5 +138,12 @@ public class RegionCustomerStatisticsRepositoryImpl implements RegionCustomerSta
         log.debug("查询区域客户统计: {}-{}-{}, 返回 {} 条记录", year, month, weekSeq, result.size());
         return result;
     }
-}
 
+    @Override
+    public List<String> findRegions(Integer year, Integer month, Integer weekSeq) {
+        partitionTableManager.ensurePartitionExists(TABLE_NAME, year, month, weekSeq);
+        List<String> result = regionCustomerStatisticsMapper.findRegions(year, month, weekSeq);
+        log.debug("查询区域客户统计区域名称: {}-{}-{}, 返回 {} 个区域", year, month, weekSeq, result.size());
+        return result;
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.shared.exception;
+
+/**
+ * 分配任务分区冲突异常
+ * <p>
+ * 当某个时间分区（year-month-weekSeq）已有分配任务或单支卷烟重算在执行，又提交同一分区的任务或重算时抛出此异常。
+ * 该异常只表示分区被占用，分配过程本身的失败不使用此异常。
+ * </p>
+ *
+ * @author Robin
+ * @version 1.0
+ * @since 2026-10-16
+ */
+public class DistributionPlanJobConflictException extends RuntimeException {
+
+    private final String partitionKey;
+    private final String runningJobId;
+
+    public DistributionPlanJobConflictException(String partitionKey, String runningJobId) {
+        super("分区 " + partitionKey + " 已有分配任务在执行: " + runningJobId);
+        this.partitionKey = partitionKey;
+        this.runningJobId = runningJobId;
+    }
+
+    public String getPartitionKey() {
+        return partitionKey;
+    }
+
+    public String getRunningJobId() {
+        return runningJobId;
+    }
+}
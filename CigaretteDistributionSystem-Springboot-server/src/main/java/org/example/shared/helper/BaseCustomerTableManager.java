@@ -11,7 +11,7 @@ import java.util.*;
 /**
  * 客户基础信息表的重建与写入管理。
  *
- * <p>职责：重建 base_customer_info 表结构，批量写入导入数据，返回导入统计。</p>
+ * <p>职责：重建 base_customer_info 表结构，按批（多行 INSERT）写入导入数据，返回导入统计。</p>
  *
  * @author Robin
  * @version 1.0
@@ -24,6 +24,8 @@ public class BaseCustomerTableManager {
 
     private final BaseCustomerInfoRepository baseCustomerInfoRepository;
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    /** 未指定批次大小时的多行 INSERT 行数 */
+    private static final int DEFAULT_BATCH_SIZE = 1000;
     
     // 业务规则：
     // 1. QUALITY_DATA_SHARE等固定标签字段继续使用固定字段，不写入JSON
@@ -95,9 +97,6 @@ public class BaseCustomerTableManager {
         log.info("重建客户基础信息表: {}, 动态标签列将写入DYNAMIC_TAGS JSON字段", tableName);
     }
 
-    /**
-     * 整表插入导入数据。
-     */
     /**
      * 整表插入导入数据。
      *
@@ -110,64 +109,59 @@ public class BaseCustomerTableManager {
     public BaseCustomerImportStats insertAll(List<String> columns,
                                              List<Map<String, Object>> rows,
                                              String mandatoryColumn) {
-        BaseCustomerImportStats stats = new BaseCustomerImportStats();
+        BatchWriter writer = openBatchWriter(columns, mandatoryColumn, DEFAULT_BATCH_SIZE);
+        for (Map<String, Object> row : rows) {
+            writer.add(row);
+        }
+        return writer.finish();
+    }
+
+    /**
+     * 打开按批写入器：逐行接收数据，攒满 batchSize 行后以一条多行 INSERT 写入。
+     *
+     * @param columns         列顺序
+     * @param mandatoryColumn 必填列（如 CUST_CODE）
+     * @param batchSize       每批行数
+     * @return 写入器（调用方需在最后调用 {@link BatchWriter#finish()}）
+     * @example 流式导入时逐行 add，结束时 finish 获取插入/处理计数
+     */
+    public BatchWriter openBatchWriter(List<String> columns, String mandatoryColumn, int batchSize) {
         List<String> sanitizedCols = new ArrayList<>(columns);
         sanitizedCols.removeIf(col -> col == null || col.isEmpty() || "ID".equalsIgnoreCase(col));
 
         if (!sanitizedCols.contains(mandatoryColumn)) {
             throw new IllegalStateException("缺少必填列 " + mandatoryColumn);
         }
+        return new BatchWriter(resolveInsertColumns(sanitizedCols), mandatoryColumn, Math.max(1, batchSize));
+    }
 
-        // 阶段2：确保DYNAMIC_TAGS列在列列表中（如果不存在则添加）
-        if (!sanitizedCols.contains("DYNAMIC_TAGS")) {
-            sanitizedCols.add("DYNAMIC_TAGS");
-        }
-
-        for (Map<String, Object> row : rows) {
-            Object codeObj = row.get(mandatoryColumn);
-            String custCode = codeObj != null ? codeObj.toString() : null;
-            if (custCode == null || custCode.trim().isEmpty()) {
-                log.warn("跳过缺少 {} 的记录: {}", mandatoryColumn, row);
+    /**
+     * 计算插入列：过滤掉动态标签列（中文列名）和Excel中的DYNAMIC_TAGS列，并追加系统内部的DYNAMIC_TAGS列。
+     */
+    private List<String> resolveInsertColumns(List<String> sanitizedCols) {
+        List<String> filteredCols = new ArrayList<>();
+        for (String col : sanitizedCols) {
+            // 忽略Excel中的DYNAMIC_TAGS列（如果存在），系统会自动添加
+            if ("DYNAMIC_TAGS".equalsIgnoreCase(col)) {
                 continue;
             }
-            
-            // 处理动态标签：将Excel中新增的动态标签列（中文列名）写入DYNAMIC_TAGS JSON字段
-            enrichDynamicTags(row);
-            
-            // 过滤掉动态标签列（中文列名）和Excel中的DYNAMIC_TAGS列，避免在数据库中创建这些列
-            List<String> filteredCols = new ArrayList<>();
-            for (String col : sanitizedCols) {
-                // 忽略Excel中的DYNAMIC_TAGS列（如果存在）
-                if ("DYNAMIC_TAGS".equalsIgnoreCase(col)) {
-                    // 系统会自动添加DYNAMIC_TAGS列，这里跳过Excel中的该列
+            // 保留固定字段
+            if (FIXED_FIELDS.contains(col)) {
+                filteredCols.add(col);
+            } else {
+                // 如果是中文列名（动态标签列），不添加到插入列列表中
+                // 这些列的值会写入DYNAMIC_TAGS JSON字段
+                if (col.matches(".*[\\u4e00-\\u9fa5].*")) {
+                    log.debug("过滤动态标签列，不创建数据库列: {}", col);
                     continue;
                 }
-                // 保留固定字段
-                if (FIXED_FIELDS.contains(col)) {
-                    filteredCols.add(col);
-                } else {
-                    // 如果是中文列名（动态标签列），不添加到插入列列表中
-                    // 这些列的值已经写入DYNAMIC_TAGS JSON字段了
-                    if (col != null && col.matches(".*[\\u4e00-\\u9fa5].*")) {
-                        log.debug("过滤动态标签列，不创建数据库列: {}", col);
-                        continue;
-                    }
-                    // 其他非中文列名（可能是其他业务字段）保留
-                    filteredCols.add(col);
-                }
-            }
-            // 确保DYNAMIC_TAGS列在插入列列表中（系统内部使用）
-            if (!filteredCols.contains("DYNAMIC_TAGS")) {
-                filteredCols.add("DYNAMIC_TAGS");
-            }
-            
-            int affected = baseCustomerInfoRepository.insertRow(filteredCols, row);
-            if (affected > 0) {
-                stats.insertedCount++;
+                // 其他非中文列名（可能是其他业务字段）保留
+                filteredCols.add(col);
             }
-            stats.processedCount++;
         }
-        return stats;
+        // 确保DYNAMIC_TAGS列在插入列列表中（系统内部使用）
+        filteredCols.add("DYNAMIC_TAGS");
+        return filteredCols;
     }
 
     /**
@@ -225,6 +219,69 @@ public class BaseCustomerTableManager {
         }
     }
 
+    /**
+     * 客户基础信息按批写入器（非线程安全，单次导入内使用）。
+     */
+    public class BatchWriter {
+        private final List<String> insertColumns;
+        private final String mandatoryColumn;
+        private final int batchSize;
+        private final List<List<Object>> buffer;
+        private final BaseCustomerImportStats stats = new BaseCustomerImportStats();
+
+        private BatchWriter(List<String> insertColumns, String mandatoryColumn, int batchSize) {
+            this.insertColumns = insertColumns;
+            this.mandatoryColumn = mandatoryColumn;
+            this.batchSize = batchSize;
+            this.buffer = new ArrayList<>(batchSize);
+        }
+
+        /**
+         * 接收一行数据，缓冲区满时写库。
+         *
+         * @param row 行数据（列名->值），会被写入 DYNAMIC_TAGS
+         */
+        public void add(Map<String, Object> row) {
+            Object codeObj = row.get(mandatoryColumn);
+            String custCode = codeObj != null ? codeObj.toString() : null;
+            if (custCode == null || custCode.trim().isEmpty()) {
+                log.warn("跳过缺少 {} 的记录: {}", mandatoryColumn, row);
+                return;
+            }
+
+            // 处理动态标签：将Excel中新增的动态标签列（中文列名）写入DYNAMIC_TAGS JSON字段
+            enrichDynamicTags(row);
+
+            List<Object> values = new ArrayList<>(insertColumns.size());
+            for (String col : insertColumns) {
+                values.add(row.get(col));
+            }
+            buffer.add(values);
+            stats.processedCount++;
+            if (buffer.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        /**
+         * 写入剩余缓冲并返回统计。
+         *
+         * @return 导入统计
+         */
+        public BaseCustomerImportStats finish() {
+            flush();
+            return stats;
+        }
+
+        private void flush() {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            stats.insertedCount += baseCustomerInfoRepository.batchInsertRows(insertColumns, buffer);
+            buffer.clear();
+        }
+    }
+
     public static class BaseCustomerImportStats {
         private int insertedCount;
         private int processedCount;
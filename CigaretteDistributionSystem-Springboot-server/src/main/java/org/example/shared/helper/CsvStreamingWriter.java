@@ -0,0 +1,78 @@
+package org.example.shared.helper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * gzip 压缩 CSV 流式写出器。
+ *
+ * <p>UTF-8 编码并写入 BOM（便于 Excel 直接识别中文），按 RFC 4180 转义：含逗号、双引号或换行的值加双引号，
+ * 内部双引号写两次。BigDecimal 按 {@link BigDecimal#toPlainString()} 输出，避免科学计数法。
+ * 每行直接写入压缩流，内存占用只有缓冲区大小。</p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+public final class CsvStreamingWriter implements TableRowWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final GZIPOutputStream gzip;
+    private final Writer writer;
+
+    /**
+     * @param out 输出流（关闭写出器时一并关闭）
+     * @throws IOException 写出 gzip 头失败
+     */
+    public CsvStreamingWriter(OutputStream out) throws IOException {
+        this.gzip = new GZIPOutputStream(out, BUFFER_SIZE);
+        this.writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.writer.write('\uFEFF');
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values[i];
+            if (value != null) {
+                writeField(value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : value.toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+        gzip.finish();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void writeField(String text) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -6,8 +6,13 @@ import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * Excel 解析工具。
@@ -33,33 +38,44 @@ public final class ExcelParseHelper {
      */
     public static List<Map<String, Object>> readCigaretteInfo(MultipartFile file) throws IOException {
         List<Map<String, Object>> data = new ArrayList<>();
+        streamCigaretteInfo(file, data::add);
+        return data;
+    }
 
-        try (Workbook workbook = createWorkbook(file)) {
-            Sheet sheet = workbook.getSheetAt(0);
-            Row headerRow = sheet.getRow(0);
-            if (headerRow == null) {
-                return data;
-            }
-
-            List<String> headers = new ArrayList<>();
-            for (Cell cell : headerRow) {
-                headers.add(getCellValueAsString(cell));
-            }
-
-            for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-                Row row = sheet.getRow(i);
-                if (row == null) {
-                    continue;
+    /**
+     * 流式读取卷烟投放基础信息 Excel，逐行回调。
+     *
+     * @param file     Excel 文件
+     * @param consumer 行回调（列名->值）
+     * @throws IOException 读取失败
+     */
+    public static void streamCigaretteInfo(MultipartFile file, Consumer<Map<String, Object>> consumer) throws IOException {
+        List<String> headers = new ArrayList<>();
+        boolean[] headerSeen = new boolean[1];
+        streamRows(file, (rowIndex, cells) -> {
+            if (!headerSeen[0]) {
+                headerSeen[0] = true;
+                if (rowIndex != 0) {
+                    // 首行缺失视为无表头，与 sheet.getRow(0) == null 时一致
+                    return;
                 }
-                Map<String, Object> rowData = new HashMap<>();
-                for (int j = 0; j < headers.size() && j < row.getLastCellNum(); j++) {
-                    Cell cell = row.getCell(j);
-                    rowData.put(headers.get(j), getCellValue(cell));
+                // 与原 Row 迭代一致：缺失（及无值）的表头单元格直接跳过，不占位
+                for (Object cell : cells) {
+                    if (cell != null) {
+                        headers.add(cell.toString());
+                    }
                 }
-                data.add(rowData);
+                return;
             }
-        }
-        return data;
+            if (headers.isEmpty()) {
+                return;
+            }
+            Map<String, Object> rowData = new HashMap<>();
+            for (int j = 0; j < headers.size() && j < cells.size(); j++) {
+                rowData.put(headers.get(j), cells.get(j));
+            }
+            consumer.accept(rowData);
+        });
     }
 
     /**
@@ -73,82 +89,145 @@ public final class ExcelParseHelper {
     public static BaseCustomerExcelData readBaseCustomerInfo(MultipartFile file) throws IOException {
         List<Map<String, Object>> rows = new ArrayList<>();
         List<String> orderedColumns = new ArrayList<>();
-        List<String> headerColumns = new ArrayList<>();
-        Set<String> seenColumns = new LinkedHashSet<>();
+        streamBaseCustomerInfo(file, new BaseCustomerRowListener() {
+            @Override
+            public void onColumns(List<String> columns) {
+                orderedColumns.addAll(columns);
+            }
 
-        try (Workbook workbook = createWorkbook(file)) {
-            Sheet sheet = workbook.getSheetAt(0);
-            Row headerRow = sheet.getRow(0);
-            if (headerRow == null) {
-                return new BaseCustomerExcelData(orderedColumns, rows);
+            @Override
+            public void onRow(Map<String, Object> row) {
+                rows.add(row);
             }
+        });
+        return new BaseCustomerExcelData(orderedColumns, rows);
+    }
 
-            short lastCellNum = headerRow.getLastCellNum();
-            for (int i = 0; i < lastCellNum; i++) {
-                Cell cell = headerRow.getCell(i);
-                String rawHeader = cell != null ? cell.toString() : "";
-                if (rawHeader == null || rawHeader.trim().isEmpty() || "ID".equalsIgnoreCase(rawHeader.trim())) {
-                    headerColumns.add(null);
+    /**
+     * 流式读取客户基础信息 Excel：解析表头后回调列顺序，随后逐行回调有效行（全空行跳过）。
+     *
+     * @param file     Excel 文件
+     * @param listener 列/行回调
+     * @throws IOException 读取失败
+     * @example 30 万行的 base_customer_info.xlsx -> 常量内存逐行回调，调用方按批写库
+     */
+    public static void streamBaseCustomerInfo(MultipartFile file, BaseCustomerRowListener listener) throws IOException {
+        List<String> headerColumns = new ArrayList<>();
+        boolean[] headerSeen = new boolean[1];
+        streamRows(file, (rowIndex, cells) -> {
+            if (!headerSeen[0]) {
+                headerSeen[0] = true;
+                if (rowIndex != 0) {
+                    return;
+                }
+                listener.onColumns(parseBaseCustomerHeader(cells, headerColumns));
+                return;
+            }
+            if (headerColumns.isEmpty()) {
+                return;
+            }
+
+            Map<String, Object> rowData = new HashMap<>();
+            boolean hasValue = false;
+            for (int j = 0; j < headerColumns.size(); j++) {
+                String columnName = headerColumns.get(j);
+                if (columnName == null) {
                     continue;
                 }
-                
-                // 检查是否为中文列名（动态标签列）
-                String trimmedHeader = rawHeader.trim();
-                boolean isChineseColumn = trimmedHeader.matches(".*[\\u4e00-\\u9fa5].*");
-                
-                String columnName;
-                if (isChineseColumn) {
-                    // 中文列名（动态标签列）直接使用原始列名，不进行规范化
-                    columnName = trimmedHeader;
-                } else {
-                    // 英文列名进行规范化处理
-                    columnName = normalizeColumnName(rawHeader);
-                    if (columnName == null || columnName.isEmpty()) {
-                        headerColumns.add(null);
-                        continue;
-                    }
+                Object cell = j < cells.size() ? cells.get(j) : null;
+                String cellValue = cell != null ? cell.toString().trim() : null;
+                if (cellValue != null && cellValue.isEmpty()) {
+                    cellValue = null;
                 }
-                
-                headerColumns.add(columnName);
-                if (seenColumns.add(columnName)) {
-                    orderedColumns.add(columnName);
+                if (cellValue != null) {
+                    hasValue = true;
                 }
+                rowData.put(columnName, cellValue);
+            }
+
+            if (hasValue) {
+                listener.onRow(rowData);
             }
+        });
+    }
 
-            for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-                Row row = sheet.getRow(i);
-                if (row == null) {
+    /**
+     * 解析客户基础信息表头。
+     *
+     * @param cells         表头单元格
+     * @param headerColumns 输出：按 Excel 列号的列名（忽略的列为 null）
+     * @return 去重后的列顺序
+     */
+    private static List<String> parseBaseCustomerHeader(List<Object> cells, List<String> headerColumns) {
+        List<String> orderedColumns = new ArrayList<>();
+        Set<String> seenColumns = new LinkedHashSet<>();
+        for (Object cell : cells) {
+            String rawHeader = cell != null ? cell.toString() : "";
+            if (rawHeader.trim().isEmpty() || "ID".equalsIgnoreCase(rawHeader.trim())) {
+                headerColumns.add(null);
+                continue;
+            }
+
+            // 检查是否为中文列名（动态标签列）
+            String trimmedHeader = rawHeader.trim();
+            boolean isChineseColumn = trimmedHeader.matches(".*[\\u4e00-\\u9fa5].*");
+
+            String columnName;
+            if (isChineseColumn) {
+                // 中文列名（动态标签列）直接使用原始列名，不进行规范化
+                columnName = trimmedHeader;
+            } else {
+                // 英文列名进行规范化处理
+                columnName = normalizeColumnName(rawHeader);
+                if (columnName == null || columnName.isEmpty()) {
+                    headerColumns.add(null);
                     continue;
                 }
+            }
 
-                Map<String, Object> rowData = new HashMap<>();
-                boolean hasValue = false;
-                for (int j = 0; j < headerColumns.size(); j++) {
-                    String columnName = headerColumns.get(j);
-                    if (columnName == null) {
-                        continue;
-                    }
-                    Cell cell = row.getCell(j);
-                    String cellValue = getCellValueAsString(cell);
-                    if (cellValue != null) {
-                        cellValue = cellValue.trim();
-                    }
-                    if (cellValue != null && cellValue.isEmpty()) {
-                        cellValue = null;
-                    }
-                    if (cellValue != null) {
-                        hasValue = true;
-                    }
-                    rowData.put(columnName, cellValue);
-                }
+            headerColumns.add(columnName);
+            if (seenColumns.add(columnName)) {
+                orderedColumns.add(columnName);
+            }
+        }
+        return orderedColumns;
+    }
 
-                if (hasValue) {
-                    rows.add(rowData);
+    /**
+     * 逐行读取第一个工作表。
+     * <p>
+     * xlsx 先落盘为临时文件后走 SAX 事件模型（{@link ExcelStreamingReader}），内存占用与行数无关；
+     * xls 行数上限 65536，仍使用 {@link HSSFWorkbook} 读取。
+     * </p>
+     *
+     * @param file    Excel 文件
+     * @param handler 行回调
+     * @throws IOException 读取失败
+     */
+    public static void streamRows(MultipartFile file, ExcelStreamingReader.RowHandler handler) throws IOException {
+        if (isXlsx(file)) {
+            Path temp = Files.createTempFile("excel-import-", ".xlsx");
+            try {
+                try (InputStream in = file.getInputStream()) {
+                    Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
                 }
+                ExcelStreamingReader.read(temp.toFile(), handler);
+            } finally {
+                Files.deleteIfExists(temp);
             }
+            return;
         }
 
-        return new BaseCustomerExcelData(orderedColumns, rows);
+        try (Workbook workbook = createWorkbook(file)) {
+            Sheet sheet = workbook.getSheetAt(0);
+            for (Row row : sheet) {
+                List<Object> cells = new ArrayList<>();
+                for (int j = 0; j < row.getLastCellNum(); j++) {
+                    cells.add(getCellValue(row.getCell(j)));
+                }
+                handler.onRow(row.getRowNum(), cells);
+            }
+        }
     }
 
     /**
@@ -159,13 +238,17 @@ public final class ExcelParseHelper {
      * @throws IOException 流读取失败
      */
     public static Workbook createWorkbook(MultipartFile file) throws IOException {
-        String fileName = file.getOriginalFilename();
-        if (fileName != null && fileName.toLowerCase().endsWith(".xlsx")) {
+        if (isXlsx(file)) {
             return new XSSFWorkbook(file.getInputStream());
         }
         return new HSSFWorkbook(file.getInputStream());
     }
 
+    private static boolean isXlsx(MultipartFile file) {
+        String fileName = file.getOriginalFilename();
+        return fileName != null && fileName.toLowerCase().endsWith(".xlsx");
+    }
+
     /**
      * 获取单元格值（保留原始类型）。
      */
@@ -217,6 +300,26 @@ public final class ExcelParseHelper {
         return normalized;
     }
 
+    /**
+     * 客户基础信息流式读取回调。
+     */
+    public interface BaseCustomerRowListener {
+
+        /**
+         * 表头解析完成（仅调用一次，先于所有行）。
+         *
+         * @param columns 去重后的列顺序
+         */
+        void onColumns(List<String> columns);
+
+        /**
+         * 一行有效数据（列名->去空白后的字符串值）。
+         *
+         * @param row 行数据
+         */
+        void onRow(Map<String, Object> row);
+    }
+
     public static class BaseCustomerExcelData {
         private final List<String> columns;
         private final List<Map<String, Object>> rows;
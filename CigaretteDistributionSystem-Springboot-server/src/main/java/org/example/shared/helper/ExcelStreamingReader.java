@@ -0,0 +1,236 @@
+package org.example.shared.helper;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * xlsx 流式读取器（POI 事件模型：{@link XSSFReader} + SAX）。
+ *
+ * <p>职责：逐行解析首个工作表并回调，不构建 {@code XSSFWorkbook}，内存占用与行数无关
+ * （仅共享字符串表常驻内存）。</p>
+ * <p>单元格取值与 {@link ExcelParseHelper#getCellValue} 保持一致：字符串→String、数值→BigDecimal、
+ * 日期格式数值→Date、布尔→Boolean、公式→公式文本（共享公式的从属单元格无公式文本时取缓存值）、错误/空→null。</p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+public final class ExcelStreamingReader {
+
+    private ExcelStreamingReader() {}
+
+    /**
+     * 行回调。
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+
+        /**
+         * 处理一行数据。
+         *
+         * @param rowIndex 行号（从0开始，与 {@code Sheet#getRow} 一致）
+         * @param cells    单元格值，下标为列号；缺失单元格为 null，长度为该行最后一个单元格列号 + 1
+         */
+        void onRow(int rowIndex, List<Object> cells);
+    }
+
+    /**
+     * 流式读取 xlsx 文件的第一个工作表。
+     *
+     * @param file    xlsx 文件
+     * @param handler 行回调
+     * @throws IOException 文件损坏或解析失败
+     */
+    public static void read(File file, RowHandler handler) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new SheetHandler(sharedStrings, styles, handler));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("xlsx 流式解析失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 工作表 XML 的 SAX 处理器。
+     */
+    private static final class SheetHandler extends DefaultHandler {
+
+        private final ReadOnlySharedStringsTable sharedStrings;
+        private final StylesTable styles;
+        private final RowHandler handler;
+
+        private final List<Object> cells = new ArrayList<>();
+        private int rowIndex = -1;
+        private int nextColumn;
+
+        private int column;
+        private String cellType;
+        private String styleIndex;
+        private final StringBuilder value = new StringBuilder();
+        private final StringBuilder formula = new StringBuilder();
+        private final StringBuilder inlineText = new StringBuilder();
+        private StringBuilder current;
+
+        private SheetHandler(ReadOnlySharedStringsTable sharedStrings, StylesTable styles, RowHandler handler) {
+            this.sharedStrings = sharedStrings;
+            this.styles = styles;
+            this.handler = handler;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (elementName(localName, qName)) {
+                case "row":
+                    String r = attributes.getValue("r");
+                    rowIndex = r != null ? Integer.parseInt(r) - 1 : rowIndex + 1;
+                    cells.clear();
+                    nextColumn = 0;
+                    break;
+                case "c":
+                    String ref = attributes.getValue("r");
+                    column = ref != null ? columnIndex(ref) : nextColumn;
+                    nextColumn = column + 1;
+                    cellType = attributes.getValue("t");
+                    styleIndex = attributes.getValue("s");
+                    value.setLength(0);
+                    formula.setLength(0);
+                    inlineText.setLength(0);
+                    break;
+                case "v":
+                    current = value;
+                    break;
+                case "f":
+                    current = formula;
+                    break;
+                case "t":
+                    // 内联字符串 <is><t>..</t></is>
+                    current = inlineText;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (current != null) {
+                current.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (elementName(localName, qName)) {
+                case "v":
+                case "f":
+                case "t":
+                    current = null;
+                    break;
+                case "c":
+                    while (cells.size() < column) {
+                        cells.add(null);
+                    }
+                    Object cellValue = cellValue();
+                    if (cells.size() == column) {
+                        cells.add(cellValue);
+                    } else {
+                        cells.set(column, cellValue);
+                    }
+                    break;
+                case "row":
+                    handler.onRow(rowIndex, new ArrayList<>(cells));
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private Object cellValue() {
+            if (formula.length() > 0) {
+                return formula.toString();
+            }
+            String raw = value.toString();
+            if ("s".equals(cellType)) {
+                return raw.isEmpty() ? null : sharedStrings.getItemAt(Integer.parseInt(raw)).getString();
+            }
+            if ("inlineStr".equals(cellType)) {
+                return inlineText.toString();
+            }
+            if ("str".equals(cellType) || "d".equals(cellType)) {
+                return raw;
+            }
+            if ("b".equals(cellType)) {
+                return raw.isEmpty() ? null : "1".equals(raw);
+            }
+            if ("e".equals(cellType) || raw.isEmpty()) {
+                return null;
+            }
+            double number = Double.parseDouble(raw);
+            if (isDateFormatted(number)) {
+                return DateUtil.getJavaDate(number);
+            }
+            return BigDecimal.valueOf(number);
+        }
+
+        private boolean isDateFormatted(double number) {
+            if (styleIndex == null || styles == null || !DateUtil.isValidExcelDate(number)) {
+                return false;
+            }
+            XSSFCellStyle style = styles.getStyleAt(Integer.parseInt(styleIndex));
+            return style != null && DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString());
+        }
+
+        private static String elementName(String localName, String qName) {
+            if (localName != null && !localName.isEmpty()) {
+                return localName;
+            }
+            int colon = qName.indexOf(':');
+            return colon >= 0 ? qName.substring(colon + 1) : qName;
+        }
+
+        /**
+         * 解析单元格引用（如 "AB12"）的列号，从0开始。
+         */
+        private static int columnIndex(String ref) {
+            int index = 0;
+            for (int i = 0; i < ref.length(); i++) {
+                char c = ref.charAt(i);
+                if (c < 'A' || c > 'Z') {
+                    break;
+                }
+                index = index * 26 + (c - 'A' + 1);
+            }
+            return index - 1;
+        }
+    }
+}
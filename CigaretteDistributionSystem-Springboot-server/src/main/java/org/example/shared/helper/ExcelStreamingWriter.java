@@ -0,0 +1,75 @@
+package org.example.shared.helper;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * xlsx 流式写出器（POI {@link SXSSFWorkbook}）。
+ *
+ * <p>内存中只保留最近 {@value #ROW_ACCESS_WINDOW} 行，更早的行压缩后刷入临时文件，堆占用与总行数无关；
+ * {@link #finish()} 时将临时文件拼装为 xlsx 写入输出流。单元格取值：Number→数值、Boolean→布尔、其他→字符串、null→空单元格。</p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+public final class ExcelStreamingWriter implements TableRowWriter {
+
+    /** 内存行窗口 */
+    public static final int ROW_ACCESS_WINDOW = 100;
+
+    private final OutputStream out;
+    private final SXSSFWorkbook workbook;
+    private final SXSSFSheet sheet;
+    private int rowIndex;
+
+    /**
+     * @param out       输出流（关闭写出器时一并关闭）
+     * @param sheetName 工作表名称
+     */
+    public ExcelStreamingWriter(OutputStream out, String sheetName) {
+        this.out = out;
+        this.workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW);
+        this.workbook.setCompressTempFiles(true);
+        this.sheet = workbook.createSheet(sheetName);
+    }
+
+    @Override
+    public void writeRow(Object[] values) {
+        Row row = sheet.createRow(rowIndex++);
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            Cell cell = row.createCell(i);
+            if (value instanceof Number) {
+                cell.setCellValue(((Number) value).doubleValue());
+            } else if (value instanceof Boolean) {
+                cell.setCellValue((Boolean) value);
+            } else {
+                cell.setCellValue(value.toString());
+            }
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        workbook.write(out);
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            workbook.dispose();
+            workbook.close();
+        } finally {
+            out.close();
+        }
+    }
+}
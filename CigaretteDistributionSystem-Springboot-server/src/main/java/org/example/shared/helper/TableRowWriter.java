@@ -0,0 +1,31 @@
+package org.example.shared.helper;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * 逐行表格写出器（流式导出用）。
+ *
+ * <p>调用顺序：{@link #writeRow} 若干次 → {@link #finish()} → {@link #close()}；
+ * 未调用 {@code finish} 即关闭表示导出中止，已写出的内容不保证完整。关闭时一并关闭底层输出流。</p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+public interface TableRowWriter extends Closeable {
+
+    /**
+     * 写出一行。数组在调用返回后即可复用。
+     *
+     * @param values 单元格值（null 为空单元格）
+     * @throws IOException 写出失败（如客户端断开）
+     */
+    void writeRow(Object[] values) throws IOException;
+
+    /**
+     * 结束写出并刷新全部内容到底层输出流。
+     *
+     * @throws IOException 写出失败
+     */
+    void finish() throws IOException;
+}
@@ -0,0 +1,261 @@
+package org.example.shared.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 客户标签位图索引（某周 customer_filter 分区的内存索引）。
+ * <p>
+ * 分区内每个客户按扫描顺序分配序号，维护以下位图（{@link BitSet}，基于 long[]）：
+ * <ul>
+ *   <li>扩展维度列 → 维度值 → 客户序号集合；</li>
+ *   <li>订单周期 → 客户序号集合；</li>
+ *   <li>标签键（固定标签列或 DYNAMIC_TAGS 中的键）→ 标签值 → 客户序号集合，以及标签键的存在集合；</li>
+ * </ul>
+ * 客户的原始档位以字典编码保存，按标签过滤的档位统计变为位图求交后按档位计数，不再执行 SQL。
+ * 构建完成后只读，可在多个线程间共享。
+ * </p>
+ * <p>
+ * 求值规则与 {@link GradeAggregationCube} 相同：维度等值匹配、值为 NULL 的客户不命中；标签值为 NULL 的客户不命中，
+ * 固定标签列与动态标签按各自的比较规则求值（见 {@code GradeAggregationCube#compare}）；订单周期支持 LIKE 模式；
+ * 结果按原始 GRADE 分组（含 NULL 档位）。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+public final class CustomerTagBitmapIndex {
+
+    private final int customerCount;
+    private final String[] gradeDictionary;
+    private final int[] gradeCodes;
+    private final Map<String, Map<String, BitSet>> dimensionBitmaps;
+    private final Map<String, BitSet> orderCycleBitmaps;
+    private final Map<String, Map<String, BitSet>> tagBitmaps;
+    private final Map<String, BitSet> tagPresence;
+    private final Set<String> fixedTagColumns;
+
+    private CustomerTagBitmapIndex(Builder builder) {
+        this.customerCount = builder.customerCount;
+        this.gradeDictionary = builder.gradeDictionary.toArray(new String[0]);
+        this.gradeCodes = Arrays.copyOf(builder.gradeCodes, builder.customerCount);
+        this.dimensionBitmaps = builder.dimensionBitmaps;
+        this.orderCycleBitmaps = builder.orderCycleBitmaps;
+        this.tagBitmaps = builder.tagBitmaps;
+        this.tagPresence = builder.tagPresence;
+        this.fixedTagColumns = builder.fixedTagColumns;
+    }
+
+    /**
+     * 创建构建器。
+     *
+     * @param dimensionColumns 建立位图的扩展维度列
+     * @param fixedTagColumns  固定标签列（如 QUALITY_DATA_SHARE），空字符串视为无该标签；其余标签按动态标签比较
+     * @return 构建器
+     */
+    public static Builder builder(List<String> dimensionColumns, Set<String> fixedTagColumns) {
+        return new Builder(dimensionColumns, fixedTagColumns);
+    }
+
+    /**
+     * 判断查询能否由索引等价求值（过滤列均已建立位图、标签比较符受支持）。
+     *
+     * @param filters     维度等值过滤（列名 -> 值，可为空）
+     * @param tagColumn   标签列名（可空）
+     * @param tagOperator 标签比较符（可空）
+     * @param tagValue    标签值（可空）
+     * @return true 表示可直接调用 {@link #statGrades}
+     */
+    public boolean supports(Map<String, String> filters, String tagColumn, String tagOperator, Object tagValue) {
+        if (filters != null && !dimensionBitmaps.keySet().containsAll(filters.keySet())) {
+            return false;
+        }
+        return !hasTagCondition(tagColumn, tagOperator, tagValue)
+                || GradeAggregationCube.SUPPORTED_OPERATORS.contains(tagOperator.trim());
+    }
+
+    /**
+     * 按条件统计 GRADE 分组客户数（结果结构与 statGradesPartition 相同）。
+     *
+     * @param filters           维度等值过滤（列名 -> 值，可为空）
+     * @param tagColumn         标签列名（可空）
+     * @param tagOperator       标签比较符（可空）
+     * @param tagValue          标签值（可空）
+     * @param orderCyclePattern 订单周期 LIKE 模式（可空）
+     * @return 统计结果，每行包含 GRADE、CUSTOMER_COUNT
+     * @throws IllegalArgumentException 查询包含未建立位图的列或不支持的比较符
+     */
+    public List<Map<String, Object>> statGrades(Map<String, String> filters,
+                                                String tagColumn, String tagOperator, Object tagValue,
+                                                String orderCyclePattern) {
+        if (!supports(filters, tagColumn, tagOperator, tagValue)) {
+            throw new IllegalArgumentException("位图索引无法求值该查询: filters=" + filters + ", tagColumn=" + tagColumn);
+        }
+        BitSet selected = select(filters, tagColumn, tagOperator, tagValue, orderCyclePattern);
+        long[] counts = new long[gradeDictionary.length];
+        for (int i = selected.nextSetBit(0); i >= 0; i = selected.nextSetBit(i + 1)) {
+            counts[gradeCodes[i]]++;
+        }
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                Map<String, Object> row = new HashMap<>(4);
+                row.put("GRADE", gradeDictionary[code]);
+                row.put("CUSTOMER_COUNT", counts[code]);
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 统计带有指定标签的客户数（固定标签列为非空值，动态标签为 DYNAMIC_TAGS 中存在该键）。
+     *
+     * @param tagColumn 标签列名或动态标签键
+     * @return 客户数
+     */
+    public long countTagged(String tagColumn) {
+        BitSet present = tagPresence.get(tagColumn);
+        return present == null ? 0 : present.cardinality();
+    }
+
+    public int getCustomerCount() {
+        return customerCount;
+    }
+
+    private BitSet select(Map<String, String> filters, String tagColumn, String tagOperator, Object tagValue,
+                          String orderCyclePattern) {
+        BitSet selected = new BitSet(customerCount);
+        selected.set(0, customerCount);
+        if (filters != null) {
+            for (Map.Entry<String, String> filter : filters.entrySet()) {
+                String value = GradeAggregationCube.normalize(filter.getValue());
+                BitSet matched = value == null ? null : dimensionBitmaps.get(filter.getKey()).get(value);
+                if (matched == null) {
+                    return new BitSet();
+                }
+                selected.and(matched);
+            }
+        }
+        if (hasTagCondition(tagColumn, tagOperator, tagValue)) {
+            selected.and(matchTag(tagColumn, tagOperator.trim(), tagValue));
+        }
+        if (orderCyclePattern != null && !orderCyclePattern.isEmpty()) {
+            BitSet cycles = new BitSet(customerCount);
+            for (Map.Entry<String, BitSet> entry : orderCycleBitmaps.entrySet()) {
+                if (GradeAggregationCube.like(entry.getKey(), orderCyclePattern)) {
+                    cycles.or(entry.getValue());
+                }
+            }
+            selected.and(cycles);
+        }
+        return selected;
+    }
+
+    private BitSet matchTag(String tagColumn, String operator, Object expected) {
+        Map<String, BitSet> byValue = tagBitmaps.get(tagColumn);
+        if (byValue == null) {
+            return new BitSet();
+        }
+        if ("=".equals(operator) && !(expected instanceof Number)) {
+            BitSet matched = byValue.get(expected.toString().trim());
+            return matched == null ? new BitSet() : matched;
+        }
+        boolean dynamicTag = !fixedTagColumns.contains(tagColumn);
+        BitSet matched = new BitSet(customerCount);
+        for (Map.Entry<String, BitSet> entry : byValue.entrySet()) {
+            if (GradeAggregationCube.compare(entry.getKey(), operator, expected, dynamicTag)) {
+                matched.or(entry.getValue());
+            }
+        }
+        return matched;
+    }
+
+    private static boolean hasTagCondition(String tagColumn, String tagOperator, Object tagValue) {
+        return tagColumn != null && tagOperator != null && tagValue != null;
+    }
+
+    /**
+     * 索引构建器（非线程安全，单次流式扫描内使用）。
+     */
+    public static final class Builder {
+        private final List<String> dimensionColumns;
+        private final Set<String> fixedTagColumns;
+        private final Map<String, Integer> gradePositions = new HashMap<>();
+        private final List<String> gradeDictionary = new ArrayList<>();
+        private final Map<String, Map<String, BitSet>> dimensionBitmaps = new HashMap<>();
+        private final Map<String, BitSet> orderCycleBitmaps = new HashMap<>();
+        private final Map<String, Map<String, BitSet>> tagBitmaps = new HashMap<>();
+        private final Map<String, BitSet> tagPresence = new HashMap<>();
+        private int[] gradeCodes = new int[1024];
+        private int customerCount;
+
+        private Builder(List<String> dimensionColumns, Set<String> fixedTagColumns) {
+            this.dimensionColumns = Collections.unmodifiableList(new ArrayList<>(dimensionColumns));
+            this.fixedTagColumns = fixedTagColumns == null
+                    ? Collections.emptySet() : Collections.unmodifiableSet(new HashSet<>(fixedTagColumns));
+            for (String column : dimensionColumns) {
+                dimensionBitmaps.put(column, new HashMap<>());
+            }
+        }
+
+        /**
+         * 追加一个客户。
+         *
+         * @param grade      原始档位
+         * @param orderCycle 订单周期
+         * @param dimensions 维度值（顺序与 dimensionColumns 一致）
+         * @param tags       标签键 → 标签值（固定标签列与 DYNAMIC_TAGS 展开后的键值，值可为 null）
+         * @return 当前构建器
+         */
+        public Builder add(Object grade, Object orderCycle, Object[] dimensions, Map<String, ?> tags) {
+            int ordinal = customerCount++;
+            if (ordinal == gradeCodes.length) {
+                gradeCodes = Arrays.copyOf(gradeCodes, gradeCodes.length * 2);
+            }
+            String gradeKey = grade == null ? null : grade.toString();
+            Integer code = gradePositions.get(gradeKey);
+            if (code == null) {
+                code = gradeDictionary.size();
+                gradePositions.put(gradeKey, code);
+                gradeDictionary.add(gradeKey);
+            }
+            gradeCodes[ordinal] = code;
+
+            if (orderCycle != null) {
+                orderCycleBitmaps.computeIfAbsent(orderCycle.toString(), k -> new BitSet()).set(ordinal);
+            }
+            for (int i = 0; i < dimensionColumns.size(); i++) {
+                String value = GradeAggregationCube.normalize(dimensions[i]);
+                if (value != null) {
+                    dimensionBitmaps.get(dimensionColumns.get(i)).computeIfAbsent(value, k -> new BitSet()).set(ordinal);
+                }
+            }
+            if (tags != null) {
+                for (Map.Entry<String, ?> tag : tags.entrySet()) {
+                    String value = GradeAggregationCube.normalize(tag.getValue());
+                    boolean fixed = fixedTagColumns.contains(tag.getKey());
+                    if (!fixed || (tag.getValue() != null && !tag.getValue().toString().isEmpty())) {
+                        tagPresence.computeIfAbsent(tag.getKey(), k -> new BitSet()).set(ordinal);
+                    }
+                    if (value != null) {
+                        tagBitmaps.computeIfAbsent(tag.getKey(), k -> new HashMap<>())
+                                .computeIfAbsent(value, k -> new BitSet()).set(ordinal);
+                    }
+                }
+            }
+            return this;
+        }
+
+        public CustomerTagBitmapIndex build() {
+            return new CustomerTagBitmapIndex(this);
+        }
+    }
+}
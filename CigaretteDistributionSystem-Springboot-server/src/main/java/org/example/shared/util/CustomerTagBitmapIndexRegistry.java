@@ -0,0 +1,66 @@
+package org.example.shared.util;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 客户标签位图索引注册表。
+ * <p>
+ * 按分区（year-month-weekSeq）保存 {@link CustomerTagBitmapIndex}，只保留最近使用的 {@value #MAX_PARTITIONS} 个分区。
+ * 索引在 customer_filter 分区重建时生成，分区被截断或重建前失效；不存在索引时调用方回退到 SQL 统计。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@Component
+public class CustomerTagBitmapIndexRegistry {
+
+    /** 最多缓存的分区数 */
+    private static final int MAX_PARTITIONS = 4;
+
+    private final Map<String, CustomerTagBitmapIndex> indexes =
+            new LinkedHashMap<String, CustomerTagBitmapIndex>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CustomerTagBitmapIndex> eldest) {
+                    return size() > MAX_PARTITIONS;
+                }
+            };
+
+    /**
+     * 获取分区索引。
+     *
+     * @return 索引，不存在时返回 null
+     */
+    public synchronized CustomerTagBitmapIndex get(Integer year, Integer month, Integer weekSeq) {
+        return indexes.get(key(year, month, weekSeq));
+    }
+
+    /**
+     * 登记分区索引（覆盖旧索引）。
+     */
+    public synchronized void put(Integer year, Integer month, Integer weekSeq, CustomerTagBitmapIndex index) {
+        indexes.put(key(year, month, weekSeq), index);
+    }
+
+    /**
+     * 使分区索引失效。
+     */
+    public synchronized void invalidate(Integer year, Integer month, Integer weekSeq) {
+        indexes.remove(key(year, month, weekSeq));
+    }
+
+    /**
+     * 使指定年份的全部分区索引失效。
+     */
+    public synchronized void invalidateYear(Integer year) {
+        String prefix = year + "-";
+        indexes.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    private static String key(Integer year, Integer month, Integer weekSeq) {
+        return year + "-" + month + "-" + weekSeq;
+    }
+}
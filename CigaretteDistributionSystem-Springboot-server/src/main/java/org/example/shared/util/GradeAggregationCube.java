@@ -0,0 +1,408 @@
+package org.example.shared.util;
+
+import org.example.domain.model.tag.TagFilter;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import static org.example.shared.util.GradeParser.parseGradeToIndex;
+
+/**
+ * 档位聚合立方体（某周 customer_filter 分区的内存聚合结果）。
+ * <p>
+ * 以 (扩展维度值, 标签值, 订单周期) 为键，保存 30 档位客户数 {@code long[30]}
+ * （索引0对应D30，索引29对应D1）。构建完成后只读，可在多个线程间共享。
+ * </p>
+ * <p>
+ * 查询语义按 {@code FilterCustomerTableMapper.statGradesPartition} 的条件逐项实现：
+ * <ul>
+ *   <li>维度过滤为等值匹配（值去除首尾空白后比较），值为 NULL 的客户不命中任何过滤；</li>
+ *   <li>标签规则支持 =、&lt;&gt;、!=、&gt;、&gt;=、&lt;、&lt;=，标签值为 NULL 的客户不命中；
+ *       固定标签列与动态标签的比较规则不同，见 {@link #compare(String, String, Object, boolean)}；</li>
+ *   <li>订单周期支持 SQL LIKE 模式（% 与 _）。</li>
+ * </ul>
+ * 字符串比较按字节序进行，不模拟数据库排序规则（大小写、尾部空格）。
+ * 无法在内存中等价求值的查询（如未聚合的列、不支持的比较符）由 {@link #supports(Map, TagFilter)} 返回 false，
+ * 调用方应回退到逐区域 SQL 统计。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+public final class GradeAggregationCube {
+
+    private static final int GRADE_COUNT = 30;
+    static final Set<String> SUPPORTED_OPERATORS =
+            Collections.unmodifiableSet(new HashSet<>(Arrays.asList("=", "<>", "!=", ">", ">=", "<", "<=")));
+    /** customer_filter 中的固定标签列；其余标签均为 DYNAMIC_TAGS 中的键 */
+    static final Set<String> FIXED_TAG_COLUMNS = Collections.singleton("QUALITY_DATA_SHARE");
+
+    private final List<String> dimensionColumns;
+    private final List<String> tagColumns;
+    private final Map<String, Integer> dimensionPositions;
+    private final Map<String, Integer> tagPositions;
+
+    private final String[][] dimensionValues;
+    private final String[][] tagValues;
+    private final String[] orderCycles;
+    private final long[][] grades;
+    /** 维度列 -> 维度值 -> 命中的分组集合 */
+    private final Map<String, Map<String, BitSet>> dimensionIndex;
+    /** 无法解析为 D30-D1 的原始档位 -> 客户数 */
+    private final Map<String, Long> unparsedGrades;
+
+    private GradeAggregationCube(Builder builder) {
+        this.dimensionColumns = builder.dimensionColumns;
+        this.tagColumns = builder.tagColumns;
+        this.dimensionPositions = positions(dimensionColumns);
+        this.tagPositions = positions(tagColumns);
+
+        int size = builder.groupGrades.size();
+        this.dimensionValues = builder.groupDimensions.toArray(new String[size][]);
+        this.tagValues = builder.groupTags.toArray(new String[size][]);
+        this.orderCycles = builder.groupOrderCycles.toArray(new String[size]);
+        this.grades = builder.groupGrades.toArray(new long[size][]);
+        this.unparsedGrades = Collections.unmodifiableMap(new LinkedHashMap<>(builder.unparsedGrades));
+
+        Map<String, Map<String, BitSet>> index = new HashMap<>();
+        for (int d = 0; d < dimensionColumns.size(); d++) {
+            Map<String, BitSet> byValue = new HashMap<>();
+            for (int g = 0; g < size; g++) {
+                String value = dimensionValues[g][d];
+                if (value != null) {
+                    byValue.computeIfAbsent(value, k -> new BitSet(size)).set(g);
+                }
+            }
+            index.put(dimensionColumns.get(d), byValue);
+        }
+        this.dimensionIndex = index;
+    }
+
+    /**
+     * 创建构建器。
+     *
+     * @param dimensionColumns 参与聚合的扩展维度列（如 COMPANY_DISTRICT、MARKET_TYPE）
+     * @param tagColumns       参与聚合的标签列（固定列或 DYNAMIC_TAGS 中的键）
+     * @return 构建器
+     */
+    public static Builder builder(List<String> dimensionColumns, List<String> tagColumns) {
+        return new Builder(dimensionColumns, tagColumns);
+    }
+
+    /**
+     * 判断查询能否由立方体等价求值。
+     *
+     * @param filters 维度等值过滤（列名 -> 值，可为空）
+     * @param tagRule 标签规则（可为 null；未配置列的规则视为无过滤）
+     * @return true 表示可直接调用 {@link #sumGrades(Map, TagFilter, String)}
+     */
+    public boolean supports(Map<String, String> filters, TagFilter tagRule) {
+        if (filters != null && !dimensionPositions.keySet().containsAll(filters.keySet())) {
+            return false;
+        }
+        if (tagRule == null || !tagRule.hasColumn()) {
+            return true;
+        }
+        return tagPositions.containsKey(tagRule.getColumn())
+                && SUPPORTED_OPERATORS.contains(tagRule.getOperator().trim())
+                && tagRule.toSqlValue() != null;
+    }
+
+    /**
+     * 汇总满足条件的 30 档位客户数。
+     *
+     * @param filters           维度等值过滤（列名 -> 值，可为空）
+     * @param tagRule           标签规则（可为 null）
+     * @param orderCyclePattern 订单周期 LIKE 模式（可为空，如 '单周%'）
+     * @return 新的 long[30] 数组
+     * @throws IllegalArgumentException 查询包含未聚合的列或不支持的比较符
+     */
+    public long[] sumGrades(Map<String, String> filters, TagFilter tagRule, String orderCyclePattern) {
+        if (!supports(filters, tagRule)) {
+            throw new IllegalArgumentException("立方体无法求值该查询: filters=" + filters + ", tagRule=" + tagRule);
+        }
+        long[] result = new long[GRADE_COUNT];
+        BitSet candidates = selectByDimensions(filters);
+        if (candidates == null) {
+            return result;
+        }
+
+        int tagPosition = -1;
+        String operator = null;
+        Object expected = null;
+        boolean dynamicTag = false;
+        if (tagRule != null && tagRule.hasColumn()) {
+            tagPosition = tagPositions.get(tagRule.getColumn());
+            operator = tagRule.getOperator().trim();
+            expected = tagRule.toSqlValue();
+            dynamicTag = !FIXED_TAG_COLUMNS.contains(tagRule.getColumn());
+        }
+        boolean hasPattern = orderCyclePattern != null && !orderCyclePattern.isEmpty();
+
+        for (int g = candidates.nextSetBit(0); g >= 0; g = candidates.nextSetBit(g + 1)) {
+            if (tagPosition >= 0 && !compare(tagValues[g][tagPosition], operator, expected, dynamicTag)) {
+                continue;
+            }
+            if (hasPattern && !like(orderCycles[g], orderCyclePattern)) {
+                continue;
+            }
+            long[] row = grades[g];
+            for (int i = 0; i < GRADE_COUNT; i++) {
+                result[i] += row[i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 将 long[30] 转换为 BigDecimal[30]。
+     *
+     * @param counts 档位客户数
+     * @return BigDecimal 数组（不含 null）
+     */
+    public static BigDecimal[] toBigDecimals(long[] counts) {
+        BigDecimal[] result = new BigDecimal[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            result[i] = BigDecimal.valueOf(counts[i]);
+        }
+        return result;
+    }
+
+    public int groupCount() {
+        return grades.length;
+    }
+
+    public List<String> getDimensionColumns() {
+        return dimensionColumns;
+    }
+
+    public List<String> getTagColumns() {
+        return tagColumns;
+    }
+
+    public Map<String, Long> getUnparsedGrades() {
+        return unparsedGrades;
+    }
+
+    private BitSet selectByDimensions(Map<String, String> filters) {
+        BitSet selected = new BitSet(grades.length);
+        selected.set(0, grades.length);
+        if (filters == null) {
+            return selected;
+        }
+        for (Map.Entry<String, String> filter : filters.entrySet()) {
+            String value = normalize(filter.getValue());
+            BitSet matched = value == null ? null : dimensionIndex.get(filter.getKey()).get(value);
+            if (matched == null) {
+                return null;
+            }
+            selected.and(matched);
+        }
+        return selected;
+    }
+
+    /**
+     * 标签比较，实际值为 NULL 时不命中。
+     * <ul>
+     *   <li>固定标签列为普通列比较：期望值为数值时实际值按数值比较（无法解析为数值时不命中），否则按字符串比较；</li>
+     *   <li>动态标签为 {@code JSON_EXTRACT(DYNAMIC_TAGS, ...)} 与参数比较。导入时动态标签值一律写成 JSON 字符串
+     *       （见 {@code BaseCustomerTableManager}），按 MySQL 的 JSON 比较规则：期望值为字符串时逐字节比较；
+     *       期望值为数值（NUMBER、BOOLEAN 规则）时两者类型不同，只比较类型优先级，字符串高于数值，
+     *       即 =、&lt;、&lt;= 恒不命中，&lt;&gt;、!=、&gt;、&gt;= 恒命中。</li>
+     * </ul>
+     *
+     * @param actual     实际标签值
+     * @param operator   比较符（已去除首尾空白）
+     * @param expected   期望值（{@link TagFilter#toSqlValue()}）
+     * @param dynamicTag 是否为 DYNAMIC_TAGS 中的动态标签
+     * @return 是否命中
+     */
+    static boolean compare(String actual, String operator, Object expected, boolean dynamicTag) {
+        if (actual == null) {
+            return false;
+        }
+        int cmp;
+        if (dynamicTag && expected instanceof Number) {
+            cmp = 1;
+        } else if (dynamicTag) {
+            cmp = compareCodePoints(actual, expected.toString().trim());
+        } else if (expected instanceof Number) {
+            BigDecimal left = parseNumber(actual);
+            if (left == null) {
+                return false;
+            }
+            cmp = left.compareTo(new BigDecimal(expected.toString()));
+        } else {
+            cmp = actual.compareTo(expected.toString().trim());
+        }
+        switch (operator) {
+            case "=":
+                return cmp == 0;
+            case "<>":
+            case "!=":
+                return cmp != 0;
+            case ">":
+                return cmp > 0;
+            case ">=":
+                return cmp >= 0;
+            case "<":
+                return cmp < 0;
+            case "<=":
+                return cmp <= 0;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * 按码点比较（与 utf8mb4 字节序一致）。
+     */
+    private static int compareCodePoints(String left, String right) {
+        int i = 0;
+        int j = 0;
+        while (i < left.length() && j < right.length()) {
+            int a = left.codePointAt(i);
+            int b = right.codePointAt(j);
+            if (a != b) {
+                return Integer.compare(a, b);
+            }
+            i += Character.charCount(a);
+            j += Character.charCount(b);
+        }
+        return Integer.compare(left.length() - i, right.length() - j);
+    }
+
+    private static BigDecimal parseNumber(String value) {
+        if ("true".equalsIgnoreCase(value)) {
+            return BigDecimal.ONE;
+        }
+        if ("false".equalsIgnoreCase(value)) {
+            return BigDecimal.ZERO;
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * SQL LIKE 匹配（% 匹配任意串，_ 匹配单个字符）。
+     */
+    static boolean like(String value, String pattern) {
+        if (value == null) {
+            return false;
+        }
+        int v = 0;
+        int p = 0;
+        int starP = -1;
+        int starV = 0;
+        while (v < value.length()) {
+            if (p < pattern.length() && (pattern.charAt(p) == '_' || pattern.charAt(p) == value.charAt(v))) {
+                v++;
+                p++;
+            } else if (p < pattern.length() && pattern.charAt(p) == '%') {
+                starP = p++;
+                starV = v;
+            } else if (starP >= 0) {
+                p = starP + 1;
+                v = ++starV;
+            } else {
+                return false;
+            }
+        }
+        while (p < pattern.length() && pattern.charAt(p) == '%') {
+            p++;
+        }
+        return p == pattern.length();
+    }
+
+    static String normalize(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).stripTrailingZeros().toPlainString();
+        }
+        return value.toString().trim();
+    }
+
+    private static Map<String, Integer> positions(List<String> columns) {
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            positions.putIfAbsent(columns.get(i), i);
+        }
+        return positions;
+    }
+
+    /**
+     * 立方体构建器（非线程安全，单次流式扫描内使用）。
+     */
+    public static final class Builder {
+        private final List<String> dimensionColumns;
+        private final List<String> tagColumns;
+        private final Map<String, Integer> groupPositions = new HashMap<>();
+        private final List<String[]> groupDimensions = new ArrayList<>();
+        private final List<String[]> groupTags = new ArrayList<>();
+        private final List<String> groupOrderCycles = new ArrayList<>();
+        private final List<long[]> groupGrades = new ArrayList<>();
+        private final Map<String, Long> unparsedGrades = new LinkedHashMap<>();
+
+        private Builder(List<String> dimensionColumns, List<String> tagColumns) {
+            this.dimensionColumns = Collections.unmodifiableList(new ArrayList<>(dimensionColumns));
+            this.tagColumns = Collections.unmodifiableList(new ArrayList<>(tagColumns));
+        }
+
+        /**
+         * 累加一组聚合结果。
+         *
+         * @param dimensions 维度值（顺序与 dimensionColumns 一致）
+         * @param tags       标签值（顺序与 tagColumns 一致）
+         * @param orderCycle 订单周期
+         * @param grade      原始档位（如 "D30"、"三十档"）
+         * @param count      客户数
+         * @return 当前构建器
+         */
+        public Builder add(Object[] dimensions, Object[] tags, Object orderCycle, String grade, long count) {
+            int gradeIndex = parseGradeToIndex(grade);
+            if (gradeIndex < 0 || gradeIndex >= GRADE_COUNT) {
+                unparsedGrades.merge(String.valueOf(grade), count, Long::sum);
+                return this;
+            }
+
+            String[] dimensionKey = new String[dimensionColumns.size()];
+            String[] tagKey = new String[tagColumns.size()];
+            String orderCycleKey = orderCycle == null ? null : orderCycle.toString();
+            StringBuilder key = new StringBuilder();
+            for (int i = 0; i < dimensionKey.length; i++) {
+                dimensionKey[i] = normalize(dimensions[i]);
+                appendKeyPart(key, dimensionKey[i]);
+            }
+            for (int i = 0; i < tagKey.length; i++) {
+                tagKey[i] = normalize(tags[i]);
+                appendKeyPart(key, tagKey[i]);
+            }
+            appendKeyPart(key, orderCycleKey);
+
+            Integer position = groupPositions.get(key.toString());
+            if (position == null) {
+                position = groupGrades.size();
+                groupPositions.put(key.toString(), position);
+                groupDimensions.add(dimensionKey);
+                groupTags.add(tagKey);
+                groupOrderCycles.add(orderCycleKey);
+                groupGrades.add(new long[GRADE_COUNT]);
+            }
+            groupGrades.get(position)[gradeIndex] += count;
+            return this;
+        }
+
+        public GradeAggregationCube build() {
+            return new GradeAggregationCube(this);
+        }
+
+        private static void appendKeyPart(StringBuilder key, String part) {
+            key.append(part == null ? "\u0000" : part).append('\u0001');
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.shared.util;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.domain.repository.FilterCustomerTableRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.example.shared.util.MapValueExtractor.getLongValue;
+import static org.example.shared.util.MapValueExtractor.getObjectIgnoreCase;
+
+/**
+ * 档位聚合引擎
+ * <p>
+ * 对某周 customer_filter 分区执行一次流式分组扫描，构建 {@link GradeAggregationCube}，
+ * 替代按"理论区域 × 标签规则"逐个发起的 GROUP BY GRADE 查询。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GradeAggregationEngine {
+
+    private final FilterCustomerTableRepository filterCustomerTableRepository;
+
+    /**
+     * 流式扫描分区并构建档位聚合立方体。
+     *
+     * @param year             年份
+     * @param month            月份
+     * @param weekSeq          周序号
+     * @param dimensionColumns 扩展维度列
+     * @param tagColumns       标签列（去重后传入）
+     * @return 档位聚合立方体
+     */
+    public GradeAggregationCube aggregate(Integer year, Integer month, Integer weekSeq,
+                                          List<String> dimensionColumns, List<String> tagColumns) {
+        long start = System.currentTimeMillis();
+        GradeAggregationCube.Builder builder = GradeAggregationCube.builder(dimensionColumns, tagColumns);
+        List<String> tagAliases = new ArrayList<>(tagColumns.size());
+        for (int i = 0; i < tagColumns.size(); i++) {
+            tagAliases.add("TAG_" + i);
+        }
+
+        Object[] dimensions = new Object[dimensionColumns.size()];
+        Object[] tags = new Object[tagColumns.size()];
+        filterCustomerTableRepository.streamGradeAggregation(year, month, weekSeq, dimensionColumns, tagColumns, row -> {
+            Long count = getLongValue(row, "CUSTOMER_COUNT");
+            if (count == null || count <= 0) {
+                return;
+            }
+            for (int i = 0; i < dimensions.length; i++) {
+                dimensions[i] = getObjectIgnoreCase(row, dimensionColumns.get(i));
+            }
+            for (int i = 0; i < tags.length; i++) {
+                tags[i] = getObjectIgnoreCase(row, tagAliases.get(i));
+            }
+            Object grade = getObjectIgnoreCase(row, "GRADE");
+            builder.add(dimensions, tags, getObjectIgnoreCase(row, "ORDER_CYCLE"),
+                    grade == null ? null : grade.toString(), count);
+        });
+
+        GradeAggregationCube cube = builder.build();
+        Map<String, Long> unparsed = cube.getUnparsedGrades();
+        if (!unparsed.isEmpty()) {
+            log.warn("【档位统计问题】分区 {}-{}-{} 存在无法映射到D30-D1的档位，已忽略: {}", year, month, weekSeq, unparsed);
+        }
+        log.info("档位聚合立方体构建完成: {}-{}-{}, 维度列={}, 标签列={}, 分组数={}, 耗时={}ms",
+                year, month, weekSeq, dimensionColumns, tagColumns, cube.groupCount(),
+                System.currentTimeMillis() - start);
+        return cube;
+    }
+}
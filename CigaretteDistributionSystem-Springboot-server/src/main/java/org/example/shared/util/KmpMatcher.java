@@ -52,9 +52,13 @@ public class KmpMatcher {
     }
     
     /**
-     * 规范化字符串，移除括号、加号和空白字符
+     * 规范化字符串，移除括号、加号和空白字符。
+     * <p>两个字符串规范化结果相同即视为匹配，可据此构建区域名称哈希索引。</p>
+     *
+     * @param input 原始字符串
+     * @return 规范化后的字符串，null 或空白返回空串
      */
-    private String normalize(String input) {
+    public String normalize(String input) {
         if (input == null) {
             return "";
         }
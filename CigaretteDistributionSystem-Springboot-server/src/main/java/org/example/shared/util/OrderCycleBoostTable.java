@@ -0,0 +1,111 @@
+package org.example.shared.util;
+
+import org.example.domain.model.tag.TagFilter;
+import org.example.shared.util.OrderCycleMatrixCalculator.OrderCycleType;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * “两周一访上浮100%”周级预计算表。
+ * <p>
+ * 对某周 customer_filter 分区缓存两类不随卷烟变化的事实：
+ * <ul>
+ *   <li>分区中出现的订单周期类型（单周/双周）；</li>
+ *   <li>(投放组合, 标签规则, 单双周) → 区域 → 30 档客户数增量（long[30]，索引0对应D30）。</li>
+ * </ul>
+ * 同一周内投放组合相同的卷烟共享同一份增量，上浮只需逐档相加，不再按卷烟查询分区表。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+public final class OrderCycleBoostTable {
+
+    private static final int GRADE_COUNT = 30;
+
+    private final Set<OrderCycleType> boostTypes;
+    private final Map<List<Object>, Map<String, long[]>> deltas = new ConcurrentHashMap<>();
+
+    private OrderCycleBoostTable(Set<OrderCycleType> boostTypes) {
+        this.boostTypes = Collections.unmodifiableSet(boostTypes);
+    }
+
+    /**
+     * 根据分区内的去重订单周期构建预计算表。
+     *
+     * @param orderCycles 去重后的订单周期（可含 null）
+     * @return 预计算表
+     */
+    public static OrderCycleBoostTable fromOrderCycles(List<String> orderCycles) {
+        Set<OrderCycleType> types = EnumSet.noneOf(OrderCycleType.class);
+        if (orderCycles != null) {
+            for (String cycle : orderCycles) {
+                if (cycle == null) {
+                    continue;
+                }
+                if (cycle.contains("单周")) {
+                    types.add(OrderCycleType.SINGLE);
+                }
+                if (cycle.contains("双周")) {
+                    types.add(OrderCycleType.DOUBLE);
+                }
+            }
+        }
+        return new OrderCycleBoostTable(types);
+    }
+
+    /**
+     * 分区中存在的单周/双周类型。
+     */
+    public Set<OrderCycleType> getBoostTypes() {
+        return boostTypes;
+    }
+
+    /**
+     * 获取投放组合的区域增量表，首次访问时由 loader 计算并缓存。
+     *
+     * @param strategy 组合策略
+     * @param tagRules 标签过滤规则（可为空）
+     * @param type     单周/双周类型
+     * @param loader   区域 → 30 档增量的计算逻辑（通常委托 {@link OrderCycleMatrixCalculator}）
+     * @return 区域 → long[30] 增量（只读）
+     */
+    public Map<String, long[]> getDeltas(CombinationStrategyAnalyzer.CombinationStrategy strategy,
+                                         List<TagFilter> tagRules,
+                                         OrderCycleType type,
+                                         Supplier<Map<String, BigDecimal[]>> loader) {
+        List<Object> key = Arrays.asList(strategy.mode, new ArrayList<>(strategy.extensionTypes),
+                tagRules == null ? Collections.emptyList() : new ArrayList<>(tagRules), type);
+        return deltas.computeIfAbsent(key, k -> toDeltas(loader.get()));
+    }
+
+    /**
+     * 已缓存的投放组合增量表数量。
+     */
+    public int size() {
+        return deltas.size();
+    }
+
+    private static Map<String, long[]> toDeltas(Map<String, BigDecimal[]> increments) {
+        Map<String, long[]> result = new LinkedHashMap<>();
+        for (Map.Entry<String, BigDecimal[]> entry : increments.entrySet()) {
+            long[] delta = new long[GRADE_COUNT];
+            BigDecimal[] grades = entry.getValue();
+            for (int i = 0; grades != null && i < grades.length && i < GRADE_COUNT; i++) {
+                delta[i] = grades[i] == null ? 0L : grades[i].longValue();
+            }
+            result.put(entry.getKey(), delta);
+        }
+        return Collections.unmodifiableMap(result);
+    }
+}
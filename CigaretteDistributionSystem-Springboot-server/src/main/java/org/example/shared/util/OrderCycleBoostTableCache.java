@@ -0,0 +1,89 @@
+package org.example.shared.util;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * “两周一访上浮100%”周级预计算表缓存。
+ * <p>
+ * 按分区（year-month-weekSeq）保存 {@link OrderCycleBoostTable}，只保留最近使用的 {@value #MAX_PARTITIONS} 个分区。
+ * customer_filter 分区重建、截断或清理时必须调用 {@link #invalidate(Integer, Integer, Integer)}；
+ * 与失效并发的加载结果按版本号丢弃，不会在失效后重新写回缓存。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@Component
+public class OrderCycleBoostTableCache {
+
+    /** 最多缓存的分区数 */
+    private static final int MAX_PARTITIONS = 4;
+
+    private final Map<String, OrderCycleBoostTable> tables =
+            new LinkedHashMap<String, OrderCycleBoostTable>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, OrderCycleBoostTable> eldest) {
+                    return size() > MAX_PARTITIONS;
+                }
+            };
+    /** 失效版本号（任一分区失效时递增），用于丢弃与失效并发加载的旧数据 */
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * 获取分区预计算表，未命中时用 orderCycleLoader 读取去重订单周期后创建。
+     *
+     * @param year             年份
+     * @param month            月份
+     * @param weekSeq          周序号
+     * @param orderCycleLoader 分区去重订单周期的加载逻辑（在锁外执行）
+     * @return 预计算表
+     */
+    public OrderCycleBoostTable get(Integer year, Integer month, Integer weekSeq,
+                                    Supplier<List<String>> orderCycleLoader) {
+        String key = key(year, month, weekSeq);
+        synchronized (this) {
+            OrderCycleBoostTable cached = tables.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        long versionBeforeLoad = version.get();
+        OrderCycleBoostTable loaded = OrderCycleBoostTable.fromOrderCycles(orderCycleLoader.get());
+        synchronized (this) {
+            if (version.get() == versionBeforeLoad) {
+                OrderCycleBoostTable existing = tables.putIfAbsent(key, loaded);
+                if (existing != null) {
+                    return existing;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * 使分区预计算表失效。
+     */
+    public synchronized void invalidate(Integer year, Integer month, Integer weekSeq) {
+        version.incrementAndGet();
+        tables.remove(key(year, month, weekSeq));
+    }
+
+    /**
+     * 使指定年份的全部分区预计算表失效。
+     */
+    public synchronized void invalidateYear(Integer year) {
+        version.incrementAndGet();
+        String prefix = year + "-";
+        tables.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    private static String key(Integer year, Integer month, Integer weekSeq) {
+        return year + "-" + month + "-" + weekSeq;
+    }
+}
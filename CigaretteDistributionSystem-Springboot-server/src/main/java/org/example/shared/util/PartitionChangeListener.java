@@ -0,0 +1,31 @@
+package org.example.shared.util;
+
+/**
+ * 分区数据变更监听器。
+ * <p>
+ * {@link PartitionTableManager} 截断或删除分区成功后回调，供按分区缓存数据的组件失效对应缓存；
+ * 通过 {@link PartitionTableManager#addChangeListener(PartitionChangeListener)} 注册。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+public interface PartitionChangeListener {
+
+    /**
+     * 指定分区已被截断。
+     *
+     * @param tableName 表名
+     * @param year      年份
+     * @param month     月份
+     * @param weekSeq   周序号
+     */
+    void onPartitionTruncated(String tableName, Integer year, Integer month, Integer weekSeq);
+
+    /**
+     * 指定表已删除一个或多个分区。
+     *
+     * @param tableName 表名
+     */
+    void onPartitionsDropped(String tableName);
+}
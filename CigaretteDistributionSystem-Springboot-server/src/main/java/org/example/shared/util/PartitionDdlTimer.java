@@ -0,0 +1,27 @@
+package org.example.shared.util;
+
+/**
+ * 分区 DDL 计时器。
+ * <p>
+ * {@link PartitionTableManager} 执行 REORGANIZE / DROP / TRUNCATE 等分区 DDL 时经此回调计时，
+ * 由监控组件实现并注入；未注入时使用 {@link #NOOP}，直接执行不计时。
+ * </p>
+ *
+ * @author Robin
+ * @since 2026-10-16
+ */
+@FunctionalInterface
+public interface PartitionDdlTimer {
+
+    /**
+     * 不计时，直接执行
+     */
+    PartitionDdlTimer NOOP = Runnable::run;
+
+    /**
+     * 计时执行一条分区 DDL。
+     *
+     * @param ddl DDL 执行逻辑
+     */
+    void timeDdl(Runnable ddl);
+}
@@ -1,11 +1,15 @@
 package org.example.shared.util;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.example.infrastructure.persistence.mapper.AdminMapper;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * 分区表管理工具类
@@ -16,6 +20,11 @@ import java.util.List;
  * 3. 分区查询
  * 4. 分区键计算
  * 
+ * 分区元数据缓存：每张表的已知分区名与边界值在首次使用时从 information_schema 加载一次，
+ * 本类执行 REORGANIZE 成功后增量更新，删除分区后整体失效。
+ * 分区已存在的常见路径不再产生任何 SQL；通过其他途径执行分区 DDL 后需调用 {@link #invalidatePartitionCache(String)}。
+ * 截断、删除分区成功后回调已注册的 {@link PartitionChangeListener}，供按分区缓存数据的组件失效。
+ * 
  * @author System
  * @version 1.0
  * @since 2025-11-29
@@ -24,10 +33,32 @@ import java.util.List;
 @Component
 public class PartitionTableManager {
     
+    private static final String FUTURE_PARTITION = "p_future";
+    
     private final AdminMapper adminMapper;
     
+    private final PartitionDdlTimer ddlTimer;
+    
+    /** 表名 -> 已知分区元数据（不可变快照，整体替换） */
+    private final Map<String, PartitionMetadata> metadataCache = new ConcurrentHashMap<>();
+    
+    /** 表名 -> 失效代数，用于丢弃与失效并发的加载结果 */
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    
+    /** 表名 -> 创建分区时的互斥锁（同一 JVM 内同一张表的 REORGANIZE 串行执行） */
+    private final Map<String, Object> tableLocks = new ConcurrentHashMap<>();
+    
+    /** 分区截断/删除后的回调 */
+    private final List<PartitionChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+    
     public PartitionTableManager(AdminMapper adminMapper) {
+        this(adminMapper, PartitionDdlTimer.NOOP);
+    }
+    
+    @Autowired
+    public PartitionTableManager(AdminMapper adminMapper, PartitionDdlTimer ddlTimer) {
         this.adminMapper = adminMapper;
+        this.ddlTimer = ddlTimer;
     }
     
     /**
@@ -90,63 +121,55 @@ public class PartitionTableManager {
     public void ensurePartitionExists(String tableName, Integer year, Integer month, Integer weekSeq) {
         String partitionName = generatePartitionName(year, month, weekSeq);
         
-        if (partitionExists(tableName, partitionName)) {
+        if (getMetadata(tableName).contains(partitionName)) {
             log.debug("分区已存在: {}.{}", tableName, partitionName);
             return;
         }
         
-        // 计算当前分区键和下一个分区键
-        int currentPartitionKey = calculatePartitionKey(year, month, weekSeq);
-        int nextPartitionKey = calculateNextPartitionKey(year, month, weekSeq);
-        
-        // 查询所有已存在的分区（除了p_future），获取最大分区值
-        Integer maxPartitionValue = getMaxPartitionValue(tableName);
-        
-        if (maxPartitionValue != null && nextPartitionKey <= maxPartitionValue) {
-            // 如果新分区的值小于或等于最大分区值，说明分区已存在或时间顺序错误
-            String errorMsg = String.format(
-                "无法创建分区 %s: 下一个分区值 %d 必须大于已存在的最大分区值 %d",
-                partitionName, nextPartitionKey, maxPartitionValue);
-            log.error(errorMsg);
-            throw new RuntimeException(errorMsg);
-        }
-        
-        // 找到需要重组的源分区（应该是p_future或最大的分区）
-        String sourcePartition = findSourcePartitionForReorganize(tableName, nextPartitionKey);
-        
-        // 创建分区
-        String sql = String.format(
-            "ALTER TABLE `%s` REORGANIZE PARTITION %s INTO (" +
-            "PARTITION %s VALUES LESS THAN (%d)," +
-            "PARTITION p_future VALUES LESS THAN MAXVALUE" +
-            ")",
-            tableName, sourcePartition, partitionName, nextPartitionKey);
-        
-        try {
-            adminMapper.executeSql(sql);
-            log.info("创建分区成功: {}.{} (值范围: {} 到 {})", tableName, partitionName, currentPartitionKey, nextPartitionKey);
-        } catch (Exception e) {
-            log.error("创建分区失败: {}.{}", tableName, partitionName, e);
-            throw new RuntimeException("创建分区失败: " + e.getMessage(), e);
-        }
-    }
-    
-    /**
-     * 获取表中已存在分区的最大分区值（不包括p_future）
-     * 
-     * @param tableName 表名
-     * @return 最大分区值，如果没有分区则返回null
-     */
-    private Integer getMaxPartitionValue(String tableName) {
-        try {
-            String maxValueStr = adminMapper.getMaxPartitionDescription(tableName);
-            if (maxValueStr == null) {
-                return null;
+        synchronized (tableLocks.computeIfAbsent(tableName, k -> new Object())) {
+            // 缓存未命中时重新加载：分区可能已由其他线程、其他实例或手工 DDL 创建
+            PartitionMetadata metadata = reloadMetadata(tableName);
+            if (metadata.contains(partitionName)) {
+                log.debug("分区已存在: {}.{}", tableName, partitionName);
+                return;
+            }
+            
+            // 计算当前分区键和下一个分区键
+            int currentPartitionKey = calculatePartitionKey(year, month, weekSeq);
+            int nextPartitionKey = calculateNextPartitionKey(year, month, weekSeq);
+            
+            // 已存在分区（除了p_future）的最大分区值
+            Integer maxPartitionValue = metadata.maxBoundary();
+            
+            if (maxPartitionValue != null && nextPartitionKey <= maxPartitionValue) {
+                // 如果新分区的值小于或等于最大分区值，说明分区已存在或时间顺序错误
+                String errorMsg = String.format(
+                    "无法创建分区 %s: 下一个分区值 %d 必须大于已存在的最大分区值 %d",
+                    partitionName, nextPartitionKey, maxPartitionValue);
+                log.error(errorMsg);
+                throw new RuntimeException(errorMsg);
+            }
+            
+            // 找到需要重组的源分区（应该是p_future或最大的分区）
+            String sourcePartition = findSourcePartitionForReorganize(tableName, metadata);
+            
+            // 创建分区
+            String sql = String.format(
+                "ALTER TABLE `%s` REORGANIZE PARTITION %s INTO (" +
+                "PARTITION %s VALUES LESS THAN (%d)," +
+                "PARTITION p_future VALUES LESS THAN MAXVALUE" +
+                ")",
+                tableName, sourcePartition, partitionName, nextPartitionKey);
+            
+            try {
+                executeDdl(sql);
+                metadataCache.put(tableName, metadata.withPartition(partitionName, nextPartitionKey));
+                log.info("创建分区成功: {}.{} (值范围: {} 到 {})", tableName, partitionName, currentPartitionKey, nextPartitionKey);
+            } catch (Exception e) {
+                invalidatePartitionCache(tableName);
+                log.error("创建分区失败: {}.{}", tableName, partitionName, e);
+                throw new RuntimeException("创建分区失败: " + e.getMessage(), e);
             }
-            return Integer.parseInt(maxValueStr);
-        } catch (Exception e) {
-            log.warn("查询最大分区值失败: {}", tableName, e);
-            return null;
         }
     }
     
@@ -155,13 +178,13 @@ public class PartitionTableManager {
      * 优先使用p_future，因为p_future包含所有未分配的值
      * 
      * @param tableName 表名
-     * @param nextPartitionKey 下一个分区键
+     * @param metadata 表的分区元数据
      * @return 源分区名
      */
-    private String findSourcePartitionForReorganize(String tableName, int nextPartitionKey) {
+    private String findSourcePartitionForReorganize(String tableName, PartitionMetadata metadata) {
         // 优先使用p_future，因为它包含所有大于最大分区的值
-        if (partitionExists(tableName, "p_future")) {
-            return "p_future";
+        if (metadata.contains(FUTURE_PARTITION)) {
+            return FUTURE_PARTITION;
         }
         
         // 如果没有p_future，说明所有分区都已经创建，无法创建新分区
@@ -175,15 +198,64 @@ public class PartitionTableManager {
     }
     
     /**
-     * 检查分区是否存在
+     * 注册分区变更监听器（截断、删除分区成功后回调）
+     * 
+     * @param listener 监听器
+     */
+    public void addChangeListener(PartitionChangeListener listener) {
+        changeListeners.add(listener);
+    }
+    
+    /**
+     * 失效指定表的分区元数据缓存（下次使用时重新加载）
+     * 
+     * @param tableName 表名
+     */
+    public void invalidatePartitionCache(String tableName) {
+        generation(tableName).incrementAndGet();
+        metadataCache.remove(tableName);
+        log.debug("分区元数据缓存已失效: {}", tableName);
+    }
+    
+    /**
+     * 失效全部表的分区元数据缓存
+     */
+    public void invalidateAllPartitionCaches() {
+        generations.values().forEach(AtomicLong::incrementAndGet);
+        metadataCache.clear();
+    }
+    
+    private PartitionMetadata getMetadata(String tableName) {
+        PartitionMetadata cached = metadataCache.get(tableName);
+        return cached != null ? cached : reloadMetadata(tableName);
+    }
+    
+    private PartitionMetadata reloadMetadata(String tableName) {
+        AtomicLong generation = generation(tableName);
+        long generationBeforeLoad = generation.get();
+        List<Map<String, Object>> rows = adminMapper.listPartitionDescriptions(tableName);
+        PartitionMetadata metadata = PartitionMetadata.of(rows);
+        metadataCache.put(tableName, metadata);
+        if (generation.get() != generationBeforeLoad) {
+            metadataCache.remove(tableName, metadata);
+        }
+        log.debug("加载分区元数据: {}, 分区数={}", tableName, metadata.names.size());
+        return metadata;
+    }
+    
+    private AtomicLong generation(String tableName) {
+        return generations.computeIfAbsent(tableName, k -> new AtomicLong());
+    }
+    
+    /**
+     * 检查分区是否存在（基于分区元数据缓存）
      * 
      * @param tableName 表名
      * @param partitionName 分区名
      * @return true如果分区存在
      */
     public boolean partitionExists(String tableName, String partitionName) {
-        Integer count = adminMapper.countPartition(tableName, partitionName);
-        return count != null && count > 0;
+        return getMetadata(tableName).contains(partitionName);
     }
     
     /**
@@ -205,10 +277,12 @@ public class PartitionTableManager {
         
         String sql = String.format("ALTER TABLE `%s` TRUNCATE PARTITION %s", tableName, partitionName);
         try {
-            adminMapper.executeSql(sql);
+            executeDdl(sql);
             log.info("截断分区成功：{}.{}", tableName, partitionName);
+            notifyListeners(listener -> listener.onPartitionTruncated(tableName, year, month, weekSeq));
             return true;
         } catch (Exception e) {
+            invalidatePartitionCache(tableName);
             log.error("截断分区失败：{}.{}", tableName, partitionName, e);
             return false;
         }
@@ -255,12 +329,16 @@ public class PartitionTableManager {
                 String sql = String.format(
                     "ALTER TABLE `%s` DROP PARTITION %s",
                     tableName, partitionName);
-                adminMapper.executeSql(sql);
+                executeDdl(sql);
                 log.info("删除分区成功: {}.{}", tableName, partitionName);
             } catch (Exception e) {
                 log.error("删除分区失败: {}.{}", tableName, partitionName, e);
             }
         }
+        invalidatePartitionCache(tableName);
+        if (!partitionsToDrop.isEmpty()) {
+            notifyListeners(listener -> listener.onPartitionsDropped(tableName));
+        }
     }
     
     /**
@@ -298,7 +376,7 @@ public class PartitionTableManager {
                 String sql = String.format(
                     "ALTER TABLE `%s` DROP PARTITION %s",
                     tableName, partitionName);
-                adminMapper.executeSql(sql);
+                executeDdl(sql);
                 log.info("删除分区成功: {}.{}", tableName, partitionName);
                 droppedCount++;
             } catch (Exception e) {
@@ -306,6 +384,10 @@ public class PartitionTableManager {
             }
         }
         
+        invalidatePartitionCache(tableName);
+        if (droppedCount > 0) {
+            notifyListeners(listener -> listener.onPartitionsDropped(tableName));
+        }
         log.info("删除完成: 表 {} 中 {} 年的分区，成功删除 {} 个", tableName, year, droppedCount);
         return droppedCount;
     }
@@ -347,5 +429,78 @@ public class PartitionTableManager {
         return result;
     }
     
+    /**
+     * 回调分区变更监听器，监听器异常只记录警告，不影响分区操作结果
+     */
+    private void notifyListeners(Consumer<PartitionChangeListener> callback) {
+        for (PartitionChangeListener listener : changeListeners) {
+            try {
+                callback.accept(listener);
+            } catch (Exception e) {
+                log.warn("分区变更回调失败: {}", listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+    
+    /**
+     * 执行分区 DDL，耗时交由 {@link PartitionDdlTimer} 记录
+     */
+    private void executeDdl(String sql) {
+        ddlTimer.timeDdl(() -> adminMapper.executeSql(sql));
+    }
+    
+    /**
+     * 单张表的分区元数据快照（不可变）
+     */
+    static final class PartitionMetadata {
+        /** 全部分区名（含 p_future） */
+        private final Set<String> names;
+        /** 分区边界值（VALUES LESS THAN，不含 MAXVALUE），升序 */
+        private final NavigableSet<Integer> boundaries;
+        
+        private PartitionMetadata(Set<String> names, NavigableSet<Integer> boundaries) {
+            this.names = Collections.unmodifiableSet(names);
+            this.boundaries = Collections.unmodifiableNavigableSet(boundaries);
+        }
+        
+        static PartitionMetadata of(List<Map<String, Object>> rows) {
+            Set<String> names = new HashSet<>();
+            NavigableSet<Integer> boundaries = new TreeSet<>();
+            if (rows != null) {
+                for (Map<String, Object> row : rows) {
+                    String name = MapValueExtractor.getStringValue(row, "PARTITION_NAME");
+                    if (name == null) {
+                        continue;
+                    }
+                    names.add(name);
+                    String description = MapValueExtractor.getStringValue(row, "PARTITION_DESCRIPTION");
+                    if (!FUTURE_PARTITION.equals(name) && description != null && !"MAXVALUE".equalsIgnoreCase(description.trim())) {
+                        try {
+                            boundaries.add(Integer.parseInt(description.trim()));
+                        } catch (NumberFormatException e) {
+                            log.warn("无法解析分区边界值: {}={}", name, description);
+                        }
+                    }
+                }
+            }
+            return new PartitionMetadata(names, boundaries);
+        }
+        
+        boolean contains(String partitionName) {
+            return names.contains(partitionName);
+        }
+        
+        Integer maxBoundary() {
+            return boundaries.isEmpty() ? null : boundaries.last();
+        }
+        
+        PartitionMetadata withPartition(String partitionName, int boundary) {
+            Set<String> newNames = new HashSet<>(names);
+            newNames.add(partitionName);
+            newNames.add(FUTURE_PARTITION);
+            NavigableSet<Integer> newBoundaries = new TreeSet<>(boundaries);
+            newBoundaries.add(boundary);
+            return new PartitionMetadata(newNames, newBoundaries);
+        }
+    }
 }
-
@@ -58,6 +58,34 @@ public class RegionRecordBuilder {
     private final CombinationStrategyAnalyzer strategyAnalyzer;
     private final IntegrityGroupMappingRepository integrityGroupMappingRepository;
     private final EncodingRuleRepository encodingRuleRepository;
+    private final GradeAggregationEngine gradeAggregationEngine;
+
+    /**
+     * 对指定周的 customer_filter 分区做一次流式聚合，得到全部扩展维度与给定标签列的档位聚合立方体。
+     * <p>
+     * 之后可通过 {@link #buildRecordsForCombination(String, String, List, Integer, Integer, Integer, GradeAggregationCube)}
+     * 在内存中构建任意投放组合的区域记录，不再逐区域查询分区表。
+     * </p>
+     *
+     * @param year     年份
+     * @param month    月份
+     * @param weekSeq  周序号
+     * @param tagRules 需要参与聚合的标签规则（仅使用其列名，可为空）
+     * @return 档位聚合立方体
+     */
+    public GradeAggregationCube aggregateWeek(Integer year, Integer month, Integer weekSeq,
+                                              Collection<TagFilter> tagRules) {
+        List<String> dimensionColumns = new ArrayList<>(new LinkedHashSet<>(EXTENSION_TYPE_TO_COLUMN.values()));
+        Set<String> tagColumns = new LinkedHashSet<>();
+        if (tagRules != null) {
+            for (TagFilter rule : tagRules) {
+                if (rule != null && rule.hasColumn()) {
+                    tagColumns.add(rule.getColumn());
+                }
+            }
+        }
+        return gradeAggregationEngine.aggregate(year, month, weekSeq, dimensionColumns, new ArrayList<>(tagColumns));
+    }
 
     /**
      * 为指定的投放组合构建区域客户数统计记录。
@@ -73,6 +101,24 @@ public class RegionRecordBuilder {
     public List<RegionCustomerRecord> buildRecordsForCombination(
             String deliveryMethod, String deliveryEtype, List<TagFilter> tagRules,
             Integer year, Integer month, Integer weekSeq) {
+        return buildRecordsForCombination(deliveryMethod, deliveryEtype, tagRules, year, month, weekSeq, null);
+    }
+
+    /**
+     * 为指定的投放组合构建区域客户数统计记录（优先使用档位聚合立方体）。
+     *
+     * @param deliveryMethod 投放方式
+     * @param deliveryEtype  扩展投放类型
+     * @param tagRules       标签过滤规则列表
+     * @param year           年份
+     * @param month          月份
+     * @param weekSeq        周序号
+     * @param cube           档位聚合立方体（可为 null；为 null 或无法求值时逐区域查询分区表）
+     * @return 区域客户数统计记录列表
+     */
+    public List<RegionCustomerRecord> buildRecordsForCombination(
+            String deliveryMethod, String deliveryEtype, List<TagFilter> tagRules,
+            Integer year, Integer month, Integer weekSeq, GradeAggregationCube cube) {
 
         CombinationStrategyAnalyzer.CombinationStrategy strategy = strategyAnalyzer.analyzeCombination(deliveryMethod, deliveryEtype);
         if (strategy.mode == CombinationStrategyAnalyzer.CombinationMode.SKIPPED) {
@@ -81,15 +127,47 @@ public class RegionRecordBuilder {
         }
 
         if (strategy.mode == CombinationStrategyAnalyzer.CombinationMode.CITY) {
-            return buildRecordsForFullCity(year, month, weekSeq, tagRules);
+            return buildRecordsForFullCity(year, month, weekSeq, tagRules, cube);
         }
 
         if (strategy.extensionTypes.isEmpty()) {
             log.warn("投放类型 {} 缺少可识别的扩展类型，默认按照全市处理", deliveryMethod);
-            return buildRecordsForFullCity(year, month, weekSeq, tagRules);
+            return buildRecordsForFullCity(year, month, weekSeq, tagRules, cube);
         }
 
-        return buildRecordsForExtensions(strategy.extensionTypes, year, month, weekSeq, tagRules);
+        return buildRecordsForExtensions(strategy.extensionTypes, year, month, weekSeq, tagRules, cube);
+    }
+
+    /**
+     * 只解析投放组合对应的理论区域名称，不查询客户数据。
+     * <p>
+     * 与 {@link #buildRecordsForCombination} 采用相同的组合策略与理论区域全集，
+     * 供只需要区域列表的调用方使用（如可用区域查询）。
+     * </p>
+     *
+     * @param deliveryMethod 投放方式
+     * @param deliveryEtype  扩展投放类型
+     * @return 理论区域名称（跳过的投放类型返回空列表）
+     */
+    public List<String> listRegionNamesForCombination(String deliveryMethod, String deliveryEtype) {
+        CombinationStrategyAnalyzer.CombinationStrategy strategy = strategyAnalyzer.analyzeCombination(deliveryMethod, deliveryEtype);
+        if (strategy.mode == CombinationStrategyAnalyzer.CombinationMode.SKIPPED) {
+            return Collections.emptyList();
+        }
+        if (strategy.mode == CombinationStrategyAnalyzer.CombinationMode.CITY || strategy.extensionTypes.isEmpty()) {
+            return Collections.singletonList(REGION_FULL_CITY);
+        }
+
+        DeliveryExtensionType primaryType = strategyAnalyzer.determinePrimaryExtension(strategy.extensionTypes);
+        if (!StringUtils.hasText(EXTENSION_TYPE_TO_COLUMN.get(primaryType))) {
+            log.warn("无法识别主扩展类型对应的列: {}", primaryType);
+            return Collections.emptyList();
+        }
+        List<String> regionNames = new ArrayList<>();
+        for (TheoreticalRegion theoreticalRegion : buildTheoreticalRegions(strategy.extensionTypes, primaryType)) {
+            regionNames.add(buildRegionName(primaryType, theoreticalRegion.primaryValue, theoreticalRegion.subValues));
+        }
+        return regionNames;
     }
 
     /**
@@ -103,7 +181,12 @@ public class RegionRecordBuilder {
      */
     public List<RegionCustomerRecord> buildRecordsForFullCity(
             Integer year, Integer month, Integer weekSeq, List<TagFilter> tagRules) {
-        return buildRecordsWithTags(REGION_FULL_CITY, year, month, weekSeq, Collections.emptyMap(), tagRules);
+        return buildRecordsForFullCity(year, month, weekSeq, tagRules, null);
+    }
+
+    private List<RegionCustomerRecord> buildRecordsForFullCity(
+            Integer year, Integer month, Integer weekSeq, List<TagFilter> tagRules, GradeAggregationCube cube) {
+        return buildRecordsWithTags(REGION_FULL_CITY, year, month, weekSeq, Collections.emptyMap(), tagRules, cube);
     }
 
     /**
@@ -127,6 +210,13 @@ public class RegionRecordBuilder {
             List<DeliveryExtensionType> extensionTypes,
             Integer year, Integer month, Integer weekSeq,
             List<TagFilter> tagRules) {
+        return buildRecordsForExtensions(extensionTypes, year, month, weekSeq, tagRules, null);
+    }
+
+    private List<RegionCustomerRecord> buildRecordsForExtensions(
+            List<DeliveryExtensionType> extensionTypes,
+            Integer year, Integer month, Integer weekSeq,
+            List<TagFilter> tagRules, GradeAggregationCube cube) {
 
         List<RegionCustomerRecord> records = new ArrayList<>();
         DeliveryExtensionType primaryType = strategyAnalyzer.determinePrimaryExtension(extensionTypes);
@@ -170,7 +260,7 @@ public class RegionRecordBuilder {
                 }
 
                 String regionName = buildRegionName(primaryType, theoreticalRegion.primaryValue, theoreticalRegion.subValues);
-                List<RegionCustomerRecord> regionRecords = buildRecordsWithTags(regionName, year, month, weekSeq, filters, tagRules);
+                List<RegionCustomerRecord> regionRecords = buildRecordsWithTags(regionName, year, month, weekSeq, filters, tagRules, cube);
                 
                 // 检查是否有客户数据（30个档位是否全为0）
                 for (RegionCustomerRecord record : regionRecords) {
@@ -390,11 +480,19 @@ public class RegionRecordBuilder {
             Integer year, Integer month, Integer weekSeq,
             Map<String, String> filters,
             List<TagFilter> tagRules) {
+        return buildRecordsWithTags(baseRegionName, year, month, weekSeq, filters, tagRules, null);
+    }
+
+    private List<RegionCustomerRecord> buildRecordsWithTags(
+            String baseRegionName,
+            Integer year, Integer month, Integer weekSeq,
+            Map<String, String> filters,
+            List<TagFilter> tagRules, GradeAggregationCube cube) {
 
         List<RegionCustomerRecord> records = new ArrayList<>();
         if (tagRules == null || tagRules.isEmpty()) {
             RegionCustomerRecord record =
-                    buildRecordForRegion(baseRegionName, year, month, weekSeq, filters, null);
+                    buildRecordForRegion(baseRegionName, year, month, weekSeq, filters, null, cube);
             if (record != null) {
                 records.add(record);
             }
@@ -404,7 +502,7 @@ public class RegionRecordBuilder {
         for (TagFilter rule : tagRules) {
             String regionName = tagExtractionService.combineRegionWithTag(baseRegionName, rule.getTagName());
             RegionCustomerRecord record =
-                    buildRecordForRegion(regionName, year, month, weekSeq, filters, rule);
+                    buildRecordForRegion(regionName, year, month, weekSeq, filters, rule, cube);
             if (record != null) {
                 records.add(record);
             }
@@ -427,6 +525,23 @@ public class RegionRecordBuilder {
             String regionName,
             Integer year, Integer month, Integer weekSeq,
             Map<String, String> filters, TagFilter tagRule) {
+        return buildRecordForRegion(regionName, year, month, weekSeq, filters, tagRule, null);
+    }
+
+    private RegionCustomerRecord buildRecordForRegion(
+            String regionName,
+            Integer year, Integer month, Integer weekSeq,
+            Map<String, String> filters, TagFilter tagRule, GradeAggregationCube cube) {
+
+        if (cube != null && cube.supports(filters, tagRule)) {
+            long[] counts = cube.sumGrades(filters, tagRule, null);
+            long total = 0;
+            for (long count : counts) {
+                total += count;
+            }
+            log.debug("区域 {} 由档位聚合立方体统计: filters={}, tagRule={}, TOTAL={}", regionName, filters, tagRule, total);
+            return new RegionCustomerRecord(regionName, GradeAggregationCube.toBigDecimals(counts), BigDecimal.valueOf(total));
+        }
 
         List<Map<String, Object>> gradeStats = filterCustomerTableRepository.statGradesPartition(
                 year, month, weekSeq, filters,
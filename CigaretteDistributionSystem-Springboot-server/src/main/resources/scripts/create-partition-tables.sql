@@ -134,7 +134,9 @@ CREATE TABLE IF NOT EXISTS cigarette_distribution_prediction (
     UPDATED_AT TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     PRIMARY KEY (ID, YEAR, MONTH, WEEK_SEQ),
     INDEX IDX_CIG_CODE_NAME (CIG_CODE, CIG_NAME),
-    INDEX IDX_YEAR_MONTH_WEEK (YEAR, MONTH, WEEK_SEQ)
+    INDEX IDX_YEAR_MONTH_WEEK (YEAR, MONTH, WEEK_SEQ),
+    -- 游标分页：分区内按 卷烟代码 + 卷烟名称 + 投放区域 + ID（二级索引隐含的主键列）顺序扫描
+    INDEX IDX_WEEK_CIG_AREA (YEAR, MONTH, WEEK_SEQ, CIG_CODE, CIG_NAME, DELIVERY_AREA)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4
 PARTITION BY RANGE (YEAR * 10000 + MONTH * 100 + WEEK_SEQ) (
     PARTITION p_future VALUES LESS THAN MAXVALUE
@@ -215,7 +217,8 @@ CREATE TABLE IF NOT EXISTS cigarette_distribution_prediction_price (
     UPDATED_AT TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     PRIMARY KEY (ID, YEAR, MONTH, WEEK_SEQ),
     INDEX IDX_CIG_CODE_NAME_P (CIG_CODE, CIG_NAME),
-    INDEX IDX_YEAR_MONTH_WEEK_P (YEAR, MONTH, WEEK_SEQ)
+    INDEX IDX_YEAR_MONTH_WEEK_P (YEAR, MONTH, WEEK_SEQ),
+    INDEX IDX_WEEK_CIG_AREA_P (YEAR, MONTH, WEEK_SEQ, CIG_CODE, CIG_NAME, DELIVERY_AREA)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4
 PARTITION BY RANGE (YEAR * 10000 + MONTH * 100 + WEEK_SEQ) (
     PARTITION p_future VALUES LESS THAN MAXVALUE
@@ -0,0 +1,12 @@
+-- ============================================
+-- 迁移脚本：为预测分区表添加游标分页索引
+-- 用途：/api/prediction/page-by-time、/api/prediction/page-price-by-time 按
+--       (CIG_CODE, CIG_NAME, DELIVERY_AREA, ID) 游标分页（ID 为二级索引隐含的主键列），分区内沿索引顺序读取一页即可返回
+-- 注意：分区表上建索引会重建各分区，建议在低峰期执行
+-- ============================================
+
+ALTER TABLE cigarette_distribution_prediction
+ADD INDEX IDX_WEEK_CIG_AREA (YEAR, MONTH, WEEK_SEQ, CIG_CODE, CIG_NAME, DELIVERY_AREA);
+
+ALTER TABLE cigarette_distribution_prediction_price
+ADD INDEX IDX_WEEK_CIG_AREA_P (YEAR, MONTH, WEEK_SEQ, CIG_CODE, CIG_NAME, DELIVERY_AREA);
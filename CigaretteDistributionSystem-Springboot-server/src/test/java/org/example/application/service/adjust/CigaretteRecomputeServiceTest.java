@@ -0,0 +1,250 @@
+package org.example.application.service.adjust;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.application.dto.allocation.AdjustCigaretteStrategyResponseDto;
+import org.example.application.service.adjust.impl.CigaretteRecomputeServiceImpl;
+import org.example.application.service.coordinator.AllocationAlgorithmSelector;
+import org.example.application.service.coordinator.CustomerMatrixBuilder;
+import org.example.application.service.coordinator.RegionCustomerStatisticsSnapshotCache;
+import org.example.application.service.writeback.StandardDistributionWriteBackService;
+import org.example.domain.model.valueobject.RegionCustomerMatrix;
+import org.example.domain.repository.CigaretteDistributionInfoRepository;
+import org.example.domain.repository.CigaretteDistributionPredictionRepository;
+import org.example.domain.repository.RegionCustomerStatisticsRepository;
+import org.example.infrastructure.monitor.AllocationStageMetrics;
+import org.example.shared.util.KmpMatcher;
+import org.example.shared.util.PartitionTableManager;
+import org.example.testsupport.PartialFake;
+import org.example.testsupport.PartitionLockFake;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 单支卷烟增量重算服务单元测试（内存版仓储 + 真实统计快照缓存，分配算法与写回使用替身；
+ * 替身只实现被调用的方法，见 {@link PartialFake}）。
+ */
+class CigaretteRecomputeServiceTest {
+
+    private static final String CIG_CODE = "42010020";
+    private static final String CIG_NAME = "红金龙(硬神州腾龙)";
+
+    private FakeInfoRepository infoRepository;
+    private FakePredictionRepository predictionRepository;
+    private FakeStatisticsRepository statisticsRepository;
+    private RecordingWriteBackService writeBackService;
+    private PartitionLockFake jobService;
+    private SimpleMeterRegistry meterRegistry;
+    private CigaretteRecomputeService recomputeService;
+    private final List<BigDecimal> allocatedTargets = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        infoRepository = new FakeInfoRepository();
+        predictionRepository = new FakePredictionRepository();
+        statisticsRepository = new FakeStatisticsRepository();
+        writeBackService = new RecordingWriteBackService(predictionRepository);
+        jobService = new PartitionLockFake();
+        meterRegistry = new SimpleMeterRegistry();
+
+        RegionCustomerStatisticsSnapshotCache snapshotCache = new RegionCustomerStatisticsSnapshotCache(
+                PartialFake.of(RegionCustomerStatisticsRepository.class, statisticsRepository), new KmpMatcher(), new PartitionTableManager(null), new SimpleMeterRegistry());
+        CustomerMatrixBuilder matrixBuilder = new CustomerMatrixBuilder(snapshotCache, new KmpMatcher(), null, null) {
+            @Override
+            public RegionCustomerMatrix buildWithBoost(Integer year, Integer month, Integer weekSeq,
+                                                       String deliveryArea, String deliveryMethod,
+                                                       String deliveryEtype, String tag,
+                                                       String remark, Map<String, Object> extraInfo) {
+                return build(year, month, weekSeq, deliveryArea);
+            }
+        };
+        AllocationAlgorithmSelector selector = new AllocationAlgorithmSelector(null, null, null, null, null, null) {
+            @Override
+            public AllocationResult execute(RegionCustomerMatrix customerMatrix, BigDecimal targetAmount,
+                                            String deliveryMethod, String deliveryEtype, String tag,
+                                            String maxGrade, String minGrade,
+                                            Map<String, BigDecimal> groupRatios,
+                                            Map<String, String> regionGroupMapping,
+                                            Map<String, Object> extraInfo) {
+                allocatedTargets.add(targetAmount);
+                List<String> regions = new ArrayList<>();
+                BigDecimal[][] customers = new BigDecimal[customerMatrix.getRows().size()][];
+                BigDecimal[][] allocation = new BigDecimal[customers.length][30];
+                for (int i = 0; i < customers.length; i++) {
+                    RegionCustomerMatrix.Row row = customerMatrix.getRows().get(i);
+                    regions.add(row.getRegion());
+                    customers[i] = row.getGrades();
+                    Arrays.fill(allocation[i], BigDecimal.ONE);
+                }
+                return AllocationResult.success(regions, customers, allocation);
+            }
+        };
+        recomputeService = new CigaretteRecomputeServiceImpl(
+                PartialFake.of(CigaretteDistributionInfoRepository.class, infoRepository),
+                PartialFake.of(CigaretteDistributionPredictionRepository.class, predictionRepository),
+                snapshotCache, matrixBuilder, selector,
+                PartialFake.of(StandardDistributionWriteBackService.class, writeBackService),
+                jobService.asService(), new AllocationStageMetrics(meterRegistry));
+
+        statisticsRepository.regions.put(20250903, Arrays.asList("全市", "江岸区", "江汉区"));
+        infoRepository.info = info("按档位扩展投放", "江岸区,江汉区", "1200");
+    }
+
+    @Test
+    void 按Info行重算并只写回该卷烟() {
+        AdjustCigaretteStrategyResponseDto response = recomputeService.recompute(2025, 9, 3, CIG_CODE, CIG_NAME);
+
+        assertTrue(response.getSuccess(), response.getMessage());
+        assertEquals(2, response.getRecordCount());
+        assertEquals(Arrays.asList("江岸区", "江汉区"), writeBackService.regions);
+        assertEquals(CIG_CODE + "-" + CIG_NAME, writeBackService.cigarette);
+        assertEquals(Collections.singletonList(new BigDecimal("1200")), allocatedTargets);
+        assertEquals(Collections.singletonList("2025-9-3"), jobService.occupied);
+        assertEquals(1, meterRegistry.get("distribution_stage_duration").tag("stage", "recompute").timer().count());
+    }
+
+    @Test
+    void 连续重算同一周复用统计快照() {
+        recomputeService.recompute(2025, 9, 3, CIG_CODE, CIG_NAME);
+        recomputeService.recompute(2025, 9, 3, CIG_CODE, CIG_NAME);
+
+        assertEquals(1, statisticsRepository.findAllCalls);
+        assertEquals(2, infoRepository.lookups);
+    }
+
+    @Test
+    void 分区被分配任务占用时返回失败且不读不写() {
+        jobService.busy = true;
+
+        AdjustCigaretteStrategyResponseDto response = recomputeService.recompute(2025, 9, 3, CIG_CODE, CIG_NAME);
+
+        assertFalse(response.getSuccess());
+        assertEquals(CigaretteRecomputeServiceImpl.JOB_ALREADY_RUNNING, response.getErrorCode());
+        assertEquals(0, infoRepository.lookups);
+        assertNull(writeBackService.cigarette);
+        assertTrue(predictionRepository.rows.isEmpty());
+    }
+
+    @Test
+    void 统计快照缺失或价位段卷烟时直接失败() {
+        statisticsRepository.regions.clear();
+        AdjustCigaretteStrategyResponseDto missing = recomputeService.recompute(2025, 9, 3, CIG_CODE, CIG_NAME);
+        assertFalse(missing.getSuccess());
+        assertTrue(missing.getMessage().contains("区域客户统计数据不存在"));
+
+        infoRepository.info = info("按价位段自选投放", "全市", "1200");
+        AdjustCigaretteStrategyResponseDto priceBand = recomputeService.recompute(2025, 9, 4, CIG_CODE, CIG_NAME);
+        assertFalse(priceBand.getSuccess());
+
+        assertNull(writeBackService.cigarette);
+        assertTrue(allocatedTargets.isEmpty());
+    }
+
+    @Test
+    void 参数缺失时不占用分区() {
+        AdjustCigaretteStrategyResponseDto response = recomputeService.recompute(2025, 9, 3, CIG_CODE, " ");
+
+        assertFalse(response.getSuccess());
+        assertTrue(jobService.occupied.isEmpty());
+    }
+
+    private static Map<String, Object> info(String deliveryMethod, String deliveryArea, String adv) {
+        Map<String, Object> info = new HashMap<>();
+        info.put("CIG_CODE", CIG_CODE);
+        info.put("CIG_NAME", CIG_NAME);
+        info.put("DELIVERY_METHOD", deliveryMethod);
+        info.put("DELIVERY_ETYPE", "区县公司+市场类型");
+        info.put("DELIVERY_AREA", deliveryArea);
+        info.put("ADV", new BigDecimal(adv));
+        return info;
+    }
+
+    /**
+     * 写回替身：记录写回的卷烟与区域，并把每个区域一行写入内存版预测仓储。
+     */
+    private static final class RecordingWriteBackService {
+        private final FakePredictionRepository predictionRepository;
+        private String cigarette;
+        private List<String> regions;
+
+        private RecordingWriteBackService(FakePredictionRepository predictionRepository) {
+            this.predictionRepository = predictionRepository;
+        }
+
+        boolean writeBackSingleCigarette(BigDecimal[][] allocationMatrix, BigDecimal[][] customerMatrix,
+                                         List<String> targetList, String cigCode, String cigName,
+                                         Integer year, Integer month, Integer weekSeq,
+                                         String deliveryMethod, String deliveryEtype, String remark,
+                                         String tag, String tagFilterConfig) {
+            cigarette = cigCode + "-" + cigName;
+            regions = new ArrayList<>(targetList);
+            predictionRepository.rows.clear();
+            for (String region : targetList) {
+                Map<String, Object> row = new HashMap<>();
+                row.put("CIG_CODE", cigCode);
+                row.put("CIG_NAME", cigName);
+                row.put("DELIVERY_AREA", region);
+                predictionRepository.rows.add(row);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 内存版 Info 仓储：只支持按卷烟单行查询。
+     */
+    private static final class FakeInfoRepository {
+        private Map<String, Object> info;
+        private int lookups;
+
+        Map<String, Object> findByCigCodeAndName(Integer year, Integer month, Integer weekSeq,
+                                                 String cigCode, String cigName) {
+            lookups++;
+            return info;
+        }
+    }
+
+    /**
+     * 内存版预测仓储：只支持按卷烟读回。
+     */
+    private static final class FakePredictionRepository {
+        private final List<Map<String, Object>> rows = new ArrayList<>();
+
+        List<Map<String, Object>> findByCigarette(Integer year, Integer month, Integer weekSeq,
+                                                  String cigCode, String cigName) {
+            return new ArrayList<>(rows);
+        }
+    }
+
+    /**
+     * 内存版区域客户统计仓储（各档位客户数均为 1）。
+     */
+    private static final class FakeStatisticsRepository {
+        private final Map<Integer, List<String>> regions = new HashMap<>();
+        private int findAllCalls;
+
+        List<Map<String, Object>> findAll(Integer year, Integer month, Integer weekSeq) {
+            findAllCalls++;
+            List<Map<String, Object>> rows = new ArrayList<>();
+            for (String region : regions.getOrDefault(
+                    PartitionTableManager.calculatePartitionKey(year, month, weekSeq), Collections.emptyList())) {
+                Map<String, Object> row = new HashMap<>();
+                row.put("REGION", region);
+                for (int grade = 1; grade <= 30; grade++) {
+                    row.put("D" + grade, BigDecimal.ONE);
+                }
+                rows.add(row);
+            }
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package org.example.application.service.calculate;
+
+import org.example.application.dto.allocation.DistributionPlanJobDto;
+import org.example.application.dto.allocation.GenerateDistributionPlanRequestDto;
+import org.example.application.dto.allocation.GenerateDistributionPlanResponseDto;
+import org.example.application.service.calculate.impl.DistributionPlanJobServiceImpl;
+import org.example.domain.model.valueobject.DistributionPlanJobStatus;
+import org.example.domain.repository.DistributionPlanJobRepository;
+import org.example.infrastructure.config.allocation.AllocationExecutionProperties;
+import org.example.infrastructure.persistence.po.DistributionPlanJobPO;
+import org.example.shared.exception.DistributionPlanJobConflictException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 一键生成分配方案异步任务服务单元测试（内存版任务仓储 + 可控的分配服务）。
+ */
+class DistributionPlanJobServiceTest {
+
+    private FakeJobRepository repository;
+    private BlockingAllocationService allocationService;
+    private DistributionPlanJobServiceImpl jobService;
+
+    @BeforeEach
+    void setUp() {
+        AllocationExecutionProperties properties = new AllocationExecutionProperties();
+        properties.setMaxConcurrentJobs(2);
+        repository = new FakeJobRepository();
+        allocationService = new BlockingAllocationService();
+        jobService = new DistributionPlanJobServiceImpl(allocationService, repository, properties);
+        jobService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        allocationService.release.countDown();
+        jobService.destroy();
+    }
+
+    @Test
+    void 同一分区只允许一个任务() throws Exception {
+        DistributionPlanJobDto first = jobService.submit(request(2025, 9, 3));
+        assertTrue(allocationService.started.await(5, TimeUnit.SECONDS));
+
+        assertThrows(DistributionPlanJobConflictException.class, () -> jobService.submit(request(2025, 9, 3)));
+        assertThrows(DistributionPlanJobConflictException.class, () -> jobService.runAndWait(request(2025, 9, 3)));
+
+        allocationService.release.countDown();
+        DistributionPlanJobDto finished = awaitFinished(first.getJobId());
+        assertEquals(DistributionPlanJobStatus.SUCCEEDED, finished.getStatus());
+
+        // 上一个任务结束后分区释放
+        allocationService.reset();
+        allocationService.release.countDown();
+        GenerateDistributionPlanResponseDto response = jobService.runAndWait(request(2025, 9, 3));
+        assertTrue(response.isSuccess());
+    }
+
+    @Test
+    void 独占执行与分配任务互斥() throws Exception {
+        DistributionPlanJobDto running = jobService.submit(request(2025, 9, 6));
+        assertTrue(allocationService.started.await(5, TimeUnit.SECONDS));
+        assertThrows(DistributionPlanJobConflictException.class,
+                () -> jobService.runExclusively(2025, 9, 6, () -> "recompute"));
+        assertEquals("other", jobService.runExclusively(2025, 9, 7, () -> "other"));
+        allocationService.release.countDown();
+        assertEquals(DistributionPlanJobStatus.SUCCEEDED, awaitFinished(running.getJobId()).getStatus());
+
+        String nested = jobService.runExclusively(2025, 9, 8, () -> {
+            assertThrows(DistributionPlanJobConflictException.class, () -> jobService.runAndWait(request(2025, 9, 8)));
+            return "done";
+        });
+        assertEquals("done", nested);
+
+        // 独占执行结束（含异常退出）后分区释放，且不进入任务历史
+        assertThrows(IllegalStateException.class, () -> jobService.runExclusively(2025, 9, 8, () -> {
+            throw new IllegalStateException("boom");
+        }));
+        allocationService.reset();
+        allocationService.release.countDown();
+        assertTrue(jobService.runAndWait(request(2025, 9, 8)).isSuccess());
+        assertEquals(1, jobService.listJobs(2025, 9, 8, 10).size());
+    }
+
+    @Test
+    void 任务进度与阶段耗时写入历史() throws Exception {
+        allocationService.release.countDown();
+        DistributionPlanJobDto submitted = jobService.submit(request(2025, 9, 4));
+        DistributionPlanJobDto finished = awaitFinished(submitted.getJobId());
+
+        assertEquals(DistributionPlanJobStatus.SUCCEEDED, finished.getStatus());
+        assertEquals(5, finished.getTotalCount());
+        assertEquals(5, finished.getProcessedCount());
+        assertEquals(4, finished.getSuccessCount());
+        assertEquals(1, finished.getFailedCount());
+        assertEquals(Collections.singletonList("C4-卷烟4: 未找到匹配的投放区域"), finished.getFailures());
+        assertTrue(finished.getStageTimings().containsKey(DistributionPlanProgressListener.STAGE_STANDARD));
+        assertNotNull(finished.getFinishedAt());
+
+        // 已结束的任务从表中读取
+        assertNotNull(repository.rows.get(submitted.getJobId()));
+        List<DistributionPlanJobDto> history = jobService.listJobs(2025, 9, 4, 10);
+        assertEquals(1, history.size());
+        assertEquals(submitted.getJobId(), history.get(0).getJobId());
+    }
+
+    @Test
+    void 取消执行中的任务后剩余卷烟跳过() throws Exception {
+        DistributionPlanJobDto submitted = jobService.submit(request(2025, 9, 5));
+        assertTrue(allocationService.started.await(5, TimeUnit.SECONDS));
+
+        DistributionPlanJobDto cancelling = jobService.cancel(submitted.getJobId());
+        assertEquals(DistributionPlanJobStatus.RUNNING, cancelling.getStatus());
+        allocationService.release.countDown();
+
+        DistributionPlanJobDto finished = awaitFinished(submitted.getJobId());
+        assertEquals(DistributionPlanJobStatus.CANCELLED, finished.getStatus());
+        assertEquals(0, finished.getSuccessCount());
+    }
+
+    @Test
+    void 启动时未结束的任务标记为失败() {
+        DistributionPlanJobPO stale = new DistributionPlanJobPO();
+        stale.setJobId("stale");
+        stale.setYear(2025);
+        stale.setMonth(9);
+        stale.setWeekSeq(1);
+        stale.setStatus(DistributionPlanJobStatus.RUNNING.name());
+        repository.save(stale);
+
+        jobService.init();
+
+        DistributionPlanJobDto job = jobService.getJob("stale");
+        assertEquals(DistributionPlanJobStatus.FAILED, job.getStatus());
+        assertEquals("服务重启，任务中断", job.getMessage());
+    }
+
+    private DistributionPlanJobDto awaitFinished(String jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        DistributionPlanJobDto job = jobService.getJob(jobId);
+        while (!job.getStatus().isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            job = jobService.getJob(jobId);
+        }
+        return job;
+    }
+
+    private static GenerateDistributionPlanRequestDto request(int year, int month, int weekSeq) {
+        GenerateDistributionPlanRequestDto request = new GenerateDistributionPlanRequestDto();
+        request.setYear(year);
+        request.setMonth(month);
+        request.setWeekSeq(weekSeq);
+        return request;
+    }
+
+    /**
+     * 分配服务替身：开始后等待放行，再逐支回报 5 支卷烟（最后一支失败），已取消时跳过。
+     */
+    private static class BlockingAllocationService implements UnifiedAllocationService {
+        private volatile CountDownLatch started = new CountDownLatch(1);
+        private volatile CountDownLatch release = new CountDownLatch(1);
+
+        private void reset() {
+            started = new CountDownLatch(1);
+            release = new CountDownLatch(1);
+        }
+
+        @Override
+        public GenerateDistributionPlanResponseDto generateDistributionPlan(GenerateDistributionPlanRequestDto request) {
+            return generateDistributionPlan(request, DistributionPlanProgressListener.NOOP);
+        }
+
+        @Override
+        public GenerateDistributionPlanResponseDto generateDistributionPlan(GenerateDistributionPlanRequestDto request,
+                                                                            DistributionPlanProgressListener listener) {
+            listener.onStageStarted(DistributionPlanProgressListener.STAGE_STANDARD);
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            listener.onCigarettesPlanned(5);
+            int success = 0;
+            for (int i = 0; i < 5; i++) {
+                if (listener.isCancelled()) {
+                    listener.onCigaretteCompleted("C" + i, "卷烟" + i, false, "任务已取消");
+                } else if (i == 4) {
+                    listener.onCigaretteCompleted("C" + i, "卷烟" + i, false, "未找到匹配的投放区域");
+                } else {
+                    listener.onCigaretteCompleted("C" + i, "卷烟" + i, true, "分配矩阵已成功写回数据库");
+                    success++;
+                }
+            }
+            listener.onStageFinished(DistributionPlanProgressListener.STAGE_STANDARD);
+            GenerateDistributionPlanResponseDto response = new GenerateDistributionPlanResponseDto();
+            response.setSuccess(true);
+            response.setTotalCigarettes(5);
+            response.setSuccessfulAllocations(success);
+            response.setMessage("分配完成");
+            return response;
+        }
+    }
+
+    /**
+     * 内存版任务仓储。
+     */
+    private static class FakeJobRepository implements DistributionPlanJobRepository {
+        private final Map<String, DistributionPlanJobPO> rows = new ConcurrentHashMap<>();
+
+        @Override
+        public void createTableIfNotExists() {
+        }
+
+        @Override
+        public void save(DistributionPlanJobPO job) {
+            rows.put(job.getJobId(), job);
+        }
+
+        @Override
+        public DistributionPlanJobPO findByJobId(String jobId) {
+            return rows.get(jobId);
+        }
+
+        @Override
+        public List<DistributionPlanJobPO> findRecent(Integer year, Integer month, Integer weekSeq, int limit) {
+            List<DistributionPlanJobPO> result = new ArrayList<>();
+            for (DistributionPlanJobPO row : rows.values()) {
+                if (Objects.equals(year, row.getYear()) && Objects.equals(month, row.getMonth())
+                        && Objects.equals(weekSeq, row.getWeekSeq())) {
+                    result.add(row);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public int markUnfinishedAsFailed(String message) {
+            int count = 0;
+            for (DistributionPlanJobPO row : rows.values()) {
+                if ("QUEUED".equals(row.getStatus()) || "RUNNING".equals(row.getStatus())) {
+                    row.setStatus("FAILED");
+                    row.setMessage(message);
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+}
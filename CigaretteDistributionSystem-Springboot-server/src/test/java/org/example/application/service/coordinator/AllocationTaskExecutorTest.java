@@ -0,0 +1,52 @@
+package org.example.application.service.coordinator;
+
+import org.example.infrastructure.config.allocation.AllocationExecutionProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 分配任务并行执行器单元测试。
+ */
+class AllocationTaskExecutorTest {
+
+    private AllocationTaskExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        AllocationExecutionProperties properties = new AllocationExecutionProperties();
+        properties.setParallelism(4);
+        executor = new AllocationTaskExecutor(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.destroy();
+    }
+
+    @Test
+    void 结果顺序与输入顺序一致且失败互不影响() {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            items.add(i);
+        }
+
+        List<String> results = executor.executeAll(items, i -> {
+            if (i % 17 == 0) {
+                throw new IllegalStateException("boom-" + i);
+            }
+            return "ok-" + i;
+        }, (i, ex) -> "failed-" + i + ":" + ex.getMessage());
+
+        assertEquals(items.size(), results.size());
+        for (int i = 0; i < items.size(); i++) {
+            String expected = i % 17 == 0 ? "failed-" + i + ":boom-" + i : "ok-" + i;
+            assertEquals(expected, results.get(i));
+        }
+    }
+}
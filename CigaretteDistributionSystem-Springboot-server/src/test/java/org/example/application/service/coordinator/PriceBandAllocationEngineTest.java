@@ -0,0 +1,107 @@
+package org.example.application.service.coordinator;
+
+import org.example.domain.service.algorithm.SingleLevelDistributionService;
+import org.example.domain.service.algorithm.impl.KernelSingleLevelDistributionService;
+import org.example.domain.service.algorithm.impl.SingleLevelDistributionServiceImpl;
+import org.example.infrastructure.config.allocation.AllocationExecutionProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 价位段初分配并行引擎单元测试。
+ */
+class PriceBandAllocationEngineTest {
+
+    private final SingleLevelDistributionService singleLevel =
+            new KernelSingleLevelDistributionService(new SingleLevelDistributionServiceImpl());
+
+    private AllocationTaskExecutor parallelExecutor;
+    private AllocationTaskExecutor serialExecutor;
+
+    @BeforeEach
+    void setUp() {
+        AllocationExecutionProperties parallel = new AllocationExecutionProperties();
+        parallel.setParallelism(4);
+        parallelExecutor = new AllocationTaskExecutor(parallel);
+        AllocationExecutionProperties serial = new AllocationExecutionProperties();
+        serial.setParallelism(1);
+        serialExecutor = new AllocationTaskExecutor(serial);
+    }
+
+    @AfterEach
+    void tearDown() {
+        parallelExecutor.destroy();
+        serialExecutor.destroy();
+    }
+
+    @Test
+    void 并行初分配与串行结果一致且不修改候选卷烟() {
+        Random random = new Random(20261016L);
+        BigDecimal[] cityRow = new BigDecimal[30];
+        for (int g = 0; g < 30; g++) {
+            cityRow[g] = g % 7 == 3 ? null : BigDecimal.valueOf(1 + random.nextInt(5000));
+        }
+        BigDecimal[] baseRow = PriceBandAllocationEngine.shareableCustomerRow(cityRow);
+        BigDecimal[] boostedRow = new BigDecimal[30];
+        for (int g = 0; g < 30; g++) {
+            boostedRow[g] = baseRow[g].multiply(BigDecimal.valueOf(2));
+        }
+
+        List<Map<String, Object>> candidates = new ArrayList<>();
+        for (int i = 0; i < 80; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("CIG_CODE", "C" + i);
+            row.put("CIG_NAME", "卷烟" + i);
+            row.put("ADV", i % 13 == 0 ? BigDecimal.ZERO : BigDecimal.valueOf(1 + random.nextInt(500_000)));
+            row.put("BZ", i % 3 == 0 ? PriceBandAllocationEngine.BOOST_REMARK_KEYWORD : null);
+            candidates.add(row);
+        }
+
+        BigDecimal[][] expected = new PriceBandAllocationEngine(singleLevel, serialExecutor)
+                .allocateInitialGrades(candidates, baseRow, boostedRow);
+        BigDecimal[][] actual = new PriceBandAllocationEngine(singleLevel, parallelExecutor)
+                .allocateInitialGrades(candidates, baseRow, boostedRow);
+
+        assertEquals(candidates.size(), actual.length);
+        for (int i = 0; i < candidates.size(); i++) {
+            assertArrayEquals(expected[i], actual[i], "cigarette=" + i);
+            assertEquals(30, actual[i].length);
+            assertFalse(candidates.get(i).containsKey("GRADES"));
+        }
+        assertNull(actual[0][0], "ADV 非正时返回空档位数组");
+        assertEquals(BigDecimal.ZERO, baseRow[3], "共享客户数行的 null 档位已补0");
+    }
+
+    @Test
+    void 计算失败时按候选顺序抛出第一个异常() {
+        SingleLevelDistributionService failing = (regions, matrix, target, range) -> {
+            if (target.intValue() % 2 == 1) {
+                throw new IllegalStateException("failed-" + target.intValue());
+            }
+            return new BigDecimal[][]{new BigDecimal[30]};
+        };
+        List<Map<String, Object>> candidates = new ArrayList<>();
+        for (int i = 2; i < 40; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("CIG_CODE", "C" + i);
+            row.put("ADV", BigDecimal.valueOf(i));
+            candidates.add(row);
+        }
+        BigDecimal[] baseRow = PriceBandAllocationEngine.shareableCustomerRow(new BigDecimal[30]);
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> new PriceBandAllocationEngine(failing, parallelExecutor)
+                        .allocateInitialGrades(candidates, baseRow, null));
+        assertEquals("failed-3", ex.getMessage());
+    }
+}
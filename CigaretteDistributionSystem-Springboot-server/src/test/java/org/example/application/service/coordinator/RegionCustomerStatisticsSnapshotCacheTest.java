@@ -0,0 +1,138 @@
+package org.example.application.service.coordinator;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.domain.repository.RegionCustomerStatisticsRepository;
+import org.example.shared.dto.RegionCustomerRecord;
+import org.example.shared.util.KmpMatcher;
+import org.example.shared.util.PartitionTableManager;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 区域客户数统计周快照缓存单元测试（内存版统计仓储，记录分区读取次数）。
+ */
+class RegionCustomerStatisticsSnapshotCacheTest {
+
+    private static final String TABLE = "region_customer_statistics";
+
+    private final FakeStatisticsRepository repository = new FakeStatisticsRepository();
+    private final PartitionTableManager partitionTableManager = new PartitionTableManager(null);
+    private final RegionCustomerStatisticsSnapshotCache cache = new RegionCustomerStatisticsSnapshotCache(
+            repository, new KmpMatcher(), partitionTableManager, new SimpleMeterRegistry());
+
+    @Test
+    void 同一周只读取一次分区() {
+        repository.regions.put(20251203, Arrays.asList("全市", "江岸区"));
+
+        RegionCustomerStatisticsSnapshot first = cache.get(2025, 12, 3);
+        RegionCustomerStatisticsSnapshot second = cache.get(2025, 12, 3);
+        RegionPresenceIndex index = cache.getPresenceIndex(2025, 12, 3);
+
+        assertSame(first, second);
+        assertEquals(1, repository.findAllCalls);
+        assertEquals(0, repository.findRegionsCalls);
+        assertTrue(index.contains("江岸区"));
+    }
+
+    @Test
+    void 截断统计分区后快照与区域索引失效() {
+        repository.regions.put(20251203, Arrays.asList("全市", "江岸区"));
+        cache.get(2025, 12, 3);
+        cache.getPresenceIndex(2025, 12, 3);
+
+        repository.regions.put(20251203, Collections.singletonList("全市"));
+        cache.onPartitionTruncated("cigarette_distribution_prediction", 2025, 12, 3);
+        assertTrue(cache.getPresenceIndex(2025, 12, 3).contains("江岸区"));
+
+        cache.onPartitionTruncated(TABLE, 2025, 12, 3);
+        assertFalse(cache.getPresenceIndex(2025, 12, 3).contains("江岸区"));
+        assertEquals(1, cache.get(2025, 12, 3).size());
+        assertEquals(2, repository.findAllCalls);
+    }
+
+    @Test
+    void 删除统计分区后全部失效() {
+        repository.regions.put(20251203, Collections.singletonList("全市"));
+        repository.regions.put(20251204, Collections.singletonList("全市"));
+        cache.get(2025, 12, 3);
+        cache.get(2025, 12, 4);
+        assertEquals(2, cache.size());
+
+        cache.onPartitionsDropped(TABLE);
+
+        assertEquals(0, cache.size());
+        cache.get(2025, 12, 3);
+        assertEquals(3, repository.findAllCalls);
+    }
+
+    @Test
+    void 只保留最近使用的分区() {
+        for (int week = 1; week <= 5; week++) {
+            repository.regions.put(20251200 + week, Collections.singletonList("全市"));
+        }
+        for (int week = 1; week <= 4; week++) {
+            cache.get(2025, 12, week);
+        }
+        // 访问第1周使其成为最近使用，加入第5周时淘汰第2周
+        cache.get(2025, 12, 1);
+        cache.get(2025, 12, 5);
+        assertEquals(4, cache.size());
+        assertEquals(5, repository.findAllCalls);
+
+        cache.get(2025, 12, 1);
+        assertEquals(5, repository.findAllCalls);
+        cache.get(2025, 12, 2);
+        assertEquals(6, repository.findAllCalls);
+    }
+
+    private static final class FakeStatisticsRepository implements RegionCustomerStatisticsRepository {
+        private final Map<Integer, List<String>> regions = new HashMap<>();
+        private int findAllCalls;
+        private int findRegionsCalls;
+
+        @Override
+        public int deleteByYearMonthWeekSeq(Integer year, Integer month, Integer weekSeq) {
+            return 0;
+        }
+
+        @Override
+        public int batchUpsert(Integer year, Integer month, Integer weekSeq, List<RegionCustomerRecord> list) {
+            return 0;
+        }
+
+        @Override
+        public Map<String, Object> findByRegion(Integer year, Integer month, Integer weekSeq, String regionName) {
+            return null;
+        }
+
+        @Override
+        public List<Map<String, Object>> findAll(Integer year, Integer month, Integer weekSeq) {
+            findAllCalls++;
+            List<Map<String, Object>> rows = new ArrayList<>();
+            for (String region : regions.getOrDefault(key(year, month, weekSeq), Collections.emptyList())) {
+                Map<String, Object> row = new HashMap<>();
+                row.put("REGION", region);
+                rows.add(row);
+            }
+            return rows;
+        }
+
+        @Override
+        public List<String> findRegions(Integer year, Integer month, Integer weekSeq) {
+            findRegionsCalls++;
+            return regions.getOrDefault(key(year, month, weekSeq), Collections.emptyList());
+        }
+
+        private static int key(Integer year, Integer month, Integer weekSeq) {
+            return PartitionTableManager.calculatePartitionKey(year, month, weekSeq);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.application.service.coordinator;
+
+import org.example.domain.model.valueobject.RegionCustomerMatrix;
+import org.example.shared.util.KmpMatcher;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 区域客户数统计快照单元测试。
+ */
+class RegionCustomerStatisticsSnapshotTest {
+
+    private final KmpMatcher kmpMatcher = new KmpMatcher();
+
+    private RegionCustomerStatisticsSnapshot snapshot() {
+        List<String> regions = Arrays.asList("全市", "江汉区（城网）", "江岸区", " 江汉区(城网) ", "洪山区");
+        List<BigDecimal[]> grades = Arrays.asList(grades(100), grades(10), grades(30), grades(5), grades(30));
+        return RegionCustomerStatisticsSnapshot.of(20251203, regions, grades, kmpMatcher::normalize);
+    }
+
+    @Test
+    void filteredMatrix_与KMP逐行匹配结果一致() {
+        Set<String> unmatched = new LinkedHashSet<>();
+        RegionCustomerMatrix matrix = snapshot().buildFilteredMatrix(
+                Arrays.asList("江汉区+城网", "洪山区", "江岸区", "不存在区"), kmpMatcher::normalize, unmatched);
+
+        List<String> regions = new ArrayList<>();
+        for (RegionCustomerMatrix.Row row : matrix.getRows()) {
+            regions.add(row.getRegion());
+        }
+        // 总数降序，同总数保持原始顺序；规范化后相同的区域只保留首次出现的修剪名
+        assertEquals(Arrays.asList("江岸区", "洪山区", "江汉区（城网）", "江汉区(城网)"), regions);
+        assertEquals(Collections.singleton("不存在区"), unmatched);
+    }
+
+    @Test
+    void fullMatrix_按总数降序() {
+        RegionCustomerMatrix matrix = snapshot().buildFullMatrix();
+        assertEquals(5, matrix.getRows().size());
+        assertEquals("全市", matrix.getRows().get(0).getRegion());
+        assertEquals(" 江汉区(城网) ", matrix.getRows().get(4).getRegion());
+    }
+
+    @Test
+    void 构建出的矩阵不共享快照内部数组() {
+        RegionCustomerStatisticsSnapshot snapshot = snapshot();
+        RegionCustomerMatrix first = snapshot.buildCityWideMatrix();
+        first.getRows().get(0).getGrades()[0] = BigDecimal.valueOf(999);
+
+        RegionCustomerMatrix second = snapshot.buildCityWideMatrix();
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(second.getRows().get(0).getGrades()[0]));
+    }
+
+    private static BigDecimal[] grades(int first) {
+        BigDecimal[] grades = new BigDecimal[30];
+        Arrays.fill(grades, BigDecimal.ZERO);
+        grades[0] = BigDecimal.valueOf(first);
+        return grades;
+    }
+}
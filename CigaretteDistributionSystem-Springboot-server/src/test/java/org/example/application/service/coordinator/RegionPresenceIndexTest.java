@@ -0,0 +1,61 @@
+package org.example.application.service.coordinator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 区域存在性索引单元测试。
+ */
+class RegionPresenceIndexTest {
+
+    @Test
+    void 精确匹配区域名且按输入顺序返回缺失区域() {
+        RegionPresenceIndex index = RegionPresenceIndex.of(20251203,
+                Arrays.asList("丹江（城网）", "全市", "郧西（农网）", "丹江（城网）", null));
+
+        assertEquals(3, index.size());
+        assertTrue(index.contains("全市"));
+        assertTrue(index.contains("丹江（城网）"));
+        assertFalse(index.contains("丹江(城网)"));
+        assertFalse(index.contains(null));
+        assertEquals(Arrays.asList("竹山（城网）", "丹江（农网）"),
+                index.findMissing(Arrays.asList("竹山（城网）", "全市", "丹江（农网）", "郧西（农网）")));
+    }
+
+    @Test
+    void 空分区全部视为缺失() {
+        RegionPresenceIndex index = RegionPresenceIndex.of(20251203, Collections.emptyList());
+
+        assertTrue(index.isEmpty());
+        assertFalse(index.contains("全市"));
+        assertEquals(Collections.singletonList("全市"), index.findMissing(Collections.singletonList("全市")));
+    }
+
+    @Test
+    void 布隆过滤器不漏判已存在区域() {
+        List<String> regions = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            regions.add("区域" + i);
+        }
+        RegionPresenceIndex index = RegionPresenceIndex.of(20251203, regions);
+
+        for (String region : regions) {
+            assertTrue(index.mightContain(region), region);
+            assertTrue(index.contains(region), region);
+        }
+        int falsePositives = 0;
+        for (int i = 2000; i < 12000; i++) {
+            if (index.mightContain("区域" + i)) {
+                falsePositives++;
+            }
+            assertFalse(index.contains("区域" + i));
+        }
+        assertTrue(falsePositives < 500, "误判数过高: " + falsePositives);
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.application.service.prediction;
+
+import org.example.application.service.prediction.impl.PredictionEditSupport;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 单条预测记录编辑支撑单元测试。
+ */
+class PredictionEditSupportTest {
+
+    @Test
+    void 按区域判断记录存在且名称为空时不比较名称() {
+        List<Map<String, Object>> records = new ArrayList<>();
+        records.add(record("黄鹤楼(硬平装)", "江汉区"));
+        records.add(record("黄鹤楼(软蓝)", "武昌区"));
+
+        assertTrue(PredictionEditSupport.containsArea(records, "黄鹤楼(硬平装)", "江汉区"));
+        assertFalse(PredictionEditSupport.containsArea(records, "黄鹤楼(硬平装)", "武昌区"));
+        assertTrue(PredictionEditSupport.containsArea(records, null, "武昌区"));
+        assertFalse(PredictionEditSupport.containsArea(records, null, "洪山区"));
+        assertFalse(PredictionEditSupport.containsArea(Collections.emptyList(), null, "江汉区"));
+    }
+
+    @Test
+    void 区域字段为空的记录不匹配() {
+        List<Map<String, Object>> records = Collections.singletonList(record("黄鹤楼(硬平装)", null));
+
+        assertFalse(PredictionEditSupport.containsArea(records, null, "江汉区"));
+    }
+
+    private static Map<String, Object> record(String cigName, String deliveryArea) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("CIG_CODE", "42020181");
+        row.put("CIG_NAME", cigName);
+        row.put("DELIVERY_AREA", deliveryArea);
+        return row;
+    }
+}
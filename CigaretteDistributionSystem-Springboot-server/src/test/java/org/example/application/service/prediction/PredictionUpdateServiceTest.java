@@ -1,7 +1,11 @@
 package org.example.application.service.prediction;
 
 import lombok.extern.slf4j.Slf4j;
+import org.example.application.dto.prediction.BatchUpdateRegionGradesDto;
 import org.example.application.dto.prediction.UpdateRegionGradesDto;
+import org.example.domain.repository.CigaretteDistributionPredictionRepository;
+import org.example.infrastructure.persistence.po.CigaretteDistributionPredictionPO;
+import org.example.shared.util.WriteBackHelper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,7 +15,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -31,6 +38,9 @@ class PredictionUpdateServiceTest {
     @Autowired
     private PredictionUpdateService predictionUpdateService;
 
+    @Autowired
+    private CigaretteDistributionPredictionRepository predictionRepository;
+
     private static final Integer TEST_YEAR = 2025;
     private static final Integer TEST_MONTH = 9;
     private static final Integer TEST_WEEK_SEQ = 3;
@@ -118,6 +128,100 @@ class PredictionUpdateServiceTest {
         log.info("✅ 区域记录不存在校验通过: {}", ex.getMessage());
     }
 
+    @Test
+    @DisplayName("批量修改 - 修改项为空")
+    void testBatchUpdate_ItemsEmpty() {
+        BatchUpdateRegionGradesDto dto = buildBatchDto();
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> predictionUpdateService.batchUpdateRegionGrades(dto));
+        assertTrue(ex.getMessage().contains("修改项"));
+        log.info("✅ 批量修改项为空校验通过: {}", ex.getMessage());
+    }
+
+    @Test
+    @DisplayName("批量修改 - 同一卷烟区域重复")
+    void testBatchUpdate_DuplicateRegion() {
+        BatchUpdateRegionGradesDto dto = buildBatchDto();
+        dto.getItems().add(buildBatchItem());
+        dto.getItems().add(buildBatchItem());
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> predictionUpdateService.batchUpdateRegionGrades(dto));
+        assertTrue(ex.getMessage().contains("重复"));
+        log.info("✅ 批量修改区域重复校验通过: {}", ex.getMessage());
+    }
+
+    @Test
+    @DisplayName("批量修改 - 任一区域记录不存在时整体失败")
+    void testBatchUpdate_RegionNotFound() {
+        BatchUpdateRegionGradesDto dto = buildBatchDto();
+        dto.getItems().add(buildBatchItem());
+        BatchUpdateRegionGradesDto.Item missing = buildBatchItem();
+        missing.setPrimaryRegion("不存在的区域");
+        dto.getItems().add(missing);
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> predictionUpdateService.batchUpdateRegionGrades(dto));
+        assertTrue(ex.getMessage().contains("未找到"));
+        log.info("✅ 批量修改区域记录不存在校验通过: {}", ex.getMessage());
+    }
+
+    @Test
+    @DisplayName("批量修改 - 多行 CASE UPDATE 按区域写入各自的值并可按卷烟核对条数")
+    void testBatchUpdateGrades_CaseUpdate() {
+        String cigCode = "TEST0022";
+        String cigName = "批量修改测试卷烟";
+        predictionRepository.batchUpsert(Arrays.asList(
+                prediction(cigCode, cigName, "江汉区", BigDecimal.ONE, "原备注"),
+                prediction(cigCode, cigName, "武昌区", BigDecimal.ONE, "原备注"),
+                prediction(cigCode, cigName, "洪山区", BigDecimal.ONE, "原备注")));
+
+        List<CigaretteDistributionPredictionPO> updates = Arrays.asList(
+                prediction(cigCode, cigName, "江汉区", new BigDecimal("5"), "江汉修改"),
+                prediction(cigCode, cigName, "武昌区", new BigDecimal("7"), "武昌修改"));
+        int count = predictionRepository.batchUpdateGrades(TEST_YEAR, TEST_MONTH, TEST_WEEK_SEQ, updates);
+        assertEquals(2, count);
+
+        Map<String, Map<String, Object>> byArea = new HashMap<>();
+        for (Map<String, Object> row : predictionRepository.findByCigCode(TEST_YEAR, TEST_MONTH, TEST_WEEK_SEQ, cigCode)) {
+            byArea.put(row.get("DELIVERY_AREA").toString(), row);
+        }
+        assertEquals(0, new BigDecimal("5").compareTo(new BigDecimal(byArea.get("江汉区").get("D30").toString())));
+        assertEquals("江汉修改", byArea.get("江汉区").get("BZ"));
+        assertEquals(0, new BigDecimal("7").compareTo(new BigDecimal(byArea.get("武昌区").get("D30").toString())));
+        assertEquals("武昌修改", byArea.get("武昌区").get("BZ"));
+        // 未提交的区域不受影响
+        assertEquals(0, BigDecimal.ONE.compareTo(new BigDecimal(byArea.get("洪山区").get("D30").toString())));
+        assertEquals("原备注", byArea.get("洪山区").get("BZ"));
+
+        List<Map<String, Object>> counts = predictionRepository.countByCigaretteAreas(
+                TEST_YEAR, TEST_MONTH, TEST_WEEK_SEQ, updates);
+        assertEquals(1, counts.size());
+        assertEquals(2L, ((Number) counts.get(0).get("RECORD_COUNT")).longValue());
+        log.info("✅ 批量 CASE UPDATE 校验通过: {}", counts);
+    }
+
+    private CigaretteDistributionPredictionPO prediction(String cigCode, String cigName, String deliveryArea,
+                                                         BigDecimal d30, String remark) {
+        CigaretteDistributionPredictionPO po = new CigaretteDistributionPredictionPO();
+        po.setYear(TEST_YEAR);
+        po.setMonth(TEST_MONTH);
+        po.setWeekSeq(TEST_WEEK_SEQ);
+        po.setCigCode(cigCode);
+        po.setCigName(cigName);
+        po.setDeliveryArea(deliveryArea);
+        po.setDeliveryMethod("按档位投放");
+        BigDecimal[] grades = new BigDecimal[30];
+        Arrays.fill(grades, BigDecimal.ZERO);
+        grades[0] = d30;
+        WriteBackHelper.setGradesToEntity(po, grades);
+        po.setActualDelivery(d30);
+        po.setDeployinfoCode("");
+        po.setBz(remark);
+        return po;
+    }
+
     /**
      * 构建测试 DTO
      */
@@ -139,4 +243,27 @@ class PredictionUpdateServiceTest {
         dto.setRemark("测试修改");
         return dto;
     }
+
+    private BatchUpdateRegionGradesDto buildBatchDto() {
+        BatchUpdateRegionGradesDto dto = new BatchUpdateRegionGradesDto();
+        dto.setYear(TEST_YEAR);
+        dto.setMonth(TEST_MONTH);
+        dto.setWeekSeq(TEST_WEEK_SEQ);
+        return dto;
+    }
+
+    private BatchUpdateRegionGradesDto.Item buildBatchItem() {
+        BatchUpdateRegionGradesDto.Item item = new BatchUpdateRegionGradesDto.Item();
+        item.setCigCode("42010020");
+        item.setCigName("红金龙(硬神州腾龙)");
+        item.setPrimaryRegion("全市");
+
+        List<BigDecimal> grades = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            grades.add(BigDecimal.ONE);
+        }
+        item.setGrades(grades);
+        item.setRemark("测试批量修改");
+        return item;
+    }
 }
@@ -0,0 +1,205 @@
+package org.example.application.service.prediction.impl;
+
+import org.example.application.dto.prediction.BatchUpdateRegionGradesDto;
+import org.example.application.service.prediction.PredictionUpdateService;
+import org.example.domain.repository.CigaretteDistributionInfoRepository;
+import org.example.domain.repository.CigaretteDistributionPredictionPriceRepository;
+import org.example.domain.repository.CigaretteDistributionPredictionRepository;
+import org.example.infrastructure.persistence.po.CigaretteDistributionPredictionPO;
+import org.example.testsupport.PartialFake;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 批量修改档位后按卷烟核对更新条数的单元测试（内存版仓储，不连接数据库）。
+ */
+class PredictionBatchUpdateCountCheckTest {
+
+    private static final String CIG_A = "黄鹤楼(硬平装)";
+    private static final String CIG_B = "红金龙(硬神州腾龙)";
+
+    private final PredictionStore store = new PredictionStore();
+    private final PredictionUpdateServiceImpl service = new PredictionUpdateServiceImpl(
+            PartialFake.of(CigaretteDistributionInfoRepository.class, new InfoStore()),
+            PartialFake.of(CigaretteDistributionPredictionRepository.class, store),
+            PartialFake.of(CigaretteDistributionPredictionPriceRepository.class, new Object()),
+            new FixedEditSupport());
+
+    @Test
+    void 每支卷烟条数一致时返回更新条数() {
+        store.recordCounts.put(CIG_A, 2L);
+        store.recordCounts.put(CIG_B, 1L);
+
+        assertEquals(3, service.batchUpdateRegionGrades(batch()));
+        assertEquals(1, store.updateCalls);
+    }
+
+    @Test
+    void 表级行数相符但某支卷烟少更新时抛出异常() {
+        // 总数 3 与修改项数相同，但卷烟 A 只定位到 1 条、卷烟 B 多出 1 条
+        store.recordCounts.put(CIG_A, 1L);
+        store.recordCounts.put(CIG_B, 2L);
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> service.batchUpdateRegionGrades(batch()));
+        assertTrue(ex.getMessage().contains(CIG_A));
+        assertTrue(ex.getMessage().contains("已全部回滚"));
+        assertEquals(1, store.updateCalls);
+    }
+
+    @Test
+    void 核对失败时批量修改事务回滚() {
+        store.recordCounts.put(CIG_A, 1L);
+        store.recordCounts.put(CIG_B, 2L);
+        RecordingTransactionManager transactionManager = new RecordingTransactionManager();
+        ProxyFactory proxyFactory = new ProxyFactory(service);
+        proxyFactory.addAdvice(new TransactionInterceptor(transactionManager, new AnnotationTransactionAttributeSource()));
+        PredictionUpdateService transactional = (PredictionUpdateService) proxyFactory.getProxy();
+
+        assertThrows(IllegalStateException.class, () -> transactional.batchUpdateRegionGrades(batch()));
+        assertEquals(1, transactionManager.rollbacks);
+        assertEquals(0, transactionManager.commits);
+    }
+
+    private static BatchUpdateRegionGradesDto batch() {
+        BatchUpdateRegionGradesDto dto = new BatchUpdateRegionGradesDto();
+        dto.setYear(2025);
+        dto.setMonth(9);
+        dto.setWeekSeq(3);
+        List<BatchUpdateRegionGradesDto.Item> items = new ArrayList<>();
+        items.add(item(CIG_A, "江汉区"));
+        items.add(item(CIG_A, "武昌区"));
+        items.add(item(CIG_B, "江汉区"));
+        dto.setItems(items);
+        return dto;
+    }
+
+    private static BatchUpdateRegionGradesDto.Item item(String cigName, String region) {
+        BatchUpdateRegionGradesDto.Item item = new BatchUpdateRegionGradesDto.Item();
+        item.setCigCode(code(cigName));
+        item.setCigName(cigName);
+        item.setPrimaryRegion(region);
+        item.setGrades(new ArrayList<>(Collections.nCopies(30, BigDecimal.ONE)));
+        return item;
+    }
+
+    private static String code(String cigName) {
+        return CIG_A.equals(cigName) ? "42020181" : "42010020";
+    }
+
+    /**
+     * 预测表替身：批量 UPDATE 按提交条数返回影响行数，按卷烟计数由测试指定。
+     */
+    private static final class PredictionStore {
+        private final Map<String, Long> recordCounts = new HashMap<>();
+        private int updateCalls;
+
+        int batchUpdateGrades(Integer year, Integer month, Integer weekSeq,
+                              List<? extends CigaretteDistributionPredictionPO> records) {
+            updateCalls++;
+            return records.size();
+        }
+
+        List<Map<String, Object>> countByCigaretteAreas(Integer year, Integer month, Integer weekSeq,
+                                                        List<? extends CigaretteDistributionPredictionPO> records) {
+            List<Map<String, Object>> rows = new ArrayList<>();
+            for (Map.Entry<String, Long> entry : recordCounts.entrySet()) {
+                Map<String, Object> row = new HashMap<>();
+                row.put("CIG_CODE", code(entry.getKey()));
+                row.put("CIG_NAME", entry.getKey());
+                row.put("RECORD_COUNT", entry.getValue());
+                rows.add(row);
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * 只记录提交与回滚次数的事务管理器。
+     */
+    private static final class RecordingTransactionManager extends AbstractPlatformTransactionManager {
+        private int commits;
+        private int rollbacks;
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            commits++;
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            rollbacks++;
+        }
+    }
+
+    private static final class InfoStore {
+        Map<String, Object> findByCigCodeAndName(Integer year, Integer month, Integer weekSeq,
+                                                 String cigCode, String cigName) {
+            Map<String, Object> info = new HashMap<>();
+            info.put("CIG_CODE", cigCode);
+            info.put("CIG_NAME", cigName);
+            info.put("DELIVERY_METHOD", "按档位投放");
+            info.put("HG", "D30");
+            info.put("LG", "D1");
+            return info;
+        }
+    }
+
+    /**
+     * 编辑支撑替身：所有区域的记录都存在，客户数为空，编码固定。
+     */
+    private static final class FixedEditSupport extends PredictionEditSupport {
+
+        FixedEditSupport() {
+            super(null, null, null, null);
+        }
+
+        @Override
+        public List<Map<String, Object>> findCigaretteRecords(Integer year, Integer month, Integer weekSeq,
+                                                              String cigCode, boolean isPriceBand) {
+            List<Map<String, Object>> records = new ArrayList<>();
+            for (String region : new String[]{"江汉区", "武昌区"}) {
+                Map<String, Object> row = new HashMap<>();
+                row.put("CIG_CODE", cigCode);
+                row.put("CIG_NAME", code(CIG_A).equals(cigCode) ? CIG_A : CIG_B);
+                row.put("DELIVERY_AREA", region);
+                records.add(row);
+            }
+            return records;
+        }
+
+        @Override
+        public BigDecimal[] customerCountsForRegion(Integer year, Integer month, Integer weekSeq, String regionName) {
+            return new BigDecimal[30];
+        }
+
+        @Override
+        public Map<String, String> encodeAll(String cigCode, String cigName, String deliveryMethod,
+                                             String deliveryEtype, List<CigaretteDistributionPredictionPO> editedRecords) {
+            return Collections.emptyMap();
+        }
+    }
+}
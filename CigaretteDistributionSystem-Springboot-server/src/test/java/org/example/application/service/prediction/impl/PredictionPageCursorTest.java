@@ -0,0 +1,58 @@
+package org.example.application.service.prediction.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 预测数据分页游标单元测试。
+ */
+class PredictionPageCursorTest {
+
+    @Test
+    void 游标往返保留排序键() {
+        String token = PredictionPageCursor.encode("42020181", "黄鹤楼(硬平装)", "丹江（城网）", 9_000_000_001L);
+
+        assertFalse(token.contains("="));
+        PredictionPageCursor cursor = PredictionPageCursor.decode(token);
+        assertEquals("42020181", cursor.cigCode);
+        assertEquals("黄鹤楼(硬平装)", cursor.cigName);
+        assertEquals("丹江（城网）", cursor.deliveryArea);
+        assertEquals(9_000_000_001L, cursor.id);
+    }
+
+    @Test
+    void 同键记录以主键ID区分游标() {
+        PredictionPageCursor first = PredictionPageCursor.decode(PredictionPageCursor.encode("42020181", "黄鹤楼", "全市", 7L));
+        PredictionPageCursor second = PredictionPageCursor.decode(PredictionPageCursor.encode("42020181", "黄鹤楼", "全市", 8L));
+
+        assertEquals(first.deliveryArea, second.deliveryArea);
+        assertEquals(7L, first.id);
+        assertEquals(8L, second.id);
+    }
+
+    @Test
+    void 空投放区域按空串编码() {
+        PredictionPageCursor cursor = PredictionPageCursor.decode(PredictionPageCursor.encode("42020181", "黄鹤楼", null, 1L));
+
+        assertEquals("", cursor.deliveryArea);
+    }
+
+    @Test
+    void 无效游标抛出参数异常() {
+        assertThrows(IllegalArgumentException.class, () -> PredictionPageCursor.decode("不是游标"));
+        assertThrows(IllegalArgumentException.class, () -> PredictionPageCursor.decode("NDIwMjAxODE"));
+        // 旧版三段游标（无 ID）不再接受
+        String legacy = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("42020181\u001F黄鹤楼\u001F全市".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IllegalArgumentException.class, () -> PredictionPageCursor.decode(legacy));
+    }
+
+    @Test
+    void LIKE通配符按字面转义() {
+        assertEquals("42\\_01\\%\\\\", PredictionQueryServiceImpl.escapeLike("42_01%\\"));
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.application.service.region.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.application.service.coordinator.RegionCustomerStatisticsSnapshotCache;
+import org.example.domain.model.tag.TagFilter;
+import org.example.domain.repository.RegionCustomerStatisticsRepository;
+import org.example.shared.dto.RegionCustomerRecord;
+import org.example.shared.util.KmpMatcher;
+import org.example.shared.util.PartitionTableManager;
+import org.example.shared.util.RegionRecordBuilder;
+import org.example.testsupport.PartialFake;
+import org.example.testsupport.PartitionLockFake;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 缺失区域后台补建单元测试（同步执行器，内存版统计仓储与分区互斥替身）。
+ */
+class MissingRegionStatisticsMaterializerTest {
+
+    private final StatisticsStore store = new StatisticsStore();
+    private final PartitionLockFake partitionLock = new PartitionLockFake();
+    private final RegionCustomerStatisticsRepository repository =
+            PartialFake.of(RegionCustomerStatisticsRepository.class, store);
+    private final MissingRegionStatisticsMaterializer materializer = new MissingRegionStatisticsMaterializer(
+            new FixedRecordBuilder("全市", "江岸区", "江汉区"),
+            repository,
+            new RegionCustomerStatisticsSnapshotCache(repository, new KmpMatcher(),
+                    new PartitionTableManager(null), new SimpleMeterRegistry()),
+            partitionLock.asService(),
+            Runnable::run);
+
+    @Test
+    void 占用分区后只写入仍缺失的区域() {
+        store.regions.add("全市");
+
+        assertTrue(materializer.schedule(2025, 12, 3, "按档位投放", null));
+
+        assertEquals(Collections.singletonList("2025-12-3"), partitionLock.occupied);
+        assertEquals(1, store.writes.size());
+        assertEquals(Arrays.asList("江岸区", "江汉区"), store.writes.get(0));
+        assertEquals(1, store.occupiedAtWrite);
+    }
+
+    @Test
+    void 分区被分配任务占用时跳过补建且可重新提交() {
+        partitionLock.busy = true;
+
+        assertTrue(materializer.schedule(2025, 12, 3, "按档位投放", null));
+        assertTrue(store.writes.isEmpty());
+
+        partitionLock.busy = false;
+        assertTrue(materializer.schedule(2025, 12, 3, "按档位投放", null));
+        assertEquals(1, store.writes.size());
+        assertEquals(Arrays.asList("全市", "江岸区", "江汉区"), store.writes.get(0));
+    }
+
+    /**
+     * 统计仓储替身：只实现补建用到的方法，写入时记录当时已占用的分区数。
+     */
+    private final class StatisticsStore {
+        private final List<String> regions = new ArrayList<>();
+        private final List<List<String>> writes = new ArrayList<>();
+        private int occupiedAtWrite;
+
+        List<String> findRegions(Integer year, Integer month, Integer weekSeq) {
+            return new ArrayList<>(regions);
+        }
+
+        int batchUpsert(Integer year, Integer month, Integer weekSeq, List<RegionCustomerRecord> list) {
+            occupiedAtWrite = partitionLock.occupied.size();
+            List<String> written = list.stream().map(RegionCustomerRecord::getRegion).collect(Collectors.toList());
+            writes.add(written);
+            regions.addAll(written);
+            return written.size();
+        }
+    }
+
+    /**
+     * 区域记录构建替身：固定返回给定区域的空档位记录。
+     */
+    private static final class FixedRecordBuilder extends RegionRecordBuilder {
+        private final List<String> regions;
+
+        FixedRecordBuilder(String... regions) {
+            super(null, null, null, null, null, null);
+            this.regions = Arrays.asList(regions);
+        }
+
+        @Override
+        public List<RegionCustomerRecord> buildRecordsForCombination(
+                String deliveryMethod, String deliveryEtype, List<TagFilter> tagRules,
+                Integer year, Integer month, Integer weekSeq) {
+            return regions.stream()
+                    .map(region -> new RegionCustomerRecord(region, new BigDecimal[30], BigDecimal.ZERO))
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.application.service.writeback;
+
+import org.example.infrastructure.config.allocation.AllocationExecutionProperties;
+import org.example.infrastructure.persistence.po.CigaretteDistributionPredictionPO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 写回流水线单元测试（使用内存版写回服务记录每个事务的卷烟）。
+ */
+class StandardWriteBackPipelineTest {
+
+    private FakeWriteBackService writeBackService;
+    private StandardWriteBackPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        AllocationExecutionProperties properties = new AllocationExecutionProperties();
+        properties.setParallelism(1);
+        properties.setWriteBackBatchSize(4);
+        properties.setWriteBackQueueCapacity(2);
+        writeBackService = new FakeWriteBackService();
+        pipeline = new StandardWriteBackPipeline(writeBackService, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.destroy();
+    }
+
+    @Test
+    void 关闭会话前全部卷烟写回且每个事务不超过批次大小() {
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        try (StandardWriteBackPipeline.Session session = pipeline.open()) {
+            for (int i = 0; i < 25; i++) {
+                results.add(session.submit(prepared("C" + i)));
+            }
+        }
+        for (CompletableFuture<Boolean> result : results) {
+            assertTrue(result.getNow(false));
+        }
+        Set<String> written = new HashSet<>();
+        for (List<String> batch : writeBackService.committedBatches) {
+            assertTrue(batch.size() <= 4);
+            written.addAll(batch);
+        }
+        assertEquals(25, written.size());
+    }
+
+    @Test
+    void 批量事务失败时逐支重试只影响失败卷烟() {
+        writeBackService.failing.add("BAD");
+        Map<String, CompletableFuture<Boolean>> results = new LinkedHashMap<>();
+        try (StandardWriteBackPipeline.Session session = pipeline.open()) {
+            for (String cigCode : Arrays.asList("A", "BAD", "B", "C")) {
+                results.put(cigCode, session.submit(prepared(cigCode)));
+            }
+        }
+        assertFalse(results.get("BAD").getNow(true));
+        assertTrue(results.get("A").getNow(false));
+        assertTrue(results.get("B").getNow(false));
+        assertTrue(results.get("C").getNow(false));
+        for (List<String> batch : writeBackService.committedBatches) {
+            assertFalse(batch.contains("BAD"));
+        }
+    }
+
+    @Test
+    void 空会话可直接关闭() {
+        try (StandardWriteBackPipeline.Session session = pipeline.open()) {
+            assertNotNull(session);
+        }
+        assertTrue(writeBackService.committedBatches.isEmpty());
+    }
+
+    private static PreparedCigaretteWriteBack prepared(String cigCode) {
+        CigaretteDistributionPredictionPO record = new CigaretteDistributionPredictionPO();
+        record.setCigCode(cigCode);
+        record.setCigName(cigCode);
+        record.setDeliveryArea("全市");
+        record.setActualDelivery(BigDecimal.ONE);
+        return new PreparedCigaretteWriteBack(cigCode, cigCode, 2025, 9, 3, "按档位投放",
+                Collections.singletonList(record), Collections.emptyList());
+    }
+
+    /**
+     * 内存版写回服务：批次中含失败卷烟时整批抛出异常（模拟事务回滚）。
+     */
+    private static class FakeWriteBackService implements StandardDistributionWriteBackService {
+        private final Set<String> failing = new HashSet<>();
+        private final List<List<String>> committedBatches = new CopyOnWriteArrayList<>();
+
+        @Override
+        public int writeBackBatch(List<PreparedCigaretteWriteBack> batch) {
+            List<String> cigCodes = new ArrayList<>();
+            for (PreparedCigaretteWriteBack item : batch) {
+                if (failing.contains(item.getCigCode())) {
+                    throw new IllegalStateException("写回失败: " + item.getCigCode());
+                }
+                cigCodes.add(item.getCigCode());
+            }
+            committedBatches.add(cigCodes);
+            return cigCodes.size();
+        }
+
+        @Override
+        public boolean writeBackSingleCigarette(BigDecimal[][] allocationMatrix, BigDecimal[][] customerMatrix,
+                                                List<String> targetList, String cigCode, String cigName,
+                                                Integer year, Integer month, Integer weekSeq,
+                                                String deliveryMethod, String deliveryEtype,
+                                                String remark, String tag, String tagFilterConfig) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public PreparedCigaretteWriteBack prepareSingleCigarette(BigDecimal[][] allocationMatrix,
+                                                                 BigDecimal[][] customerMatrix,
+                                                                 List<String> targetList, String cigCode,
+                                                                 String cigName, Integer year, Integer month,
+                                                                 Integer weekSeq, String deliveryMethod,
+                                                                 String deliveryEtype, String remark,
+                                                                 String tag, String tagFilterConfig) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
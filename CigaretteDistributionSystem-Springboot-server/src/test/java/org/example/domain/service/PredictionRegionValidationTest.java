@@ -0,0 +1,47 @@
+package org.example.domain.service;
+
+import org.example.domain.service.rule.PredictionValidationRule;
+import org.example.domain.service.rule.PredictionValidationRule.RegionSets;
+import org.example.domain.service.rule.impl.PredictionValidationRuleImpl;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 新增投放区域的区域合法性校验测试（区域名称来自周快照）。
+ */
+public class PredictionRegionValidationTest {
+
+    private final PredictionValidationRule validationRule = new PredictionValidationRuleImpl();
+
+    @Test
+    public void testParseRegionSetsFromRegionNames() {
+        RegionSets sets = validationRule.parseRegionSets(Arrays.asList("丹江（城网）", "丹江（农网）", "郧西", null));
+
+        assertEquals(new HashSet<>(Arrays.asList("丹江（城网）", "丹江（农网）", "郧西")), sets.getValidRegions());
+        assertEquals(new HashSet<>(Arrays.asList("丹江", "郧西")), sets.getPrimaryRegions());
+        assertEquals(new HashSet<>(Arrays.asList("城网", "农网")), sets.getSecondaryRegions());
+    }
+
+    @Test
+    public void testBatchWithoutRegionsIsRejected() {
+        assertFalse(validationRule.validateBatchRegionStatsExists(Collections.emptySet(), 2025, 9, 3).isValid());
+        assertTrue(validationRule.validateBatchRegionStatsExists(Collections.singleton("全市"), 2025, 9, 3).isValid());
+    }
+
+    @Test
+    public void testRegionValidationAgainstParsedSets() {
+        RegionSets sets = validationRule.parseRegionSets(Arrays.asList("丹江（城网）", "郧西"));
+
+        assertTrue(validationRule.validateSingleExtensionRegion("郧西",
+                sets.getValidRegions(), sets.getPrimaryRegions()).isValid());
+        assertTrue(validationRule.validateSingleExtensionRegion("丹江",
+                sets.getValidRegions(), sets.getPrimaryRegions()).isValid());
+        assertFalse(validationRule.validateSingleExtensionRegion("竹山",
+                sets.getValidRegions(), sets.getPrimaryRegions()).isValid());
+    }
+}
@@ -0,0 +1,249 @@
+package org.example.domain.service.algorithm.kernel;
+
+import org.example.domain.model.valueobject.GradeRange;
+import org.example.domain.service.algorithm.ColumnWiseAdjustmentService;
+import org.example.domain.service.algorithm.GroupSplittingDistributionService;
+import org.example.domain.service.algorithm.SingleLevelDistributionService;
+import org.example.domain.service.algorithm.impl.ColumnWiseAdjustmentServiceImpl;
+import org.example.domain.service.algorithm.impl.GroupSplittingDistributionServiceImpl;
+import org.example.domain.service.algorithm.impl.KernelColumnWiseAdjustmentService;
+import org.example.domain.service.algorithm.impl.KernelSingleLevelDistributionService;
+import org.example.domain.service.algorithm.impl.SingleLevelDistributionServiceImpl;
+import org.example.infrastructure.algorithm.impl.DefaultColumnWiseAdjustmentAlgorithm;
+import org.example.infrastructure.algorithm.impl.DefaultGroupSplittingDistributionAlgorithm;
+import org.example.infrastructure.algorithm.impl.DefaultSingleLevelDistributionAlgorithm;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 分配内核差分测试：随机输入下，内核适配（领域服务接口与 infrastructure 算法接口）与 BigDecimal 实现的分配矩阵逐位一致。
+ */
+class AllocationKernelDifferentialTest {
+
+    private final SingleLevelDistributionService decimalSingleLevel = new SingleLevelDistributionServiceImpl();
+    private final ColumnWiseAdjustmentService decimalColumnWise = new ColumnWiseAdjustmentServiceImpl();
+    private final GroupSplittingDistributionService decimalGroupSplitting =
+            new GroupSplittingDistributionServiceImpl(decimalSingleLevel, decimalColumnWise);
+
+    private final SingleLevelDistributionService kernelSingleLevel =
+            new KernelSingleLevelDistributionService(decimalSingleLevel);
+    private final ColumnWiseAdjustmentService kernelColumnWise =
+            new KernelColumnWiseAdjustmentService(decimalColumnWise);
+    private final GroupSplittingDistributionService kernelGroupSplitting =
+            new GroupSplittingDistributionServiceImpl(kernelSingleLevel, kernelColumnWise);
+
+    @Test
+    void 整列调整随机输入与BigDecimal实现一致() {
+        Random random = new Random(20261016L);
+        for (int round = 0; round < 200; round++) {
+            // 绝大多数用例从 D30 起算；少量 HG 非 D30 的用例覆盖微调"重复同一状态直到迭代上限"的分支
+            int maxIndex = round % 100 == 7 ? 1 + random.nextInt(5) : 0;
+            int minIndex = maxIndex + random.nextInt(30 - maxIndex);
+            int segmentCount = 2 + random.nextInt(round % 10 == 0 ? 300 : (maxIndex > 0 ? 3 : 25));
+            BigDecimal[][] matrix = randomMatrix(random, segmentCount, maxIndex, minIndex);
+            BigDecimal target = BigDecimal.valueOf(1 + random.nextInt(round % 3 == 0 ? 2_000_000 : 50_000));
+            GradeRange range = rangeOf(maxIndex, minIndex);
+            List<String> segments = regions(segmentCount);
+
+            assertMatrixEquals(decimalColumnWise.distribute(segments, copy(matrix), target, range, null),
+                    kernelColumnWise.distribute(segments, copy(matrix), target, range, null),
+                    "round=" + round + ", target=" + target + ", range=[" + maxIndex + "," + minIndex + "]");
+        }
+    }
+
+    @Test
+    void 单层分配随机输入与BigDecimal实现一致() {
+        Random random = new Random(7L);
+        for (int round = 0; round < 1000; round++) {
+            int maxIndex = random.nextInt(30);
+            int minIndex = maxIndex + random.nextInt(30 - maxIndex);
+            BigDecimal[][] matrix = randomMatrix(random, 1, maxIndex, minIndex);
+            BigDecimal target = BigDecimal.valueOf(1 + random.nextInt(20_000));
+            GradeRange range = rangeOf(maxIndex, minIndex);
+            List<String> regions = Collections.singletonList("全市");
+
+            assertMatrixEquals(decimalSingleLevel.distribute(regions, copy(matrix), target, range),
+                    kernelSingleLevel.distribute(regions, copy(matrix), target, range),
+                    "round=" + round + ", target=" + target);
+        }
+    }
+
+    @Test
+    void 分组拆分随机输入与BigDecimal实现一致() {
+        Random random = new Random(11L);
+        for (int round = 0; round < 200; round++) {
+            int regionCount = 1 + random.nextInt(80);
+            int groupCount = 1 + random.nextInt(Math.min(regionCount, 6));
+            BigDecimal[][] matrix = randomMatrix(random, regionCount, 0, 29);
+            BigDecimal target = BigDecimal.valueOf(1 + random.nextInt(500_000));
+            List<String> regions = regions(regionCount);
+            Map<String, BigDecimal> ratios = new HashMap<>();
+            for (int g = 0; g < groupCount; g++) {
+                ratios.put("G" + g, BigDecimal.valueOf(1 + random.nextInt(9)).movePointLeft(1));
+            }
+            Map<String, String> groupOf = new HashMap<>();
+            for (String region : regions) {
+                groupOf.put(region, "G" + random.nextInt(groupCount));
+            }
+
+            assertMatrixEquals(
+                    decimalGroupSplitting.distribute(regions, copy(matrix), target, GradeRange.full(), groupOf::get, ratios),
+                    kernelGroupSplitting.distribute(regions, copy(matrix), target, GradeRange.full(), groupOf::get, ratios),
+                    "round=" + round);
+        }
+    }
+
+    @Test
+    void 分组并行求解与串行求解结果一致() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            GroupSplittingDistributionService parallel =
+                    new GroupSplittingDistributionServiceImpl(kernelSingleLevel, kernelColumnWise, pool);
+            Random random = new Random(13L);
+            for (int round = 0; round < 100; round++) {
+                int regionCount = 2 + random.nextInt(120);
+                int groupCount = 2 + random.nextInt(Math.min(regionCount - 1, 40));
+                BigDecimal[][] matrix = randomMatrix(random, regionCount, 0, 29);
+                BigDecimal target = BigDecimal.valueOf(1 + random.nextInt(500_000));
+                List<String> regions = regions(regionCount);
+                Map<String, BigDecimal> ratios = new HashMap<>();
+                for (int g = 0; g < groupCount; g++) {
+                    ratios.put("G" + g, BigDecimal.valueOf(1 + random.nextInt(99)).movePointLeft(2));
+                }
+                Map<String, String> groupOf = new HashMap<>();
+                for (String region : regions) {
+                    groupOf.put(region, "G" + random.nextInt(groupCount));
+                }
+
+                BigDecimal[][] serialResult = kernelGroupSplitting.distribute(regions, copy(matrix), target,
+                        GradeRange.full(), groupOf::get, ratios);
+                assertMatrixEquals(serialResult,
+                        parallel.distribute(regions, copy(matrix), target, GradeRange.full(), groupOf::get, ratios),
+                        "round=" + round);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void infrastructure接口适配与默认档位范围的领域实现一致() {
+        Random random = new Random(23L);
+        DefaultSingleLevelDistributionAlgorithm singleLevel = new DefaultSingleLevelDistributionAlgorithm();
+        DefaultColumnWiseAdjustmentAlgorithm columnWise = new DefaultColumnWiseAdjustmentAlgorithm();
+        DefaultGroupSplittingDistributionAlgorithm groupSplitting =
+                new DefaultGroupSplittingDistributionAlgorithm(singleLevel, columnWise);
+        for (int round = 0; round < 50; round++) {
+            int regionCount = 2 + random.nextInt(30);
+            BigDecimal[][] matrix = randomMatrix(random, regionCount, 0, 29);
+            BigDecimal target = BigDecimal.valueOf(1 + random.nextInt(100_000));
+            List<String> regions = regions(regionCount);
+
+            assertMatrixEquals(decimalColumnWise.distribute(regions, copy(matrix), target, GradeRange.full(), null),
+                    columnWise.distribute(regions, copy(matrix), target, null), "columnWise round=" + round);
+
+            List<String> single = Collections.singletonList(regions.get(0));
+            BigDecimal[][] singleMatrix = {matrix[0].clone()};
+            assertMatrixEquals(decimalSingleLevel.distribute(single, copy(singleMatrix), target, GradeRange.full()),
+                    singleLevel.distribute(single, copy(singleMatrix), target), "singleLevel round=" + round);
+
+            Map<String, BigDecimal> ratios = new HashMap<>();
+            ratios.put("城网", new BigDecimal("0.6"));
+            ratios.put("农网", new BigDecimal("0.4"));
+            assertMatrixEquals(
+                    decimalGroupSplitting.distribute(regions, copy(matrix), target, GradeRange.full(),
+                            region -> region.hashCode() % 2 == 0 ? "城网" : "农网", ratios),
+                    groupSplitting.distribute(regions, copy(matrix), target,
+                            region -> region.hashCode() % 2 == 0 ? "城网" : "农网", ratios),
+                    "groupSplitting round=" + round);
+        }
+    }
+
+    @Test
+    void 无法无损转换时回退到BigDecimal实现() {
+        Random random = new Random(3L);
+        List<String> regions = regions(12);
+        BigDecimal[][] matrix = randomMatrix(random, 12, 0, 29);
+        BigDecimal fractionalTarget = new BigDecimal("12345.5");
+        assertMatrixEquals(decimalColumnWise.distribute(regions, copy(matrix), fractionalTarget, null, null),
+                kernelColumnWise.distribute(regions, copy(matrix), fractionalTarget, null, null), "小数目标量");
+
+        matrix[3][5] = new BigDecimal("2.5");
+        BigDecimal target = BigDecimal.valueOf(30_000);
+        assertMatrixEquals(decimalColumnWise.distribute(regions, copy(matrix), target, null, null),
+                kernelColumnWise.distribute(regions, copy(matrix), target, null, null), "小数客户数");
+    }
+
+    @Test
+    void 区域在档位范围内客户数全为0时与BigDecimal实现同样拒绝分配() {
+        BigDecimal[][] matrix = randomMatrix(new Random(5L), 4, 0, 29);
+        for (int g = 10; g <= 20; g++) {
+            matrix[2][g] = BigDecimal.ZERO;
+        }
+        GradeRange range = rangeOf(10, 20);
+        List<String> regions = regions(4);
+        BigDecimal target = BigDecimal.valueOf(1000);
+        IllegalStateException expected = assertThrows(IllegalStateException.class,
+                () -> decimalColumnWise.distribute(regions, copy(matrix), target, range, null));
+        IllegalStateException actual = assertThrows(IllegalStateException.class,
+                () -> kernelColumnWise.distribute(regions, copy(matrix), target, range, null));
+        assertEquals(expected.getMessage(), actual.getMessage());
+    }
+
+    /**
+     * 随机客户数矩阵：约一半档位为0，保证每个区域在范围内至少有一个档位客户数为正；
+     * HG 档位约 1/5 为0（整列 HG 为0时原实现微调耗时很长，仅保留少量覆盖）。
+     */
+    private static BigDecimal[][] randomMatrix(Random random, int rows, int maxIndex, int minIndex) {
+        BigDecimal[][] matrix = new BigDecimal[rows][30];
+        for (BigDecimal[] row : matrix) {
+            for (int g = 0; g < 30; g++) {
+                row[g] = BigDecimal.valueOf(random.nextBoolean() ? 0 : random.nextInt(200));
+            }
+            row[maxIndex] = BigDecimal.valueOf(random.nextInt(5) == 0 ? 0 : 1 + random.nextInt(200));
+            row[maxIndex + random.nextInt(minIndex - maxIndex + 1)] = BigDecimal.valueOf(1 + random.nextInt(50));
+        }
+        return matrix;
+    }
+
+    private static BigDecimal[][] copy(BigDecimal[][] matrix) {
+        BigDecimal[][] copy = new BigDecimal[matrix.length][];
+        for (int i = 0; i < matrix.length; i++) {
+            copy[i] = matrix[i].clone();
+        }
+        return copy;
+    }
+
+    private static List<String> regions(int count) {
+        List<String> regions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            regions.add("区域" + i);
+        }
+        return regions;
+    }
+
+    private static GradeRange rangeOf(int maxIndex, int minIndex) {
+        return GradeRange.of("D" + (30 - maxIndex), "D" + (30 - minIndex));
+    }
+
+    private static void assertMatrixEquals(BigDecimal[][] expected, BigDecimal[][] actual, String message) {
+        assertEquals(expected.length, actual.length, message);
+        for (int r = 0; r < expected.length; r++) {
+            assertEquals(expected[r].length, actual[r].length, message);
+            for (int g = 0; g < expected[r].length; g++) {
+                assertEquals(0, expected[r][g].compareTo(actual[r][g]),
+                        message + " row=" + r + ", grade=" + g + ", expected=" + expected[r][g] + ", actual=" + actual[r][g]);
+            }
+        }
+    }
+}
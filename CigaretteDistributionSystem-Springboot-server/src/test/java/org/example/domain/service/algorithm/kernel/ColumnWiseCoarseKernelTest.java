@@ -0,0 +1,117 @@
+package org.example.domain.service.algorithm.kernel;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 多区域整列调整粗调闭式内核单元测试（与原逐列迭代粗调做随机差分对比）。
+ */
+class ColumnWiseCoarseKernelTest {
+
+    @Test
+    void 随机输入与逐列迭代粗调结果一致() {
+        Random random = new Random(20261016L);
+        for (int round = 0; round < 3000; round++) {
+            int maxIndex = random.nextInt(30);
+            int minIndex = maxIndex + random.nextInt(30 - maxIndex);
+            int segmentCount = 1 + random.nextInt(round % 5 == 0 ? 500 : 20);
+            long[][] customers = new long[segmentCount][30];
+            long[] columnSums = new long[30];
+            for (long[] row : customers) {
+                for (int g = 0; g < 30; g++) {
+                    // 约一半档位客户数为0，覆盖整列增量为0的档位
+                    row[g] = random.nextBoolean() ? 0 : random.nextInt(200);
+                    columnSums[g] += row[g];
+                }
+                row[minIndex] += 1;
+                columnSums[minIndex] += 1;
+            }
+            long target = 1 + (long) (random.nextDouble() * (round % 3 == 0 ? 1e7 : 1e5));
+            if (round % 4 == 0) {
+                // 让目标恰好落在某次整列+1之后，覆盖"恰好等于目标"分支
+                target = reachableAmount(columnSums, maxIndex, minIndex, random.nextInt(200) + 1);
+            }
+
+            long[] expected = iterativeCoarse(customers, target, maxIndex, minIndex);
+            long[] actual = ColumnWiseCoarseKernel.coarseLevels(columnSums, target, maxIndex, minIndex);
+            assertArrayEquals(expected, actual,
+                    "round=" + round + ", target=" + target + ", range=[" + maxIndex + "," + minIndex + "]");
+        }
+    }
+
+    @Test
+    void 恰好命中目标时包含该档位() {
+        long[] columnSums = new long[30];
+        columnSums[0] = 10;
+        columnSums[1] = 0;
+        columnSums[2] = 20;
+        // 第2轮：10+0+20 → 30+10=40，恰好命中 HG
+        long[] levels = ColumnWiseCoarseKernel.coarseLevels(columnSums, 40, 0, 2);
+        assertEquals(2, levels[0]);
+        assertEquals(1, levels[1]);
+        assertEquals(1, levels[2]);
+        // 未恰好命中：停在会超出目标的档位之前，HG 之后的零增量档位照常填充
+        levels = ColumnWiseCoarseKernel.coarseLevels(columnSums, 45, 0, 2);
+        assertEquals(2, levels[0]);
+        assertEquals(2, levels[1]);
+        assertEquals(1, levels[2]);
+    }
+
+    @Test
+    void 非法输入被拒绝() {
+        long[] columnSums = new long[30];
+        columnSums[29] = 5;
+        assertThrows(IllegalStateException.class, () -> ColumnWiseCoarseKernel.coarseLevels(columnSums, 100, 0, 28));
+        assertThrows(IllegalArgumentException.class, () -> ColumnWiseCoarseKernel.coarseLevels(columnSums, 100, 0, 30));
+        assertThrows(IllegalArgumentException.class, () -> ColumnWiseCoarseKernel.coarseLevels(columnSums, 0, 0, 29));
+    }
+
+    /**
+     * 原 ColumnWise 粗调：HG→LG 逐轮整列+1，恰好等于目标时加上后返回，会超出目标时不加直接返回。
+     */
+    private static long[] iterativeCoarse(long[][] customers, long target, int maxIndex, int minIndex) {
+        long[][] allocation = new long[customers.length][30];
+        long current = 0;
+        while (true) {
+            for (int grade = maxIndex; grade <= minIndex; grade++) {
+                long increment = 0;
+                for (long[] row : customers) {
+                    increment += row[grade];
+                }
+                if (current + increment == target) {
+                    addColumn(allocation, grade);
+                    return uniformLevels(allocation);
+                }
+                if (current + increment > target) {
+                    return uniformLevels(allocation);
+                }
+                addColumn(allocation, grade);
+                current += increment;
+            }
+        }
+    }
+
+    private static void addColumn(long[][] allocation, int grade) {
+        for (long[] row : allocation) {
+            row[grade]++;
+        }
+    }
+
+    private static long[] uniformLevels(long[][] allocation) {
+        for (long[] row : allocation) {
+            assertArrayEquals(allocation[0], row, "粗调结果各区域应逐列一致");
+        }
+        return allocation[0].clone();
+    }
+
+    private static long reachableAmount(long[] columnSums, int maxIndex, int minIndex, int steps) {
+        long amount = 0;
+        for (int s = 0; s < steps; s++) {
+            amount += columnSums[maxIndex + s % (minIndex - maxIndex + 1)];
+        }
+        return Math.max(1, amount);
+    }
+}
@@ -0,0 +1,127 @@
+package org.example.domain.service.algorithm.kernel;
+
+import org.example.domain.model.valueobject.GradeRange;
+import org.example.domain.service.algorithm.PriceBandTruncationService;
+import org.example.domain.service.algorithm.impl.PriceBandTruncationServiceImpl;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 价位段误差微调增量内核测试：随机价位段上与原逐轮 BigDecimal 微调结果逐位一致。
+ */
+class PriceBandAdjustmentKernelTest {
+
+    private final PriceBandTruncationService incremental = new PriceBandTruncationServiceImpl(true);
+    private final PriceBandTruncationService iterative = new PriceBandTruncationServiceImpl(false);
+
+    @Test
+    void 随机价位段与逐轮微调结果一致() {
+        Random random = new Random(20261016L);
+        for (int round = 0; round < 500; round++) {
+            int maxIndex = round % 4 == 0 ? random.nextInt(10) : 0;
+            int minIndex = maxIndex + random.nextInt(30 - maxIndex);
+            GradeRange range = GradeRange.of("D" + (30 - maxIndex), "D" + (30 - minIndex));
+            BigDecimal[] baseRow = customerRow(random, maxIndex);
+            BigDecimal[] boostedRow = new BigDecimal[30];
+            for (int g = 0; g < 30; g++) {
+                boostedRow[g] = baseRow[g].multiply(BigDecimal.valueOf(2));
+            }
+
+            int cigaretteCount = 2 + random.nextInt(12);
+            Map<Integer, List<Map<String, Object>>> expected = new LinkedHashMap<>();
+            Map<Integer, List<Map<String, Object>>> actual = new LinkedHashMap<>();
+            List<Map<String, Object>> expectedBand = new ArrayList<>();
+            List<Map<String, Object>> actualBand = new ArrayList<>();
+            for (int c = 0; c < cigaretteCount; c++) {
+                BigDecimal[] grades = new BigDecimal[30];
+                for (int g = 0; g < 30; g++) {
+                    grades[g] = BigDecimal.valueOf(g >= maxIndex && random.nextInt(3) > 0 ? random.nextInt(8) : 0);
+                }
+                BigDecimal target = BigDecimal.valueOf(1 + random.nextInt(round % 5 == 0 ? 5_000_000 : 200_000));
+                String remark = random.nextInt(4) == 0 ? "两周一访上浮100%" : null;
+                expectedBand.add(cigarette(c, grades.clone(), target, remark));
+                actualBand.add(cigarette(c, grades.clone(), target, remark));
+            }
+            expected.put(100, expectedBand);
+            actual.put(100, actualBand);
+
+            String expectedError = run(iterative, expected, baseRow, boostedRow, range);
+            String actualError = run(incremental, actual, baseRow, boostedRow, range);
+            assertEquals(expectedError, actualError, "round=" + round);
+            for (int c = 0; c < cigaretteCount; c++) {
+                BigDecimal[] expectedGrades = (BigDecimal[]) expectedBand.get(c).get("GRADES");
+                BigDecimal[] actualGrades = (BigDecimal[]) actualBand.get(c).get("GRADES");
+                for (int g = 0; g < 30; g++) {
+                    assertEquals(0, expectedGrades[g].compareTo(actualGrades[g]),
+                            "round=" + round + ", cigarette=" + c + ", grade=" + g
+                                    + ", expected=" + expectedGrades[g] + ", actual=" + actualGrades[g]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void 最高档位无客户时与原实现一样跑满迭代上限() {
+        long[] grades = new long[30];
+        long[] customers = new long[30];
+        customers[1] = 5;
+        // 余量 3：每轮对 maxIndex+1（无投放量）后在索引1超出并撤销，状态不变直到迭代上限
+        long[] deltas = PriceBandAdjustmentKernel.increments(grades, customers, 3, 0, 29);
+        assertEquals(PriceBandAdjustmentKernel.ITERATION_LIMIT, deltas[0]);
+        assertEquals(0, deltas[1]);
+    }
+
+    @Test
+    void 余量小于最高档位客户数时选择误差较小的方案() {
+        long[] grades = new long[30];
+        long[] customers = new long[30];
+        customers[0] = 149;
+        grades[0] = 19;
+        // 目标 3000，当前 2831，余量 169 ≥ 149 先填一轮：+149 后为 2980
+        long[] deltas = PriceBandAdjustmentKernel.increments(grades, customers, 3000, 0, 0);
+        // 2980 余量 20 < 149：不+1 误差 20，+1 误差 129，保持
+        assertEquals(1, deltas[0]);
+        // 目标 3100：2980 余量 120，+1 误差 29 更小
+        deltas = PriceBandAdjustmentKernel.increments(grades, customers, 3100, 0, 0);
+        assertEquals(2, deltas[0]);
+    }
+
+    private static String run(PriceBandTruncationService service, Map<Integer, List<Map<String, Object>>> bands,
+                              BigDecimal[] baseRow, BigDecimal[] boostedRow, GradeRange range) {
+        try {
+            service.truncateAndAdjust(bands, baseRow, boostedRow, range, 2026, 10, 3);
+            return null;
+        } catch (IllegalStateException ex) {
+            return ex.getMessage();
+        }
+    }
+
+    private static BigDecimal[] customerRow(Random random, int maxIndex) {
+        BigDecimal[] row = new BigDecimal[30];
+        for (int g = 0; g < 30; g++) {
+            row[g] = BigDecimal.valueOf(random.nextInt(4) == 0 ? 0 : random.nextInt(3000));
+        }
+        // maxIndex 客户数为0时原实现会跑满迭代上限，差分用例只保留正数
+        row[maxIndex] = BigDecimal.valueOf(1 + random.nextInt(3000));
+        return row;
+    }
+
+    private static Map<String, Object> cigarette(int index, BigDecimal[] grades, BigDecimal target, String remark) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("CIG_CODE", "C" + index);
+        row.put("CIG_NAME", "卷烟" + index);
+        row.put("ADV", target);
+        row.put("BZ", remark);
+        row.put("GRADES", grades);
+        return row;
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.domain.service.algorithm.kernel;
+
+import org.example.domain.model.valueobject.GradeRange;
+import org.example.domain.service.algorithm.impl.SingleLevelDistributionServiceImpl;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 单层分配原始类型内核单元测试（与 BigDecimal 实现做随机差分对比）。
+ */
+class SingleLevelKernelTest {
+
+    private final SingleLevelDistributionServiceImpl decimalService = new SingleLevelDistributionServiceImpl();
+
+    @Test
+    void 随机输入与BigDecimal实现结果一致() {
+        Random random = new Random(20261016L);
+        for (int round = 0; round < 2000; round++) {
+            int maxIndex = random.nextInt(30);
+            int minIndex = maxIndex + random.nextInt(30 - maxIndex);
+            long[] customers = new long[30];
+            boolean anyPositive = false;
+            for (int i = 0; i < 30; i++) {
+                // 约三分之一档位客户数为0，覆盖 HG 客户数为0的分支
+                customers[i] = random.nextInt(3) == 0 ? 0 : random.nextInt(60);
+                if (i >= maxIndex && i <= minIndex && customers[i] > 0) {
+                    anyPositive = true;
+                }
+            }
+            if (!anyPositive) {
+                customers[minIndex] = 1 + random.nextInt(10);
+            }
+            long target = 1 + random.nextInt(20000);
+
+            assertSameAsDecimal(customers, target, maxIndex, minIndex);
+        }
+    }
+
+    @Test
+    void 目标量恰好命中时返回粗调方案() {
+        long[] customers = new long[30];
+        customers[0] = 10;
+        customers[1] = 20;
+        long[] allocation = SingleLevelKernel.distribute(customers, 70, 0, 1);
+        assertEquals(3, allocation[0]);
+        assertEquals(2, allocation[1]);
+        assertEquals(70, SingleLevelKernel.amount(allocation, customers));
+    }
+
+    @Test
+    void 范围内客户数全为0时拒绝分配() {
+        long[] customers = new long[30];
+        customers[29] = 5;
+        assertThrows(IllegalStateException.class, () -> SingleLevelKernel.distribute(customers, 100, 0, 28));
+        assertThrows(IllegalArgumentException.class, () -> SingleLevelKernel.distribute(customers, 100, 0, 30));
+    }
+
+    private void assertSameAsDecimal(long[] customers, long target, int maxIndex, int minIndex) {
+        BigDecimal[][] matrix = new BigDecimal[1][customers.length];
+        for (int i = 0; i < customers.length; i++) {
+            matrix[0][i] = BigDecimal.valueOf(customers[i]);
+        }
+        GradeRange range = GradeRange.of("D" + (30 - maxIndex), "D" + (30 - minIndex));
+        BigDecimal[][] expected = decimalService.distribute(Collections.singletonList("全市"), matrix,
+                BigDecimal.valueOf(target), range);
+
+        long[] actual = SingleLevelKernel.distribute(customers, target, maxIndex, minIndex);
+        for (int i = 0; i < customers.length; i++) {
+            assertEquals(expected[0][i].longValueExact(), actual[i],
+                    "grade index " + i + ", target=" + target + ", range=[" + maxIndex + "," + minIndex + "]");
+        }
+    }
+}
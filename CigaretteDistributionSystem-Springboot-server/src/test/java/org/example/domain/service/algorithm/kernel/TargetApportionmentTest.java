@@ -0,0 +1,64 @@
+package org.example.domain.service.algorithm.kernel;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 目标量最大余数法拆分单元测试。
+ */
+class TargetApportionmentTest {
+
+    @Test
+    void 拆分结果之和等于总量且每份与精确份额相差不足1() {
+        Random random = new Random(20261016L);
+        for (int round = 0; round < 2000; round++) {
+            int count = 1 + random.nextInt(round % 10 == 0 ? 1000 : 8);
+            BigDecimal[] weights = new BigDecimal[count];
+            BigDecimal weightSum = BigDecimal.ZERO;
+            for (int i = 0; i < count; i++) {
+                weights[i] = BigDecimal.valueOf(1 + random.nextInt(1000)).movePointLeft(random.nextInt(4));
+                weightSum = weightSum.add(weights[i]);
+            }
+            long total = random.nextInt(1_000_000);
+
+            long[] shares = TargetApportionment.largestRemainder(total, weights);
+            long sum = 0;
+            for (int i = 0; i < count; i++) {
+                sum += shares[i];
+                BigDecimal exact = BigDecimal.valueOf(total).multiply(weights[i])
+                        .divide(weightSum, 10, RoundingMode.HALF_UP);
+                assertTrue(exact.subtract(BigDecimal.valueOf(shares[i])).abs().compareTo(BigDecimal.ONE) < 0,
+                        "round=" + round + ", index=" + i);
+            }
+            assertEquals(total, sum, "round=" + round);
+        }
+    }
+
+    @Test
+    void 余数相同时靠前的份额优先() {
+        BigDecimal[] weights = {BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE};
+        assertArrayEquals(new long[]{4, 3, 3}, TargetApportionment.largestRemainder(10, weights));
+        assertArrayEquals(new long[]{4, 4, 3}, TargetApportionment.largestRemainder(11, weights));
+        // 0.6/0.4 拆 5：精确份额 3 / 2，无余数
+        assertArrayEquals(new long[]{3, 2},
+                TargetApportionment.largestRemainder(5, new BigDecimal[]{new BigDecimal("0.6"), new BigDecimal("0.4")}));
+        // 余数较大者优先：7 × (0.35, 0.65) = 2.45 / 4.55 → 2 / 5
+        assertArrayEquals(new long[]{2, 5},
+                TargetApportionment.largestRemainder(7, new BigDecimal[]{new BigDecimal("0.35"), new BigDecimal("0.65")}));
+    }
+
+    @Test
+    void 非法输入被拒绝() {
+        assertThrows(IllegalArgumentException.class,
+                () -> TargetApportionment.largestRemainder(-1, new BigDecimal[]{BigDecimal.ONE}));
+        assertThrows(IllegalArgumentException.class,
+                () -> TargetApportionment.largestRemainder(10, new BigDecimal[0]));
+        assertThrows(IllegalArgumentException.class,
+                () -> TargetApportionment.largestRemainder(10, new BigDecimal[]{BigDecimal.ONE, BigDecimal.ZERO}));
+    }
+}
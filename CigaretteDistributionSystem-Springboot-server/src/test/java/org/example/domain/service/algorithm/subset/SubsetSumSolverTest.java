@@ -0,0 +1,160 @@
+package org.example.domain.service.algorithm.subset;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 子集和求解器单元测试（与原背包 DP 做随机差分对比，子集和与选中集合均需一致）。
+ */
+class SubsetSumSolverTest {
+
+    private final SubsetSumSolver reference = new DynamicProgrammingSubsetSumSolver();
+    private final SubsetSumSolver[] exactSolvers = {
+            new MeetInTheMiddleSubsetSumSolver(),
+            new BitsetSubsetSumSolver()
+    };
+
+    @Test
+    void 随机输入与原背包DP的子集和及选中集合一致() {
+        Random random = new Random(20261016L);
+        for (int round = 0; round < 2000; round++) {
+            int itemCount = 1 + random.nextInt(MeetInTheMiddleSubsetSumSolver.MAX_ITEMS);
+            // 小重量范围下和相同的子集很多，用于覆盖选中集合的并列情形
+            int maxWeight = round % 3 == 0 ? 8 : (random.nextBoolean() ? 200 : 5000);
+            long[] weights = new long[itemCount];
+            long total = 0;
+            for (int i = 0; i < itemCount; i++) {
+                weights[i] = 1 + random.nextInt(maxWeight);
+                total += weights[i];
+            }
+            // 与调用方一致：余量小于整列增量；偶尔覆盖小于所有重量的情形
+            long target = 1 + (long) (random.nextDouble() * (total - 1));
+            if (round % 10 == 0) {
+                target = 1 + random.nextInt(3);
+            }
+
+            SubsetSumResult expected = reference.solve(weights, target);
+            for (SubsetSumSolver solver : exactSolvers) {
+                SubsetSumResult actual = solver.solve(weights, target);
+                assertNotNull(actual, solver.name());
+                assertSameSelection(weights, expected, actual, solver.name() + " round=" + round);
+            }
+            assertSameSelection(weights, expected, SubsetSumSolvers.solve(weights, target), "AUTO round=" + round);
+        }
+    }
+
+    @Test
+    void 大规模区域时位集与原背包DP选中集合一致() {
+        Random random = new Random(7L);
+        long[] weights = new long[2000];
+        long total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = 1 + random.nextInt(200);
+            total += weights[i];
+        }
+        long target = total / 3 + 17;
+
+        SubsetSumResult expected = reference.solve(weights, target);
+        assertEquals(target, expected.getSum());
+
+        assertNull(new MeetInTheMiddleSubsetSumSolver().solve(weights, target));
+        assertSameSelection(weights, expected, new BitsetSubsetSumSolver().solve(weights, target), "BITSET");
+        assertSameSelection(weights, expected, SubsetSumSolvers.solve(weights, target), "AUTO");
+    }
+
+    @Test
+    void 位集超出检查点预算时二分回溯与原背包DP一致() {
+        long[] weights = new long[120];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = 60_000L + i * 7L;
+        }
+        long target = 6_500_003L;
+        assertFalse(BitsetSubsetSumSolver.fitsCheckpointBudget(weights.length, (int) (target + weights[119] - 1)));
+
+        SubsetSumResult expected = reference.solve(weights, target);
+        assertSameSelection(weights, expected, new BitsetSubsetSumSolver().solve(weights, target), "BITSET");
+        assertSameSelection(weights, expected, SubsetSumSolvers.solve(weights, target), "AUTO");
+    }
+
+    @Test
+    void 约60个区域总重量1e7时不经过原背包DP() {
+        for (SubsetSumSolver solver : SubsetSumSolvers.DEFAULT_CHAIN) {
+            assertFalse(solver instanceof DynamicProgrammingSubsetSumSolver, solver.name());
+        }
+        Random random = new Random(60L);
+        long[] weights = new long[60];
+        long total = 0;
+        long maxWeight = 0;
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = 150_000L + random.nextInt(20_000);
+            total += weights[i];
+            maxWeight = Math.max(maxWeight, weights[i]);
+        }
+        assertTrue(total > 9_000_000L && total <= DynamicProgrammingSubsetSumSolver.MAX_CAPACITY);
+        long target = total - 123_457L;
+        assertFalse(BitsetSubsetSumSolver.fitsCheckpointBudget(weights.length,
+                (int) Math.min(total, target + maxWeight - 1)));
+
+        SubsetSumResult expected = reference.solve(weights, target);
+        assertSameSelection(weights, expected, SubsetSumSolvers.solve(weights, target), "AUTO");
+    }
+
+    @Test
+    void 超出原背包DP容量时与原实现一样放弃求解() {
+        long[] weights = new long[30];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = 400_000L + i;
+        }
+        long target = 5_000_003L;
+        assertNull(reference.solve(weights, target));
+        assertNull(SubsetSumSolvers.solve(weights, target));
+    }
+
+    @Test
+    void 误差相同时取较大的和() {
+        // 可达和 4、6，目标 5：误差均为1，取 6
+        long[] weights = {4, 6};
+        for (SubsetSumSolver solver : exactSolvers) {
+            assertEquals(6L, solver.solve(weights, 5).getSum(), solver.name());
+        }
+        assertEquals(6L, reference.solve(weights, 5).getSum());
+    }
+
+    @Test
+    void 和相同时选中集合与原背包DP一致() {
+        // 和为 5 的子集：{0,1}、{2}、{3}；原 DP 回溯选最先可达的 {0,1}
+        long[] weights = {2, 3, 5, 5};
+        SubsetSumResult expected = reference.solve(weights, 5);
+        assertTrue(expected.isChosen(0) && expected.isChosen(1));
+        for (SubsetSumSolver solver : exactSolvers) {
+            assertSameSelection(weights, expected, solver.solve(weights, 5), solver.name());
+        }
+    }
+
+    @Test
+    void 位集平移跨字边界() {
+        long[] bits = new long[3];
+        bits[0] = 1L | (1L << 63);
+        BitsetSubsetSumSolver.shiftOr(bits, 65, 150);
+        assertEquals(1L | (1L << 63), bits[0]);
+        assertEquals(1L << 1, bits[1]);
+        assertEquals(1L, bits[2]);
+    }
+
+    private static void assertSameSelection(long[] weights, SubsetSumResult expected, SubsetSumResult actual,
+                                            String solver) {
+        assertNotNull(actual, solver);
+        assertEquals(expected.getSum(), actual.getSum(), solver + " 子集和不一致");
+        long sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            assertEquals(expected.isChosen(i), actual.isChosen(i), solver + " 选中集合不一致 item=" + i);
+            if (actual.isChosen(i)) {
+                sum += weights[i];
+            }
+        }
+        assertEquals(actual.getSum(), sum, solver + " 选中集合与子集和不一致");
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.encode;
+
+import org.example.application.service.encode.impl.EncodeServiceImpl;
+import org.example.domain.model.valueobject.DeliveryExtensionType;
+import org.example.infrastructure.config.encoding.EncodingRuleProperties;
+import org.example.infrastructure.config.encoding.EncodingRuleRepository;
+import org.example.infrastructure.persistence.po.CigaretteDistributionPredictionPO;
+import org.example.shared.util.WriteBackHelper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 预编译编码索引单元测试：一次性全区域编码与逐区域编码结果一致，reload 后使用新规则。
+ */
+class EncodeServiceIndexTest {
+
+    private EncodingRuleProperties properties;
+    private EncodingRuleRepository repository;
+    private EncodeServiceImpl encodeService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new EncodingRuleProperties();
+        properties.getDeliveryMethods().add(methodRule("A", "按档位投放"));
+        properties.getDeliveryMethods().add(methodRule("B", "按档位扩展投放"));
+        properties.getExtensionTypes().add(extensionRule("1", "档位+区县"));
+        properties.getExtensionTypes().add(extensionRule("2", "档位+市场类型"));
+        properties.getRegionTypes().add(regionRule(DeliveryExtensionType.COUNTY, "Q1", "城区", "Q2", "丹江"));
+        properties.getRegionTypes().add(regionRule(DeliveryExtensionType.MARKET_TYPE, "M1", "城网", "M2", "农网"));
+        repository = new EncodingRuleRepository(properties);
+        repository.initialize();
+        encodeService = new EncodeServiceImpl(repository);
+    }
+
+    @Test
+    void 全区域编码与逐区域编码一致() {
+        List<CigaretteDistributionPredictionPO> records = new ArrayList<>();
+        String[] areas = {"城区（城网）", "丹江（农网）", "丹江（城网）", "未知（城网）", "城区（城网）"};
+        for (int i = 0; i < areas.length; i++) {
+            records.add(record(areas[i], i + 1, i == 1 ? "优质数据共享客户" : null));
+        }
+
+        Map<String, String> encoded = encodeService.encodeAllAreas(
+                "001", "测试烟", "按档位扩展投放", "档位+区县+市场类型", records);
+
+        assertEquals(4, encoded.size());
+        for (String area : new LinkedHashSet<>(Arrays.asList(areas))) {
+            assertEquals(encodeService.encodeForSpecificArea(
+                    "001", "测试烟", "按档位扩展投放", "档位+区县+市场类型", area, records), encoded.get(area));
+        }
+        assertTrue(encoded.get("丹江（农网）").startsWith("B1-2+a（Q2 +M2）"));
+        // 同一区域取第一条记录
+        assertTrue(encoded.get("城区（城网）").endsWith("（30×1）"));
+    }
+
+    @Test
+    void 无法编码投放方式时返回空结果() {
+        List<CigaretteDistributionPredictionPO> records = Collections.singletonList(record("全市", 1, null));
+        assertTrue(encodeService.encodeAllAreas("001", "测试烟", "未知投放", null, records).isEmpty());
+        assertEquals("", encodeService.encodeForSpecificArea("001", "测试烟", "未知投放", null, "全市", records));
+    }
+
+    @Test
+    void reload后使用新的区域编码() {
+        List<CigaretteDistributionPredictionPO> records = Collections.singletonList(record("城区", 2, null));
+        assertEquals("B1（Q1）（30×2）", encodeService.encodeForSpecificArea(
+                "001", "测试烟", "按档位扩展投放", "档位+区县", "城区", records));
+
+        properties.getRegionTypes().set(0, regionRule(DeliveryExtensionType.COUNTY, "Q9", "城区", "Q2", "丹江"));
+        encodeService.reload();
+
+        assertEquals("B1（Q9）（30×2）", encodeService.encodeAllAreas(
+                "001", "测试烟", "按档位扩展投放", "档位+区县", records).get("城区"));
+    }
+
+    private static CigaretteDistributionPredictionPO record(String area, int grade, String tag) {
+        CigaretteDistributionPredictionPO record = new CigaretteDistributionPredictionPO();
+        record.setDeliveryArea(area);
+        record.setTag(tag);
+        BigDecimal[] grades = new BigDecimal[30];
+        Arrays.fill(grades, BigDecimal.valueOf(grade));
+        WriteBackHelper.setGradesToEntity(record, grades);
+        return record;
+    }
+
+    private static EncodingRuleProperties.DeliveryMethodRule methodRule(String code, String label) {
+        EncodingRuleProperties.DeliveryMethodRule rule = new EncodingRuleProperties.DeliveryMethodRule();
+        rule.setCode(code);
+        rule.getLabels().add(label);
+        return rule;
+    }
+
+    private static EncodingRuleProperties.ExtensionTypeRule extensionRule(String code, String label) {
+        EncodingRuleProperties.ExtensionTypeRule rule = new EncodingRuleProperties.ExtensionTypeRule();
+        rule.setCode(code);
+        rule.getLabels().add(label);
+        return rule;
+    }
+
+    private static EncodingRuleProperties.RegionTypeRule regionRule(DeliveryExtensionType type, String... codeLabels) {
+        EncodingRuleProperties.RegionTypeRule rule = new EncodingRuleProperties.RegionTypeRule();
+        rule.setType(type);
+        for (int i = 0; i < codeLabels.length; i += 2) {
+            EncodingRuleProperties.RegionEntry entry = new EncodingRuleProperties.RegionEntry();
+            entry.setCode(codeLabels[i]);
+            entry.getLabels().add(codeLabels[i + 1]);
+            rule.getEntries().add(entry);
+        }
+        return rule;
+    }
+}
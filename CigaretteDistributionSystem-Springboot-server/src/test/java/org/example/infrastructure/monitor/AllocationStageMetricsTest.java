@@ -0,0 +1,76 @@
+package org.example.infrastructure.monitor;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.example.shared.util.PartitionDdlTimer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 分阶段耗时指标测试：标签只含有限取值，且可按 Prometheus 文本格式导出直方图。
+ */
+class AllocationStageMetricsTest {
+
+    @Test
+    void 算法耗时同时计入算法阶段与算法类型计时器() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AllocationStageMetrics metrics = new AllocationStageMetrics(registry);
+
+        assertEquals("ok", metrics.recordAlgorithm("SINGLE_LEVEL", () -> "ok"));
+        metrics.recordAlgorithm("COLUMN_WISE", () -> null);
+        metrics.record(AllocationStageMetrics.Stage.ENCODING, () -> { });
+
+        Timer algorithmStage = registry.get(AllocationStageMetrics.METRIC_STAGE_DURATION)
+                .tag("stage", "algorithm").timer();
+        assertEquals(2, algorithmStage.count());
+        assertEquals(1, registry.get(AllocationStageMetrics.METRIC_ALGORITHM_DURATION)
+                .tag("algorithm", "SINGLE_LEVEL").timer().count());
+        assertEquals(1, registry.get(AllocationStageMetrics.METRIC_STAGE_DURATION)
+                .tag("stage", "encoding").timer().count());
+        // 阶段计时器在构造时全部注册，未执行的阶段计数为0
+        assertEquals(0, registry.get(AllocationStageMetrics.METRIC_STAGE_DURATION)
+                .tag("stage", "partition_ddl").timer().count());
+    }
+
+    @Test
+    void 分区DDL计入partition_ddl阶段() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PartitionDdlTimer timer = new AllocationStageMetrics(registry);
+        int[] executed = {0};
+
+        timer.timeDdl(() -> executed[0]++);
+
+        assertEquals(1, executed[0]);
+        assertEquals(1, registry.get(AllocationStageMetrics.METRIC_STAGE_DURATION)
+                .tag("stage", "partition_ddl").timer().count());
+    }
+
+    @Test
+    void 阶段失败时仍记录耗时并抛出原异常() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AllocationStageMetrics metrics = new AllocationStageMetrics(registry);
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> metrics.recordAlgorithm("GROUP_SPLITTING", () -> {
+                    throw new IllegalStateException("boom");
+                }));
+        assertEquals("boom", ex.getMessage());
+        assertEquals(1, registry.get(AllocationStageMetrics.METRIC_ALGORITHM_DURATION)
+                .tag("algorithm", "GROUP_SPLITTING").timer().count());
+    }
+
+    @Test
+    void Prometheus文本格式导出阶段直方图() {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        AllocationStageMetrics metrics = new AllocationStageMetrics(registry);
+        metrics.record(AllocationStageMetrics.Stage.WRITE_BACK, () -> { });
+        metrics.recordAlgorithm("SINGLE_LEVEL", () -> null);
+
+        String scrape = registry.scrape();
+        assertTrue(scrape.contains("distribution_stage_duration_seconds_bucket{stage=\"write_back\""));
+        assertTrue(scrape.contains("distribution_algorithm_duration_seconds_count{algorithm=\"SINGLE_LEVEL\""));
+    }
+}
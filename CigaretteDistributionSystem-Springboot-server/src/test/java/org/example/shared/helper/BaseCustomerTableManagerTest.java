@@ -0,0 +1,130 @@
+package org.example.shared.helper;
+
+import org.example.domain.repository.BaseCustomerInfoRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 客户基础信息按批写入器单元测试（内存版仓储记录每次多行 INSERT）。
+ */
+class BaseCustomerTableManagerTest {
+
+    private static final List<String> COLUMNS = Arrays.asList("ID", "CUST_CODE", "GRADE", "优质客户");
+
+    private final RecordingRepository repository = new RecordingRepository();
+    private final BaseCustomerTableManager manager = new BaseCustomerTableManager(repository);
+
+    @Test
+    void 攒满批次时写库且结束时写入剩余行() {
+        BaseCustomerTableManager.BatchWriter writer = manager.openBatchWriter(COLUMNS, "CUST_CODE", 3);
+
+        for (int i = 0; i < 3; i++) {
+            writer.add(row("C" + i, "D" + (i + 1)));
+        }
+        assertEquals(Collections.singletonList(3), repository.batchSizes);
+
+        for (int i = 3; i < 7; i++) {
+            writer.add(row("C" + i, "D" + (i + 1)));
+        }
+        assertEquals(Arrays.asList(3, 3), repository.batchSizes);
+
+        BaseCustomerTableManager.BaseCustomerImportStats stats = writer.finish();
+        assertEquals(Arrays.asList(3, 3, 1), repository.batchSizes);
+        assertEquals(7, stats.getProcessedCount());
+        assertEquals(7, stats.getInsertedCount());
+
+        // 再次 finish 不会写空批次
+        writer.finish();
+        assertEquals(3, repository.batchSizes.size());
+    }
+
+    @Test
+    void 插入列过滤ID与中文列并把动态标签写入JSON() {
+        BaseCustomerTableManager.BatchWriter writer = manager.openBatchWriter(COLUMNS, "CUST_CODE", 10);
+        Map<String, Object> tagged = row("C1", "D30");
+        tagged.put("优质客户", "是");
+        writer.add(tagged);
+        writer.add(row("   ", "D1"));
+        writer.add(row(null, "D2"));
+
+        BaseCustomerTableManager.BaseCustomerImportStats stats = writer.finish();
+
+        assertEquals(Arrays.asList("CUST_CODE", "GRADE", "DYNAMIC_TAGS"), repository.lastColumns);
+        assertEquals(Collections.singletonList(1), repository.batchSizes);
+        List<Object> values = repository.rows.get(0);
+        assertEquals("C1", values.get(0));
+        assertEquals("D30", values.get(1));
+        assertEquals("{\"优质客户\":\"是\"}", values.get(2));
+        assertEquals(1, stats.getProcessedCount());
+    }
+
+    @Test
+    void 缺少必填列时拒绝打开写入器() {
+        assertThrows(IllegalStateException.class,
+                () -> manager.openBatchWriter(Arrays.asList("GRADE"), "CUST_CODE", 10));
+        assertTrue(repository.batchSizes.isEmpty());
+    }
+
+    @Test
+    void 整表插入复用按批写入器() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            rows.add(row("C" + i, "D1"));
+        }
+
+        BaseCustomerTableManager.BaseCustomerImportStats stats = manager.insertAll(COLUMNS, rows, "CUST_CODE");
+
+        assertEquals(Arrays.asList(1000, 1000, 500), repository.batchSizes);
+        assertEquals(2500, stats.getInsertedCount());
+    }
+
+    private static Map<String, Object> row(String custCode, String grade) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("CUST_CODE", custCode);
+        row.put("GRADE", grade);
+        return row;
+    }
+
+    private static final class RecordingRepository implements BaseCustomerInfoRepository {
+        private final List<Integer> batchSizes = new ArrayList<>();
+        private final List<List<Object>> rows = new ArrayList<>();
+        private List<String> lastColumns;
+
+        @Override
+        public void dropTable() {
+        }
+
+        @Override
+        public void createTable(List<String> columnOrder, Map<String, String> columnDefinitions,
+                                String defaultColumnDefinition) {
+        }
+
+        @Override
+        public int insertRow(List<String> columns, Map<String, Object> row) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int batchInsertRows(List<String> columns, List<List<Object>> batch) {
+            lastColumns = new ArrayList<>(columns);
+            batchSizes.add(batch.size());
+            for (List<Object> values : batch) {
+                rows.add(new ArrayList<>(values));
+            }
+            return batch.size();
+        }
+
+        @Override
+        public List<Map<String, Object>> selectGroupNameStatistics() {
+            return Collections.emptyList();
+        }
+    }
+}
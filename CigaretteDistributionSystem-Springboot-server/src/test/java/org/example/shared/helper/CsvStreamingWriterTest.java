@@ -0,0 +1,63 @@
+package org.example.shared.helper;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * gzip CSV 流式写出器单元测试。
+ */
+class CsvStreamingWriterTest {
+
+    @Test
+    void 写出带BOM的gzip_CSV并按规则转义() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CsvStreamingWriter writer = new CsvStreamingWriter(out)) {
+            writer.writeRow(new Object[]{"cig_code", "delivery_area", "D30", "bz"});
+            writer.writeRow(new Object[]{"42020181", "丹江（城网）", new BigDecimal("1E+1"), "含,逗号"});
+            writer.writeRow(new Object[]{"42020182", null, BigDecimal.ZERO, "引号\"与\n换行"});
+            writer.finish();
+        }
+
+        assertEquals("\uFEFFcig_code,delivery_area,D30,bz\r\n"
+                        + "42020181,丹江（城网）,10,\"含,逗号\"\r\n"
+                        + "42020182,,0,\"引号\"\"与\n换行\"\r\n",
+                gunzip(out.toByteArray()));
+    }
+
+    @Test
+    void 复用同一数组逐行写出() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Object[] values = new Object[2];
+        try (CsvStreamingWriter writer = new CsvStreamingWriter(out)) {
+            for (int i = 0; i < 3; i++) {
+                values[0] = "C" + i;
+                values[1] = i;
+                writer.writeRow(values);
+            }
+            writer.finish();
+        }
+
+        assertEquals("\uFEFFC0,0\r\nC1,1\r\nC2,2\r\n", gunzip(out.toByteArray()));
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                decoded.write(buffer, 0, n);
+            }
+            return new String(decoded.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package org.example.shared.helper;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * xlsx 流式读取器单元测试（与 {@link XSSFWorkbook} + {@link ExcelParseHelper#getCellValue} 的取值对比）。
+ */
+class ExcelStreamingReaderTest {
+
+    @Test
+    void 共享字符串与内联字符串读取结果一致() throws IOException {
+        File shared = writeWorkbook(new XSSFWorkbook(), ExcelStreamingReaderTest::fillStrings);
+        File inline = writeWorkbook(new SXSSFWorkbook(), ExcelStreamingReaderTest::fillStrings);
+        try {
+            // 前提：XSSFWorkbook 写共享字符串，SXSSFWorkbook 默认写内联字符串
+            assertTrue(sheetXml(shared).contains("t=\"s\""));
+            assertTrue(sheetXml(inline).contains("t=\"inlineStr\""));
+
+            for (File file : Arrays.asList(shared, inline)) {
+                Map<Integer, List<Object>> rows = readAll(file);
+                assertEquals(Arrays.asList("CIG_CODE", "DELIVERY_AREA"), rows.get(0));
+                assertEquals(Arrays.asList("42010001", "全市"), rows.get(1));
+                assertEquals(Arrays.asList("42010002", "城区 & <郊区>"), rows.get(2));
+            }
+        } finally {
+            assertTrue(shared.delete());
+            assertTrue(inline.delete());
+        }
+    }
+
+    @Test
+    void 缺失单元格与缺失行按列号和行号对齐() throws IOException {
+        File file = writeWorkbook(new XSSFWorkbook(), workbook -> {
+            Sheet sheet = workbook.createSheet("data");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("A");
+            header.createCell(3).setCellValue("D");
+            header.createCell(27).setCellValue("AB");
+            // 第2行（下标1）整行缺失
+            Row sparse = sheet.createRow(2);
+            sparse.createCell(1).setCellValue("B3");
+        });
+        try {
+            Map<Integer, List<Object>> rows = readAll(file);
+            assertEquals(Arrays.asList(0, 2), new ArrayList<>(rows.keySet()));
+
+            List<Object> header = rows.get(0);
+            assertEquals(28, header.size());
+            assertEquals("A", header.get(0));
+            assertNull(header.get(1));
+            assertNull(header.get(2));
+            assertEquals("D", header.get(3));
+            assertEquals("AB", header.get(27));
+
+            assertEquals(Arrays.asList(null, "B3"), rows.get(2));
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
+
+    @Test
+    void 数值日期布尔与公式单元格与usermodel取值一致() throws IOException {
+        File file = writeWorkbook(new XSSFWorkbook(), workbook -> {
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+            Sheet sheet = workbook.createSheet("data");
+            Row row = sheet.createRow(0);
+            row.createCell(0).setCellValue(12.5);
+            row.createCell(1).setCellValue(3);
+            Cell date = row.createCell(2);
+            date.setCellValue(new Date(1_760_000_000_000L));
+            date.setCellStyle(dateStyle);
+            row.createCell(3).setCellValue(true);
+            row.createCell(4).setCellFormula("A1+B1");
+            // 未设置日期格式的数值即使落在 Excel 日期范围内也仍按数值读取
+            row.createCell(5).setCellValue(45000);
+        });
+        try {
+            List<Object> streamed = readAll(file).get(0);
+
+            List<Object> expected = new ArrayList<>();
+            try (Workbook workbook = new XSSFWorkbook(new FileInputStream(file))) {
+                Row row = workbook.getSheetAt(0).getRow(0);
+                for (int j = 0; j < row.getLastCellNum(); j++) {
+                    expected.add(ExcelParseHelper.getCellValue(row.getCell(j)));
+                }
+            }
+            assertEquals(expected, streamed);
+
+            assertEquals(0, new BigDecimal("12.5").compareTo((BigDecimal) streamed.get(0)));
+            assertEquals(0, new BigDecimal("3").compareTo((BigDecimal) streamed.get(1)));
+            assertTrue(streamed.get(2) instanceof Date);
+            assertEquals(Boolean.TRUE, streamed.get(3));
+            assertEquals("A1+B1", streamed.get(4));
+            assertTrue(streamed.get(5) instanceof BigDecimal);
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
+
+    @Test
+    void 卷烟信息表头缺失单元格被跳过() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Workbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("data");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("CIG_CODE");
+            header.createCell(2).setCellValue("CIG_NAME");
+            Row row = sheet.createRow(1);
+            row.createCell(0).setCellValue("42010001");
+            row.createCell(1).setCellValue("黄鹤楼");
+            row.createCell(2).setCellValue("多余列");
+            workbook.write(bytes);
+        }
+        MockMultipartFile file = new MockMultipartFile("file", "cigarette.xlsx",
+                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", bytes.toByteArray());
+
+        List<Map<String, Object>> rows = ExcelParseHelper.readCigaretteInfo(file);
+
+        // 与原 Row 迭代一致：表头只收集实际存在的单元格（其后的表头左移），数据列按位置对应
+        assertEquals(1, rows.size());
+        assertEquals(2, rows.get(0).size());
+        assertEquals("42010001", rows.get(0).get("CIG_CODE"));
+        assertEquals("黄鹤楼", rows.get(0).get("CIG_NAME"));
+        assertFalse(rows.get(0).containsKey(""));
+    }
+
+    private static void fillStrings(Workbook workbook) {
+        Sheet sheet = workbook.createSheet("data");
+        String[][] values = {
+                {"CIG_CODE", "DELIVERY_AREA"},
+                {"42010001", "全市"},
+                {"42010002", "城区 & <郊区>"}
+        };
+        for (int i = 0; i < values.length; i++) {
+            Row row = sheet.createRow(i);
+            for (int j = 0; j < values[i].length; j++) {
+                row.createCell(j).setCellValue(values[i][j]);
+            }
+        }
+    }
+
+    private static File writeWorkbook(Workbook workbook, WorkbookFiller filler) throws IOException {
+        File file = Files.createTempFile("excel-streaming-reader", ".xlsx").toFile();
+        try (Workbook wb = workbook; FileOutputStream out = new FileOutputStream(file)) {
+            filler.fill(wb);
+            wb.write(out);
+        }
+        if (workbook instanceof SXSSFWorkbook) {
+            ((SXSSFWorkbook) workbook).dispose();
+        }
+        return file;
+    }
+
+    private static Map<Integer, List<Object>> readAll(File file) throws IOException {
+        Map<Integer, List<Object>> rows = new LinkedHashMap<>();
+        ExcelStreamingReader.read(file, (rowIndex, cells) -> rows.put(rowIndex, cells));
+        return rows;
+    }
+
+    private static String sheetXml(File file) throws IOException {
+        try (ZipFile zip = new ZipFile(file)) {
+            ZipEntry entry = zip.getEntry("xl/worksheets/sheet1.xml");
+            assertNotNull(entry);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (InputStream in = zip.getInputStream(entry)) {
+                byte[] buffer = new byte[8192];
+                for (int n = in.read(buffer); n > 0; n = in.read(buffer)) {
+                    out.write(buffer, 0, n);
+                }
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @FunctionalInterface
+    private interface WorkbookFiller {
+        void fill(Workbook workbook);
+    }
+}
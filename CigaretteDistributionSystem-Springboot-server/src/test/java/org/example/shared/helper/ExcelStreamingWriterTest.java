@@ -0,0 +1,48 @@
+package org.example.shared.helper;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * xlsx 流式写出器单元测试（用 {@link ExcelStreamingReader} 回读）。
+ */
+class ExcelStreamingWriterTest {
+
+    @Test
+    void 超过内存行窗口的数据完整写出() throws IOException {
+        int dataRows = ExcelStreamingWriter.ROW_ACCESS_WINDOW * 3 + 7;
+        File file = Files.createTempFile("prediction-export", ".xlsx").toFile();
+        try {
+            try (ExcelStreamingWriter writer = new ExcelStreamingWriter(new FileOutputStream(file), "预测")) {
+                writer.writeRow(new Object[]{"cig_code", "delivery_area", "D30"});
+                for (int i = 0; i < dataRows; i++) {
+                    writer.writeRow(new Object[]{"C" + i, i % 2 == 0 ? "全市" : null, BigDecimal.valueOf(i)});
+                }
+                writer.finish();
+            }
+
+            List<List<Object>> rows = new ArrayList<>();
+            ExcelStreamingReader.read(file, (rowIndex, cells) -> rows.add(new ArrayList<>(cells)));
+
+            assertEquals(dataRows + 1, rows.size());
+            assertEquals("cig_code", rows.get(0).get(0));
+            assertEquals("C0", rows.get(1).get(0));
+            assertEquals("全市", rows.get(1).get(1));
+            assertNull(rows.get(2).get(1));
+            List<Object> last = rows.get(dataRows);
+            assertEquals("C" + (dataRows - 1), last.get(0));
+            assertEquals(0, BigDecimal.valueOf(dataRows - 1).compareTo((BigDecimal) last.get(2)));
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package org.example.shared.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 客户标签位图索引单元测试。
+ */
+class CustomerTagBitmapIndexTest {
+
+    private static final List<String> DIMENSIONS = Arrays.asList("COMPANY_DISTRICT", "MARKET_TYPE");
+    private static final Set<String> FIXED_TAGS = Collections.singleton("QUALITY_DATA_SHARE");
+
+    private CustomerTagBitmapIndex index() {
+        CustomerTagBitmapIndex.Builder builder = CustomerTagBitmapIndex.builder(DIMENSIONS, FIXED_TAGS);
+        builder.add("D30", "单周周一", new Object[]{"江汉", "城网"}, tags(1, "核心户", "是"));
+        builder.add("D30", "单周周一", new Object[]{"江汉", "城网"}, tags(1, "核心户", "是"));
+        builder.add("D1", "双周周二", new Object[]{"江汉", "农网"}, tags(0, "核心户", null));
+        builder.add("D15", "每周", new Object[]{"江岸 ", "城网"}, tags("", "核心户", "否"));
+        builder.add("D15", "每周", new Object[]{null, "城网"}, tags(null, "等级", 3));
+        builder.add(null, "每周", new Object[]{"江岸", "城网"}, tags(1, "等级", 5));
+        return builder.build();
+    }
+
+    @Test
+    void 维度等值过滤按原始档位分组() {
+        Map<String, String> filters = new HashMap<>();
+        filters.put("COMPANY_DISTRICT", "江汉");
+        Map<String, Long> counts = toCounts(index().statGrades(filters, null, null, null, null));
+        assertEquals(Long.valueOf(2), counts.get("D30"));
+        assertEquals(Long.valueOf(1), counts.get("D1"));
+        assertEquals(2, counts.size());
+
+        filters.put("COMPANY_DISTRICT", "江岸");
+        counts = toCounts(index().statGrades(filters, null, null, null, null));
+        assertEquals(Long.valueOf(1), counts.get("D15"));
+        assertEquals(Long.valueOf(1), counts.get(null));
+
+        filters.put("COMPANY_DISTRICT", "不存在");
+        assertTrue(index().statGrades(filters, null, null, null, null).isEmpty());
+    }
+
+    @Test
+    void 标签比较区分固定列与动态标签且NULL不命中() {
+        CustomerTagBitmapIndex index = index();
+        assertEquals(2L, total(index.statGrades(null, "核心户", "=", "是", null)));
+        assertEquals(1L, total(index.statGrades(null, "核心户", "<>", "是", null)));
+        assertEquals(3L, total(index.statGrades(null, "QUALITY_DATA_SHARE", "=", 1, null)));
+        // 动态标签存为 JSON 字符串：与数值比较时字符串恒大于数值
+        assertEquals(0L, total(index.statGrades(null, "等级", "=", 5, null)));
+        assertEquals(2L, total(index.statGrades(null, "等级", ">", 4, null)));
+        assertEquals(0L, total(index.statGrades(null, "等级", "<", 4, null)));
+        assertEquals(1L, total(index.statGrades(null, "等级", ">", "4", null)));
+        assertEquals(0L, total(index.statGrades(null, "不存在的标签", "=", "是", null)));
+    }
+
+    @Test
+    void 订单周期按LIKE模式过滤() {
+        CustomerTagBitmapIndex index = index();
+        assertEquals(2L, total(index.statGrades(null, null, null, null, "%周%一%")));
+        assertEquals(3L, total(index.statGrades(null, null, null, null, "每周")));
+        assertEquals(6L, total(index.statGrades(null, null, null, null, "")));
+    }
+
+    @Test
+    void 标签存在性计数() {
+        CustomerTagBitmapIndex index = index();
+        // 固定标签：空字符串与 NULL 视为无标签
+        assertEquals(4L, index.countTagged("QUALITY_DATA_SHARE"));
+        // 动态标签：键存在即可（值为 null 也计入）
+        assertEquals(4L, index.countTagged("核心户"));
+        assertEquals(2L, index.countTagged("等级"));
+        assertEquals(0L, index.countTagged("不存在的标签"));
+        assertEquals(6, index.getCustomerCount());
+    }
+
+    @Test
+    void 不支持的查询交由SQL处理() {
+        CustomerTagBitmapIndex index = index();
+        assertFalse(index.supports(Collections.singletonMap("GROUP_NAME", "A"), null, null, null));
+        assertFalse(index.supports(null, "核心户", "LIKE", "是"));
+        assertTrue(index.supports(null, "核心户", "LIKE", null));
+        assertThrows(IllegalArgumentException.class,
+                () -> index.statGrades(Collections.singletonMap("GROUP_NAME", "A"), null, null, null, null));
+    }
+
+    @Test
+    void 随机数据与逐行求值结果一致() {
+        Random random = new Random(20261016L);
+        String[] districts = {"江汉", "江岸", "武昌", null};
+        String[] markets = {"城网", "农网"};
+        String[] cycles = {"单周周一", "双周周二", "每周"};
+        String[] grades = {"D30", "D20", "D1", "异常", null};
+        String[] levels = {"A", "B", "C"};
+        List<Object[]> rows = new ArrayList<>();
+        CustomerTagBitmapIndex.Builder builder = CustomerTagBitmapIndex.builder(DIMENSIONS, FIXED_TAGS);
+        for (int i = 0; i < 2000; i++) {
+            Object[] dims = {districts[random.nextInt(districts.length)], markets[random.nextInt(markets.length)]};
+            String grade = grades[random.nextInt(grades.length)];
+            String cycle = cycles[random.nextInt(cycles.length)];
+            Object level = random.nextInt(5) == 0 ? null : levels[random.nextInt(levels.length)];
+            Map<String, Object> tags = new HashMap<>();
+            if (random.nextBoolean()) {
+                tags.put("等级", level);
+            }
+            builder.add(grade, cycle, dims, tags);
+            rows.add(new Object[]{grade, cycle, dims[0], dims[1], tags});
+        }
+        CustomerTagBitmapIndex index = builder.build();
+
+        for (String district : new String[]{"江汉", "武昌"}) {
+            for (String op : new String[]{"=", "<>", ">="}) {
+                for (String pattern : new String[]{null, "%周一", "每周"}) {
+                    Map<String, String> filters = Collections.singletonMap("COMPANY_DISTRICT", district);
+                    Map<String, Long> expected = new HashMap<>();
+                    for (Object[] row : rows) {
+                        @SuppressWarnings("unchecked")
+                        Object level = ((Map<String, Object>) row[4]).get("等级");
+                        boolean hit = district.equals(row[2])
+                                && GradeAggregationCube.compare(GradeAggregationCube.normalize(level), op, "B", true)
+                                && (pattern == null || GradeAggregationCube.like((String) row[1], pattern));
+                        if (hit) {
+                            expected.merge((String) row[0], 1L, Long::sum);
+                        }
+                    }
+                    assertEquals(expected, toCounts(index.statGrades(filters, "等级", op, "B", pattern)),
+                            district + " " + op + " " + pattern);
+                }
+            }
+        }
+    }
+
+    private static Map<String, Object> tags(Object share, String key, Object value) {
+        Map<String, Object> tags = new HashMap<>();
+        tags.put("QUALITY_DATA_SHARE", share);
+        tags.put(key, value);
+        return tags;
+    }
+
+    private static Map<String, Long> toCounts(List<Map<String, Object>> rows) {
+        Map<String, Long> counts = new HashMap<>();
+        for (Map<String, Object> row : rows) {
+            counts.put((String) row.get("GRADE"), (Long) row.get("CUSTOMER_COUNT"));
+        }
+        return counts;
+    }
+
+    private static long total(List<Map<String, Object>> rows) {
+        long sum = 0;
+        for (Map<String, Object> row : rows) {
+            sum += (Long) row.get("CUSTOMER_COUNT");
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.shared.util;
+
+import org.example.domain.model.tag.TagFilter;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 档位聚合立方体单元测试。
+ */
+class GradeAggregationCubeTest {
+
+    private GradeAggregationCube cube() {
+        GradeAggregationCube.Builder builder = GradeAggregationCube.builder(
+                Arrays.asList("COMPANY_DISTRICT", "MARKET_TYPE"),
+                Arrays.asList("QUALITY_DATA_SHARE", "核心户"));
+        builder.add(new Object[]{"江汉", "城网"}, new Object[]{1, "是"}, "单周周一", "D30", 3);
+        builder.add(new Object[]{"江汉", "城网"}, new Object[]{1, "是"}, "单周周一", "三十档", 2);
+        builder.add(new Object[]{"江汉", "农网"}, new Object[]{0, null}, "双周周二", "D1", 5);
+        builder.add(new Object[]{"江岸 ", "城网"}, new Object[]{new BigDecimal("1.0"), "否"}, "每周", "D15", 7);
+        builder.add(new Object[]{null, "城网"}, new Object[]{null, null}, "每周", "D15", 11);
+        builder.add(new Object[]{"江岸", "城网"}, new Object[]{1, "是"}, "每周", "D31", 13);
+        return builder.build();
+    }
+
+    @Test
+    void 无过滤时汇总全部可解析档位() {
+        long[] counts = cube().sumGrades(Collections.emptyMap(), null, null);
+        assertEquals(5, counts[0]);
+        assertEquals(5, counts[29]);
+        assertEquals(18, counts[15]);
+        assertEquals(28, Arrays.stream(counts).sum());
+    }
+
+    @Test
+    void 维度等值过滤与NULL不命中() {
+        Map<String, String> filters = new HashMap<>();
+        filters.put("COMPANY_DISTRICT", "江岸");
+        filters.put("MARKET_TYPE", "城网");
+        long[] counts = cube().sumGrades(filters, null, null);
+        assertEquals(7, Arrays.stream(counts).sum());
+
+        filters.put("COMPANY_DISTRICT", "不存在");
+        assertEquals(0, Arrays.stream(cube().sumGrades(filters, null, null)).sum());
+    }
+
+    @Test
+    void 标签规则按比较符求值() {
+        GradeAggregationCube cube = cube();
+        TagFilter share = new TagFilter("优质数据共享客户", "QUALITY_DATA_SHARE", "=", "true", TagFilter.ValueType.BOOLEAN);
+        assertEquals(12, Arrays.stream(cube.sumGrades(null, share, null)).sum());
+
+        TagFilter notCore = new TagFilter("非核心户", "核心户", "<>", "是", TagFilter.ValueType.STRING);
+        assertEquals(7, Arrays.stream(cube.sumGrades(null, notCore, null)).sum());
+
+        TagFilter nameOnly = new TagFilter("仅拼接名称", null, "=", null, TagFilter.ValueType.STRING);
+        assertTrue(cube.supports(null, nameOnly));
+        assertEquals(28, Arrays.stream(cube.sumGrades(null, nameOnly, null)).sum());
+    }
+
+    @Test
+    void 动态标签为JSON字符串数值规则按类型优先级求值() {
+        GradeAggregationCube.Builder builder = GradeAggregationCube.builder(
+                Collections.singletonList("COMPANY_DISTRICT"), Arrays.asList("QUALITY_DATA_SHARE", "等级"));
+        builder.add(new Object[]{"江汉"}, new Object[]{"1", "3"}, "每周", "D30", 2);
+        builder.add(new Object[]{"江汉"}, new Object[]{"0", "5"}, "每周", "D1", 3);
+        GradeAggregationCube cube = builder.build();
+
+        // 固定标签列：普通列比较，字符串按数值比较
+        assertEquals(2, Arrays.stream(cube.sumGrades(null,
+                new TagFilter("t", "QUALITY_DATA_SHARE", "=", "1", TagFilter.ValueType.NUMBER), null)).sum());
+        // 动态标签：JSON 字符串与 JSON 数值类型不同，字符串恒大于数值
+        assertEquals(0, Arrays.stream(cube.sumGrades(null,
+                new TagFilter("t", "等级", "=", "3", TagFilter.ValueType.NUMBER), null)).sum());
+        assertEquals(0, Arrays.stream(cube.sumGrades(null,
+                new TagFilter("t", "等级", "<", "100", TagFilter.ValueType.NUMBER), null)).sum());
+        assertEquals(5, Arrays.stream(cube.sumGrades(null,
+                new TagFilter("t", "等级", ">", "100", TagFilter.ValueType.NUMBER), null)).sum());
+        assertEquals(5, Arrays.stream(cube.sumGrades(null,
+                new TagFilter("t", "等级", "<>", "3", TagFilter.ValueType.NUMBER), null)).sum());
+        assertEquals(0, Arrays.stream(cube.sumGrades(null,
+                new TagFilter("t", "等级", "=", "true", TagFilter.ValueType.BOOLEAN), null)).sum());
+        // 动态标签按字符串规则比较时逐字节比较
+        assertEquals(2, Arrays.stream(cube.sumGrades(null,
+                new TagFilter("t", "等级", "=", "3", TagFilter.ValueType.STRING), null)).sum());
+        assertEquals(3, Arrays.stream(cube.sumGrades(null,
+                new TagFilter("t", "等级", ">", "4", TagFilter.ValueType.STRING), null)).sum());
+    }
+
+    @Test
+    void 订单周期按LIKE模式过滤() {
+        assertEquals(5, Arrays.stream(cube().sumGrades(null, null, "单周%")).sum());
+        assertEquals(5, Arrays.stream(cube().sumGrades(null, null, "双周_二")).sum());
+        assertTrue(GradeAggregationCube.like("每周", "%"));
+        assertFalse(GradeAggregationCube.like(null, "%"));
+    }
+
+    @Test
+    void 未聚合的列或比较符不受支持() {
+        GradeAggregationCube cube = cube();
+        assertFalse(cube.supports(Collections.singletonMap("CUST_FORMAT", "便利店"), null));
+        assertFalse(cube.supports(null, new TagFilter("t", "未聚合标签", "=", "是", TagFilter.ValueType.STRING)));
+        assertFalse(cube.supports(null, new TagFilter("t", "核心户", "LIKE", "是", TagFilter.ValueType.STRING)));
+        assertThrows(IllegalArgumentException.class,
+                () -> cube.sumGrades(Collections.singletonMap("CUST_FORMAT", "便利店"), null, null));
+    }
+
+    @Test
+    void 无法解析的档位单独记录() {
+        assertEquals(Collections.singletonMap("D31", 13L), cube().getUnparsedGrades());
+    }
+}
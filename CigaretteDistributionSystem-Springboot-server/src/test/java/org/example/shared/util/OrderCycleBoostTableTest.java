@@ -0,0 +1,110 @@
+package org.example.shared.util;
+
+import org.example.domain.model.tag.TagFilter;
+import org.example.domain.model.valueobject.DeliveryExtensionType;
+import org.example.shared.util.OrderCycleMatrixCalculator.OrderCycleType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * “两周一访上浮100%”周级预计算表单元测试。
+ */
+class OrderCycleBoostTableTest {
+
+    @Test
+    void 按订单周期识别单双周() {
+        assertEquals(EnumSet.of(OrderCycleType.SINGLE, OrderCycleType.DOUBLE),
+                OrderCycleBoostTable.fromOrderCycles(Arrays.asList("单周周一", null, "双周周二", "每周")).getBoostTypes());
+        assertEquals(EnumSet.of(OrderCycleType.DOUBLE),
+                OrderCycleBoostTable.fromOrderCycles(Collections.singletonList("双周周三")).getBoostTypes());
+        assertTrue(OrderCycleBoostTable.fromOrderCycles(null).getBoostTypes().isEmpty());
+    }
+
+    @Test
+    void 相同投放组合只计算一次增量() {
+        OrderCycleBoostTable table = OrderCycleBoostTable.fromOrderCycles(Collections.singletonList("单周周一"));
+        AtomicInteger loads = new AtomicInteger();
+        List<TagFilter> tags = Collections.singletonList(
+                new TagFilter("优质数据共享客户", "QUALITY_DATA_SHARE", "=", "1", TagFilter.ValueType.NUMBER));
+
+        Map<String, long[]> first = table.getDeltas(strategy(DeliveryExtensionType.COUNTY), tags, OrderCycleType.SINGLE,
+                () -> increments(loads, "江汉区", 3));
+        Map<String, long[]> second = table.getDeltas(strategy(DeliveryExtensionType.COUNTY),
+                Collections.singletonList(new TagFilter("优质数据共享客户", "QUALITY_DATA_SHARE", "=", "1", TagFilter.ValueType.NUMBER)),
+                OrderCycleType.SINGLE, () -> increments(loads, "江汉区", 99));
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(3L, first.get("江汉区")[0]);
+        assertEquals(0L, first.get("江汉区")[29]);
+        assertEquals(30, first.get("江汉区").length);
+
+        // 标签、单双周或扩展类型不同则分别计算
+        table.getDeltas(strategy(DeliveryExtensionType.COUNTY), null, OrderCycleType.SINGLE, () -> increments(loads, "江汉区", 1));
+        table.getDeltas(strategy(DeliveryExtensionType.COUNTY), tags, OrderCycleType.DOUBLE, () -> increments(loads, "江汉区", 1));
+        table.getDeltas(strategy(DeliveryExtensionType.MARKET_TYPE), tags, OrderCycleType.SINGLE, () -> increments(loads, "城网", 1));
+        assertEquals(4, loads.get());
+        assertEquals(4, table.size());
+    }
+
+    @Test
+    void 缓存按分区失效() {
+        OrderCycleBoostTableCache cache = new OrderCycleBoostTableCache();
+        AtomicInteger loads = new AtomicInteger();
+        OrderCycleBoostTable first = cache.get(2025, 9, 3, () -> cycles(loads));
+        assertSame(first, cache.get(2025, 9, 3, () -> cycles(loads)));
+        assertEquals(1, loads.get());
+
+        cache.invalidate(2025, 9, 3);
+        assertNotSame(first, cache.get(2025, 9, 3, () -> cycles(loads)));
+        assertEquals(2, loads.get());
+
+        cache.get(2025, 10, 1, () -> cycles(loads));
+        cache.invalidateYear(2025);
+        cache.get(2025, 10, 1, () -> cycles(loads));
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void 加载期间分区失效时不写回旧表() {
+        OrderCycleBoostTableCache cache = new OrderCycleBoostTableCache();
+        AtomicInteger loads = new AtomicInteger();
+        // 模拟加载读取旧分区数据的同时分区被重建并失效
+        OrderCycleBoostTable stale = cache.get(2025, 9, 3, () -> {
+            cache.invalidate(2025, 9, 3);
+            return cycles(loads);
+        });
+        assertEquals(EnumSet.of(OrderCycleType.SINGLE), stale.getBoostTypes());
+
+        OrderCycleBoostTable fresh = cache.get(2025, 9, 3, () -> cycles(loads));
+        assertNotSame(stale, fresh);
+        assertEquals(2, loads.get());
+        assertSame(fresh, cache.get(2025, 9, 3, () -> cycles(loads)));
+        assertEquals(2, loads.get());
+    }
+
+    private static CombinationStrategyAnalyzer.CombinationStrategy strategy(DeliveryExtensionType type) {
+        CombinationStrategyAnalyzer.CombinationStrategy strategy = new CombinationStrategyAnalyzer.CombinationStrategy();
+        strategy.mode = CombinationStrategyAnalyzer.CombinationMode.EXTENSION;
+        strategy.extensionTypes = new ArrayList<>(Collections.singletonList(type));
+        return strategy;
+    }
+
+    private static Map<String, BigDecimal[]> increments(AtomicInteger loads, String region, int d30) {
+        loads.incrementAndGet();
+        BigDecimal[] grades = new BigDecimal[30];
+        Arrays.fill(grades, BigDecimal.ZERO);
+        grades[0] = BigDecimal.valueOf(d30);
+        return Collections.singletonMap(region, grades);
+    }
+
+    private static List<String> cycles(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return Collections.singletonList("单周周一");
+    }
+}
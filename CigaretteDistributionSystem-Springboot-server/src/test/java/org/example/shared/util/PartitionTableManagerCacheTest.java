@@ -0,0 +1,155 @@
+package org.example.shared.util;
+
+import org.example.infrastructure.persistence.mapper.AdminMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 分区元数据缓存单元测试（使用内存版 AdminMapper 模拟 information_schema）。
+ */
+class PartitionTableManagerCacheTest {
+
+    private static final String TABLE = "cigarette_distribution_prediction";
+
+    private FakeAdminMapper adminMapper;
+    private PartitionTableManager manager;
+
+    @BeforeEach
+    void setUp() {
+        adminMapper = new FakeAdminMapper();
+        adminMapper.partitions.put("p_2025121", 20251202);
+        adminMapper.partitions.put("p_future", null);
+        manager = new PartitionTableManager(adminMapper);
+    }
+
+    @Test
+    void 分区已存在时只加载一次元数据() {
+        for (int i = 0; i < 50; i++) {
+            manager.ensurePartitionExists(TABLE, 2025, 12, 1);
+        }
+        assertEquals(1, adminMapper.metadataQueries);
+        assertTrue(adminMapper.executedSql.isEmpty());
+    }
+
+    @Test
+    void 创建分区后增量更新缓存() {
+        manager.ensurePartitionExists(TABLE, 2025, 12, 2);
+        assertEquals(1, adminMapper.executedSql.size());
+        assertTrue(adminMapper.executedSql.get(0).contains("PARTITION p_2025122 VALUES LESS THAN (20251203)"));
+        int queriesAfterCreate = adminMapper.metadataQueries;
+
+        manager.ensurePartitionExists(TABLE, 2025, 12, 2);
+        assertTrue(manager.partitionExists(TABLE, "p_2025122"));
+        assertEquals(queriesAfterCreate, adminMapper.metadataQueries);
+        assertEquals(1, adminMapper.executedSql.size());
+    }
+
+    @Test
+    void 早于最大分区值的分区拒绝创建() {
+        adminMapper.partitions.put("p_2026011", 20260102);
+        assertThrows(RuntimeException.class, () -> manager.ensurePartitionExists(TABLE, 2025, 12, 3));
+        assertTrue(adminMapper.executedSql.isEmpty());
+    }
+
+    @Test
+    void 按年删除分区后缓存失效() {
+        manager.ensurePartitionExists(TABLE, 2025, 12, 1);
+        assertEquals(1, manager.dropPartitionsByYear(TABLE, 2025));
+        assertFalse(manager.partitionExists(TABLE, "p_2025121"));
+        assertEquals(2, adminMapper.metadataQueries);
+    }
+
+    @Test
+    void 截断与删除分区成功后回调监听器() {
+        List<String> events = new ArrayList<>();
+        manager.addChangeListener(new PartitionChangeListener() {
+            @Override
+            public void onPartitionTruncated(String tableName, Integer year, Integer month, Integer weekSeq) {
+                events.add("truncate " + tableName + " " + year + "-" + month + "-" + weekSeq);
+            }
+
+            @Override
+            public void onPartitionsDropped(String tableName) {
+                events.add("drop " + tableName);
+            }
+        });
+
+        assertFalse(manager.truncatePartition(TABLE, 2025, 12, 4));
+        assertTrue(manager.truncatePartition(TABLE, 2025, 12, 1));
+        assertEquals(0, manager.dropPartitionsByYear(TABLE, 2024));
+        assertEquals(1, manager.dropPartitionsByYear(TABLE, 2025));
+
+        assertEquals(Arrays.asList("truncate " + TABLE + " 2025-12-1", "drop " + TABLE), events);
+    }
+
+    /**
+     * 内存版 AdminMapper：执行 REORGANIZE / DROP 时同步修改分区集合。
+     */
+    private static class FakeAdminMapper implements AdminMapper {
+        private final Map<String, Integer> partitions = new LinkedHashMap<>();
+        private final List<String> executedSql = new ArrayList<>();
+        private int metadataQueries;
+
+        @Override
+        public List<Map<String, Object>> listPartitionDescriptions(String tableName) {
+            metadataQueries++;
+            List<Map<String, Object>> rows = new ArrayList<>();
+            for (Map.Entry<String, Integer> entry : partitions.entrySet()) {
+                Map<String, Object> row = new HashMap<>();
+                row.put("PARTITION_NAME", entry.getKey());
+                row.put("PARTITION_DESCRIPTION", entry.getValue() == null ? "MAXVALUE" : String.valueOf(entry.getValue()));
+                rows.add(row);
+            }
+            return rows;
+        }
+
+        @Override
+        public void executeSql(String sql) {
+            executedSql.add(sql);
+            if (sql.contains("DROP PARTITION")) {
+                partitions.remove(sql.substring(sql.lastIndexOf(' ') + 1));
+            } else if (sql.contains("REORGANIZE PARTITION")) {
+                String[] parts = sql.split("PARTITION ")[2].split(" ");
+                String name = parts[0];
+                int boundary = Integer.parseInt(sql.replaceAll(".*LESS THAN \\((\\d+)\\).*", "$1"));
+                partitions.remove("p_future");
+                partitions.put(name, boundary);
+                partitions.put("p_future", null);
+            }
+        }
+
+        @Override
+        public List<String> listPartitions(String tableName) {
+            return new ArrayList<>(partitions.keySet());
+        }
+
+        @Override
+        public List<Map<String, Object>> listTableColumns(String tableName) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<Map<String, Object>> listLongRunningTransactions(int thresholdSeconds) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<Map<String, Object>> listMetadataLockWaits() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Integer countLongRunningTransactions(int thresholdSeconds) {
+            return 0;
+        }
+
+        @Override
+        public Integer countMetadataLockWaits() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.testsupport;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * 只实现被测代码实际调用的方法的接口替身。
+ * <p>
+ * 把接口调用转发给 {@code target} 上同名、同参数类型的方法（可为非 public），
+ * 未实现的方法抛出 {@link UnsupportedOperationException}，测试里不必再逐个手写空实现。
+ * </p>
+ */
+public final class PartialFake {
+
+    private PartialFake() {
+    }
+
+    /**
+     * 以 target 中已实现的方法构造 type 的替身。
+     *
+     * @param type   接口类型
+     * @param target 提供部分方法实现的对象
+     * @return 接口替身
+     */
+    public static <T> T of(Class<T> type, Object target) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return method.invoke(target, args);
+            }
+            Method implementation = findImplementation(target.getClass(), method);
+            if (implementation == null) {
+                throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            }
+            try {
+                return implementation.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+        return type.cast(proxy);
+    }
+
+    private static Method findImplementation(Class<?> targetClass, Method method) {
+        for (Class<?> c = targetClass; c != null && c != Object.class; c = c.getSuperclass()) {
+            try {
+                Method candidate = c.getDeclaredMethod(method.getName(), method.getParameterTypes());
+                candidate.setAccessible(true);
+                return candidate;
+            } catch (NoSuchMethodException ignored) {
+                // 继续在父类中查找
+            }
+        }
+        return null;
+    }
+}
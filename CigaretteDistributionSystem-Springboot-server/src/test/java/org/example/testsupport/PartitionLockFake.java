@@ -0,0 +1,34 @@
+package org.example.testsupport;
+
+import org.example.application.service.calculate.DistributionPlanJobService;
+import org.example.shared.exception.DistributionPlanJobConflictException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 分区互斥替身：只实现 {@link DistributionPlanJobService#runExclusively}，记录占用过的分区；
+ * {@link #busy} 为 true 时按分区已被分配任务占用处理。
+ */
+public final class PartitionLockFake {
+
+    /** 依次占用过的分区（year-month-weekSeq） */
+    public final List<String> occupied = new ArrayList<>();
+
+    /** 为 true 时 runExclusively 抛出 {@link DistributionPlanJobConflictException} */
+    public boolean busy;
+
+    public DistributionPlanJobService asService() {
+        return PartialFake.of(DistributionPlanJobService.class, this);
+    }
+
+    <T> T runExclusively(Integer year, Integer month, Integer weekSeq, Supplier<T> action) {
+        String key = year + "-" + month + "-" + weekSeq;
+        if (busy) {
+            throw new DistributionPlanJobConflictException(key, "running-job");
+        }
+        occupied.add(key);
+        return action.get();
+    }
+}